@@ -13,16 +13,20 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
+import org.opensearch.migrations.bulkload.common.AdaptiveBulkController;
 import org.opensearch.migrations.bulkload.common.DefaultSourceRepoAccessor;
 import org.opensearch.migrations.bulkload.common.DocumentReindexer;
 import org.opensearch.migrations.bulkload.common.FileSystemRepo;
 import org.opensearch.migrations.bulkload.common.OpenSearchClient;
 import org.opensearch.migrations.bulkload.common.OpenSearchClientFactory;
+import org.opensearch.migrations.bulkload.common.RestClient;
 import org.opensearch.migrations.bulkload.common.S3Repo;
 import org.opensearch.migrations.bulkload.common.S3Uri;
 import org.opensearch.migrations.bulkload.common.SnapshotShardUnpacker;
 import org.opensearch.migrations.bulkload.common.SourceRepo;
+import org.opensearch.migrations.bulkload.common.TokenBucketRateLimiter;
 import org.opensearch.migrations.bulkload.common.http.ConnectionContext;
+import org.opensearch.migrations.bulkload.common.http.HttpTransportSettings;
 import org.opensearch.migrations.bulkload.lucene.LuceneIndexReader;
 import org.opensearch.migrations.bulkload.models.IndexMetadata;
 import org.opensearch.migrations.bulkload.models.ShardMetadata;
@@ -31,12 +35,14 @@ import org.opensearch.migrations.bulkload.workcoordination.CoordinateWorkHttpCli
 import org.opensearch.migrations.bulkload.workcoordination.IWorkCoordinator;
 import org.opensearch.migrations.bulkload.workcoordination.LeaseExpireTrigger;
 import org.opensearch.migrations.bulkload.workcoordination.ScopedWorkCoordinator;
+import org.opensearch.migrations.bulkload.workcoordination.SharedRateLimitPoller;
 import org.opensearch.migrations.bulkload.workcoordination.WorkCoordinatorFactory;
 import org.opensearch.migrations.bulkload.workcoordination.WorkItemTimeProvider;
 import org.opensearch.migrations.bulkload.worker.DocumentsRunner;
 import org.opensearch.migrations.bulkload.worker.ShardWorkPreparer;
 import org.opensearch.migrations.bulkload.worker.WorkItemCursor;
 import org.opensearch.migrations.cluster.ClusterProviderRegistry;
+import org.opensearch.migrations.reindexer.FailedRequestsLogger;
 import org.opensearch.migrations.reindexer.tracing.RootDocumentMigrationContext;
 import org.opensearch.migrations.tracing.ActiveContextTracker;
 import org.opensearch.migrations.tracing.ActiveContextTrackerByActivityType;
@@ -103,6 +109,13 @@ public class RfsMigrateDocuments {
                 "--s3-local-dir, --s3-repo-uri, and --s3-region."))
         public String snapshotLocalDir = null;
 
+        @Parameter(required = false,
+            names = { "--snapshot-local-dir-link-blob-files", "--snapshotLocalDirLinkBlobFiles" },
+            description = ("Optional. With --snapshot-local-dir, link the Lucene files that the snapshot stores as "
+                + "single blobs into --lucene-dir and read them in place, instead of copying them.  The snapshot "
+                + "must stay readable, and unchanged, while documents are migrated."))
+        public boolean snapshotLocalDirLinkBlobFiles = false;
+
         @Parameter(required = false,
             names = { "--s3-local-dir", "--s3LocalDir" },
             description = ("The absolute path to the directory on local disk to download S3 files to.  " +
@@ -123,6 +136,12 @@ public class RfsMigrateDocuments {
                 + " also supply --s3-local-dir and --s3-repo-uri.  Mutually exclusive with --snapshot-local-dir."))
         public String s3Region = null;
 
+        @Parameter(required = false,
+            names = { "--s3-stream-blob-files", "--s3StreamBlobFiles" },
+            description = ("Optional. Fetch snapshot blob files from S3 as concurrent ranged reads that are written"
+                + " straight into the Lucene directory, instead of first downloading each shard to --s3-local-dir."))
+        public boolean s3StreamBlobFiles = false;
+
         @Parameter(required = true,
             names = { "--lucene-dir", "--luceneDir" },
             description = "The absolute path to the directory where we'll put the Lucene docs")
@@ -144,6 +163,13 @@ public class RfsMigrateDocuments {
                 "Useful for preventing disk overflow.  Default: 80 * 1024 * 1024 * 1024 (80 GB)"))
         public long maxShardSizeBytes = 80 * 1024 * 1024 * 1024L;
 
+        @Parameter(required = false,
+            names = { "--max-docs-per-shard-work-item", "--maxDocsPerShardWorkItem" },
+            description = ("Optional. The maximum number of documents (counted by Lucene doc id, including deleted " +
+                "docs) that a single worker migrates from a shard.  Larger shards are split into doc range work " +
+                "items, once unpacked, so that several workers can migrate them in parallel.  Default: no limit"))
+        public int maxDocsPerShardWorkItem = Integer.MAX_VALUE;
+
         @Parameter(required = false,
             names = { "--initial-lease-duration", "--initialLeaseDuration" },
             converter = DurationConverter.class,
@@ -177,6 +203,48 @@ public class RfsMigrateDocuments {
                 "used to communicate to the target, default 10")
         int maxConnections = 10;
 
+        @Parameter(required = false,
+            names = { "--target-http2", "--targetHttp2" },
+            description = "Optional.  Offer HTTP/2 to the target, so that concurrent bulk requests are multiplexed " +
+                "over the --max-connections connections.  Falls back to HTTP/1.1 when the target doesn't support " +
+                "it.  Default: false")
+        boolean targetHttp2 = false;
+
+        @Parameter(required = false,
+            names = { "--adaptive-bulk-requests", "--adaptiveBulkRequests" },
+            description = "Optional.  Adapt the size of bulk requests and the number of them in flight to the " +
+                "target's feedback (bulk latency, 429s and rejected executions).  The documents and size per bulk " +
+                "request and the max connections settings become the upper bounds.  Default: false")
+        boolean adaptiveBulkRequests = false;
+
+        @Parameter(required = false,
+            names = { "--target-bulk-latency", "--targetBulkLatency" },
+            converter = DurationConverter.class,
+            description = "Optional.  With --adaptive-bulk-requests, bulk requests that take longer than this are " +
+                "treated as a sign that the target is overloaded.  Default: PT10S")
+        Duration targetBulkLatency = Duration.ofSeconds(10);
+
+        @Parameter(required = false,
+            names = { "--max-docs-per-second", "--maxDocsPerSecond" },
+            description = "Optional.  The maximum number of documents per second that this worker sends to the " +
+                "target.  Default: no limit")
+        double maxDocsPerSecond = 0;
+
+        @Parameter(required = false,
+            names = { "--max-bytes-per-second", "--maxBytesPerSecond" },
+            description = "Optional.  The maximum number of document bytes per second that this worker sends to " +
+                "the target.  Default: no limit")
+        double maxBytesPerSecond = 0;
+
+        @Parameter(required = false,
+            names = { "--shared-rate-limit-poll-interval", "--sharedRateLimitPollInterval" },
+            converter = DurationConverter.class,
+            description = "Optional.  How often to read the fleet-wide rate limit from the 'rate_limit' document of " +
+                "the working state index.  Its docsPerSecond and bytesPerSecond values are split evenly across " +
+                "the busy workers, without exceeding --max-docs-per-second and --max-bytes-per-second.  " +
+                "Default: the fleet-wide rate limit isn't used")
+        Duration sharedRateLimitPollInterval = null;
+
         @Parameter(required = true,
             names = { "--source-version", "--sourceVersion" },
             converter = VersionConverter.class,
@@ -253,6 +321,10 @@ public class RfsMigrateDocuments {
             );
         }
 
+        if (args.maxDocsPerShardWorkItem < 1) {
+            throw new ParameterException("--max-docs-per-shard-work-item must be at least 1.");
+        }
+
     }
 
     public static void main(String[] args) throws Exception {
@@ -280,7 +352,12 @@ public class RfsMigrateDocuments {
         var snapshotLocalDirPath = arguments.snapshotLocalDir != null ? Paths.get(arguments.snapshotLocalDir) : null;
 
         var connectionContext = arguments.targetArgs.toConnectionContext();
-        OpenSearchClient targetClient = new OpenSearchClientFactory(connectionContext).determineVersionAndCreate();
+        var targetRestClient = new RestClient(connectionContext, HttpTransportSettings.builder()
+            .maxConnections(arguments.maxConnections)
+            .http2(arguments.targetHttp2)
+            .build());
+        OpenSearchClient targetClient = new OpenSearchClientFactory(connectionContext)
+            .determineVersionAndCreate(targetRestClient, new FailedRequestsLogger());
         var targetVersion = targetClient.getClusterVersion();
 
         var docTransformerConfig = Optional.ofNullable(TransformerConfigUtils.getTransformerConfig(arguments.docTransformationParams))
@@ -296,6 +373,10 @@ public class RfsMigrateDocuments {
         var workItemTimeProvider = new WorkItemTimeProvider();
         var coordinatorFactory = new WorkCoordinatorFactory(targetVersion);
         var cleanShutdownCompleted = new AtomicBoolean(false);
+        var rateLimiter = (arguments.maxDocsPerSecond > 0 || arguments.maxBytesPerSecond > 0
+            || arguments.sharedRateLimitPollInterval != null)
+            ? new TokenBucketRateLimiter(arguments.maxDocsPerSecond, arguments.maxBytesPerSecond)
+            : null;
 
         try (var workCoordinator = coordinatorFactory.get(
                  new CoordinateWorkHttpClient(connectionContext),
@@ -314,7 +395,13 @@ public class RfsMigrateDocuments {
                         () -> Optional.ofNullable(cancellationRunnableRef.get()).ifPresent(Runnable::run),
                         cleanShutdownCompleted,
                         context.getWorkCoordinationContext()::createSuccessorWorkItemsContext),
-                Clock.systemUTC());) {
+                Clock.systemUTC());
+             var sharedRateLimitPoller = arguments.sharedRateLimitPollInterval == null ? null :
+                 new SharedRateLimitPoller(workCoordinator,
+                     rateLimiter,
+                     arguments.maxDocsPerSecond,
+                     arguments.maxBytesPerSecond,
+                     arguments.sharedRateLimitPollInterval)) {
             // Set up a hook to attempt to shut down cleanly (to mark progress in the worker coordination system) in the
             // event of a SIGTERM signal.
             Runtime.getRuntime().addShutdownHook(new Thread(() -> {
@@ -341,17 +428,25 @@ public class RfsMigrateDocuments {
                 arguments.numDocsPerBulkRequest,
                 arguments.numBytesPerBulkRequest,
                 arguments.maxConnections,
-                docTransformerSupplier);
+                docTransformerSupplier,
+                arguments.adaptiveBulkRequests
+                    ? new AdaptiveBulkController(arguments.numDocsPerBulkRequest,
+                        arguments.numBytesPerBulkRequest,
+                        arguments.maxConnections,
+                        arguments.targetBulkLatency)
+                    : null,
+                rateLimiter);
 
             SourceRepo sourceRepo;
             if (snapshotLocalDirPath == null) {
                 sourceRepo = S3Repo.create(
                     Paths.get(arguments.s3LocalDir),
                     new S3Uri(arguments.s3RepoUri),
-                    arguments.s3Region
+                    arguments.s3Region,
+                    arguments.s3StreamBlobFiles
                 );
             } else {
-                sourceRepo = new FileSystemRepo(snapshotLocalDirPath);
+                sourceRepo = new FileSystemRepo(snapshotLocalDirPath, arguments.snapshotLocalDirLinkBlobFiles);
             }
             var repoAccessor = new DefaultSourceRepoAccessor(sourceRepo);
 
@@ -378,7 +473,8 @@ public class RfsMigrateDocuments {
                 arguments.maxShardSizeBytes,
                 context,
                 cancellationRunnableRef,
-                workItemTimeProvider);
+                workItemTimeProvider,
+                arguments.maxDocsPerShardWorkItem);
             cleanShutdownCompleted.set(true);
         } catch (NoWorkLeftException e) {
             log.atWarn().setMessage("No work left to acquire.  Exiting with error code to signal that.").log();
@@ -545,7 +641,7 @@ public class RfsMigrateDocuments {
         var successorStartingCheckpointNum = progressCursor.getProgressCheckpointNum();
         var successorWorkItem = new IWorkCoordinator.WorkItemAndDuration
                 .WorkItem(workItem.getIndexName(), workItem.getShardNumber(),
-                successorStartingCheckpointNum);
+                successorStartingCheckpointNum, workItem.getEndingDocId());
         ArrayList<String> successorWorkItemIds = new ArrayList<>();
         successorWorkItemIds.add(successorWorkItem.toString());
         return successorWorkItemIds;
@@ -580,6 +676,30 @@ public class RfsMigrateDocuments {
                                                        AtomicReference<Runnable> cancellationRunnable,
                                                        WorkItemTimeProvider timeProvider)
         throws IOException, InterruptedException, NoWorkLeftException
+    {
+        return run(readerFactory, reindexer, progressCursor, workCoordinator, maxInitialLeaseDuration,
+            leaseExpireTrigger, indexMetadataFactory, snapshotName, indexAllowlist, shardMetadataFactory,
+            unpackerFactory, maxShardSizeBytes, rootDocumentContext, cancellationRunnable, timeProvider,
+            Integer.MAX_VALUE);
+    }
+
+    public static DocumentsRunner.CompletionStatus run(LuceneIndexReader.Factory readerFactory,
+                                                       DocumentReindexer reindexer,
+                                                       AtomicReference<WorkItemCursor> progressCursor,
+                                                       IWorkCoordinator workCoordinator,
+                                                       Duration maxInitialLeaseDuration,
+                                                       LeaseExpireTrigger leaseExpireTrigger,
+                                                       IndexMetadata.Factory indexMetadataFactory,
+                                                       String snapshotName,
+                                                       List<String> indexAllowlist,
+                                                       ShardMetadata.Factory shardMetadataFactory,
+                                                       SnapshotShardUnpacker.Factory unpackerFactory,
+                                                       long maxShardSizeBytes,
+                                                       RootDocumentMigrationContext rootDocumentContext,
+                                                       AtomicReference<Runnable> cancellationRunnable,
+                                                       WorkItemTimeProvider timeProvider,
+                                                       int maxDocsPerShardWorkItem)
+        throws IOException, InterruptedException, NoWorkLeftException
     {
         var scopedWorkCoordinator = new ScopedWorkCoordinator(workCoordinator, leaseExpireTrigger);
         confirmShardPrepIsComplete(indexMetadataFactory,
@@ -610,7 +730,8 @@ public class RfsMigrateDocuments {
             readerFactory,
             progressCursor::set,
             cancellationRunnable::set,
-            timeProvider);
+            timeProvider,
+            maxDocsPerShardWorkItem);
         return runner.migrateNextShard(rootDocumentContext::createReindexContext);
     }
 
@@ -0,0 +1,172 @@
+package org.opensearch.migrations.bulkload.common;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Adjusts the size of bulk requests and the number of them in flight from the feedback of the target cluster with
+ * additive-increase/multiplicative-decrease (AIMD), the same way TCP finds the capacity of a link.
+ *
+ * Every bulk attempt that is throttled by the target (a 429, or operations rejected with
+ * es_rejected_execution_exception), fails without a response, or takes longer than the target latency halves both
+ * the batch size and the concurrency.  Decreases are applied at most once per target latency period so that a burst
+ * of rejections from requests that were already in flight is treated as a single congestion signal.  Each full round
+ * of healthy responses, i.e. one per permitted in-flight request, adds one to the concurrency and grows the batch
+ * size back towards the configured maximum.
+ *
+ * The configured bulk sizes and concurrency are the upper bounds, and the starting point, of the controller.
+ */
+@Slf4j
+public class AdaptiveBulkController implements OpenSearchClient.BulkAttemptListener {
+    static final double MIN_BATCH_SCALE = 1.0 / 64;
+    static final double BATCH_SCALE_INCREMENT = 1.0 / 8;
+    static final long MIN_BYTES_PER_BULK_REQUEST = 64 * 1024L;
+
+    private final int maxDocsPerBulkRequest;
+    private final long maxBytesPerBulkRequest;
+    private final int maxConcurrentRequests;
+    private final Duration targetLatency;
+    private final Clock clock;
+
+    private final Queue<MonoSink<Boolean>> permitWaiters = new ArrayDeque<>();
+    private int inFlightRequests;
+    private int concurrentRequests;
+    private double batchScale = 1.0;
+    private int healthyResponsesInRound;
+    private Instant lastDecrease = Instant.MIN;
+
+    public AdaptiveBulkController(int maxDocsPerBulkRequest, long maxBytesPerBulkRequest, int maxConcurrentRequests,
+                                  Duration targetLatency) {
+        this(maxDocsPerBulkRequest, maxBytesPerBulkRequest, maxConcurrentRequests, targetLatency, Clock.systemUTC());
+    }
+
+    public AdaptiveBulkController(int maxDocsPerBulkRequest, long maxBytesPerBulkRequest, int maxConcurrentRequests,
+                                  Duration targetLatency, Clock clock) {
+        this.maxDocsPerBulkRequest = maxDocsPerBulkRequest;
+        this.maxBytesPerBulkRequest = maxBytesPerBulkRequest;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.targetLatency = targetLatency;
+        this.clock = clock;
+        this.concurrentRequests = maxConcurrentRequests;
+    }
+
+    public synchronized int getDocsPerBulkRequest() {
+        return (int) Math.max(1, Math.min(maxDocsPerBulkRequest, Math.ceil(maxDocsPerBulkRequest * batchScale)));
+    }
+
+    public synchronized long getBytesPerBulkRequest() {
+        return Math.max(Math.min(MIN_BYTES_PER_BULK_REQUEST, maxBytesPerBulkRequest),
+            (long) (maxBytesPerBulkRequest * batchScale));
+    }
+
+    public synchronized int getConcurrentRequests() {
+        return concurrentRequests;
+    }
+
+    /**
+     * Defers subscribing to the request until fewer than the currently permitted number of requests are in flight
+     */
+    public <T> Mono<T> withPermit(Mono<T> request) {
+        return Mono.usingWhen(
+            Mono.<Boolean>create(this::acquirePermit),
+            permit -> request,
+            permit -> Mono.fromRunnable(this::releasePermit)
+        );
+    }
+
+    private void acquirePermit(MonoSink<Boolean> sink) {
+        synchronized (this) {
+            if (inFlightRequests >= concurrentRequests) {
+                permitWaiters.add(sink);
+                sink.onCancel(() -> removeWaiter(sink));
+                return;
+            }
+            inFlightRequests++;
+        }
+        sink.success(true);
+    }
+
+    private synchronized void removeWaiter(MonoSink<Boolean> sink) {
+        permitWaiters.remove(sink);
+    }
+
+    private void releasePermit() {
+        synchronized (this) {
+            inFlightRequests--;
+        }
+        grantWaitingPermits();
+    }
+
+    private void grantWaitingPermits() {
+        while (true) {
+            MonoSink<Boolean> next;
+            synchronized (this) {
+                if (inFlightRequests >= concurrentRequests || permitWaiters.isEmpty()) {
+                    return;
+                }
+                next = permitWaiters.poll();
+                inFlightRequests++;
+            }
+            next.success(true);
+        }
+    }
+
+    @Override
+    public void onBulkAttempt(Duration latency, @Nullable OpenSearchClient.BulkResponse response) {
+        if (response == null || response.isThrottled() || latency.compareTo(targetLatency) > 0) {
+            decrease(latency, response);
+        } else if (!response.hasBadStatusCode()) {
+            increase();
+        }
+        // Other failures, like mapping errors, say nothing about how loaded the target is
+    }
+
+    private void decrease(Duration latency, @Nullable OpenSearchClient.BulkResponse response) {
+        synchronized (this) {
+            healthyResponsesInRound = 0;
+            var now = clock.instant();
+            if (now.isBefore(lastDecrease.plus(targetLatency))) {
+                return;
+            }
+            lastDecrease = now;
+            concurrentRequests = Math.max(1, concurrentRequests / 2);
+            batchScale = Math.max(MIN_BATCH_SCALE, batchScale / 2);
+        }
+        log.atInfo().setMessage("Target pushed back on bulk request (status: {}, latency: {}), " +
+                "reducing to {} concurrent bulk requests of up to {} docs / {} bytes")
+            .addArgument(() -> response == null ? "no response" : response.statusCode)
+            .addArgument(latency)
+            .addArgument(this::getConcurrentRequests)
+            .addArgument(this::getDocsPerBulkRequest)
+            .addArgument(this::getBytesPerBulkRequest)
+            .log();
+    }
+
+    private void increase() {
+        synchronized (this) {
+            if (++healthyResponsesInRound < concurrentRequests) {
+                return;
+            }
+            healthyResponsesInRound = 0;
+            if (concurrentRequests == maxConcurrentRequests && batchScale >= 1.0) {
+                return;
+            }
+            concurrentRequests = Math.min(maxConcurrentRequests, concurrentRequests + 1);
+            batchScale = Math.min(1.0, batchScale + BATCH_SCALE_INCREMENT);
+        }
+        grantWaitingPermits();
+        log.atDebug().setMessage("Increasing to {} concurrent bulk requests of up to {} docs / {} bytes")
+            .addArgument(this::getConcurrentRequests)
+            .addArgument(this::getDocsPerBulkRequest)
+            .addArgument(this::getBytesPerBulkRequest)
+            .log();
+    }
+}
@@ -1,23 +1,28 @@
 package org.opensearch.migrations.bulkload.common;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.StreamReadConstraints;
 import com.fasterxml.jackson.core.io.SegmentedStringWriter;
-import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.core.util.BufferRecycler;
-import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -36,55 +41,139 @@ public class BulkDocSection {
     private static final int MAX_STRING_LENGTH = 100 * 1024 * 1024; // ~100 MB
 
     private static final ObjectMapper OBJECT_MAPPER;
-    private static final ObjectMapper BULK_INDEX_REQUEST_MAPPER;
 
     static {
         OBJECT_MAPPER = JsonMapper.builder().build();
         OBJECT_MAPPER.getFactory()
                 .setStreamReadConstraints(StreamReadConstraints.builder()
                         .maxStringLength(MAX_STRING_LENGTH).build());
-        BULK_INDEX_REQUEST_MAPPER = OBJECT_MAPPER.copy()
-                .registerModule(new SimpleModule()
-                        .addSerializer(BulkIndex.class, new BulkIndex.BulkIndexRequestSerializer()));
     }
 
+    private static final String BULK_INDEX_COMMAND = "index";
+    private static final String INDEX_FIELD = "index";
+    private static final String SOURCE_FIELD = "source";
     private static final String NEWLINE = "\n";
+    private static final byte NEWLINE_BYTE = '\n';
+    private static final byte[] NULL_SOURCE = "null".getBytes(StandardCharsets.UTF_8);
 
     @EqualsAndHashCode.Include
     @Getter
     private final String docId;
-    private final BulkIndex bulkIndex;
+    private final BulkIndex.Metadata metadata;
+
+    // Every section is serialized once, when it's made, into the index command and the compact source bytes that
+    // make up its part of a bulk request, and those bytes are used for both sizing and the request body.  Nothing
+    // else is kept, so a source map that the section was made from can be collected right away.  Sections never
+    // change after construction, a transformer's output is always a new section, so these bytes never need to be
+    // invalidated.  rawSource is null for sections without a source.
+    private final byte[] rawIndexCommand;
+    private final byte[] rawSource;
 
     public BulkDocSection(String id, String indexName, String type, String docBody) {
         this(id, indexName, type, docBody, null);
     }
 
     public BulkDocSection(String id, String indexName, String type, String docBody, String routing) {
-        this.docId = id;
-        this.bulkIndex = new BulkIndex(new BulkIndex.Metadata(id, type, indexName, routing), parseSource(docBody));
+        this(id, indexName, type, docBody.getBytes(StandardCharsets.UTF_8), routing);
+    }
+
+    /**
+     * Creates a section that carries the UTF-8 _source bytes through to the bulk request body as-is, without
+     * building a map from them.  The source is only parsed if {@link #toMap()} is called, e.g. by a transformer.
+     */
+    public BulkDocSection(String id, String indexName, String type, byte[] sourceBytes, String routing) {
+        this(new BulkIndex.Metadata(id, type, indexName, routing), compactSource(sourceBytes));
     }
 
-    private BulkDocSection(BulkIndex bulkIndex) {
-        this.docId = bulkIndex.metadata.id;
-        this.bulkIndex = bulkIndex;
+    private BulkDocSection(BulkIndex.Metadata metadata, byte[] compactSourceBytes) {
+        this.docId = metadata.id;
+        this.metadata = metadata;
+        this.rawIndexCommand = serializeIndexCommand(metadata);
+        this.rawSource = compactSourceBytes;
     }
 
     @SuppressWarnings("unchecked")
-    private static Map<String, Object> parseSource(final String doc) {
+    private static Map<String, Object> parseSource(final byte[] doc) {
         try {
-            // This is the string sourceDoc as stored in the Lucene Document
-            // This will always be a map based on how lucene works
             return OBJECT_MAPPER.readValue(doc, Map.class);
         } catch (IOException e) {
             throw new DeserializationException("Failed to parse source doc:  " + e.getMessage(), e);
         }
     }
 
+    private static byte[] serializeIndexCommand(BulkIndex.Metadata metadata) {
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(Map.of(BULK_INDEX_COMMAND, metadata));
+        } catch (IOException e) {
+            throw new SerializationException("Failed to serialize index command " + metadata + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean isJsonWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    /**
+     * Returns the source as a single line JSON object.  Sources without line breaks are only validated and trimmed,
+     * anything else is re-emitted token by token, which is still far cheaper than materializing the document as a
+     * map.  Malformed sources are rejected either way, since one would corrupt every document after it in the
+     * bulk request body.
+     */
+    private static byte[] compactSource(final byte[] doc) {
+        int start = 0;
+        int end = doc.length;
+        while (start < end && isJsonWhitespace(doc[start])) {
+            start++;
+        }
+        while (end > start && isJsonWhitespace(doc[end - 1])) {
+            end--;
+        }
+
+        var needsRewrite = end - start < 2 || doc[start] != '{' || doc[end - 1] != '}';
+        for (int i = start; !needsRewrite && i < end; i++) {
+            needsRewrite = doc[i] == '\n' || doc[i] == '\r';
+        }
+        if (!needsRewrite) {
+            validateSource(doc, start, end);
+            return (start == 0 && end == doc.length) ? doc : Arrays.copyOfRange(doc, start, end);
+        }
+
+        var compacted = new ByteArrayOutputStream(end - start);
+        try (var parser = OBJECT_MAPPER.createParser(doc);
+             var generator = OBJECT_MAPPER.createGenerator(compacted)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected source doc to be a JSON object");
+            }
+            generator.copyCurrentStructure(parser);
+        } catch (IOException e) {
+            throw new DeserializationException("Failed to parse source doc:  " + e.getMessage(), e);
+        }
+        return compacted.toByteArray();
+    }
+
+    /**
+     * Walks the tokens of the source without building anything from them, which checks that it's exactly one
+     * well-formed JSON object.
+     */
+    private static void validateSource(final byte[] doc, int start, int end) {
+        try (var parser = OBJECT_MAPPER.createParser(doc, start, end - start)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected source doc to be a JSON object");
+            }
+            parser.skipChildren();
+            if (parser.nextToken() != null) {
+                throw new IOException("Unexpected content after the source doc");
+            }
+        } catch (IOException e) {
+            throw new DeserializationException("Failed to parse source doc:  " + e.getMessage(), e);
+        }
+    }
+
     public static String convertToBulkRequestBody(Collection<BulkDocSection> bulkSections) {
         // Using a single SegmentedStringWriter across all object serializations
         try (SegmentedStringWriter writer = new SegmentedStringWriter(new BufferRecycler())) {
             for (BulkDocSection section : bulkSections) {
-                BULK_INDEX_REQUEST_MAPPER.writeValue(writer, section.bulkIndex);
+                writer.append(section.asBulkIndexString());
                 writer.append(NEWLINE);
             }
             return writer.getAndClear();
@@ -93,34 +182,141 @@ public class BulkDocSection {
         }
     }
 
+    /**
+     * Writes the bulk request body straight into a buffer from the given allocator, so that sections carrying raw
+     * source bytes are copied once and never decoded.  The caller owns the returned buffer and must release it.
+     */
+    public static ByteBuf convertToBulkRequestBody(Collection<BulkDocSection> bulkSections, ByteBufAllocator allocator) {
+        var buffer = allocator.buffer();
+        var completed = false;
+        try (var stream = new ByteBufOutputStream(buffer)) {
+            for (BulkDocSection section : bulkSections) {
+                section.writeTo(stream);
+                stream.write(NEWLINE_BYTE);
+            }
+            completed = true;
+            return buffer;
+        } catch (IOException e) {
+            throw new SerializationException("Failed to serialize ingestion request: " + e.getMessage(), e);
+        } finally {
+            if (!completed) {
+                buffer.release();
+            }
+        }
+    }
+
+    void writeTo(OutputStream stream) throws IOException {
+        stream.write(rawIndexCommand);
+        stream.write(NEWLINE_BYTE);
+        stream.write(rawSource != null ? rawSource : NULL_SOURCE);
+    }
+
     public static BulkDocSection fromMap(Object map) {
         BulkIndex bulkIndex = OBJECT_MAPPER.convertValue(map, BulkIndex.class);
-        return new BulkDocSection(bulkIndex);
+        return new BulkDocSection(bulkIndex.metadata, serializeSource(bulkIndex));
     }
 
-    public long getSerializedLength() {
-        try (var stream = new CountingNullOutputStream()) {
-            BULK_INDEX_REQUEST_MAPPER.writeValue(stream, this.bulkIndex);
-            return stream.length;
+    private static byte[] serializeSource(BulkIndex bulkIndex) {
+        if (bulkIndex.sourceDoc == null) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.writeValueAsBytes(bulkIndex.sourceDoc);
         } catch (IOException e) {
-            log.atError().setMessage("Failed to get bulk index length").setCause(e).log();
-            throw new SerializationException("Failed to get bulk index length " + this.bulkIndex +
-                    " from string: " + e.getMessage(), e);
+            throw new SerializationException("Failed to write bulk index " + bulkIndex + ": " + e.getMessage(), e);
         }
     }
 
-    public String asBulkIndexString() {
-        try {
-            return BULK_INDEX_REQUEST_MAPPER.writeValueAsString(this.bulkIndex);
+    /**
+     * Writes the sections as the JSON text of an array of what {@link #toMap()} would return for each of them.
+     * Sources that are carried as raw bytes are copied in without being parsed or decoded.  The text is only
+     * decoded once, from the UTF-8 bytes of the whole array.
+     */
+    public static String toSerializedJsonArray(Collection<BulkDocSection> bulkSections) {
+        var output = new ByteArrayOutputStream();
+        try (var generator = OBJECT_MAPPER.createGenerator(output, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            for (BulkDocSection section : bulkSections) {
+                generator.writeStartObject();
+                generator.writePOJOField(INDEX_FIELD, section.metadata);
+                if (section.rawSource != null) {
+                    generator.writeFieldName(SOURCE_FIELD);
+                    // An empty raw value only writes the separator before the source's bytes
+                    generator.writeRawValue("");
+                    generator.flush();
+                    output.write(section.rawSource);
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.flush();
+            return output.toString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to serialize bulk sections: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the sections back from the JSON text of an array of objects shaped like what {@link #toMap()} returns,
+     * as a transformer that works on serialized JSON would produce.  Each source is kept as compact bytes rather
+     * than being built into a map.
+     */
+    public static List<BulkDocSection> fromSerializedJsonArray(String serializedJson) {
+        try (var parser = OBJECT_MAPPER.createParser(serializedJson)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of bulk sections");
+            }
+            var sections = new ArrayList<BulkDocSection>();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                sections.add(readSerializedSection(parser));
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new IOException("Expected each bulk section to be a JSON object, but found "
+                    + parser.currentToken());
+            }
+            return sections;
         } catch (IOException e) {
-            throw new SerializationException("Failed to write bulk index " + this.bulkIndex
-                    + " from string: " + e.getMessage(), e);
+            throw new DeserializationException("Failed to parse bulk sections:  " + e.getMessage(), e);
         }
     }
 
+    private static BulkDocSection readSerializedSection(JsonParser parser) throws IOException {
+        BulkIndex.Metadata metadata = null;
+        byte[] source = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var fieldName = parser.currentName();
+            var valueToken = parser.nextToken();
+            if (INDEX_FIELD.equals(fieldName)) {
+                metadata = parser.readValueAs(BulkIndex.Metadata.class);
+            } else if (SOURCE_FIELD.equals(fieldName) && valueToken == JsonToken.START_OBJECT) {
+                var compacted = new ByteArrayOutputStream();
+                try (var generator = OBJECT_MAPPER.createGenerator(compacted)) {
+                    generator.copyCurrentStructure(parser);
+                }
+                source = compacted.toByteArray();
+            } else if (!SOURCE_FIELD.equals(fieldName) || valueToken != JsonToken.VALUE_NULL) {
+                throw new IOException("Unexpected field '" + fieldName + "' in a bulk section");
+            }
+        }
+        if (metadata == null) {
+            throw new IOException("Expected '" + INDEX_FIELD + "' in every bulk section");
+        }
+        return new BulkDocSection(metadata, source);
+    }
+
+    public long getSerializedLength() {
+        return rawIndexCommand.length + 1L + (rawSource != null ? rawSource : NULL_SOURCE).length;
+    }
+
+    public String asBulkIndexString() {
+        return new String(rawIndexCommand, StandardCharsets.UTF_8) + NEWLINE
+            + new String(rawSource != null ? rawSource : NULL_SOURCE, StandardCharsets.UTF_8);
+    }
+
     @SuppressWarnings("unchecked")
     public Map<String, Object> toMap() {
-        return OBJECT_MAPPER.convertValue(bulkIndex, Map.class);
+        var materializedBulkIndex = new BulkIndex(metadata, rawSource == null ? null : parseSource(rawSource));
+        return OBJECT_MAPPER.convertValue(materializedBulkIndex, Map.class);
     }
 
     /**
@@ -152,32 +348,6 @@ public class BulkDocSection {
             @JsonProperty("routing")
             private final String routing;
         }
-
-        public static class BulkIndexRequestSerializer extends JsonSerializer<BulkIndex> {
-            public static final String BULK_INDEX_COMMAND = "index";
-            @Override
-            public void serialize(BulkIndex value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
-                gen.setRootValueSeparator(new SerializedString(NEWLINE));
-                gen.writeStartObject();
-                gen.writePOJOField(BULK_INDEX_COMMAND, value.metadata);
-                gen.writeEndObject();
-                gen.writePOJO(value.sourceDoc);
-            }
-        }
-    }
-
-    private static class CountingNullOutputStream extends OutputStream {
-        long length = 0;
-        @Override
-        public void write(int b) {
-            length += String.valueOf(b).length();
-        }
-
-        @Override
-        public void write(byte[] b, int off, int len) {
-            Objects.checkFromIndexSize(off, len, b.length);
-            length += len;
-        }
     }
 
     public static class DeserializationException extends RuntimeException {
@@ -1,5 +1,6 @@
 package org.opensearch.migrations.bulkload.common;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 import java.util.function.Predicate;
@@ -27,6 +28,19 @@ public class DocumentReindexer {
     private final long maxBytesPerBulkRequest;
     private final int maxConcurrentWorkItems;
     private final Supplier<IJsonTransformer> transformerSupplier;
+    // When set, bulk sizes and the number of requests in flight adapt to the target's feedback, within the limits above
+    private final AdaptiveBulkController adaptiveBulkController;
+    // When set, caps the docs and bytes per second sent to the target
+    private final TokenBucketRateLimiter rateLimiter;
+
+    public DocumentReindexer(OpenSearchClient client,
+                             int maxDocsPerBulkRequest,
+                             long maxBytesPerBulkRequest,
+                             int maxConcurrentWorkItems,
+                             Supplier<IJsonTransformer> transformerSupplier) {
+        this(client, maxDocsPerBulkRequest, maxBytesPerBulkRequest, maxConcurrentWorkItems, transformerSupplier, null,
+            null);
+    }
 
     public Flux<WorkItemCursor> reindex(String indexName, Flux<RfsLuceneDocument> documentStream, IDocumentReindexContext context) {
         // Transformers cannot be used simultaneously
@@ -80,7 +94,19 @@ public class DocumentReindexer {
                 .map(rfsDocument -> rfsDocument.document)
                 .collect(Collectors.toList());
 
-        return client.sendBulkRequest(indexName, bulkDocSections, context.createBulkRequest()) // Send the request
+        Mono<OpenSearchClient.BulkResponse> bulkRequest;
+        if (adaptiveBulkController == null && rateLimiter == null) {
+            bulkRequest = client.sendBulkRequest(indexName, bulkDocSections, context.createBulkRequest());
+        } else {
+            var attemptListener = new ThrottlingAttemptListener(context);
+            bulkRequest = Mono.defer(() -> client.sendBulkRequest(indexName, bulkDocSections,
+                context.createBulkRequest(), attemptListener));
+            if (adaptiveBulkController != null) {
+                bulkRequest = adaptiveBulkController.withPermit(bulkRequest);
+            }
+        }
+
+        return bulkRequest // Send the request
             .doFirst(() -> log.atInfo().setMessage("Batch Id:{}, {} documents in current bulk request.")
                 .addArgument(batchId)
                 .addArgument(docsBatch::size)
@@ -96,6 +122,40 @@ public class DocumentReindexer {
             .subscribeOn(scheduler));
     }
 
+    /**
+     * Charges every attempt of a bulk request, retries included, to the rate limiter right before it's sent, so that
+     * batches already buffered or in flight can't burst past the configured rate, and reports the outcome of each
+     * attempt to the adaptive controller.
+     */
+    @RequiredArgsConstructor
+    private class ThrottlingAttemptListener implements OpenSearchClient.BulkAttemptListener {
+        private final IDocumentReindexContext context;
+
+        @Override
+        public Duration beforeBulkAttempt(int docs, long bytes) {
+            if (rateLimiter == null) {
+                return Duration.ZERO;
+            }
+            var waitTime = rateLimiter.reserve(docs, bytes);
+            context.recordThrottleWait(waitTime);
+            if (!waitTime.isZero()) {
+                log.atDebug().setMessage("Throttling {} docs / {} bytes for {}")
+                    .addArgument(docs)
+                    .addArgument(bytes)
+                    .addArgument(waitTime)
+                    .log();
+            }
+            return waitTime;
+        }
+
+        @Override
+        public void onBulkAttempt(Duration latency, OpenSearchClient.BulkResponse response) {
+            if (adaptiveBulkController != null) {
+                adaptiveBulkController.onBulkAttempt(latency, response);
+            }
+        }
+    }
+
     Flux<List<RfsDocument>> batchDocsBySizeOrCount(Flux<RfsDocument> docs) {
         return docs.bufferUntil(new Predicate<>() {
             private int currentItemCount = 0;
@@ -108,7 +168,7 @@ public class DocumentReindexer {
                 currentSize += nextSize;
                 currentItemCount++;
 
-                if (currentItemCount > maxDocsPerBulkRequest || currentSize > maxBytesPerBulkRequest) {
+                if (currentItemCount > getMaxDocsPerBulkRequest() || currentSize > getMaxBytesPerBulkRequest()) {
                     // Reset and return true to signal to stop buffering.
                     // Current item is included in the current buffer
                     currentItemCount = 1;
@@ -120,4 +180,12 @@ public class DocumentReindexer {
         }, true);
     }
 
+    private int getMaxDocsPerBulkRequest() {
+        return adaptiveBulkController == null ? maxDocsPerBulkRequest : adaptiveBulkController.getDocsPerBulkRequest();
+    }
+
+    private long getMaxBytesPerBulkRequest() {
+        return adaptiveBulkController == null ? maxBytesPerBulkRequest : adaptiveBulkController.getBytesPerBulkRequest();
+    }
+
 }
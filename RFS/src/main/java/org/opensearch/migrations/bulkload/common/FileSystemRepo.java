@@ -14,6 +14,7 @@ import lombok.ToString;
 @ToString
 public class FileSystemRepo implements SourceRepo {
     private final Path repoRootDir;
+    private final boolean linkBlobFiles;
 
     private Path findRepoFile() {
         // The directory may contain multiple of these files, but we want the highest versioned one
@@ -45,7 +46,17 @@ public class FileSystemRepo implements SourceRepo {
     }
 
     public FileSystemRepo(Path repoRootDir) {
+        this(repoRootDir, false);
+    }
+
+    /**
+     * @param linkBlobFiles If true, shards are unpacked by linking to the repo's blob files, which are then read in
+     *                      place, rather than by copying them.  The repo must stay readable until the shards that were
+     *                      unpacked from it have been read.
+     */
+    public FileSystemRepo(Path repoRootDir, boolean linkBlobFiles) {
         this.repoRootDir = repoRootDir;
+        this.linkBlobFiles = linkBlobFiles;
     }
 
     @Override
@@ -98,6 +109,11 @@ public class FileSystemRepo implements SourceRepo {
         // No work necessary for local filesystem
     }
 
+    @Override
+    public boolean supportsLinkingBlobFiles() {
+        return linkBlobFiles;
+    }
+
     public static class CantOpenRepoDirectory extends RfsException {
         public CantOpenRepoDirectory(Throwable cause) {
             super("Couldn't open the repo directory for some reason", cause);
@@ -2,6 +2,7 @@ package org.opensearch.migrations.bulkload.common;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
@@ -21,8 +22,11 @@ import org.opensearch.migrations.reindexer.FailedRequestsLogger;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
+import reactor.util.annotation.Nullable;
 import reactor.util.retry.Retry;
 
 @Slf4j
@@ -316,40 +320,52 @@ public abstract class OpenSearchClient {
         return BULK_RETRY_STRATEGY;
     }
 
+    /**
+     * Notified after every attempt of a bulk request, including retries, so that callers can adapt how hard they
+     * push the target.  The response is null when the attempt failed without one, e.g. on a connection error.
+     */
+    public interface BulkAttemptListener {
+        /**
+         * Called right before every attempt, including retries, with the docs and body bytes it's about to send.
+         * The attempt is sent once the returned duration has passed, which lets callers throttle what actually
+         * reaches the target.
+         */
+        default Duration beforeBulkAttempt(int docs, long bytes) {
+            return Duration.ZERO;
+        }
+
+        void onBulkAttempt(Duration latency, @Nullable BulkResponse response);
+    }
+
     public Mono<BulkResponse> sendBulkRequest(String indexName, List<BulkDocSection> docs,
                                               IRfsContexts.IRequestContext context)
+    {
+        return sendBulkRequest(indexName, docs, context, (latency, response) -> {});
+    }
+
+    public Mono<BulkResponse> sendBulkRequest(String indexName, List<BulkDocSection> docs,
+                                              IRfsContexts.IRequestContext context,
+                                              BulkAttemptListener attemptListener)
     {
         final var docsMap = docs.stream().collect(Collectors.toMap(d -> d.getDocId(), d -> d));
         return Mono.defer(() -> {
             final String targetPath = getBulkRequestPath(indexName);
             log.atTrace().setMessage("Creating bulk body with document ids {}").addArgument(docsMap::keySet).log();
-            var body = BulkDocSection.convertToBulkRequestBody(docsMap.values());
             var additionalHeaders = new HashMap<String, List<String>>();
             // Reduce network bandwidth by attempting request and response compression
             if (client.supportsGzipCompression()) {
                 RestClient.addGzipRequestHeaders(additionalHeaders);
                 RestClient.addGzipResponseHeaders(additionalHeaders);
             }
-            return client.postAsync(targetPath, body, additionalHeaders, context)
-                .flatMap(response -> {
-                    var resp =
-                        new BulkResponse(response.statusCode, response.statusText, response.headers, response.body);
-                    if (!resp.hasBadStatusCode() && !resp.hasFailedOperations()) {
-                        return Mono.just(resp);
-                    }
-                    log.atDebug().setMessage("Response has some errors...: {}").addArgument(response.body).log();
-                    log.atDebug().setMessage("... for request: {}").addArgument(body).log();
-                    // Remove all successful documents for the next bulk request attempt
-                    var successfulDocs = resp.getSuccessfulDocs();
-                    successfulDocs.forEach(docsMap::remove);
-                    log.atWarn()
-                        .setMessage("After bulk request on index '{}', {} more documents have succeed, {} remain")
-                        .addArgument(indexName)
-                        .addArgument(successfulDocs::size)
-                        .addArgument(docsMap::size)
-                        .log();
-                    return Mono.error(new OperationFailed(resp.getFailureMessage(), resp));
-                });
+            // The body is built in a pooled buffer.  This reference is released once the attempt has finished or
+            // been cancelled, while the send holds its own reference until Netty has finished writing the body.
+            return Mono.using(
+                () -> BulkDocSection.convertToBulkRequestBody(docsMap.values(), PooledByteBufAllocator.DEFAULT),
+                body -> delayAttempt(attemptListener.beforeBulkAttempt(docsMap.size(), body.readableBytes()))
+                    .then(Mono.defer(() -> sendBulkAttempt(indexName, targetPath, body, additionalHeaders, docsMap,
+                        context, attemptListener))),
+                ByteBuf::release,
+                false);
         })
         .retryWhen(getBulkRetryStrategy())
         .doOnError(error -> {
@@ -370,12 +386,50 @@ public abstract class OpenSearchClient {
         });
     }
 
+    private static Mono<Long> delayAttempt(Duration waitTime) {
+        return waitTime.isZero() ? Mono.just(0L) : Mono.delay(waitTime);
+    }
+
+    private Mono<BulkResponse> sendBulkAttempt(String indexName, String targetPath, ByteBuf body,
+                                       Map<String, List<String>> additionalHeaders,
+                                       Map<String, BulkDocSection> docsMap,
+                                       IRfsContexts.IRequestContext context,
+                                       BulkAttemptListener attemptListener) {
+        final long attemptStartNanos = System.nanoTime();
+        return client.postBufferAsync(targetPath, body, additionalHeaders, context)
+            .doOnError(e -> attemptListener.onBulkAttempt(
+                Duration.ofNanos(System.nanoTime() - attemptStartNanos), null))
+            .flatMap(response -> {
+                var resp =
+                    new BulkResponse(response.statusCode, response.statusText, response.headers, response.body);
+                attemptListener.onBulkAttempt(Duration.ofNanos(System.nanoTime() - attemptStartNanos), resp);
+                if (!resp.hasBadStatusCode() && !resp.hasFailedOperations()) {
+                    return Mono.just(resp);
+                }
+                log.atDebug().setMessage("Response has some errors...: {}").addArgument(response.body).log();
+                log.atDebug().setMessage("... for request: {}")
+                    .addArgument(() -> body.toString(StandardCharsets.UTF_8)).log();
+                // Remove all successful documents for the next bulk request attempt
+                var successfulDocs = resp.getSuccessfulDocs();
+                successfulDocs.forEach(docsMap::remove);
+                log.atWarn()
+                    .setMessage("After bulk request on index '{}', {} more documents have succeed, {} remain")
+                    .addArgument(indexName)
+                    .addArgument(successfulDocs::size)
+                    .addArgument(docsMap::size)
+                    .log();
+                return Mono.error(new OperationFailed(resp.getFailureMessage(), resp));
+            });
+    }
+
     public HttpResponse refresh(IRfsContexts.IRequestContext context) {
         String targetPath = "_refresh";
         return client.get(targetPath, context);
     }
 
     public static class BulkResponse extends HttpResponse {
+        private static final Pattern REJECTED_EXECUTION_PATTERN = Pattern.compile("rejected_execution_exception");
+
         public BulkResponse(int statusCode, String statusText, Map<String, String> headers, String body) {
             super(statusCode, statusText, headers, body);
         }
@@ -395,6 +449,14 @@ public abstract class OpenSearchClient {
             return matcher.find();
         }
 
+        /**
+         * True when the target pushed back on the request as a whole (429) or on some of its operations because its
+         * write thread pool queue was full (es_rejected_execution_exception / rejected_execution_exception).
+         */
+        public boolean isThrottled() {
+            return statusCode == 429 || REJECTED_EXECUTION_PATTERN.matcher(body).find();
+        }
+
         public List<String> getSuccessfulDocs() {
             try {
                 return BulkResponseParser.findSuccessDocs(body);
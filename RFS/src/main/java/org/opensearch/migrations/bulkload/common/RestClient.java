@@ -11,30 +11,38 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.opensearch.migrations.bulkload.common.http.CompositeTransformer;
 import org.opensearch.migrations.bulkload.common.http.ConnectionContext;
 import org.opensearch.migrations.bulkload.common.http.GzipPayloadRequestTransformer;
 import org.opensearch.migrations.bulkload.common.http.HttpResponse;
+import org.opensearch.migrations.bulkload.common.http.HttpTransportSettings;
 import org.opensearch.migrations.bulkload.common.http.TlsCredentialsProvider;
 import org.opensearch.migrations.bulkload.netty.ReadMeteringHandler;
 import org.opensearch.migrations.bulkload.netty.WriteMeteringHandler;
 import org.opensearch.migrations.bulkload.tracing.IRfsContexts;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelPipeline;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http2.Http2SecurityUtil;
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ApplicationProtocolNames;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SupportedCipherSuiteFilter;
 import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 import reactor.netty.Connection;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.http.client.HttpClientRequest;
 import reactor.netty.resources.ConnectionProvider;
@@ -74,20 +82,42 @@ public class RestClient {
             : HttpClient.create(ConnectionProvider.create("RestClient", maxConnections)));
     }
 
+    /**
+     * Creates a client whose connection pool and protocol are tuned with transportSettings.  Request bodies that
+     * are already encoded (see {@link #asyncRequestWithBytes}) are sent as they are, without being copied.
+     */
+    public RestClient(ConnectionContext connectionContext, HttpTransportSettings transportSettings) {
+        this(connectionContext, HttpClient.create(createConnectionProvider(transportSettings)),
+            transportSettings.isHttp2());
+    }
+
     protected RestClient(ConnectionContext connectionContext, HttpClient httpClient) {
+        this(connectionContext, httpClient, false);
+    }
+
+    protected RestClient(ConnectionContext connectionContext, HttpClient httpClient, boolean http2) {
         this.connectionContext = connectionContext;
         TlsCredentialsProvider tlsCredentialsProvider = connectionContext.getTlsCredentialsProvider();
 
         SslProvider sslProvider;
 
         if (tlsCredentialsProvider != null) {
-            sslProvider = getSslProvider(tlsCredentialsProvider);
+            sslProvider = getSslProvider(tlsCredentialsProvider, http2);
         } else if (connectionContext.isInsecure()) {
-            sslProvider = getInsecureSslProvider();
+            sslProvider = getInsecureSslProvider(http2);
         } else {
             sslProvider = SslProvider.defaultClientProvider();
         }
 
+        if (http2) {
+            // Protocols are negotiated with ALPN over TLS and with an upgrade request over cleartext
+            httpClient = httpClient.protocol(
+                ConnectionContext.Protocol.HTTPS.equals(connectionContext.getProtocol())
+                    ? HttpProtocol.H2
+                    : HttpProtocol.H2C,
+                HttpProtocol.HTTP11);
+        }
+
         this.client = httpClient
             .secure(sslProvider)
             .baseUrl(connectionContext.getUri().toString())
@@ -95,6 +125,19 @@ public class RestClient {
             .keepAlive(true);
     }
 
+    static ConnectionProvider createConnectionProvider(HttpTransportSettings transportSettings) {
+        var builder = ConnectionProvider.builder("RestClient")
+            .maxConnections(transportSettings.getMaxConnections())
+            .maxIdleTime(transportSettings.getMaxIdleTime())
+            .evictInBackground(transportSettings.getEvictionInterval())
+            .pendingAcquireMaxCount(transportSettings.getPendingAcquireMaxCount())
+            .pendingAcquireTimeout(transportSettings.getPendingAcquireTimeout());
+        if (transportSettings.getMaxLifeTime() != null) {
+            builder.maxLifeTime(transportSettings.getMaxLifeTime());
+        }
+        return (transportSettings.isLifo() ? builder.lifo() : builder.fifo()).build();
+    }
+
     public static String getHostHeaderValue(ConnectionContext connectionContext) {
         String host = connectionContext.getUri().getHost();
         int port = connectionContext.getUri().getPort();
@@ -124,12 +167,75 @@ public class RestClient {
 
     public Mono<HttpResponse> asyncRequest(HttpMethod method, String path, String body, Map<String, List<String>> additionalHeaders,
                                            @Nullable IRfsContexts.IRequestContext context) {
+        var bodyBuffer = body == null ? null : ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8));
+        return asyncRequestWithBytes(method, path, bodyBuffer, additionalHeaders, context);
+    }
+
+    /**
+     * Same as {@link #asyncRequest}, but takes an already encoded body.  The buffer must remain valid until the
+     * returned Mono terminates.
+     */
+    public Mono<HttpResponse> asyncRequestWithBytes(HttpMethod method, String path, @Nullable ByteBuffer body,
+                                                    Map<String, List<String>> additionalHeaders,
+                                                    @Nullable IRfsContexts.IRequestContext context) {
+        return asyncRequestWithBody(method, path, body != null, Mono.justOrEmpty(body), Unpooled::wrappedBuffer,
+            additionalHeaders, context);
+    }
+
+    /**
+     * Same as {@link #asyncRequestWithBytes}, but takes a body in a Netty buffer that is handed to Netty without
+     * being copied.  Every attempt to send the body holds its own reference to the buffer, which Netty releases
+     * once it has finished writing it, so the caller may release its reference as soon as the returned Mono
+     * terminates or is cancelled, even if a write is still in progress.
+     */
+    public Mono<HttpResponse> asyncRequestWithBuffer(HttpMethod method, String path, ByteBuf body,
+                                                     Map<String, List<String>> additionalHeaders,
+                                                     @Nullable IRfsContexts.IRequestContext context) {
+        var sendReference = new AtomicReference<ByteBuf>();
+        var sendView = new AtomicReference<ByteBuffer>();
+        var retainedBody = Mono.fromSupplier(() -> {
+            var retained = body.retainedDuplicate();
+            var view = retained.nioBuffer();
+            sendReference.set(retained);
+            sendView.set(view);
+            return view;
+        });
+        Function<ByteBuffer, ByteBuf> toNettyBuffer = transformedBody -> {
+            var retained = sendReference.getAndSet(null);
+            if (retained == null) {
+                // The same transformed body is being sent again, e.g. after a connection reset
+                retained = body.retainedDuplicate();
+            }
+            if (transformedBody == sendView.get()) {
+                // Netty releases this reference once it has been written
+                return retained;
+            }
+            // A transformer, e.g. gzip, has already copied the body into a buffer of its own
+            retained.release();
+            return Unpooled.wrappedBuffer(transformedBody);
+        };
+        return asyncRequestWithBody(method, path, true, retainedBody, toNettyBuffer, additionalHeaders, context)
+            .doFinally(signal -> {
+                // Transformers like SigV4 read the body before it is sent, so an attempt can end without the
+                // reference reaching Netty
+                var unsent = sendReference.getAndSet(null);
+                if (unsent != null) {
+                    unsent.release();
+                }
+            });
+    }
+
+    private Mono<HttpResponse> asyncRequestWithBody(HttpMethod method, String path, boolean hasBody,
+                                                    Mono<ByteBuffer> body,
+                                                    Function<ByteBuffer, ByteBuf> toNettyBuffer,
+                                                    Map<String, List<String>> additionalHeaders,
+                                                    @Nullable IRfsContexts.IRequestContext context) {
         assert connectionContext.getUri() != null;
         Map<String, List<String>> headers = new HashMap<>();
         headers.put(USER_AGENT_HEADER_NAME, List.of(USER_AGENT));
         var hostHeaderValue = getHostHeaderValue(connectionContext);
         headers.put(HOST_HEADER_NAME, List.of(hostHeaderValue));
-        if (body != null) {
+        if (hasBody) {
             headers.put(CONTENT_TYPE_HEADER_NAME, List.of(JSON_CONTENT_TYPE));
         }
         if (additionalHeaders != null) {
@@ -146,16 +252,14 @@ public class RestClient {
         return new CompositeTransformer(
             new GzipPayloadRequestTransformer(),
             connectionContext.getRequestTransformer()
-        ).transform(method.name(), path, headers, Mono.justOrEmpty(body)
-                .map(b -> ByteBuffer.wrap(b.getBytes(StandardCharsets.UTF_8)))
-            )
+        ).transform(method.name(), path, headers, body)
             .flatMap(transformedRequest ->
                 client.doOnRequest((r, conn) -> contextCleanupRef.set(addSizeMetricsHandlersAndGetCleanup(context).apply(r, conn)))
                 .headers(h -> transformedRequest.getHeaders().forEach(h::add))
                 .compress(hasGzipResponseHeaders(transformedRequest.getHeaders()))
                 .request(method)
                 .uri("/" + path)
-                .send(transformedRequest.getBody().map(Unpooled::wrappedBuffer))
+                .send(transformedRequest.getBody().map(toNettyBuffer))
                 .responseSingle(
                     (response, bytes) -> bytes.asString()
                         .singleOptional()
@@ -222,6 +326,27 @@ public class RestClient {
         return asyncRequest(HttpMethod.POST, path, body, additionalHeaders, context);
     }
 
+    public Mono<HttpResponse> postBytesAsync(
+        String path,
+        ByteBuffer body,
+        Map<String, List<String>> additionalHeaders,
+        IRfsContexts.IRequestContext context
+    ) {
+        return asyncRequestWithBytes(HttpMethod.POST, path, body, additionalHeaders, context);
+    }
+
+    /**
+     * See {@link #asyncRequestWithBuffer} for how the buffer's references are managed.
+     */
+    public Mono<HttpResponse> postBufferAsync(
+        String path,
+        ByteBuf body,
+        Map<String, List<String>> additionalHeaders,
+        IRfsContexts.IRequestContext context
+    ) {
+        return asyncRequestWithBuffer(HttpMethod.POST, path, body, additionalHeaders, context);
+    }
+
     public Mono<HttpResponse> postAsync(String path, String body, IRfsContexts.IRequestContext context) {
         return asyncRequest(HttpMethod.POST, path, body, null, context);
     }
@@ -267,9 +392,23 @@ public class RestClient {
             };
     }
 
-    private SslProvider getSslProvider(TlsCredentialsProvider tlsCredentialsProvider) {
+    private static SslContextBuilder configureForHttp2(SslContextBuilder builder, boolean http2) {
+        if (!http2) {
+            return builder;
+        }
+        return builder
+            .ciphers(Http2SecurityUtil.CIPHERS, SupportedCipherSuiteFilter.INSTANCE)
+            .applicationProtocolConfig(new ApplicationProtocolConfig(
+                ApplicationProtocolConfig.Protocol.ALPN,
+                ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+                ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+                ApplicationProtocolNames.HTTP_2,
+                ApplicationProtocolNames.HTTP_1_1));
+    }
+
+    private SslProvider getSslProvider(TlsCredentialsProvider tlsCredentialsProvider, boolean http2) {
         try {
-            SslContextBuilder builder = SslContextBuilder.forClient();
+            SslContextBuilder builder = configureForHttp2(SslContextBuilder.forClient(), http2);
 
             if (tlsCredentialsProvider.hasCACredentials()) {
                 builder.trustManager(tlsCredentialsProvider.getCaCertInputStream());
@@ -298,9 +437,9 @@ public class RestClient {
         }
     }
 
-    private SslProvider getInsecureSslProvider() {
+    private SslProvider getInsecureSslProvider(boolean http2) {
         try {
-            SslContext sslContext = SslContextBuilder.forClient()
+            SslContext sslContext = configureForHttp2(SslContextBuilder.forClient(), http2)
                 .trustManager(InsecureTrustManagerFactory.INSTANCE)
                 .build();
 
@@ -35,16 +35,28 @@ public class RfsDocument {
         );
     }
 
+    /**
+     * Transforms the documents as one batch.  Transformers that prefer serialized JSON get the batch as JSON text,
+     * so sources that were never parsed are handed over without building maps for them, and their output is read
+     * back without building maps either.  Otherwise, each document is passed as a map.
+     */
     @SuppressWarnings("unchecked")
     public static List<RfsDocument> transform(IJsonTransformer transformer, List<RfsDocument> docs) {
-        var listOfDocMaps = docs.stream().map(doc -> doc.document.toMap())
-                .toList();
-
         // Use the first progressCheckpointNum in the batch to associate with all returned objects
         var progressCheckpointNum = docs.stream().findFirst().map(doc -> doc.progressCheckpointNum).orElseThrow(
                 () -> new IllegalArgumentException("Expected non-empty list of docs, but was empty.")
         );
 
+        if (transformer.prefersSerializedJson()) {
+            var sections = docs.stream().map(doc -> doc.document).toList();
+            var transformedJson = transformer.transformSerializedJson(BulkDocSection.toSerializedJsonArray(sections));
+            return BulkDocSection.fromSerializedJsonArray(transformedJson).stream()
+                .map(section -> new RfsDocument(progressCheckpointNum, section))
+                .collect(Collectors.toList());
+        }
+
+        var listOfDocMaps = docs.stream().map(doc -> doc.document.toMap())
+                .toList();
         var transformedObject = transformer.transformJson(listOfDocMaps);
         if (transformedObject instanceof List) {
             var transformedList = (List<Map<String, Object>>) transformedObject;
@@ -1,5 +1,7 @@
 package org.opensearch.migrations.bulkload.common;
 
+import java.nio.charset.StandardCharsets;
+
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
@@ -19,9 +21,13 @@ public class RfsLuceneDocument {
     // The Elasticsearch/OpenSearch _type of the document
     public final String type;
 
-    // The Elasticsearch/OpenSearch _source of the document
-    public final String source;
+    // The Elasticsearch/OpenSearch _source of the document, as the UTF-8 bytes stored in Lucene
+    public final byte[] source;
 
     // The Elasticsearch/OpenSearch custom shard routing of the document
     public final String routing;
+
+    public RfsLuceneDocument(int luceneDocNumber, String id, String type, String source, String routing) {
+        this(luceneDocNumber, id, type, source.getBytes(StandardCharsets.UTF_8), routing);
+    }
 }
@@ -5,12 +5,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Comparator;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.opensearch.migrations.bulkload.models.ShardMetadata;
 
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.core.ResponseBytes;
 import software.amazon.awssdk.core.async.AsyncResponseTransformer;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3AsyncClient;
@@ -36,6 +38,8 @@ public class S3Repo implements SourceRepo {
     private final S3Uri s3RepoUri;
     private final String s3Region;
     private final S3AsyncClient s3Client;
+    // When set, shards are unpacked with ranged GETs instead of downloading their blob files to s3LocalDir first
+    private final boolean streamBlobFiles;
 
     private static int extractVersion(String key) {
         try {
@@ -91,6 +95,10 @@ public class S3Repo implements SourceRepo {
     }
 
     public static S3Repo create(Path s3LocalDir, S3Uri s3Uri, String s3Region) {
+        return create(s3LocalDir, s3Uri, s3Region, false);
+    }
+
+    public static S3Repo create(Path s3LocalDir, S3Uri s3Uri, String s3Region, boolean streamBlobFiles) {
         S3AsyncClient s3Client = S3AsyncClient.crtBuilder()
             .region(Region.of(s3Region))
             .credentialsProvider(DefaultCredentialsProvider.create())
@@ -100,14 +108,19 @@ public class S3Repo implements SourceRepo {
             .minimumPartSizeInBytes(S3_MINIMUM_PART_SIZE_BYTES)
             .build();
 
-        return new S3Repo(s3LocalDir, s3Uri, s3Region, s3Client);
+        return new S3Repo(s3LocalDir, s3Uri, s3Region, s3Client, streamBlobFiles);
     }
 
     public S3Repo(Path s3LocalDir, S3Uri s3Uri, String s3Region, S3AsyncClient s3Client) {
+        this(s3LocalDir, s3Uri, s3Region, s3Client, false);
+    }
+
+    public S3Repo(Path s3LocalDir, S3Uri s3Uri, String s3Region, S3AsyncClient s3Client, boolean streamBlobFiles) {
         this.s3LocalDir = s3LocalDir;
         this.s3RepoUri = s3Uri;
         this.s3Region = s3Region;
         this.s3Client = s3Client;
+        this.streamBlobFiles = streamBlobFiles;
     }
 
     @Override
@@ -178,6 +191,31 @@ public class S3Repo implements SourceRepo {
         return filePath;
     }
 
+    @Override
+    public boolean supportsRangedBlobReads() {
+        return streamBlobFiles;
+    }
+
+    @Override
+    public CompletableFuture<byte[]> getBlobFileRange(String indexId, int shardId, String blobName,
+                                                      long offset, long length) {
+        String suffix = INDICES_PREFIX_STR + indexId + "/" + shardId + "/" + blobName;
+        S3Uri fileUri = new S3Uri(s3RepoUri.uri + "/" + suffix);
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+            .bucket(fileUri.bucketName)
+            .key(fileUri.key)
+            .range("bytes=" + offset + "-" + (offset + length - 1))
+            .build();
+
+        log.atDebug().setMessage("Fetching bytes {}-{} of {}")
+            .addArgument(offset)
+            .addArgument(() -> offset + length - 1)
+            .addArgument(fileUri.uri)
+            .log();
+        return s3Client.getObject(getObjectRequest, AsyncResponseTransformer.toBytes())
+            .thenApply(ResponseBytes::asByteArrayUnsafe);
+    }
+
     @Override
     public void prepBlobFiles(ShardMetadata shardMetadata) {
         try (S3TransferManager transferManager = S3TransferManager.builder().s3Client(s3Client).build()) {
@@ -1,15 +1,22 @@
 package org.opensearch.migrations.bulkload.common;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.opensearch.migrations.bulkload.models.ShardFileInfo;
 import org.opensearch.migrations.bulkload.models.ShardMetadata;
 
+import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import shadow.lucene9.org.apache.lucene.store.FSDirectory;
 import shadow.lucene9.org.apache.lucene.store.IOContext;
 import shadow.lucene9.org.apache.lucene.store.IndexOutput;
@@ -19,6 +26,12 @@ import shadow.lucene9.org.apache.lucene.util.BytesRef;
 @RequiredArgsConstructor
 @Slf4j
 public class SnapshotShardUnpacker {
+    // Bounds for unpacking straight from ranged reads of the source repo; at most
+    // MAX_FILES_FETCHED_CONCURRENTLY * MAX_RANGES_FETCHED_CONCURRENTLY_PER_FILE ranges are held in memory at once
+    static final long RANGED_READ_SIZE_BYTES = 8L * 1024 * 1024;
+    static final int MAX_FILES_FETCHED_CONCURRENTLY = 4;
+    static final int MAX_RANGES_FETCHED_CONCURRENTLY_PER_FILE = 4;
+
     private final SourceRepoAccessor repoAccessor;
     private final Path luceneFilesBasePath;
     private final ShardMetadata shardMetadata;
@@ -40,6 +53,13 @@ public class SnapshotShardUnpacker {
             // Some constants
             NativeFSLockFactory lockFactory = NativeFSLockFactory.INSTANCE;
 
+            if (repoAccessor.supportsRangedBlobReads()) {
+                return unpackFromRangedReads(lockFactory);
+            }
+            if (repoAccessor.supportsLinkingBlobFiles()) {
+                return unpackByLinking(lockFactory);
+            }
+
             // Ensure the blob files are prepped, if they need to be
             repoAccessor.prepBlobFiles(shardMetadata);
 
@@ -64,22 +84,7 @@ public class SnapshotShardUnpacker {
                             final BytesRef hash = fileMetadata.getMetaHash();
                             indexOutput.writeBytes(hash.bytes, hash.offset, hash.length);
                         } else {
-                            try (
-                                InputStream stream = new PartSliceStream(
-                                    repoAccessor,
-                                    fileMetadata,
-                                    shardMetadata.getIndexId(),
-                                    shardMetadata.getShardId()
-                                )
-                            ) {
-                                final byte[] buffer = new byte[Math.toIntExact(
-                                    Math.min(bufferSize, fileMetadata.getLength())
-                                )];
-                                int length;
-                                while ((length = stream.read(buffer)) > 0) {
-                                    indexOutput.writeBytes(buffer, 0, length);
-                                }
-                            }
+                            copyParts(fileMetadata, indexOutput);
                         }
                     }
                 }
@@ -93,6 +98,154 @@ public class SnapshotShardUnpacker {
         }
     }
 
+    private void copyParts(ShardFileInfo fileMetadata, IndexOutput indexOutput) throws IOException {
+        try (
+            InputStream stream = new PartSliceStream(
+                repoAccessor,
+                fileMetadata,
+                shardMetadata.getIndexId(),
+                shardMetadata.getShardId()
+            )
+        ) {
+            final byte[] buffer = new byte[Math.toIntExact(
+                Math.min(bufferSize, fileMetadata.getLength())
+            )];
+            int length;
+            while ((length = stream.read(buffer)) > 0) {
+                indexOutput.writeBytes(buffer, 0, length);
+            }
+        }
+    }
+
+    /**
+     * Links each Lucene file that is stored as a single blob to that blob, instead of copying it, so that the readers
+     * map the repo's files directly.  Files split into several parts are stitched together into a copy and the
+     * v__ files, whose contents are held in the shard metadata, are written out as usual.
+     */
+    private Path unpackByLinking(NativeFSLockFactory lockFactory) throws IOException {
+        Path luceneIndexDir = Paths.get(
+            luceneFilesBasePath + "/" + shardMetadata.getIndexName() + "/" + shardMetadata.getShardId()
+        );
+        Files.createDirectories(luceneIndexDir);
+        try (FSDirectory primaryDirectory = FSDirectory.open(luceneIndexDir, lockFactory)) {
+            for (ShardFileInfo fileMetadata : shardMetadata.getFiles()) {
+                var blobPath = fileMetadata.getName().startsWith("v__") || fileMetadata.getNumberOfParts() != 1
+                    ? null
+                    : repoAccessor.getBlobFilePath(shardMetadata.getIndexId(), shardMetadata.getShardId(),
+                        fileMetadata.partName(0)).toAbsolutePath();
+                if (blobPath != null && Files.size(blobPath) == fileMetadata.getLength()) {
+                    log.atInfo().setMessage("Linking - Blob Name: {}, Lucene Name: {}")
+                        .addArgument(fileMetadata::getName)
+                        .addArgument(fileMetadata::getPhysicalName)
+                        .log();
+                    Files.createSymbolicLink(luceneIndexDir.resolve(fileMetadata.getPhysicalName()), blobPath);
+                    continue;
+                }
+                log.atInfo().setMessage("Unpacking - Blob Name: {}, Lucene Name: {}")
+                    .addArgument(fileMetadata::getName)
+                    .addArgument(fileMetadata::getPhysicalName)
+                    .log();
+                try (IndexOutput indexOutput = primaryDirectory.createOutput(
+                    fileMetadata.getPhysicalName(),
+                    IOContext.DEFAULT
+                )) {
+                    if (fileMetadata.getName().startsWith("v__")) {
+                        final BytesRef hash = fileMetadata.getMetaHash();
+                        indexOutput.writeBytes(hash.bytes, hash.offset, hash.length);
+                    } else {
+                        copyParts(fileMetadata, indexOutput);
+                    }
+                }
+            }
+        }
+        return luceneIndexDir;
+    }
+
+    /**
+     * Writes each file's parts into the Lucene directory as they are fetched from the source repo with concurrent
+     * ranged reads, skipping the intermediate local copy of the blob files.  Ranges are written to each file in order,
+     * while several files are fetched at once.
+     */
+    private Path unpackFromRangedReads(NativeFSLockFactory lockFactory) throws IOException {
+        Path luceneIndexDir = Paths.get(
+            luceneFilesBasePath + "/" + shardMetadata.getIndexName() + "/" + shardMetadata.getShardId()
+        );
+        Files.createDirectories(luceneIndexDir);
+        try (FSDirectory primaryDirectory = FSDirectory.open(luceneIndexDir, lockFactory)) {
+            Flux.fromIterable(shardMetadata.getFiles())
+                .flatMap(fileMetadata -> unpackFileFromRangedReads(primaryDirectory, fileMetadata),
+                    MAX_FILES_FETCHED_CONCURRENTLY)
+                .then()
+                .block();
+        }
+        return luceneIndexDir;
+    }
+
+    private Mono<Void> unpackFileFromRangedReads(FSDirectory directory, ShardFileInfo fileMetadata) {
+        return Mono.using(
+            () -> {
+                log.atInfo().setMessage("Unpacking from ranged reads - Blob Name: {}, Lucene Name: {}")
+                    .addArgument(fileMetadata::getName)
+                    .addArgument(fileMetadata::getPhysicalName)
+                    .log();
+                return directory.createOutput(fileMetadata.getPhysicalName(), IOContext.DEFAULT);
+            },
+            indexOutput -> {
+                if (fileMetadata.getName().startsWith("v__")) {
+                    final BytesRef hash = fileMetadata.getMetaHash();
+                    return Mono.<Void>fromRunnable(() -> writeBytes(indexOutput, hash.bytes, hash.offset, hash.length));
+                }
+                return Flux.fromIterable(getBlobRanges(fileMetadata))
+                    .flatMapSequential(range -> Mono.fromFuture(() -> repoAccessor.getBlobFileRange(
+                            shardMetadata.getIndexId(),
+                            shardMetadata.getShardId(),
+                            range.blobName,
+                            range.offset,
+                            range.length)),
+                        MAX_RANGES_FETCHED_CONCURRENTLY_PER_FILE)
+                    .doOnNext(bytes -> writeBytes(indexOutput, bytes, 0, bytes.length))
+                    .then();
+            },
+            indexOutput -> {
+                try {
+                    indexOutput.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        );
+    }
+
+    private static void writeBytes(IndexOutput indexOutput, byte[] bytes, int offset, int length) {
+        try {
+            indexOutput.writeBytes(bytes, offset, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<BlobRange> getBlobRanges(ShardFileInfo fileMetadata) {
+        var ranges = new ArrayList<BlobRange>();
+        var numberOfParts = fileMetadata.getNumberOfParts();
+        // Single part files can report an unbounded part size, the part is then the whole file
+        var partSize = numberOfParts > 1 ? fileMetadata.getPartSize() : fileMetadata.getLength();
+        for (long part = 0; part < numberOfParts; part++) {
+            var partLength = Math.min(partSize, fileMetadata.getLength() - part * partSize);
+            for (long offset = 0; offset < partLength; offset += RANGED_READ_SIZE_BYTES) {
+                ranges.add(new BlobRange(fileMetadata.partName(part), offset,
+                    Math.min(RANGED_READ_SIZE_BYTES, partLength - offset)));
+            }
+        }
+        return ranges;
+    }
+
+    @AllArgsConstructor
+    static class BlobRange {
+        final String blobName;
+        final long offset;
+        final long length;
+    }
+
     public static class CouldNotUnpackShard extends RfsException {
         public CouldNotUnpackShard(String message, Exception e) {
             super(message, e);
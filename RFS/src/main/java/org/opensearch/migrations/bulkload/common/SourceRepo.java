@@ -1,6 +1,7 @@
 package org.opensearch.migrations.bulkload.common;
 
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 import org.opensearch.migrations.bulkload.models.ShardMetadata;
 
@@ -26,4 +27,25 @@ public interface SourceRepo {
     * may involve no work at all, bulk downloading objects from a remote source, or any other operations.
     */
     public void prepBlobFiles(ShardMetadata shardMetadata);
+
+    /*
+    * Whether byte ranges of blob files can be fetched straight from the source with getBlobFileRange, which lets a
+    * shard be unpacked without first staging its blob files locally through prepBlobFiles.
+    */
+    public default boolean supportsRangedBlobReads() {
+        return false;
+    }
+
+    /*
+    * Whether the files at getBlobFilePath are stable, local copies of the blob files that the Lucene directory can
+    * link to instead of holding copies of.  Blobs stored as a single part are byte-identical to the Lucene files.
+    */
+    public default boolean supportsLinkingBlobFiles() {
+        return false;
+    }
+
+    public default CompletableFuture<byte[]> getBlobFileRange(String indexId, int shardId, String blobName,
+                                                              long offset, long length) {
+        throw new UnsupportedOperationException("Ranged blob reads are not supported by " + getClass().getSimpleName());
+    }
 }
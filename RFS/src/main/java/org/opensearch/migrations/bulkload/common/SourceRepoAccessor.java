@@ -2,6 +2,7 @@ package org.opensearch.migrations.bulkload.common;
 
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 
 import org.opensearch.migrations.bulkload.models.ShardMetadata;
 
@@ -49,6 +50,22 @@ public abstract class SourceRepoAccessor {
         repo.prepBlobFiles(shardMetadata);
     }
 
+    public Path getBlobFilePath(String indexId, int shardId, String blobName) {
+        return repo.getBlobFilePath(indexId, shardId, blobName);
+    }
+
+    public boolean supportsLinkingBlobFiles() {
+        return repo.supportsLinkingBlobFiles();
+    }
+
+    public boolean supportsRangedBlobReads() {
+        return repo.supportsRangedBlobReads();
+    }
+
+    public CompletableFuture<byte[]> getBlobFileRange(String indexId, int shardId, String blobName, long offset, long length) {
+        return repo.getBlobFileRange(indexId, shardId, blobName, offset, length);
+    }
+
     protected abstract InputStream load(Path path);
 
     public static class CouldNotLoadRepoFile extends RuntimeException {
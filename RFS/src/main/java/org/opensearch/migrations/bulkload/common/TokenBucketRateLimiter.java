@@ -0,0 +1,94 @@
+package org.opensearch.migrations.bulkload.common;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caps the rate of documents and bytes sent to the target with a pair of token buckets, each of which allows a burst
+ * of up to one second's worth of its rate.  Callers reserve what they are about to send and wait for the returned
+ * duration before sending it.  Reservations larger than a bucket still go through, they just go into debt that later
+ * reservations wait out, so any batch size can be throttled.
+ *
+ * The rates can be changed at any time, which takes effect for the next reservation.  A rate that isn't positive
+ * means that dimension isn't limited.
+ */
+@Slf4j
+public class TokenBucketRateLimiter {
+    private final LongSupplier nanoTimeSupplier;
+    private final Bucket docsBucket;
+    private final Bucket bytesBucket;
+
+    public TokenBucketRateLimiter(double docsPerSecond, double bytesPerSecond) {
+        this(docsPerSecond, bytesPerSecond, System::nanoTime);
+    }
+
+    public TokenBucketRateLimiter(double docsPerSecond, double bytesPerSecond, LongSupplier nanoTimeSupplier) {
+        this.nanoTimeSupplier = nanoTimeSupplier;
+        var now = nanoTimeSupplier.getAsLong();
+        this.docsBucket = new Bucket(docsPerSecond, now);
+        this.bytesBucket = new Bucket(bytesPerSecond, now);
+    }
+
+    public synchronized void setRates(double docsPerSecond, double bytesPerSecond) {
+        var now = nanoTimeSupplier.getAsLong();
+        if (docsBucket.setRate(docsPerSecond, now) | bytesBucket.setRate(bytesPerSecond, now)) {
+            log.atInfo().setMessage("Rate limit set to {} docs/s and {} bytes/s")
+                .addArgument(() -> docsPerSecond > 0 ? docsPerSecond : "unlimited")
+                .addArgument(() -> bytesPerSecond > 0 ? bytesPerSecond : "unlimited")
+                .log();
+        }
+    }
+
+    /**
+     * @return how long the caller must wait before sending the docs and bytes so that the rates are respected
+     */
+    public synchronized Duration reserve(long docs, long bytes) {
+        var now = nanoTimeSupplier.getAsLong();
+        var waitNanos = Math.max(docsBucket.reserve(docs, now), bytesBucket.reserve(bytes, now));
+        return Duration.ofNanos(waitNanos);
+    }
+
+    private static class Bucket {
+        private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+        private double ratePerSecond;
+        private double tokens;
+        private long lastRefillNanos;
+
+        Bucket(double ratePerSecond, long nowNanos) {
+            this.ratePerSecond = ratePerSecond;
+            this.tokens = Math.max(ratePerSecond, 0);
+            this.lastRefillNanos = nowNanos;
+        }
+
+        boolean setRate(double newRatePerSecond, long nowNanos) {
+            if (newRatePerSecond == ratePerSecond) {
+                return false;
+            }
+            refill(nowNanos);
+            ratePerSecond = newRatePerSecond;
+            // Keep any debt, but don't carry over a burst larger than the new rate allows
+            tokens = Math.min(tokens, Math.max(newRatePerSecond, 0));
+            return true;
+        }
+
+        long reserve(long amount, long nowNanos) {
+            if (ratePerSecond <= 0) {
+                return 0;
+            }
+            refill(nowNanos);
+            tokens -= amount;
+            return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / ratePerSecond * NANOS_PER_SECOND);
+        }
+
+        private void refill(long nowNanos) {
+            if (ratePerSecond > 0) {
+                tokens = Math.min(ratePerSecond,
+                    tokens + (nowNanos - lastRefillNanos) / NANOS_PER_SECOND * ratePerSecond);
+            }
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.opensearch.migrations.bulkload.common.http;
+
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Connection pool and protocol settings for a RestClient that sends a steady stream of bulk requests.  The
+ * defaults reuse the most recently released connection first, so that the connections beyond what the current
+ * concurrency needs go idle and get closed, and they close idle connections before the 60 second idle timeout
+ * that load balancers in front of clusters commonly use would drop them underneath an in-flight request.
+ */
+@Builder
+@Getter
+@ToString
+public class HttpTransportSettings {
+    /** The most connections to keep open to the target */
+    @Builder.Default
+    private final int maxConnections = 10;
+
+    /** How long a connection can sit unused in the pool before it's closed */
+    @Builder.Default
+    private final Duration maxIdleTime = Duration.ofSeconds(50);
+
+    /** How long a connection can be used before it's closed once it's released, or null to never retire them */
+    private final Duration maxLifeTime;
+
+    /** How often to close idle and retired connections, rather than only when connections are acquired */
+    @Builder.Default
+    private final Duration evictionInterval = Duration.ofSeconds(30);
+
+    /**
+     * The most requests that can wait for a connection when all of them are in use, or -1 for no limit.  Callers
+     * that bound their own concurrency to maxConnections never have more than that waiting.
+     */
+    @Builder.Default
+    private final int pendingAcquireMaxCount = -1;
+
+    /** How long a request waits for a connection before failing */
+    @Builder.Default
+    private final Duration pendingAcquireTimeout = Duration.ofSeconds(45);
+
+    /** Reuse the most recently released connection first (LIFO) rather than the least recently released one */
+    @Builder.Default
+    private final boolean lifo = true;
+
+    /**
+     * Offer HTTP/2 (h2 over TLS, h2c otherwise), falling back to HTTP/1.1 when the target doesn't support it.
+     * With HTTP/2, concurrent requests are multiplexed over the pooled connections.
+     */
+    @Builder.Default
+    private final boolean http2 = false;
+}
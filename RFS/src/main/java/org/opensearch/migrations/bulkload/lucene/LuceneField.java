@@ -1,5 +1,7 @@
 package org.opensearch.migrations.bulkload.lucene;
 
+import java.util.Arrays;
+
 public interface LuceneField {
 
     public String name();
@@ -10,4 +12,20 @@ public interface LuceneField {
 
     public String utf8ToStringValue();
 
+    public byte[] utf8Value();
+
+    /**
+     * Returns the bytes of a BytesRef from any Lucene version, or null if it has none.  Stored fields are read into
+     * a fresh array per document, so the array is handed out as-is when the BytesRef covers all of it.
+     */
+    static byte[] utf8Bytes(byte[] bytes, int offset, int length) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (offset == 0 && length == bytes.length) {
+            return bytes;
+        }
+        return Arrays.copyOfRange(bytes, offset, offset + length);
+    }
+
 }
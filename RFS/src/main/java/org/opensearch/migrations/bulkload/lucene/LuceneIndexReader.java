@@ -64,9 +64,17 @@ public interface LuceneIndexReader {
 
      */
     default Flux<RfsLuceneDocument> readDocuments(int startDocIdx) {
+        return readDocuments(startDocIdx, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads the documents whose ids fall in [startDocIdx, endDocIdx), allowing several workers to each migrate a
+     * disjoint range of the same shard.
+     */
+    default Flux<RfsLuceneDocument> readDocuments(int startDocIdx, int endDocIdx) {
         return Flux.using(
             this::getReader,
-            reader -> LuceneReader.readDocsByLeavesFromStartingPosition(reader, startDocIdx),
+            reader -> LuceneReader.readDocsByLeavesFromStartingPosition(reader, startDocIdx, endDocIdx),
             reader -> {
                 try {
                     reader.close();
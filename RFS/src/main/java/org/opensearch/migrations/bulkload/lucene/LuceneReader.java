@@ -26,8 +26,10 @@ public class LuceneReader {
     /* Start reading docs from a specific segment and document id.
        If the startSegmentIndex is 0, it will start from the first segment.
        If the startDocId is 0, it will start from the first document in the segment.
+       Reading stops before endDocId, which is exclusive and may be past the last document of the index.
      */
-    static Publisher<RfsLuceneDocument> readDocsByLeavesFromStartingPosition(LuceneDirectoryReader reader, int startDocId) {
+    static Publisher<RfsLuceneDocument> readDocsByLeavesFromStartingPosition(LuceneDirectoryReader reader, int startDocId,
+                                                                             int endDocId) {
         var maxDocumentsToReadAtOnce = 100; // Arbitrary value
         log.atInfo().setMessage("{} documents in {} leaves found in the current Lucene index")
             .addArgument(reader::maxDoc)
@@ -37,8 +39,10 @@ public class LuceneReader {
         // Create shared scheduler for i/o bound document reading
         var sharedSegmentReaderScheduler = Schedulers.newBoundedElastic(maxDocumentsToReadAtOnce, Integer.MAX_VALUE, "sharedSegmentReader");
         return getSegmentsFromStartingSegment(reader.leaves(), startDocId)
+            .takeWhile(c -> c.getDocBaseInParent() < endDocId)
             .concatMapDelayError(c -> readDocsFromSegment(c,
                     startDocId,
+                    endDocId,
                     sharedSegmentReaderScheduler,
                     maxDocumentsToReadAtOnce,
                     reader.getIndexDirectoryPath())
@@ -95,8 +99,8 @@ public class LuceneReader {
         return Flux.fromIterable(sortedReaderAndBase.subList(index, sortedReaderAndBase.size()));
     }
 
-    static Flux<RfsLuceneDocument> readDocsFromSegment(ReaderAndBase readerAndBase, int docStartingId, Scheduler scheduler,
-                                                int concurrency, Path indexDirectoryPath) {
+    static Flux<RfsLuceneDocument> readDocsFromSegment(ReaderAndBase readerAndBase, int docStartingId, int docEndingId,
+                                                Scheduler scheduler, int concurrency, Path indexDirectoryPath) {
         var segmentReader = readerAndBase.getReader();
         var liveDocs = segmentReader.getLiveDocs();
 
@@ -104,7 +108,9 @@ public class LuceneReader {
 
         // Start at
         int startDocIdInSegment = Math.max(docStartingId - segmentDocBase, 0);
-        int numDocsToProcessInSegment = segmentReader.maxDoc() - startDocIdInSegment;
+        // Stop at
+        int endDocIdInSegment = Math.min(docEndingId - segmentDocBase, segmentReader.maxDoc());
+        int numDocsToProcessInSegment = Math.max(endDocIdInSegment - startDocIdInSegment, 0);
 
         // For any errors, we want to log the segment reader debug info so we can see which segment is causing the issue.
         // This allows us to pass the supplier to getDocument without having to recompute the debug info
@@ -157,7 +163,7 @@ public class LuceneReader {
 
         String openSearchDocId = null;
         String type = null;
-        String sourceBytes = null;
+        byte[] sourceBytes = null;
         String routing = null;
 
         try {
@@ -178,7 +184,7 @@ public class LuceneReader {
                     }
                     case "_source": {
                         // All versions (?)
-                        sourceBytes = field.utf8ToStringValue();
+                        sourceBytes = field.utf8Value();
                         break;
                     }
                     case "_routing": {
@@ -198,7 +204,7 @@ public class LuceneReader {
                 return null;  // Skip documents with missing id
             }
 
-            if (sourceBytes == null || sourceBytes.isEmpty()) {
+            if (sourceBytes == null || sourceBytes.length == 0) {
                 log.atWarn().setMessage("Skipping document with index {} from segment {} from source {}, it does not have the _source field enabled.")
                     .addArgument(luceneDocId)
                     .addArgument(getSegmentReaderDebugInfo)
@@ -34,4 +34,10 @@ public class Field9 implements LuceneField {
         }
         return null;
     }
+
+    @Override
+    public byte[] utf8Value() {
+        var bytesRef = wrapped.binaryValue();
+        return LuceneField.utf8Bytes(bytesRef.bytes, bytesRef.offset, bytesRef.length);
+    }
 }
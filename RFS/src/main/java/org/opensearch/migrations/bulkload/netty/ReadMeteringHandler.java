@@ -3,9 +3,9 @@ package org.opensearch.migrations.bulkload.netty;
 import java.util.function.IntConsumer;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
-import io.netty.handler.codec.http.HttpContent;
 import lombok.AllArgsConstructor;
 
 /**
@@ -20,8 +20,8 @@ public class ReadMeteringHandler extends ChannelInboundHandlerAdapter {
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
         if (msg instanceof ByteBuf) {
             sizeConsumer.accept(((ByteBuf) msg).readableBytes());
-        } else if (msg instanceof HttpContent) {
-            sizeConsumer.accept(((HttpContent) msg).content().readableBytes());
+        } else if (msg instanceof ByteBufHolder) { // HttpContent, or the data frames of an HTTP/2 stream
+            sizeConsumer.accept(((ByteBufHolder) msg).content().readableBytes());
         }
         super.channelRead(ctx, msg);
     }
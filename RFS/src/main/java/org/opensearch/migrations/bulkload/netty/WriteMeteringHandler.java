@@ -3,10 +3,10 @@ package org.opensearch.migrations.bulkload.netty;
 import java.util.function.IntConsumer;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.ChannelPromise;
-import io.netty.handler.codec.http.HttpContent;
 import lombok.AllArgsConstructor;
 
 /**
@@ -21,8 +21,8 @@ public class WriteMeteringHandler extends ChannelOutboundHandlerAdapter {
     public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
         if (msg instanceof ByteBuf) {
             sizeConsumer.accept(((ByteBuf) msg).readableBytes());
-        } else if (msg instanceof HttpContent) {
-            sizeConsumer.accept(((HttpContent) msg).content().readableBytes());
+        } else if (msg instanceof ByteBufHolder) { // HttpContent, or the data frames of an HTTP/2 stream
+            sizeConsumer.accept(((ByteBufHolder) msg).content().readableBytes());
         }
         super.write(ctx, msg, promise);
     }
@@ -27,6 +27,18 @@ public class OpenSearchWorkCoordinator_OS_2_11 extends OpenSearchWorkCoordinator
             super(httpClient, tolerableClientServerClockDifferenceSeconds, workerId, clock, workItemConsumer);
         }
 
+        public OpenSearchWorkCoordinator_OS_2_11(
+            AbstractedHttpClient httpClient,
+            long tolerableClientServerClockDifferenceSeconds,
+            String workerId,
+            Clock clock,
+            Consumer<WorkItemAndDuration> workItemConsumer,
+            int maxWorkItemsPerAcquisition
+        ) {
+            super(httpClient, tolerableClientServerClockDifferenceSeconds, workerId, clock, workItemConsumer,
+                maxWorkItemsPerAcquisition);
+        }
+
         protected String getCoordinationIndexSettingsBody(){
             return "{\n"
             + "  \"settings\": {\n"
@@ -71,6 +83,10 @@ public class OpenSearchWorkCoordinator_OS_2_11 extends OpenSearchWorkCoordinator
 
         protected String getPathForSingleDocumentUpdateByQuery() { return INDEX_NAME + "/_update_by_query?refresh=true&max_docs=1"; }
 
+        protected String getPathForMultiDocumentUpdateByQuery(int maxDocs) {
+            return INDEX_NAME + "/_update_by_query?refresh=true&conflicts=proceed&max_docs=" + maxDocs;
+        }
+
         protected String getPathForGets(String workItemId) {
             return INDEX_NAME + "/_doc/" + workItemId;
         }
@@ -205,8 +205,14 @@ public interface IWorkCoordinator extends AutoCloseable {
             String indexName;
             Integer shardNumber;
             Integer startingDocId;
+            // Exclusive upper bound of the doc ids covered by this item, null when it runs to the end of the shard
+            Integer endingDocId;
 
             public WorkItem(String indexName, Integer shardNumber, Integer startingDocId) {
+                this(indexName, shardNumber, startingDocId, null);
+            }
+
+            public WorkItem(String indexName, Integer shardNumber, Integer startingDocId, Integer endingDocId) {
                 if (indexName.contains(SEPARATOR)) {
                     throw new IllegalArgumentException(
                             "Illegal work item name: '" + indexName + "'.  " + "Work item names cannot contain '" + SEPARATOR + "'"
@@ -215,6 +221,7 @@ public interface IWorkCoordinator extends AutoCloseable {
                 this.indexName = indexName;
                 this.shardNumber = shardNumber;
                 this.startingDocId = startingDocId;
+                this.endingDocId = endingDocId;
             }
 
             @Override
@@ -226,6 +233,9 @@ public interface IWorkCoordinator extends AutoCloseable {
                 if (startingDocId != null) {
                     name += SEPARATOR + startingDocId;
                 }
+                if (endingDocId != null) {
+                    name += SEPARATOR + endingDocId;
+                }
                 return name;
             }
 
@@ -234,10 +244,11 @@ public interface IWorkCoordinator extends AutoCloseable {
                     return new WorkItem(input, null, null);
                 }
                 var components = input.split(SEPARATOR + "+");
-                if (components.length != 3) {
+                if (components.length != 3 && components.length != 4) {
                     throw new IllegalArgumentException("Illegal work item: '" + input + "'");
                 }
-                return new WorkItem(components[0], Integer.parseInt(components[1]), Integer.parseInt(components[2]));
+                return new WorkItem(components[0], Integer.parseInt(components[1]), Integer.parseInt(components[2]),
+                    components.length == 4 ? Integer.parseInt(components[3]) : null);
             }
         }
     }
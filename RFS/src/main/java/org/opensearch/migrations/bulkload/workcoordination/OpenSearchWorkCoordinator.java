@@ -7,9 +7,13 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -46,6 +50,7 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
     static final int CREATE_SUCCESSOR_WORK_ITEMS_RETRY_BASE_MS = 10; // last delay before failure: 10 seconds
     static final int MAX_CREATE_UNASSIGNED_SUCCESSOR_WORK_ITEM_RETRIES = 7; // last delay before failure: 1.2 seconds
     static final int MAX_MARK_AS_COMPLETED_RETRIES = 7; // last delay before failure: 1.2 seconds
+    public static final int DEFAULT_MAX_WORK_ITEMS_PER_ACQUISITION = 1;
 
 
     public static final String SCRIPT_VERSION_TEMPLATE = "{SCRIPT_VERSION}";
@@ -65,6 +70,13 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
     public static final String SOURCE_FIELD_NAME = "_source";
     public static final String SUCCESSOR_ITEMS_FIELD_NAME = "successor_items";
     public static final String SUCCESSOR_ITEM_DELIMITER = ",";
+    private static final String LEASE_HOLDERS_AGGREGATION_NAME = "lease_holders";
+
+    // A document, outside of the work items, that operators can write to cap the docs and bytes sent per second
+    // by all of the workers together
+    public static final String RATE_LIMIT_DOCUMENT_ID = "rate_limit";
+    public static final String DOCS_PER_SECOND_FIELD_NAME = "docsPerSecond";
+    public static final String BYTES_PER_SECOND_FIELD_NAME = "bytesPerSecond";
 
     public static final int CREATED_RESPONSE_CODE = 201;
     public static final int CONFLICT_RESPONSE_CODE = 409;
@@ -127,6 +139,11 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
     @Getter
     private final Clock clock;
     private final Consumer<WorkItemAndDuration> workItemConsumer;
+    private final int maxWorkItemsPerAcquisition;
+    // Items that were leased to this worker by a batched acquisition but haven't been handed out yet
+    private final Deque<WorkItemWithPotentialSuccessors> leasedWorkItemQueue = new ConcurrentLinkedDeque<>();
+    // Items that were handed out from a batched acquisition and haven't been completed through this coordinator
+    private final Set<String> handedOutWorkItemIds = ConcurrentHashMap.newKeySet();
 
     protected OpenSearchWorkCoordinator(
         AbstractedHttpClient httpClient,
@@ -143,12 +160,35 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
         Clock clock,
         Consumer<WorkItemAndDuration> workItemConsumer
     ) {
+        this(httpClient, tolerableClientServerClockDifferenceSeconds, workerId, clock, workItemConsumer,
+            DEFAULT_MAX_WORK_ITEMS_PER_ACQUISITION);
+    }
+
+    /**
+     * @param maxWorkItemsPerAcquisition How many work items to lease in a single update_by_query when this worker
+     *                                   has nothing left in its local queue.  Items beyond the first are queued and
+     *                                   handed out by subsequent calls to acquireNextWorkItem, while their leases
+     *                                   last.  Queued items that are never handed out are released on close().
+     */
+    protected OpenSearchWorkCoordinator(
+        AbstractedHttpClient httpClient,
+        long tolerableClientServerClockDifferenceSeconds,
+        String workerId,
+        Clock clock,
+        Consumer<WorkItemAndDuration> workItemConsumer,
+        int maxWorkItemsPerAcquisition
+    ) {
+        if (maxWorkItemsPerAcquisition < 1) {
+            throw new IllegalArgumentException(
+                "maxWorkItemsPerAcquisition must be at least 1, but was " + maxWorkItemsPerAcquisition);
+        }
         this.tolerableClientServerClockDifferenceSeconds = tolerableClientServerClockDifferenceSeconds;
         this.httpClient = httpClient;
         this.workerId = workerId;
         this.clock = clock;
         this.objectMapper = new ObjectMapper();
         this.workItemConsumer = workItemConsumer;
+        this.maxWorkItemsPerAcquisition = maxWorkItemsPerAcquisition;
     }
 
     @FunctionalInterface
@@ -199,6 +239,12 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
 
     protected abstract String getPathForSingleDocumentUpdateByQuery();
 
+    /**
+     * The multi-document update must proceed past version conflicts, so that the items it did lease are
+     * reported in its "updated" count rather than being left leased to this worker behind a 409.
+     */
+    protected abstract String getPathForMultiDocumentUpdateByQuery(int maxDocs);
+
     protected abstract String getPathForGets(String workItemId);
 
     protected abstract String getPathForSearches();
@@ -431,6 +477,7 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
                 CREATE_SUCCESSOR_WORK_ITEMS_RETRY_BASE_MS,
                 ignored -> {}
             );
+            handedOutWorkItemIds.remove(workItemId);
     }
 
     private void completeWorkItemWithoutRetry(
@@ -542,6 +589,72 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
         return numWorkItemsNotYetCompleteInternal(contextSupplier) >= 1;
     }
 
+    /**
+     * @return the source of the fleet-wide rate limit document, if one has been written to the coordination index
+     */
+    public Optional<JsonNode> getSharedRateLimit() throws IOException {
+        var response = httpClient.makeJsonRequest(
+            AbstractedHttpClient.GET_METHOD,
+            getPathForGets(RATE_LIMIT_DOCUMENT_ID),
+            null,
+            null
+        );
+        if (response.getStatusCode() == 404) {
+            return Optional.empty();
+        }
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException(
+                "Getting the " + RATE_LIMIT_DOCUMENT_ID + " document returned an unexpected status code "
+                    + response.getStatusCode() + " instead of 200"
+            );
+        }
+        return Optional.ofNullable(objectMapper.readTree(response.getPayloadBytes()).get(SOURCE_FIELD_NAME));
+    }
+
+    /**
+     * @return the number of distinct workers holding unexpired leases, i.e. the workers that are busy migrating.  A
+     * worker that holds several leases is only counted once.  Like numWorkItemsNotYetComplete, this reads from the
+     * last refresh of the coordination index, and the count is approximate once it runs into the thousands.
+     */
+    public int numActiveLeases() throws IOException {
+        final var queryBody = "{\n"
+            + "\"query\": {"
+            + "  \"bool\": {"
+            + "    \"must\": ["
+            + "      { \"range\":"
+            + "        { \"" + EXPIRATION_FIELD_NAME + "\": { \"gte\": " + clock.instant().getEpochSecond() + " } }"
+            + "      }"
+            + "    ],"
+            + "    \"must_not\": ["
+            + "      { \"exists\":"
+            + "        { \"field\": \"" + COMPLETED_AT_FIELD_NAME + "\"}"
+            + "      }"
+            + "    ]"
+            + "  }"
+            + "},"
+            + "\"aggs\": {"
+            + "  \"" + LEASE_HOLDERS_AGGREGATION_NAME + "\": {"
+            + "    \"cardinality\": { \"field\": \"" + LEASE_HOLDER_ID_FIELD_NAME + "\" }"
+            + "  }"
+            + "},"
+            + "\"size\": 0"
+            + "}";
+
+        var response = httpClient.makeJsonRequest(AbstractedHttpClient.POST_METHOD, getPathForSearches(), null, queryBody);
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException(
+                "Querying for active leases returned an unexpected status code "
+                    + response.getStatusCode() + " instead of 200"
+            );
+        }
+        var leaseHolders = objectMapper.readTree(response.getPayloadBytes())
+            .path("aggregations").path(LEASE_HOLDERS_AGGREGATION_NAME).path("value");
+        if (!leaseHolders.isNumber()) {
+            throw new IllegalStateException("Querying for active leases didn't return a count of lease holders");
+        }
+        return leaseHolders.intValue();
+    }
+
     enum UpdateResult {
         SUCCESSFUL_ACQUISITION,
         VERSION_CONFLICT,
@@ -553,6 +666,19 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
      * @throws IOException if the request couldn't be made
      */
     UpdateResult assignOneWorkItem(long expirationWindowSeconds) throws IOException {
+        return assignWorkItems(expirationWindowSeconds, 1);
+    }
+
+    /**
+     * Leases up to maxWorkItems expired and incomplete work items to this worker with one update_by_query.  Each
+     * item gets its own lease, with a duration that doubles each time that the item is acquired, just as when
+     * items are acquired one at a time.
+     *
+     * @param expirationWindowSeconds How long the initial lease should be for
+     * @param maxWorkItems The most work items to lease
+     * @throws IOException if the request couldn't be made
+     */
+    UpdateResult assignWorkItems(long expirationWindowSeconds, int maxWorkItems) throws IOException {
         // the random_score reduces the number of version conflicts from ~1200 for 40 concurrent requests
         // to acquire 40 units of work to around 800
         final var queryUpdateTemplate = "{\n"
@@ -562,7 +688,7 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
             + "    \"boost_mode\": \"replace\"\n" + // Try to avoid the workers fighting for the same work items
             "  }"
             + "},"
-            + "\"size\": 1,\n"
+            + "\"size\": " + maxWorkItems + ",\n"
             + "\"script\": {"
             + "  \"params\": { \n"
             + "    \"clientTimestamp\": " + CLIENT_TIMESTAMP_TEMPLATE + ",\n"
@@ -606,7 +732,9 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
 
         var response = httpClient.makeJsonRequest(
             AbstractedHttpClient.POST_METHOD,
-            getPathForSingleDocumentUpdateByQuery(),
+            maxWorkItems == 1
+                ? getPathForSingleDocumentUpdateByQuery()
+                : getPathForMultiDocumentUpdateByQuery(maxWorkItems),
             null,
             body
         );
@@ -616,8 +744,9 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
         var resultTree = objectMapper.readTree(response.getPayloadBytes());
         final var numUpdated = resultTree.path(UPDATED_COUNT_FIELD_NAME).longValue();
         final var noops = resultTree.path("noops").longValue();
-        if (numUpdated > 1) {
-            throw new IllegalStateException("Updated leases for " + numUpdated + " work items instead of 0 or 1");
+        if (numUpdated > maxWorkItems) {
+            throw new IllegalStateException("Updated leases for " + numUpdated + " work items instead of at most "
+                + maxWorkItems);
         }
         if (numUpdated > 0) {
             return UpdateResult.SUCCESSFUL_ACQUISITION;
@@ -691,15 +820,96 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
         return rval;
     }
 
+    /**
+     * Reads back the items that a batched acquisition leased to this worker.  Other items that this worker holds
+     * unexpired leases for are ones that it has already handed out and are left out.
+     */
+    private List<WorkItemWithPotentialSuccessors> getAssignedWorkItemsUnsafe()
+        throws IOException, AssignedWorkDocumentNotFoundException {
+        final var queryWorkersAssignedItemsTemplate = "{\n"
+            + "  \"query\": {\n"
+            + "    \"bool\": {"
+            + "      \"must\": ["
+            + "        {"
+            + "          \"term\": { \"" + LEASE_HOLDER_ID_FIELD_NAME + "\": \"" + WORKER_ID_TEMPLATE + "\"}\n"
+            + "        },"
+            + "        {"
+            + "          \"range\": { \"" + EXPIRATION_FIELD_NAME + "\": { \"gt\": " + CLIENT_TIMESTAMP_TEMPLATE + " } }\n"
+            + "        }"
+            + "      ],"
+            + "      \"must_not\": ["
+            + "        {"
+            + "          \"exists\": { \"field\": \"" + COMPLETED_AT_FIELD_NAME + "\"}\n"
+            + "        }"
+            + "      ]"
+            + "    }"
+            + "  },"
+            + "  \"size\": " + (maxWorkItemsPerAcquisition + handedOutWorkItemIds.size())
+            + "}";
+        final var body = queryWorkersAssignedItemsTemplate.replace(WORKER_ID_TEMPLATE, workerId)
+            .replace(CLIENT_TIMESTAMP_TEMPLATE, Long.toString(clock.instant().toEpochMilli() / 1000));
+        var response = httpClient.makeJsonRequest(
+            AbstractedHttpClient.POST_METHOD,
+            getPathForSearches(),
+            null,
+            body
+        );
+
+        if (response.getStatusCode() >= 400) {
+            throw new AssignedWorkDocumentNotFoundException(response);
+        }
+
+        final var results = objectMapper.readTree(response.getPayloadBytes());
+        var workItems = new ArrayList<WorkItemWithPotentialSuccessors>();
+        for (var hit : results.path("hits").path("hits")) {
+            var workItemId = hit.get("_id").asText();
+            if (handedOutWorkItemIds.contains(workItemId)) {
+                continue;
+            }
+            var responseDoc = hit.get(SOURCE_FIELD_NAME);
+            var expiration = responseDoc.path(EXPIRATION_FIELD_NAME).longValue();
+            workItems.add(new WorkItemWithPotentialSuccessors(workItemId, Instant.ofEpochMilli(1000 * expiration),
+                getSuccessorItemsIfPresent(responseDoc)));
+        }
+        if (workItems.isEmpty()) {
+            throw new AssignedWorkDocumentNotFoundException(response);
+        }
+        log.atInfo().setMessage("Returning {} work items and leases: {}")
+            .addArgument(workItems::size)
+            .addArgument(workItems)
+            .log();
+        return workItems;
+    }
+
+    @FunctionalInterface
+    private interface AssignedWorkLookup<T> {
+        T lookup() throws IOException, AssignedWorkDocumentNotFoundException, MalformedAssignedWorkDocumentException;
+    }
+
     private WorkItemWithPotentialSuccessors getAssignedWorkItem(LeaseChecker leaseChecker,
                                                     IWorkCoordinationContexts.IAcquireNextWorkItemContext ctx)
         throws RetriesExceededException, InterruptedException
+    {
+        return getAssignedWork(leaseChecker, ctx, this::getAssignedWorkItemUnsafe);
+    }
+
+    private List<WorkItemWithPotentialSuccessors> getAssignedWorkItems(LeaseChecker leaseChecker,
+                                                           IWorkCoordinationContexts.IAcquireNextWorkItemContext ctx)
+        throws RetriesExceededException, InterruptedException
+    {
+        return getAssignedWork(leaseChecker, ctx, this::getAssignedWorkItemsUnsafe);
+    }
+
+    private <T> T getAssignedWork(LeaseChecker leaseChecker,
+                                  IWorkCoordinationContexts.IAcquireNextWorkItemContext ctx,
+                                  AssignedWorkLookup<T> lookup)
+        throws RetriesExceededException, InterruptedException
     {
         int malformedDocRetries = 0;
         int transientRetries = 0;
         while (true) {
             try {
-                return getAssignedWorkItemUnsafe();
+                return lookup.lookup();
             } catch (MalformedAssignedWorkDocumentException | IOException | AssignedWorkDocumentNotFoundException e) {
                 int retries;
                 if (e instanceof  MalformedAssignedWorkDocumentException) {
@@ -891,6 +1101,7 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
                     CREATE_SUCCESSOR_WORK_ITEMS_RETRY_BASE_MS,
                     e -> ctx.addTraceException(e, true)
             );
+            handedOutWorkItemIds.remove(workItemId);
         }
     }
 
@@ -1040,6 +1251,10 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
      * @throws IOException thrown if the update threw.  If there was a chance of work
      * item assignment, IOExceptions will be retried for the remainder of the leaseDuration.
      * @throws InterruptedException if the sleep() call that is waiting for the next retry is interrupted.
+     * <p>
+     * When this coordinator leases more than one work item per acquisition, items left over from the last
+     * acquisition are handed out first, without any requests to the coordination index, as long as at least
+     * half of the requested leaseDuration remains on their leases.
      */
     public WorkAcquisitionOutcome
     acquireNextWorkItem(Duration leaseDuration,
@@ -1052,24 +1267,28 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
             while (true) {
                 Duration sleepBeforeNextRetryDuration;
                 try {
-                    final var obtainResult = assignOneWorkItem(leaseDuration.toSeconds());
+                    var queuedWorkItem = pollLeasedWorkItemQueue(leaseDuration.dividedBy(2));
+                    if (queuedWorkItem != null) {
+                        ctx.recordAssigned();
+                        var workItemAndDuration = handOutWorkItem(queuedWorkItem, ctx);
+                        if (workItemAndDuration == null) {
+                            continue;
+                        }
+                        return workItemAndDuration;
+                    }
+                    final var obtainResult = assignWorkItems(leaseDuration.toSeconds(), maxWorkItemsPerAcquisition);
                     switch (obtainResult) {
                         case SUCCESSFUL_ACQUISITION:
+                            if (maxWorkItemsPerAcquisition > 1) {
+                                // hand the items out from the queue at the top of the loop
+                                leasedWorkItemQueue.addAll(getAssignedWorkItems(leaseChecker, ctx));
+                                continue;
+                            }
                             ctx.recordAssigned();
-                            var workItem = getAssignedWorkItem(leaseChecker, ctx);
-                            if (!workItem.successorWorkItemIds.isEmpty()) {
-                                // continue the previous work of creating the successors and marking this item as completed.
-                                createSuccessorWorkItemsAndMarkComplete(workItem.workItemId, workItem.successorWorkItemIds,
-                                        // in cases of partial successor creation, create with 0 nextAcquisitionLeaseExponent to use default
-                                        // lease duration
-                                        0,
-                                        ctx::getCreateSuccessorWorkItemsContext);
-                                // this item is not acquirable, so repeat the loop to find a new item.
+                            var workItemAndDuration = handOutWorkItem(getAssignedWorkItem(leaseChecker, ctx), ctx);
+                            if (workItemAndDuration == null) {
                                 continue;
                             }
-                            var workItemAndDuration = new WorkItemAndDuration(workItem.getLeaseExpirationTime(),
-                                    WorkItemAndDuration.WorkItem.valueFromWorkItemString(workItem.getWorkItemId()));
-                            workItemConsumer.accept(workItemAndDuration);
                             return workItemAndDuration;
                         case NOTHING_TO_ACQUIRE:
                             ctx.recordNothingAvailable();
@@ -1079,7 +1298,7 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
                             continue;
                         default:
                             throw new IllegalStateException(
-                                "unknown result from the assignOneWorkItem: " + obtainResult
+                                "unknown result from the assignWorkItems: " + obtainResult
                             );
                     }
                 } catch (PotentialClockDriftDetectedException e) {
@@ -1103,4 +1322,121 @@ public abstract class OpenSearchWorkCoordinator implements IWorkCoordinator {
             }
         }
     }
+
+    /**
+     * @return null if the item already had successors, which were created before marking the item as completed.
+     * Otherwise, the item and its lease, which has also been passed to the workItemConsumer.
+     */
+    private WorkItemAndDuration handOutWorkItem(WorkItemWithPotentialSuccessors workItem,
+                                                IWorkCoordinationContexts.IAcquireNextWorkItemContext ctx)
+        throws IOException, InterruptedException
+    {
+        if (!workItem.successorWorkItemIds.isEmpty()) {
+            // continue the previous work of creating the successors and marking this item as completed.
+            createSuccessorWorkItemsAndMarkComplete(workItem.workItemId, workItem.successorWorkItemIds,
+                    // in cases of partial successor creation, create with 0 nextAcquisitionLeaseExponent to use default
+                    // lease duration
+                    0,
+                    ctx::getCreateSuccessorWorkItemsContext);
+            // this item is not acquirable, so the caller needs to find a new item.
+            return null;
+        }
+        if (maxWorkItemsPerAcquisition > 1) {
+            handedOutWorkItemIds.add(workItem.getWorkItemId());
+        }
+        var workItemAndDuration = new WorkItemAndDuration(workItem.getLeaseExpirationTime(),
+                WorkItemAndDuration.WorkItem.valueFromWorkItemString(workItem.getWorkItemId()));
+        workItemConsumer.accept(workItemAndDuration);
+        return workItemAndDuration;
+    }
+
+    /**
+     * @return the next queued work item whose lease lasts for at least minimumRemainingLease, or null if there isn't
+     * one.  Items whose leases are too short to be worth starting are dropped, and their leases are released.
+     */
+    private WorkItemWithPotentialSuccessors pollLeasedWorkItemQueue(Duration minimumRemainingLease) {
+        var droppedWorkItems = new ArrayList<WorkItemWithPotentialSuccessors>();
+        try {
+            for (var workItem = leasedWorkItemQueue.poll(); workItem != null; workItem = leasedWorkItemQueue.poll()) {
+                if (workItem.getLeaseExpirationTime().isAfter(clock.instant().plus(minimumRemainingLease))) {
+                    return workItem;
+                }
+                log.atInfo().setMessage("Dropping queued work item {} because its lease is about to expire")
+                    .addArgument(workItem).log();
+                droppedWorkItems.add(workItem);
+            }
+            return null;
+        } finally {
+            if (!droppedWorkItems.isEmpty()) {
+                releaseUnstartedWorkItems(droppedWorkItems);
+            }
+        }
+    }
+
+    /**
+     * Gives up the leases on queued work items that were never handed out, so that other workers can acquire
+     * them right away instead of after their leases expire.  The lease exponent that acquiring them incremented
+     * is restored too, since no attempt was made to migrate them.
+     */
+    private void releaseLeasedWorkItems(List<WorkItemWithPotentialSuccessors> workItems) throws IOException {
+        final var releaseLeaseBodyTemplate = "{"
+            + "  \"script\": {"
+            + "    \"lang\": \"painless\","
+            + "    \"params\": { \"workerId\": \"" + WORKER_ID_TEMPLATE + "\" },"
+            + "    \"source\": \""
+            + "      if (ctx._source.scriptVersion == \\\"" + SCRIPT_VERSION_TEMPLATE + "\\\" && "
+            + "          ctx._source." + LEASE_HOLDER_ID_FIELD_NAME + " == params.workerId && "
+            + "          ctx._source." + COMPLETED_AT_FIELD_NAME + " == null) {"
+            + "        ctx._source." + EXPIRATION_FIELD_NAME + " = 0;"
+            + "        ctx._source.remove(\\\"" + LEASE_HOLDER_ID_FIELD_NAME + "\\\");"
+            + "        ctx._source.nextAcquisitionLeaseExponent = "
+            + "          Math.max(0, ctx._source.nextAcquisitionLeaseExponent - 1);"
+            + "      } else {"
+            + "        ctx.op = \\\"noop\\\";"
+            + "      }"
+            + "\""
+            + "  }"
+            + "}";
+        var releaseLeaseBody = releaseLeaseBodyTemplate.replace(SCRIPT_VERSION_TEMPLATE, "2.0")
+            .replace(WORKER_ID_TEMPLATE, workerId);
+
+        var body = new StringBuilder();
+        for (var workItem : workItems) {
+            body.append("{\"update\":{\"_id\":\"").append(workItem.getWorkItemId()).append("\"}}\n");
+            body.append(releaseLeaseBody).append("\n");
+        }
+        var response = httpClient.makeJsonRequest(
+            AbstractedHttpClient.POST_METHOD,
+            getPathForBulkUpdates(),
+            null,
+            body.toString()
+        );
+        if (response.getStatusCode() != 200 ||
+            objectMapper.readTree(response.getPayloadBytes()).path("errors").asBoolean()) {
+            throw new IllegalStateException("Couldn't release the leases for queued work items.  Response: "
+                + response.toDiagnosticString());
+        }
+    }
+
+    private void releaseUnstartedWorkItems(List<WorkItemWithPotentialSuccessors> unusedWorkItems) {
+        try {
+            releaseLeasedWorkItems(unusedWorkItems);
+            log.atInfo().setMessage("Released the leases for {} queued work items that weren't started")
+                .addArgument(unusedWorkItems::size).log();
+        } catch (Exception e) {
+            // Other workers will be able to acquire these once their leases expire
+            log.atWarn().setCause(e).setMessage("Couldn't release the leases for queued work items {}")
+                .addArgument(unusedWorkItems).log();
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (leasedWorkItemQueue.isEmpty()) {
+            return;
+        }
+        var unusedWorkItems = new ArrayList<>(leasedWorkItemQueue);
+        leasedWorkItemQueue.clear();
+        releaseUnstartedWorkItems(unusedWorkItems);
+    }
 }
@@ -0,0 +1,80 @@
+package org.opensearch.migrations.bulkload.workcoordination;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.opensearch.migrations.bulkload.common.TokenBucketRateLimiter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodically reads the fleet-wide rate limit from the coordination index and splits it evenly across the workers
+ * that currently hold leases.  This worker's share is never allowed to exceed its own configured limits, which are
+ * also what it falls back to while no fleet-wide limit has been set.
+ *
+ * Operators can set or change the fleet-wide limit while a migration is running by indexing a document with the id
+ * {@link OpenSearchWorkCoordinator#RATE_LIMIT_DOCUMENT_ID} and docsPerSecond and/or bytesPerSecond fields into
+ * {@link OpenSearchWorkCoordinator#INDEX_NAME}.
+ */
+@Slf4j
+public class SharedRateLimitPoller implements AutoCloseable {
+    private final OpenSearchWorkCoordinator workCoordinator;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final double workerDocsPerSecond;
+    private final double workerBytesPerSecond;
+    private final ScheduledExecutorService executor;
+
+    public SharedRateLimitPoller(OpenSearchWorkCoordinator workCoordinator,
+                                 TokenBucketRateLimiter rateLimiter,
+                                 double workerDocsPerSecond,
+                                 double workerBytesPerSecond,
+                                 Duration pollInterval) {
+        this.workCoordinator = workCoordinator;
+        this.rateLimiter = rateLimiter;
+        this.workerDocsPerSecond = workerDocsPerSecond;
+        this.workerBytesPerSecond = workerBytesPerSecond;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "sharedRateLimitPoller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::refresh, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void refresh() {
+        try {
+            var sharedRateLimit = workCoordinator.getSharedRateLimit();
+            if (sharedRateLimit.isEmpty()) {
+                rateLimiter.setRates(workerDocsPerSecond, workerBytesPerSecond);
+                return;
+            }
+            var activeWorkers = Math.max(1, workCoordinator.numActiveLeases());
+            var fleetDocsPerSecond = sharedRateLimit.get()
+                .path(OpenSearchWorkCoordinator.DOCS_PER_SECOND_FIELD_NAME).asDouble(0);
+            var fleetBytesPerSecond = sharedRateLimit.get()
+                .path(OpenSearchWorkCoordinator.BYTES_PER_SECOND_FIELD_NAME).asDouble(0);
+            rateLimiter.setRates(
+                getShare(fleetDocsPerSecond, activeWorkers, workerDocsPerSecond),
+                getShare(fleetBytesPerSecond, activeWorkers, workerBytesPerSecond)
+            );
+        } catch (Exception e) {
+            // Keep the last rates, the next poll will try again
+            log.atWarn().setCause(e).setMessage("Unable to refresh the shared rate limit").log();
+        }
+    }
+
+    static double getShare(double fleetRate, int activeWorkers, double workerRate) {
+        if (fleetRate <= 0) {
+            return workerRate;
+        }
+        var share = fleetRate / activeWorkers;
+        return workerRate > 0 ? Math.min(share, workerRate) : share;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -47,4 +47,21 @@ public class WorkCoordinatorFactory {
         }
     }
 
+    public OpenSearchWorkCoordinator get(
+            AbstractedHttpClient httpClient,
+            long tolerableClientServerClockDifferenceSeconds,
+            String workerId,
+            Clock clock,
+            Consumer<WorkItemAndDuration> workItemConsumer,
+            int maxWorkItemsPerAcquisition
+        ) {
+        if (VersionMatchers.isOS_1_X.or(VersionMatchers.isOS_2_X).or(VersionMatchers.isES_7_X).test(version)) {
+            return new OpenSearchWorkCoordinator_OS_2_11(httpClient, tolerableClientServerClockDifferenceSeconds, workerId, clock, workItemConsumer, maxWorkItemsPerAcquisition);
+        } else if (VersionMatchers.isES_6_X.or(VersionMatchers.isES_5_X).test(version)) {
+            return new OpenSearchWorkCoordinator_ES_6_8(httpClient, tolerableClientServerClockDifferenceSeconds, workerId, clock, workItemConsumer, maxWorkItemsPerAcquisition);
+        } else {
+            throw new IllegalArgumentException("Unsupported version: " + version);
+        }
+    }
+
 }
@@ -3,6 +3,7 @@ package org.opensearch.migrations.bulkload.worker;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -37,6 +38,8 @@ public class DocumentsRunner {
     private final Consumer<WorkItemCursor> cursorConsumer;
     private final Consumer<Runnable> cancellationTriggerConsumer;
     private final WorkItemTimeProvider timeProvider;
+    // Shards with more docs than this are split into doc range work items so that several workers can migrate them
+    private final int maxDocsPerWorkItem;
 
     public enum CompletionStatus {
         NOTHING_DONE,
@@ -139,11 +142,53 @@ public class DocumentsRunner {
 
         var unpacker = unpackerFactory.create(shardMetadata);
         var reader = readerFactory.getReader(unpacker.unpack());
+        var docRange = claimDocRange(workItem, reader, context);
         timeProvider.getDocumentMigraionStartTimeRef().set(Instant.now());
 
-        Flux<RfsLuceneDocument> documents = reader.readDocuments(workItem.getStartingDocId());
+        Flux<RfsLuceneDocument> documents = reader.readDocuments(docRange.getStartingDocId(),
+            Optional.ofNullable(docRange.getEndingDocId()).orElse(Integer.MAX_VALUE));
 
         return reindexer.reindex(workItem.getIndexName(), documents, context)
             .doOnNext(cursorConsumer);
     }
+
+    /**
+     * Returns the range of docs that this worker should migrate for the work item.  When the shard is too large for
+     * one worker, the remainder of the shard is added as unassigned doc range work items for other workers to pick up
+     * and only the first range is migrated here.  Ranges that already exist, e.g. because a predecessor of this work
+     * item already split the shard, are left alone.
+     */
+    private IWorkCoordinator.WorkItemAndDuration.WorkItem claimDocRange(
+        IWorkCoordinator.WorkItemAndDuration.WorkItem workItem,
+        LuceneIndexReader reader,
+        IDocumentMigrationContexts.IDocumentReindexContext context
+    ) {
+        if (workItem.getEndingDocId() != null || maxDocsPerWorkItem == Integer.MAX_VALUE) {
+            return workItem;
+        }
+        try {
+            var directoryReader = reader.getReader();
+            int maxDoc;
+            try {
+                maxDoc = directoryReader.maxDoc();
+            } finally {
+                directoryReader.close();
+            }
+            var docRanges = ShardWorkPreparer.splitIntoDocRanges(workItem, maxDoc, maxDocsPerWorkItem);
+            if (docRanges.size() > 1) {
+                log.atInfo().setMessage("Splitting {} with {} docs into {} doc range work items")
+                    .addArgument(workItem)
+                    .addArgument(maxDoc)
+                    .addArgument(docRanges.size())
+                    .log();
+            }
+            for (var docRange : docRanges.subList(1, docRanges.size())) {
+                workCoordinator.workCoordinator.createUnassignedWorkItem(docRange.toString(),
+                    context::createUnassignedWorkItemContext);
+            }
+            return docRanges.get(0);
+        } catch (IOException e) {
+            throw Lombok.sneakyThrow(e);
+        }
+    }
 }
@@ -2,6 +2,7 @@ package org.opensearch.migrations.bulkload.worker;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.IntStream;
 
@@ -148,4 +149,36 @@ public class ShardWorkPreparer {
             .setMessage("Finished setting up the Documents Work Items.")
             .log();
     }
+
+    /**
+     * Splits a shard work item that has no end bound into items that each cover at most docsPerWorkItem doc ids.
+     * Range boundaries are aligned to multiples of docsPerWorkItem so that splitting the same shard from any
+     * starting doc id (e.g. a successor of a work item whose lease expired) yields the same work item ids.
+     *
+     * The number of docs in a shard isn't recorded in the snapshot metadata, so this can only be called once the
+     * shard has been unpacked.  The first returned item starts at the given item's starting doc id and is meant to
+     * be migrated by the caller, the rest should be added as unassigned work items.
+     */
+    public static List<IWorkCoordinator.WorkItemAndDuration.WorkItem> splitIntoDocRanges(
+        IWorkCoordinator.WorkItemAndDuration.WorkItem workItem,
+        int maxDoc,
+        int docsPerWorkItem
+    ) {
+        if (workItem.getEndingDocId() != null || maxDoc - workItem.getStartingDocId() <= docsPerWorkItem) {
+            return List.of(workItem);
+        }
+        var docRanges = new ArrayList<IWorkCoordinator.WorkItemAndDuration.WorkItem>();
+        int rangeStart = workItem.getStartingDocId();
+        while (rangeStart < maxDoc) {
+            int rangeEnd = (int) Math.min((rangeStart / docsPerWorkItem + 1L) * docsPerWorkItem, Integer.MAX_VALUE);
+            docRanges.add(new IWorkCoordinator.WorkItemAndDuration.WorkItem(
+                workItem.getIndexName(),
+                workItem.getShardNumber(),
+                rangeStart,
+                rangeEnd
+            ));
+            rangeStart = rangeEnd;
+        }
+        return docRanges;
+    }
 }
@@ -1,5 +1,7 @@
 package org.opensearch.migrations.reindexer.tracing;
 
+import java.time.Duration;
+
 import org.opensearch.migrations.bulkload.tracing.IRfsContexts;
 import org.opensearch.migrations.bulkload.tracing.IWorkCoordinationContexts;
 import org.opensearch.migrations.bulkload.tracing.RfsContexts;
@@ -9,6 +11,7 @@ import org.opensearch.migrations.tracing.BaseSpanContext;
 import org.opensearch.migrations.tracing.CommonScopedMetricInstruments;
 import org.opensearch.migrations.tracing.IScopedInstrumentationAttributes;
 
+import io.opentelemetry.api.metrics.DoubleHistogram;
 import io.opentelemetry.api.metrics.Meter;
 import lombok.NonNull;
 
@@ -137,8 +140,11 @@ public interface DocumentMigrationContexts extends IDocumentMigrationContexts {
         }
 
         public static class MetricInstruments extends CommonScopedMetricInstruments {
+            public final DoubleHistogram throttleWaitDuration;
+
             private MetricInstruments(Meter meter, String activityName) {
                 super(meter, fromActivityName(activityName));
+                throttleWaitDuration = meter.histogramBuilder(MetricNames.THROTTLE_WAIT_DURATION).setUnit("ms").build();
             }
         }
 
@@ -185,5 +191,15 @@ public interface DocumentMigrationContexts extends IDocumentMigrationContexts {
         public IWorkCoordinationContexts.ICreateSuccessorWorkItemsContext createSuccessorWorkItemsContext() {
             return getWorkCoordinationRootContext().createSuccessorWorkItemsContext();
         }
+
+        @Override
+        public IWorkCoordinationContexts.ICreateUnassignedWorkItemContext createUnassignedWorkItemContext() {
+            return getWorkCoordinationRootContext().createUnassignedWorkContext();
+        }
+
+        @Override
+        public void recordThrottleWait(Duration waitTime) {
+            meterHistogramMillis(getMetrics().throttleWaitDuration, waitTime);
+        }
     }
 }
@@ -1,5 +1,7 @@
 package org.opensearch.migrations.reindexer.tracing;
 
+import java.time.Duration;
+
 import org.opensearch.migrations.bulkload.tracing.IRfsContexts;
 import org.opensearch.migrations.bulkload.tracing.IWorkCoordinationContexts;
 import org.opensearch.migrations.tracing.IScopedInstrumentationAttributes;
@@ -16,6 +18,8 @@ public interface IDocumentMigrationContexts {
 
     class MetricNames {
         private MetricNames() {}
+
+        public static final String THROTTLE_WAIT_DURATION = "throttleWaitDuration";
     }
 
     interface IShardSetupAttemptContext extends IScopedInstrumentationAttributes {
@@ -47,5 +51,9 @@ public interface IDocumentMigrationContexts {
 
         IWorkCoordinationContexts.ICreateSuccessorWorkItemsContext createSuccessorWorkItemsContext();
 
+        IWorkCoordinationContexts.ICreateUnassignedWorkItemContext createUnassignedWorkItemContext();
+
+        void recordThrottleWait(Duration waitTime);
+
     }
 }
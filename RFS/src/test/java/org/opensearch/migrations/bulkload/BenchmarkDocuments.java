@@ -0,0 +1,68 @@
+package org.opensearch.migrations.bulkload;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.opensearch.migrations.bulkload.common.BulkDocSection;
+import org.opensearch.migrations.bulkload.common.RfsDocument;
+import org.opensearch.migrations.bulkload.http.BulkRequestGenerator;
+import org.opensearch.migrations.data.workloads.Workloads;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * Documents for the RFS benchmarks, generated locally from the DataGenerator workloads so that every run measures
+ * the same realistic document shapes without needing a cluster or a snapshot.
+ */
+public class BenchmarkDocuments {
+    public static final String DOC_TYPE = "_doc";
+
+    private BenchmarkDocuments() {}
+
+    @AllArgsConstructor
+    public static class SourceDocument {
+        public final String id;
+        public final String indexName;
+        public final byte[] source;
+
+        public String sourceAsString() {
+            return new String(source, StandardCharsets.UTF_8);
+        }
+    }
+
+    /** Creates numDocs documents for the first index of the workload, with ids like the DataGenerator assigns */
+    public static List<SourceDocument> createSourceDocuments(Workloads workload, int numDocs) {
+        var workloadInstance = workload.getNewInstance().get();
+        var indexName = workloadInstance.indexNames().get(0);
+        var docs = new ArrayList<SourceDocument>(numDocs);
+        workloadInstance.createDocs(numDocs).forEach(doc -> docs.add(new SourceDocument(
+            indexName + "_" + (docs.size() + 1),
+            indexName,
+            doc.toString().getBytes(StandardCharsets.UTF_8)
+        )));
+        return docs;
+    }
+
+    public static List<RfsDocument> createRfsDocuments(Workloads workload, int numDocs) {
+        var docs = new ArrayList<RfsDocument>(numDocs);
+        for (var doc : createSourceDocuments(workload, numDocs)) {
+            docs.add(new RfsDocument(docs.size(),
+                new BulkDocSection(doc.id, doc.indexName, DOC_TYPE, doc.source, null)));
+        }
+        return docs;
+    }
+
+    /** Creates the response to a bulk request for the docs, where roughly failurePercent of the items failed */
+    public static String createBulkResponse(List<BulkDocSection> docs, int failurePercent, long seed) {
+        var random = new Random(seed);
+        var items = new ArrayList<BulkRequestGenerator.BulkItemResponseEntry>(docs.size());
+        for (var doc : docs) {
+            items.add(random.nextInt(100) < failurePercent
+                ? BulkRequestGenerator.itemEntryFailure(doc.getDocId())
+                : BulkRequestGenerator.itemEntry(doc.getDocId()));
+        }
+        return BulkRequestGenerator.bulkItemResponse(failurePercent > 0, items);
+    }
+}
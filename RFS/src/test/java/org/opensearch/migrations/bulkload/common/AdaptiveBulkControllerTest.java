@@ -0,0 +1,142 @@
+package org.opensearch.migrations.bulkload.common;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveBulkControllerTest {
+    private static final Duration TARGET_LATENCY = Duration.ofSeconds(1);
+    private static final Duration FAST = Duration.ofMillis(100);
+
+    private static final OpenSearchClient.BulkResponse OK_RESPONSE =
+        new OpenSearchClient.BulkResponse(200, "OK", Map.of(), "{\"took\":1,\"errors\":false,\"items\":[]}");
+    private static final OpenSearchClient.BulkResponse TOO_MANY_REQUESTS_RESPONSE =
+        new OpenSearchClient.BulkResponse(429, "Too Many Requests", Map.of(), "{}");
+    private static final OpenSearchClient.BulkResponse REJECTED_ITEMS_RESPONSE =
+        new OpenSearchClient.BulkResponse(200, "OK", Map.of(), "{\"took\":1,\"errors\":true,\"items\":[{\"index\":" +
+            "{\"_id\":\"1\",\"status\":429,\"error\":{\"type\":\"es_rejected_execution_exception\"}}}]}");
+    private static final OpenSearchClient.BulkResponse MAPPING_ERROR_RESPONSE =
+        new OpenSearchClient.BulkResponse(400, "Bad Request", Map.of(), "{\"error\":{\"type\":\"mapper_parsing_exception\"}}");
+
+    private MutableClock clock;
+    private AdaptiveBulkController controller;
+
+    static class MutableClock extends Clock {
+        Instant now = Instant.EPOCH;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        controller = new AdaptiveBulkController(1000, 16 * 1024 * 1024L, 8, TARGET_LATENCY, clock);
+    }
+
+    @Test
+    void startsAtTheConfiguredLimits() {
+        assertEquals(1000, controller.getDocsPerBulkRequest());
+        assertEquals(16 * 1024 * 1024L, controller.getBytesPerBulkRequest());
+        assertEquals(8, controller.getConcurrentRequests());
+    }
+
+    @Test
+    void throttledResponsesHalveTheLimits() {
+        controller.onBulkAttempt(FAST, TOO_MANY_REQUESTS_RESPONSE);
+        assertEquals(500, controller.getDocsPerBulkRequest());
+        assertEquals(8 * 1024 * 1024L, controller.getBytesPerBulkRequest());
+        assertEquals(4, controller.getConcurrentRequests());
+
+        clock.now = clock.now.plus(TARGET_LATENCY);
+        controller.onBulkAttempt(FAST, REJECTED_ITEMS_RESPONSE);
+        assertEquals(250, controller.getDocsPerBulkRequest());
+        assertEquals(2, controller.getConcurrentRequests());
+    }
+
+    @Test
+    void slowResponsesAndMissingResponsesHalveTheLimits() {
+        controller.onBulkAttempt(TARGET_LATENCY.plusMillis(1), OK_RESPONSE);
+        assertEquals(4, controller.getConcurrentRequests());
+
+        clock.now = clock.now.plus(TARGET_LATENCY);
+        controller.onBulkAttempt(FAST, null);
+        assertEquals(2, controller.getConcurrentRequests());
+    }
+
+    @Test
+    void burstsOfPushBackWithinOnePeriodOnlyDecreaseOnce() {
+        controller.onBulkAttempt(FAST, TOO_MANY_REQUESTS_RESPONSE);
+        controller.onBulkAttempt(FAST, TOO_MANY_REQUESTS_RESPONSE);
+        controller.onBulkAttempt(FAST, REJECTED_ITEMS_RESPONSE);
+        assertEquals(4, controller.getConcurrentRequests());
+        assertEquals(500, controller.getDocsPerBulkRequest());
+    }
+
+    @Test
+    void aRoundOfHealthyResponsesIncreasesTheLimitsUpToTheConfiguredMaximum() {
+        controller.onBulkAttempt(FAST, TOO_MANY_REQUESTS_RESPONSE);
+        assertEquals(4, controller.getConcurrentRequests());
+
+        for (int i = 0; i < 3; i++) {
+            controller.onBulkAttempt(FAST, OK_RESPONSE);
+        }
+        assertEquals(4, controller.getConcurrentRequests());
+        controller.onBulkAttempt(FAST, OK_RESPONSE);
+        assertEquals(5, controller.getConcurrentRequests());
+        assertEquals(625, controller.getDocsPerBulkRequest());
+
+        for (int i = 0; i < 100; i++) {
+            controller.onBulkAttempt(FAST, OK_RESPONSE);
+        }
+        assertEquals(8, controller.getConcurrentRequests());
+        assertEquals(1000, controller.getDocsPerBulkRequest());
+    }
+
+    @Test
+    void otherFailuresDoNotChangeTheLimits() {
+        controller.onBulkAttempt(FAST, MAPPING_ERROR_RESPONSE);
+        assertEquals(8, controller.getConcurrentRequests());
+        assertEquals(1000, controller.getDocsPerBulkRequest());
+    }
+
+    @Test
+    void withPermitHoldsRequestsBeyondTheCurrentConcurrency() {
+        var singleRequestController = new AdaptiveBulkController(1000, 1024L, 1, TARGET_LATENCY, clock);
+        var firstStarted = new AtomicBoolean();
+        var secondStarted = new AtomicBoolean();
+
+        var first = singleRequestController.withPermit(Mono.fromRunnable(() -> firstStarted.set(true)).then(Mono.never()))
+            .subscribe();
+        singleRequestController.withPermit(Mono.fromRunnable(() -> secondStarted.set(true))).subscribe();
+        assertTrue(firstStarted.get());
+        assertFalse(secondStarted.get());
+
+        first.dispose();
+        assertTrue(secondStarted.get());
+    }
+}
@@ -0,0 +1,127 @@
+package org.opensearch.migrations.bulkload.common;
+
+import java.util.List;
+import java.util.Map;
+
+import org.opensearch.migrations.bulkload.BenchmarkDocuments;
+import org.opensearch.migrations.bulkload.BenchmarkDocuments.SourceDocument;
+import org.opensearch.migrations.data.workloads.Workloads;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures building bulk sections from _source, sizing them for batching, and writing them into bulk request bodies.
+ * Sections with raw source are what documents read from Lucene start as, parsed ones are what come out of a
+ * transformation.  The per-section benchmarks cycle through the generated docs, one doc per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class BulkDocSectionBenchmark {
+    private static final int NUM_DOCS = 1000;
+
+    @Param({"GEONAMES", "HTTP_LOGS", "NESTED", "NYC_TAXIS"})
+    public Workloads workload;
+
+    private List<SourceDocument> sourceDocs;
+    private List<String> sourceStrings;
+    private List<BulkDocSection> rawSourceSections;
+    private List<BulkDocSection> parsedSourceSections;
+    private List<Map<String, Object>> sectionMaps;
+    private int nextDoc;
+
+    @Setup
+    public void setUp() {
+        sourceDocs = BenchmarkDocuments.createSourceDocuments(workload, NUM_DOCS);
+        sourceStrings = sourceDocs.stream().map(SourceDocument::sourceAsString).toList();
+        rawSourceSections = sourceDocs.stream()
+            .map(doc -> new BulkDocSection(doc.id, doc.indexName, BenchmarkDocuments.DOC_TYPE, doc.source, null))
+            .toList();
+        sectionMaps = rawSourceSections.stream().map(BulkDocSection::toMap).toList();
+        parsedSourceSections = sectionMaps.stream().map(BulkDocSection::fromMap).toList();
+        nextDoc = 0;
+    }
+
+    private int nextDoc() {
+        var doc = nextDoc;
+        nextDoc = (doc + 1) % NUM_DOCS;
+        return doc;
+    }
+
+    @Benchmark
+    public BulkDocSection createFromRawSource() {
+        var doc = sourceDocs.get(nextDoc());
+        return new BulkDocSection(doc.id, doc.indexName, BenchmarkDocuments.DOC_TYPE, doc.source, null);
+    }
+
+    @Benchmark
+    public BulkDocSection createFromSourceString() {
+        var i = nextDoc();
+        var doc = sourceDocs.get(i);
+        return new BulkDocSection(doc.id, doc.indexName, BenchmarkDocuments.DOC_TYPE, sourceStrings.get(i));
+    }
+
+    @Benchmark
+    public Map<String, Object> toMap() {
+        return rawSourceSections.get(nextDoc()).toMap();
+    }
+
+    @Benchmark
+    public BulkDocSection fromMap() {
+        return BulkDocSection.fromMap(sectionMaps.get(nextDoc()));
+    }
+
+    @Benchmark
+    public long getSerializedLengthOfRawSource() {
+        return rawSourceSections.get(nextDoc()).getSerializedLength();
+    }
+
+    @Benchmark
+    public long getSerializedLengthOfParsedSource() {
+        return parsedSourceSections.get(nextDoc()).getSerializedLength();
+    }
+
+    @Benchmark
+    public int serializeBulkBodyOfRawSource() {
+        return serializeBulkBody(rawSourceSections);
+    }
+
+    @Benchmark
+    public int serializeBulkBodyOfParsedSource() {
+        return serializeBulkBody(parsedSourceSections);
+    }
+
+    private static int serializeBulkBody(List<BulkDocSection> sections) {
+        var body = BulkDocSection.convertToBulkRequestBody(sections, PooledByteBufAllocator.DEFAULT);
+        try {
+            return body.readableBytes();
+        } finally {
+            body.release();
+        }
+    }
+
+    @Test
+    void serializedLengthsMatchTheBulkBody() {
+        for (var generatedWorkload : Workloads.values()) {
+            workload = generatedWorkload;
+            setUp();
+            var rawSourceLength = rawSourceSections.stream().mapToLong(s -> s.getSerializedLength() + 1).sum();
+            var parsedSourceLength = parsedSourceSections.stream().mapToLong(s -> s.getSerializedLength() + 1).sum();
+            assertEquals(rawSourceLength, serializeBulkBodyOfRawSource());
+            assertEquals(parsedSourceLength, serializeBulkBodyOfParsedSource());
+        }
+    }
+}
@@ -1,14 +1,17 @@
 package org.opensearch.migrations.bulkload.common;
 
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -91,6 +94,85 @@ class BulkDocSectionTest {
         assertEquals(expectedRequestBody, bulkRequestBody);
     }
 
+    @Test
+    void testRawSourceMatchesParsedSource() {
+        var source = "{\"field\":\"value\",\"nested\":{\"list\":[1,2,3]}}";
+        var parsed = new BulkDocSection("id1", "index1", "_doc", source, "routing1");
+        var raw = new BulkDocSection("id1", "index1", "_doc", source.getBytes(StandardCharsets.UTF_8), "routing1");
+
+        assertEquals(parsed.asBulkIndexString(), raw.asBulkIndexString());
+        assertEquals(parsed.getSerializedLength(), raw.getSerializedLength());
+        assertEquals(parsed.toMap(), raw.toMap());
+    }
+
+    @Test
+    void testRawSourceIsCompactedToASingleLine() {
+        var source = " \r\n\t{\"field\"\n:\r\n\"value\"}\r\n\t ";
+        var raw = new BulkDocSection("id1", "index1", null, source.getBytes(StandardCharsets.UTF_8), null);
+
+        assertEquals("{\"index\":{\"_id\":\"id1\",\"_index\":\"index1\"}}\n{\"field\":\"value\"}", raw.asBulkIndexString());
+    }
+
+    @Test
+    void testRawSourceDeserializationException() {
+        Exception exception = assertThrows(BulkDocSection.DeserializationException.class, () -> {
+            new BulkDocSection(null, null, null, "{\"field_value\n".getBytes(StandardCharsets.UTF_8), null);
+        });
+
+        assertTrue(exception.getMessage().contains("Failed to parse source doc"));
+    }
+
+    @Test
+    void testMalformedSingleLineRawSourcesAreRejected() {
+        for (var source : List.of("{\"field\":}", "{\"field\":\"value}", "{\"a\":1}{\"b\":2}", "{\"a\":[1,}")) {
+            Exception exception = assertThrows(BulkDocSection.DeserializationException.class, () ->
+                new BulkDocSection("id1", "index1", null, source.getBytes(StandardCharsets.UTF_8), null));
+            assertTrue(exception.getMessage().contains("Failed to parse source doc"), source);
+        }
+    }
+
+    @Test
+    void testSerializedJsonArrayRoundTrip() throws JsonProcessingException {
+        // the raw source's multi-byte characters are copied in as bytes
+        var source = "{\"field\":\"caf\u00e9 \u2615\",\"nested\":{\"list\":[1,2.5,\"three\"]}}";
+        var parsed = new BulkDocSection("id1", "index1", "_doc", source, "routing1");
+        var raw = new BulkDocSection("id2", "index2", null, source.getBytes(StandardCharsets.UTF_8), null);
+
+        var serialized = BulkDocSection.toSerializedJsonArray(List.of(parsed, raw));
+        assertEquals(List.of(parsed.toMap(), raw.toMap()), new ObjectMapper().readValue(serialized, List.class));
+
+        var sections = BulkDocSection.fromSerializedJsonArray(serialized);
+        assertEquals(2, sections.size());
+        assertEquals(parsed.asBulkIndexString(), sections.get(0).asBulkIndexString());
+        assertEquals(raw.asBulkIndexString(), sections.get(1).asBulkIndexString());
+        assertEquals(raw.getSerializedLength(), sections.get(1).getSerializedLength());
+    }
+
+    @Test
+    void testSerializedJsonArrayDeserializationException() {
+        for (var serialized : List.of("{}", "[[]]", "[{\"source\":{}}]", "[{\"index\":{},\"other\":1}]")) {
+            Exception exception = assertThrows(BulkDocSection.DeserializationException.class,
+                () -> BulkDocSection.fromSerializedJsonArray(serialized));
+            assertTrue(exception.getMessage().contains("Failed to parse bulk sections"), serialized);
+        }
+    }
+
+    @Test
+    void testConvertToBulkRequestBodyBuffer() {
+        BulkDocSection section1 = new BulkDocSection("id1", "index1", "_doc", "{\"field\":\"value1\"}");
+        BulkDocSection section2 = new BulkDocSection("id2", "index2", "_doc", "{\"field\":\"value2\"}".getBytes(StandardCharsets.UTF_8), null);
+        BulkDocSection section3 = new BulkDocSection("id3", "index3", "_doc", "{\"field\":\"value3\"}".getBytes(StandardCharsets.UTF_8), "routing1");
+
+        Collection<BulkDocSection> bulkSections = Arrays.asList(section1, section2, section3);
+
+        var bulkRequestBody = BulkDocSection.convertToBulkRequestBody(bulkSections, UnpooledByteBufAllocator.DEFAULT);
+        try {
+            assertEquals(BulkDocSection.convertToBulkRequestBody(bulkSections), bulkRequestBody.toString(StandardCharsets.UTF_8));
+        } finally {
+            bulkRequestBody.release();
+        }
+    }
+
     @ParameterizedTest
     @MethodSource("provideFromMapArgs")
     void testFromMap(Map<String, Object> metadata, Map<String, Object> sourceDoc) {
@@ -113,6 +195,20 @@ class BulkDocSectionTest {
         assertEquals(bulkDocSection.asBulkIndexString().length(), bulkDocSection.getSerializedLength());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSerializedFormIsUnaffectedByChangesToMaps() {
+        var sourceMap = new HashMap<String, Object>(SOURCE_DOC_1);
+        var section = BulkDocSection.fromMap(Map.of("index", METADATA_1, "source", sourceMap));
+        var serializedLength = section.getSerializedLength();
+
+        sourceMap.put("added", "after creation");
+        ((Map<String, Object>) section.toMap().get("source")).put("added", "to a copy");
+
+        assertEquals(BULK_DOC_SECTION_1_STRING, section.asBulkIndexString());
+        assertEquals(serializedLength, section.getSerializedLength());
+    }
+
     @ParameterizedTest
     @MethodSource("provideBulkIndexStringArgs")
     void testAsBulkIndexString(BulkDocSection bulkDocSection, String expected) {
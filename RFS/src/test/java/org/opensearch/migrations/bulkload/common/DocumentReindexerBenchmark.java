@@ -0,0 +1,64 @@
+package org.opensearch.migrations.bulkload.common;
+
+import java.util.List;
+
+import org.opensearch.migrations.bulkload.BenchmarkDocuments;
+import org.opensearch.migrations.data.workloads.Workloads;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures grouping a stream of documents into bulk requests by count and size.  Each operation batches every
+ * generated document, so the score is in units of NUM_DOCS documents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class DocumentReindexerBenchmark {
+    private static final int NUM_DOCS = 10_000;
+
+    @Param({"GEONAMES", "HTTP_LOGS", "NESTED", "NYC_TAXIS"})
+    public Workloads workload;
+
+    @Param({"100", "1000"})
+    public int maxDocsPerBulkRequest;
+
+    @Param({"1048576", "10485760"})
+    public long maxBytesPerBulkRequest;
+
+    private DocumentReindexer reindexer;
+    private List<RfsDocument> docs;
+
+    @Setup
+    public void setUp() {
+        reindexer = new DocumentReindexer(null, maxDocsPerBulkRequest, maxBytesPerBulkRequest, 1, () -> null);
+        docs = BenchmarkDocuments.createRfsDocuments(workload, NUM_DOCS);
+    }
+
+    @Benchmark
+    public Long batchDocsBySizeOrCount() {
+        return reindexer.batchDocsBySizeOrCount(Flux.fromIterable(docs)).count().block();
+    }
+
+    @Test
+    void batchesEveryDocument() {
+        workload = Workloads.HTTP_LOGS;
+        maxDocsPerBulkRequest = 1000;
+        maxBytesPerBulkRequest = Long.MAX_VALUE;
+        setUp();
+        assertEquals(NUM_DOCS / maxDocsPerBulkRequest, batchDocsBySizeOrCount().intValue());
+    }
+}
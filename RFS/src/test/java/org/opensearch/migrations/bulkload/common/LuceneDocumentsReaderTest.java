@@ -1,6 +1,7 @@
 package org.opensearch.migrations.bulkload.common;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -13,6 +14,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -113,7 +115,7 @@ public class LuceneDocumentsReaderTest {
             String actualType = doc.type;
 
             String expectedSource = "{\"title\":\"This is a doc with complex history\",\"content\":\"Updated!\"}";
-            String actualSource = doc.source;
+            String actualSource = new String(doc.source, StandardCharsets.UTF_8);
             assertDocsEqual(expectedId, actualId, expectedType, actualType, expectedSource, actualSource);
             return true;
         }).expectNextMatches(doc -> {
@@ -124,7 +126,7 @@ public class LuceneDocumentsReaderTest {
             String actualType = doc.type;
 
             String expectedSource = "{\"title\":\"This is doc that will be updated\",\"content\":\"Updated!\"}";
-            String actualSource = doc.source;
+            String actualSource = new String(doc.source, StandardCharsets.UTF_8);
             assertDocsEqual(expectedId, actualId, expectedType, actualType,
                     expectedSource, actualSource);
             return true;
@@ -136,7 +138,7 @@ public class LuceneDocumentsReaderTest {
             String actualType = doc.type;
 
             String expectedSource = "{\"title\":\"This doc will not be changed\\nIt has multiple lines of text\\nIts source doc has extra newlines.\",\"content\":\"bluh bluh\"}";
-            String actualSource = doc.source;
+            String actualSource = new String(doc.source, StandardCharsets.UTF_8);
             assertDocsEqual(expectedId, actualId, expectedType, actualType,
                     expectedSource, actualSource);
             return true;
@@ -176,7 +178,7 @@ public class LuceneDocumentsReaderTest {
             String actualType = doc.type;
 
             String expectedSource = "{\"content\":\"This doc will not be changed\nIt has multiple lines of text\nIts source doc has extra newlines.\"}";
-            String actualSource = doc.source;
+            String actualSource = new String(doc.source, StandardCharsets.UTF_8);
             assertDocsEqual(expectedId, actualId, expectedType, actualType, expectedSource, actualSource);
             return true;
         }).expectNextMatches(doc -> {
@@ -187,7 +189,7 @@ public class LuceneDocumentsReaderTest {
             String actualType = doc.type;
 
             String expectedSource = "{\"content\":\"Updated!\"}";
-            String actualSource = doc.source;
+            String actualSource = new String(doc.source, StandardCharsets.UTF_8);
             assertDocsEqual(expectedId, actualId, expectedType, actualType,
                     expectedSource, actualSource);
             return true;
@@ -199,7 +201,7 @@ public class LuceneDocumentsReaderTest {
              String actualType = doc.type;
 
             String expectedSource = "{\"title\":\"This is a doc with complex history. Updated!\"}";
-            String actualSource = doc.source;
+            String actualSource = new String(doc.source, StandardCharsets.UTF_8);
             assertDocsEqual(expectedId, actualId, expectedType, actualType,
                     expectedSource, actualSource);
             return true;
@@ -244,7 +246,7 @@ public class LuceneDocumentsReaderTest {
                 when(field1.asUid()).thenReturn("doc" + invocation.getArgument(0));
                 var field2 = mock(LuceneField.class);
                 when(field2.name()).thenReturn("_source");
-                when(field2.utf8ToStringValue()).thenReturn("{\"field\":\"value\"}");
+                when(field2.utf8Value()).thenReturn("{\"field\":\"value\"}".getBytes(StandardCharsets.UTF_8));
                 when(doc.getFields()).thenAnswer(inv -> List.of(field1, field2));
 
                 return doc;
@@ -365,6 +367,36 @@ public class LuceneDocumentsReaderTest {
         }
     }
 
+    @Test
+    public void ReadDocumentsWithinDocRangeForManySegments_AsExpected() throws Exception {
+        // This snapshot has three segments, each with only a single document.
+        var snapshot = TestResources.SNAPSHOT_ES_6_8;
+        var version = Version.fromString("ES 6.8");
+
+        final var repo = new FileSystemRepo(snapshot.dir);
+        var sourceResourceProvider = ClusterProviderRegistry.getSnapshotReader(version, repo);
+        DefaultSourceRepoAccessor repoAccessor = new DefaultSourceRepoAccessor(repo);
+
+        final ShardMetadata shardMetadata = sourceResourceProvider.getShardMetadata().fromRepo(snapshot.name, "test_updates_deletes", 0);
+
+        SnapshotShardUnpacker unpacker = new SnapshotShardUnpacker(
+                repoAccessor,
+                tempDirectory,
+                shardMetadata,
+                Integer.MAX_VALUE
+        );
+        Path luceneDir = unpacker.unpack();
+
+        var reader = new LuceneIndexReader.Factory(sourceResourceProvider).getReader(luceneDir);
+
+        Function<Flux<RfsLuceneDocument>, String> toDocIds = documents ->
+            documents.collectList().block().stream().map(doc -> doc.id).collect(Collectors.joining(","));
+        Assertions.assertEquals("complexdoc,updateddoc", toDocIds.apply(reader.readDocuments(0, 2)));
+        Assertions.assertEquals("updateddoc", toDocIds.apply(reader.readDocuments(1, 2)));
+        Assertions.assertEquals("unchangeddoc", toDocIds.apply(reader.readDocuments(2, Integer.MAX_VALUE)));
+        Assertions.assertEquals("", toDocIds.apply(reader.readDocuments(1, 1)));
+    }
+
     protected void assertDocsEqual(String expectedId, String actualId, String expectedType,
                                    String actualType, String expectedSource, String actualSource) {
         try {
@@ -2,9 +2,11 @@ package org.opensearch.migrations.bulkload.common;
 
 import java.net.URI;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.opensearch.migrations.Version;
 import org.opensearch.migrations.bulkload.common.http.ConnectionContext;
@@ -167,7 +169,7 @@ class OpenSearchClientTest {
         var finalDocSuccess = bulkItemResponse(false, List.of(itemEntry(docId2)));
         var server500 = new HttpResponse(500, "", null, "{\"error\":\"Cannot Process Error!\"}");
 
-        when(restClient.postAsync(any(), any(), any(), any())).thenReturn(Mono.just(bothDocsFail))
+        when(restClient.postBufferAsync(any(), any(), any(), any())).thenReturn(Mono.just(bothDocsFail))
             .thenReturn(Mono.just(oneFailure))
             .thenReturn(Mono.just(server500))
             .thenReturn(Mono.just(finalDocSuccess));
@@ -186,16 +188,57 @@ class OpenSearchClientTest {
         // Assertions
         // StepVerifier.create(responseMono).expectComplete().verify();
 
-        verify(restClient, times(4)).postAsync(any(), any(), any(), any());
+        verify(restClient, times(4)).postBufferAsync(any(), any(), any(), any());
         verifyNoInteractions(failedRequestLogger);
     }
 
+    @Test
+    void testBulkRequest_everyAttemptIsChargedBeforeItIsSent() {
+        var docId1 = "tt1979320";
+        var docId2 = "tt0816711";
+
+        var oneFailure = bulkItemResponse(true, List.of(itemEntry(docId1), itemEntryFailure(docId2)));
+        var finalDocSuccess = bulkItemResponse(false, List.of(itemEntry(docId2)));
+        when(restClient.postBufferAsync(any(), any(), any(), any())).thenReturn(Mono.just(oneFailure))
+            .thenReturn(Mono.just(finalDocSuccess));
+        doReturn(Retry.fixedDelay(6, Duration.ofMillis(10))).when(openSearchClient).getBulkRetryStrategy();
+
+        var chargedDocs = new ArrayList<Integer>();
+        var attempts = new AtomicInteger();
+        var listener = new OpenSearchClient.BulkAttemptListener() {
+            @Override
+            public Duration beforeBulkAttempt(int docs, long bytes) {
+                // Every attempt has to be charged before it's sent, never after
+                assertThat(attempts.get(), equalTo(chargedDocs.size()));
+                chargedDocs.add(docs);
+                return Duration.ofMillis(1);
+            }
+
+            @Override
+            public void onBulkAttempt(Duration latency, OpenSearchClient.BulkResponse response) {
+                attempts.incrementAndGet();
+            }
+        };
+
+        openSearchClient.sendBulkRequest(
+            "myIndex",
+            List.of(createBulkDoc(docId1), createBulkDoc(docId2)),
+            mock(IRfsContexts.IRequestContext.class),
+            listener
+        ).block();
+
+        // The retry only resends the doc that failed
+        assertThat(chargedDocs, equalTo(List.of(2, 1)));
+        assertThat(attempts.get(), equalTo(2));
+        verify(restClient, times(2)).postBufferAsync(any(), any(), any(), any());
+    }
+
     @Test
     void testBulkRequest_recordsTotalFailures() {
         var docId1 = "tt1979320";
         var docFails = bulkItemResponse(true, List.of(itemEntryFailure(docId1)));
 
-        when(restClient.postAsync(any(), any(), any(), any())).thenReturn(Mono.just(docFails));
+        when(restClient.postBufferAsync(any(), any(), any(), any())).thenReturn(Mono.just(docFails));
 
         var maxRetries = 6;
         doReturn(Retry.fixedDelay(maxRetries, Duration.ofMillis(10))).when(openSearchClient).getBulkRetryStrategy();
@@ -215,7 +258,7 @@ class OpenSearchClientTest {
         assertThat(exception.getMessage(), containsString("Retries exhausted"));
 
         var maxAttempts = maxRetries + 1;
-        verify(restClient, times(maxAttempts)).postAsync(any(), any(), any(), any());
+        verify(restClient, times(maxAttempts)).postBufferAsync(any(), any(), any(), any());
         verify(failedRequestLogger).logBulkFailure(any(), any(), any(), any());
         verifyNoMoreInteractions(failedRequestLogger);
     }
@@ -244,7 +287,7 @@ class OpenSearchClientTest {
         var bulkSuccess = bulkItemResponse(false, List.of(itemEntry(docId)));
 
         when(restClient.supportsGzipCompression()).thenReturn(true);
-        when(restClient.postAsync(any(), any(), any(), any())).thenReturn(Mono.just(bulkSuccess));
+        when(restClient.postBufferAsync(any(), any(), any(), any())).thenReturn(Mono.just(bulkSuccess));
 
         var bulkDoc = createBulkDoc(docId);
         var indexName = "testIndex";
@@ -258,7 +301,7 @@ class OpenSearchClientTest {
 
         // Assertions
         ArgumentCaptor<Map<String, List<String>>> headersCaptor = ArgumentCaptor.forClass(Map.class);
-        verify(restClient).postAsync(eq(indexName + "/_bulk"), any(), headersCaptor.capture(), any());
+        verify(restClient).postBufferAsync(eq(indexName + "/_bulk"), any(), headersCaptor.capture(), any());
 
         Map<String, List<String>> capturedHeaders = headersCaptor.getValue();
         assertThat(capturedHeaders.get("accept-encoding"), equalTo(List.of("gzip")));
@@ -271,7 +314,7 @@ class OpenSearchClientTest {
         var bulkSuccess = bulkItemResponse(false, List.of(itemEntry(docId)));
 
         when(restClient.supportsGzipCompression()).thenReturn(false);
-        when(restClient.postAsync(any(), any(), any(), any())).thenReturn(Mono.just(bulkSuccess));
+        when(restClient.postBufferAsync(any(), any(), any(), any())).thenReturn(Mono.just(bulkSuccess));
 
         var bulkDoc = createBulkDoc(docId);
         var indexName = "testIndex";
@@ -285,7 +328,7 @@ class OpenSearchClientTest {
 
         // Assertions
         ArgumentCaptor<Map<String, List<String>>> headersCaptor = ArgumentCaptor.forClass(Map.class);
-        verify(restClient).postAsync(eq(indexName + "/_bulk"), any(), headersCaptor.capture(), any());
+        verify(restClient).postBufferAsync(eq(indexName + "/_bulk"), any(), headersCaptor.capture(), any());
 
         Map<String, List<String>> capturedHeaders = headersCaptor.getValue();
         assertThat(capturedHeaders.get("accept-encoding"), equalTo(null));
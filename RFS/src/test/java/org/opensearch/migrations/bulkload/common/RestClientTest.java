@@ -6,11 +6,13 @@ import javax.net.ssl.SSLHandshakeException;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.opensearch.migrations.bulkload.common.http.ConnectionContextTestParams;
+import org.opensearch.migrations.bulkload.common.http.HttpTransportSettings;
 import org.opensearch.migrations.bulkload.common.http.TestTlsCredentialsProvider;
 import org.opensearch.migrations.bulkload.common.http.TestTlsUtils;
 import org.opensearch.migrations.bulkload.tracing.RfsContexts;
@@ -19,6 +21,7 @@ import org.opensearch.migrations.testutils.HttpRequest;
 import org.opensearch.migrations.testutils.SimpleHttpResponse;
 import org.opensearch.migrations.testutils.SimpleNettyHttpServer;
 
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.handler.ssl.ClientAuth;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
@@ -238,6 +241,77 @@ class RestClientTest {
         }
     }
 
+    @Test
+    public void testTransportSettingsConfigureTheConnectionPool() {
+        var provider = RestClient.createConnectionProvider(HttpTransportSettings.builder()
+            .maxConnections(3)
+            .build());
+        try {
+            Assertions.assertEquals(3, provider.maxConnections());
+        } finally {
+            provider.dispose();
+        }
+    }
+
+    @Test
+    public void testHttp2FallsBackToHttp11WhenTheServerDoesNotSupportIt() throws Exception {
+        SslContext serverSslContext = SslContextBuilder
+                .forServer(serverCertBundle.getCertificateInputStream(),
+                    serverCertBundle.getPrivateKeyInputStream())
+                .build();
+
+        SimpleNettyHttpServer.SSLEngineSupplier engineSupplier = (allocator) -> {
+            SSLEngine engine = serverSslContext.newEngine(allocator);
+            engine.setUseClientMode(false);
+            return engine;
+        };
+
+        try (var testServer = SimpleNettyHttpServer.makeServer(
+                engineSupplier,
+                null,
+                this::makeResponseContext)) {
+
+            var restClient = new RestClient(ConnectionContextTestParams.builder()
+                    .host("https://localhost:" + testServer.port)
+                    .insecure(true)
+                    .build()
+                    .toConnectionContext(),
+                HttpTransportSettings.builder().maxConnections(1).http2(true).build());
+
+            for (int i = 0; i < 2; i++) {
+                var response = restClient.get("/", null);
+                Assertions.assertEquals(200, response.statusCode);
+                Assertions.assertEquals("Hi", response.body);
+            }
+        }
+    }
+
+    @Test
+    public void testBufferBodiesAreSentAndEveryReferenceIsReleased() throws Exception {
+        try (var testServer = SimpleNettyHttpServer.makeServer(false, null, this::makeResponseContext)) {
+            var restClient = new RestClient(ConnectionContextTestParams.builder()
+                .host("http://localhost:" + testServer.port)
+                .build()
+                .toConnectionContext(), makeSingleConnectionHttpClient());
+            for (var gzip : List.of(false, true)) {
+                var body = PooledByteBufAllocator.DEFAULT.buffer();
+                body.writeCharSequence("{\"index\":{}}\n{\"field\":\"value\"}\n", StandardCharsets.UTF_8);
+                var headers = new HashMap<String, List<String>>();
+                if (gzip) {
+                    RestClient.addGzipRequestHeaders(headers);
+                }
+                var response = restClient.postBufferAsync("_bulk", body, headers, null).block();
+                Assertions.assertEquals(200, response.statusCode);
+                // Netty releases its reference once the write has completed, which may be just after the response
+                for (int i = 0; i < 100 && body.refCnt() > 1; i++) {
+                    Thread.sleep(10);
+                }
+                Assertions.assertEquals(1, body.refCnt(), "gzip=" + gzip);
+                body.release();
+            }
+        }
+    }
+
     SimpleHttpResponse makeResponseContext(HttpRequest firstLine) {
         var payloadBytes = "Hi".getBytes(StandardCharsets.UTF_8);
         return new SimpleHttpResponse(
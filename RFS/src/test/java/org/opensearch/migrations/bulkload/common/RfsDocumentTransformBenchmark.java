@@ -0,0 +1,123 @@
+package org.opensearch.migrations.bulkload.common;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.opensearch.migrations.bulkload.BenchmarkDocuments;
+import org.opensearch.migrations.data.workloads.Workloads;
+import org.opensearch.migrations.transform.IJsonTransformer;
+import org.opensearch.migrations.transform.TransformationLoader;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures transforming a batch of documents with the JavaScript type mappings sanitization transformer, the same
+ * way {@link DocumentReindexer} hands batches read from Lucene to a transformer.  parseJsonInScript compares
+ * passing each document to the script as a Java Map with passing the whole batch as JSON text that the script
+ * parses and serializes itself.
+ */
+@State(Scope.Thread) // Transformers cannot be used simultaneously
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class RfsDocumentTransformBenchmark {
+    // Matches the batches that DocumentReindexer transforms
+    private static final int DOCS_PER_BATCH = 100;
+
+    private static final String TYPE_MAPPINGS_SANITIZATION_CONFIG = "[{" +
+        "  \"TypeMappingSanitizationTransformerProvider\": {" +
+        "    \"parseJsonInScript\": %s," +
+        "    \"sourceProperties\": {" +
+        "      \"version\": {" +
+        "        \"major\": 6," +
+        "        \"minor\": 8" +
+        "      }" +
+        "    }" +
+        "  }" +
+        "}]";
+
+    @Param({"GEONAMES", "HTTP_LOGS", "NESTED", "NYC_TAXIS"})
+    public Workloads workload;
+
+    @Param({"false", "true"})
+    public boolean parseJsonInScript;
+
+    private IJsonTransformer transformer;
+    private List<RfsDocument> docs;
+
+    @Setup
+    public void setUp() {
+        transformer = new TransformationLoader().getTransformerFactoryLoader(
+            String.format(TYPE_MAPPINGS_SANITIZATION_CONFIG, parseJsonInScript));
+        docs = BenchmarkDocuments.createRfsDocuments(workload, DOCS_PER_BATCH);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        transformer.close();
+    }
+
+    @Benchmark
+    public List<RfsDocument> transform() {
+        return RfsDocument.transform(transformer, docs);
+    }
+
+    private List<RfsDocument> transformOnce() throws Exception {
+        setUp();
+        try {
+            return transform();
+        } finally {
+            tearDown();
+        }
+    }
+
+    @Test
+    void transformsTheWholeBatch() throws Exception {
+        workload = Workloads.NESTED;
+        parseJsonInScript = false;
+        var transformedDocs = transformOnce();
+        assertEquals(DOCS_PER_BATCH, transformedDocs.size());
+        for (int i = 0; i < DOCS_PER_BATCH; i++) {
+            assertEquals(docs.get(i).document.getDocId(), transformedDocs.get(i).document.getDocId());
+        }
+    }
+
+    @Test
+    void parsingJsonInTheScriptMatchesTransformingMaps() throws Exception {
+        // JSON.parse makes every number a double, so 1.0 comes back as 1
+        Comparator<JsonNode> numbersByValue = (a, b) -> a.isNumber() && b.isNumber()
+            ? Double.compare(a.doubleValue(), b.doubleValue())
+            : (a.equals(b) ? 0 : 1);
+        var objectMapper = new ObjectMapper();
+        for (var w : Workloads.values()) {
+            workload = w;
+            parseJsonInScript = false;
+            var fromMaps = transformOnce();
+            parseJsonInScript = true;
+            var fromSerializedJson = transformOnce();
+            assertEquals(fromMaps.size(), fromSerializedJson.size());
+            for (int i = 0; i < fromMaps.size(); i++) {
+                var expected = objectMapper.readTree(BulkDocSection.toSerializedJsonArray(
+                    List.of(fromMaps.get(i).document)));
+                var actual = objectMapper.readTree(BulkDocSection.toSerializedJsonArray(
+                    List.of(fromSerializedJson.get(i).document)));
+                assertTrue(expected.equals(numbersByValue, actual), w + " doc " + i + ": " + actual);
+            }
+        }
+    }
+}
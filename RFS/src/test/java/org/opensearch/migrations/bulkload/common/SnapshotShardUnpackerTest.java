@@ -0,0 +1,157 @@
+package org.opensearch.migrations.bulkload.common;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.opensearch.migrations.Version;
+import org.opensearch.migrations.bulkload.models.ShardFileInfo;
+import org.opensearch.migrations.cluster.ClusterProviderRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SnapshotShardUnpackerTest {
+
+    /** Serves ranged reads from the local repo so the streaming unpack path can be exercised without S3 */
+    static class RangedReadFileSystemRepo extends FileSystemRepo {
+        RangedReadFileSystemRepo(Path repoRootDir) {
+            super(repoRootDir);
+        }
+
+        @Override
+        public boolean supportsRangedBlobReads() {
+            return true;
+        }
+
+        @Override
+        public CompletableFuture<byte[]> getBlobFileRange(String indexId, int shardId, String blobName,
+                                                          long offset, long length) {
+            return CompletableFuture.supplyAsync(() -> {
+                try (var file = new RandomAccessFile(getBlobFilePath(indexId, shardId, blobName).toFile(), "r")) {
+                    var bytes = new byte[Math.toIntExact(length)];
+                    file.seek(offset);
+                    file.readFully(bytes);
+                    return bytes;
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        }
+    }
+
+    @Test
+    void unpackFromRangedReads_matchesUnpackFromBlobFiles(@TempDir Path blobFilesDir, @TempDir Path rangedReadsDir)
+        throws IOException
+    {
+        var snapshot = TestResources.SNAPSHOT_ES_7_10_W_SOFT;
+        var version = Version.fromString("ES 7.10");
+
+        var repo = new FileSystemRepo(snapshot.dir);
+        var shardMetadata = ClusterProviderRegistry.getSnapshotReader(version, repo)
+            .getShardMetadata()
+            .fromRepo(snapshot.name, "test_updates_deletes", 0);
+
+        var expectedDir = new SnapshotShardUnpacker(new DefaultSourceRepoAccessor(repo), blobFilesDir, shardMetadata,
+            Integer.MAX_VALUE).unpack();
+        var actualDir = new SnapshotShardUnpacker(
+            new DefaultSourceRepoAccessor(new RangedReadFileSystemRepo(snapshot.dir)),
+            rangedReadsDir,
+            shardMetadata,
+            Integer.MAX_VALUE).unpack();
+
+        try (var expectedFiles = Files.list(expectedDir); var actualFiles = Files.list(actualDir)) {
+            var expectedNames = expectedFiles.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+            var actualNames = actualFiles.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+            assertEquals(expectedNames, actualNames);
+            for (var name : expectedNames) {
+                assertArrayEquals(Files.readAllBytes(expectedDir.resolve(name)), Files.readAllBytes(actualDir.resolve(name)),
+                    "Contents differ for " + name);
+            }
+        }
+    }
+
+    @Test
+    void unpackByLinking_matchesUnpackFromBlobFiles(@TempDir Path blobFilesDir, @TempDir Path linkedDir)
+        throws IOException
+    {
+        var snapshot = TestResources.SNAPSHOT_ES_7_10_W_SOFT;
+        var version = Version.fromString("ES 7.10");
+
+        var repo = new FileSystemRepo(snapshot.dir);
+        var shardMetadata = ClusterProviderRegistry.getSnapshotReader(version, repo)
+            .getShardMetadata()
+            .fromRepo(snapshot.name, "test_updates_deletes", 0);
+
+        var expectedDir = new SnapshotShardUnpacker(new DefaultSourceRepoAccessor(repo), blobFilesDir, shardMetadata,
+            Integer.MAX_VALUE).unpack();
+        var actualDir = new SnapshotShardUnpacker(
+            new DefaultSourceRepoAccessor(new FileSystemRepo(snapshot.dir, true)),
+            linkedDir,
+            shardMetadata,
+            Integer.MAX_VALUE).unpack();
+
+        try (var expectedFiles = Files.list(expectedDir); var actualFiles = Files.list(actualDir)) {
+            var expectedNames = expectedFiles.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+            var actualNames = actualFiles.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+            assertEquals(expectedNames, actualNames);
+            for (var name : expectedNames) {
+                assertArrayEquals(Files.readAllBytes(expectedDir.resolve(name)), Files.readAllBytes(actualDir.resolve(name)),
+                    "Contents differ for " + name);
+            }
+            for (var fileMetadata : shardMetadata.getFiles()) {
+                assertEquals(!fileMetadata.getName().startsWith("v__"),
+                    Files.isSymbolicLink(actualDir.resolve(fileMetadata.getPhysicalName())),
+                    "Unexpected link state for " + fileMetadata.getPhysicalName());
+            }
+        }
+    }
+
+    @Test
+    void getBlobRanges_splitsEachPartIntoBoundedRanges() {
+        var partSize = SnapshotShardUnpacker.RANGED_READ_SIZE_BYTES + 10;
+        var fileMetadata = mock(ShardFileInfo.class);
+        when(fileMetadata.getLength()).thenReturn(partSize + 5);
+        when(fileMetadata.getPartSize()).thenReturn(partSize);
+        when(fileMetadata.getNumberOfParts()).thenReturn(2L);
+        when(fileMetadata.partName(0)).thenReturn("__blob.part0");
+        when(fileMetadata.partName(1)).thenReturn("__blob.part1");
+
+        var ranges = SnapshotShardUnpacker.getBlobRanges(fileMetadata);
+
+        assertEquals(3, ranges.size());
+        assertEquals("__blob.part0", ranges.get(0).blobName);
+        assertEquals(0, ranges.get(0).offset);
+        assertEquals(SnapshotShardUnpacker.RANGED_READ_SIZE_BYTES, ranges.get(0).length);
+        assertEquals("__blob.part0", ranges.get(1).blobName);
+        assertEquals(SnapshotShardUnpacker.RANGED_READ_SIZE_BYTES, ranges.get(1).offset);
+        assertEquals(10, ranges.get(1).length);
+        assertEquals("__blob.part1", ranges.get(2).blobName);
+        assertEquals(0, ranges.get(2).offset);
+        assertEquals(5, ranges.get(2).length);
+    }
+
+    @Test
+    void getBlobRanges_singlePartFileWithUnboundedPartSize() {
+        var fileMetadata = mock(ShardFileInfo.class);
+        when(fileMetadata.getLength()).thenReturn(100L);
+        when(fileMetadata.getPartSize()).thenReturn(Long.MAX_VALUE);
+        when(fileMetadata.getNumberOfParts()).thenReturn(1L);
+        when(fileMetadata.partName(0)).thenReturn("__blob");
+
+        var ranges = SnapshotShardUnpacker.getBlobRanges(fileMetadata);
+
+        assertEquals(1, ranges.size());
+        assertEquals("__blob", ranges.get(0).blobName);
+        assertEquals(0, ranges.get(0).offset);
+        assertEquals(100, ranges.get(0).length);
+    }
+}
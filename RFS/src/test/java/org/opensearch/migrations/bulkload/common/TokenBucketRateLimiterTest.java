@@ -0,0 +1,44 @@
+package org.opensearch.migrations.bulkload.common;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenBucketRateLimiterTest {
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    void allowsABurstOfOneSecondThenPacesTheRest() {
+        var limiter = new TokenBucketRateLimiter(100, 0, nanoTime::get);
+
+        assertEquals(Duration.ZERO, limiter.reserve(100, 1_000_000));
+        assertEquals(Duration.ofMillis(500), limiter.reserve(50, 0));
+        assertEquals(Duration.ofSeconds(1), limiter.reserve(50, 0));
+
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(Duration.ZERO, limiter.reserve(0, 0));
+        assertEquals(Duration.ofMillis(10), limiter.reserve(1, 0));
+    }
+
+    @Test
+    void waitsForTheMostConstrainedDimension() {
+        var limiter = new TokenBucketRateLimiter(1000, 1000, nanoTime::get);
+
+        assertEquals(Duration.ofSeconds(3), limiter.reserve(1, 4000));
+    }
+
+    @Test
+    void ratesCanBeChangedAtRuntime() {
+        var limiter = new TokenBucketRateLimiter(0, 0, nanoTime::get);
+        assertEquals(Duration.ZERO, limiter.reserve(1_000_000, 1_000_000));
+
+        limiter.setRates(10, 0);
+        assertEquals(Duration.ofMillis(100), limiter.reserve(1, 1_000_000));
+
+        limiter.setRates(0, 0);
+        assertEquals(Duration.ZERO, limiter.reserve(1_000_000, 1_000_000));
+    }
+}
@@ -0,0 +1,183 @@
+package org.opensearch.migrations.bulkload.lucene;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.opensearch.migrations.bulkload.BenchmarkDocuments;
+import org.opensearch.migrations.bulkload.BenchmarkDocuments.SourceDocument;
+import org.opensearch.migrations.bulkload.common.RfsLuceneDocument;
+import org.opensearch.migrations.bulkload.common.Uid;
+import org.opensearch.migrations.bulkload.lucene.version_6.IndexReader6;
+import org.opensearch.migrations.bulkload.lucene.version_7.IndexReader7;
+import org.opensearch.migrations.bulkload.lucene.version_9.IndexReader9;
+import org.opensearch.migrations.data.workloads.Workloads;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures reading a single document out of a Lucene segment, for each Lucene version that snapshots are read with.
+ * The segments hold the stored fields the way the matching Elasticsearch versions write them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class LuceneReaderBenchmark {
+    private static final int NUM_DOCS = 10_000;
+
+    @Param({"6", "7", "9"})
+    public int luceneVersion;
+
+    @Param({"GEONAMES", "HTTP_LOGS", "NESTED", "NYC_TAXIS"})
+    public Workloads workload;
+
+    private List<SourceDocument> docs;
+    private Path indexDirectory;
+    private LuceneDirectoryReader reader;
+    private LuceneLeafReader segmentReader;
+    private int nextDocId;
+
+    @Setup
+    public void setUp() throws IOException {
+        indexDirectory = Files.createTempDirectory("luceneReaderBenchmark");
+        docs = BenchmarkDocuments.createSourceDocuments(workload, NUM_DOCS);
+        switch (luceneVersion) {
+            case 6:
+                writeLucene6Segment(indexDirectory, docs);
+                reader = new IndexReader6(indexDirectory).getReader();
+                break;
+            case 7:
+                writeLucene7Segment(indexDirectory, docs);
+                reader = new IndexReader7(indexDirectory, false, null).getReader();
+                break;
+            case 9:
+                writeLucene9Segment(indexDirectory, docs);
+                reader = new IndexReader9(indexDirectory, false, null).getReader();
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported Lucene version: " + luceneVersion);
+        }
+        segmentReader = reader.leaves().get(0).reader();
+        nextDocId = 0;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        reader.close();
+        try (var paths = Files.walk(indexDirectory)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public RfsLuceneDocument getDocument() {
+        var docId = nextDocId;
+        nextDocId = (docId + 1) % NUM_DOCS;
+        return LuceneReader.getDocument(segmentReader, docId, true, 0, () -> "benchmark", indexDirectory);
+    }
+
+    static Stream<Arguments> luceneVersions() {
+        return Stream.of(Arguments.of(6), Arguments.of(7), Arguments.of(9));
+    }
+
+    @ParameterizedTest
+    @MethodSource("luceneVersions")
+    void readsEveryGeneratedDocument(int version) throws IOException {
+        luceneVersion = version;
+        workload = Workloads.HTTP_LOGS;
+        setUp();
+        try {
+            assertEquals(NUM_DOCS, reader.maxDoc());
+            for (var expectedDoc : docs) {
+                var doc = getDocument();
+                assertEquals(expectedDoc.id, doc.id);
+                assertArrayEquals(expectedDoc.source, doc.source);
+            }
+        } finally {
+            tearDown();
+        }
+    }
+
+    // Elasticsearch 5 and earlier stored the type and id together in _uid
+    private static void writeLucene6Segment(Path path, List<SourceDocument> docs) throws IOException {
+        try (var directory = shadow.lucene6.org.apache.lucene.store.FSDirectory.open(path);
+             var writer = new shadow.lucene6.org.apache.lucene.index.IndexWriter(directory,
+                 new shadow.lucene6.org.apache.lucene.index.IndexWriterConfig(null))) {
+            for (var doc : docs) {
+                var luceneDoc = new shadow.lucene6.org.apache.lucene.document.Document();
+                luceneDoc.add(new shadow.lucene6.org.apache.lucene.document.StoredField("_uid",
+                    BenchmarkDocuments.DOC_TYPE + "#" + doc.id));
+                luceneDoc.add(new shadow.lucene6.org.apache.lucene.document.StoredField("_source",
+                    new shadow.lucene6.org.apache.lucene.util.BytesRef(doc.source)));
+                writer.addDocument(luceneDoc);
+            }
+            writer.forceMerge(1);
+            writer.commit();
+        }
+    }
+
+    private static void writeLucene7Segment(Path path, List<SourceDocument> docs) throws IOException {
+        try (var directory = shadow.lucene7.org.apache.lucene.store.FSDirectory.open(path);
+             var writer = new shadow.lucene7.org.apache.lucene.index.IndexWriter(directory,
+                 new shadow.lucene7.org.apache.lucene.index.IndexWriterConfig(null))) {
+            for (var doc : docs) {
+                var luceneDoc = new shadow.lucene7.org.apache.lucene.document.Document();
+                luceneDoc.add(new shadow.lucene7.org.apache.lucene.document.StoredField("_id",
+                    new shadow.lucene7.org.apache.lucene.util.BytesRef(encodeId(doc.id))));
+                luceneDoc.add(new shadow.lucene7.org.apache.lucene.document.StoredField("_source",
+                    new shadow.lucene7.org.apache.lucene.util.BytesRef(doc.source)));
+                writer.addDocument(luceneDoc);
+            }
+            writer.forceMerge(1);
+            writer.commit();
+        }
+    }
+
+    private static void writeLucene9Segment(Path path, List<SourceDocument> docs) throws IOException {
+        try (var directory = shadow.lucene9.org.apache.lucene.store.FSDirectory.open(path);
+             var writer = new shadow.lucene9.org.apache.lucene.index.IndexWriter(directory,
+                 new shadow.lucene9.org.apache.lucene.index.IndexWriterConfig(null))) {
+            for (var doc : docs) {
+                var luceneDoc = new shadow.lucene9.org.apache.lucene.document.Document();
+                luceneDoc.add(new shadow.lucene9.org.apache.lucene.document.StoredField("_id",
+                    new shadow.lucene9.org.apache.lucene.util.BytesRef(encodeId(doc.id))));
+                luceneDoc.add(new shadow.lucene9.org.apache.lucene.document.StoredField("_source",
+                    new shadow.lucene9.org.apache.lucene.util.BytesRef(doc.source)));
+                writer.addDocument(luceneDoc);
+            }
+            writer.forceMerge(1);
+            writer.commit();
+        }
+    }
+
+    // Elasticsearch can store any id as UTF-8 behind a marker byte
+    private static byte[] encodeId(String id) {
+        var idBytes = id.getBytes(StandardCharsets.UTF_8);
+        var encoded = new byte[idBytes.length + 1];
+        encoded[0] = (byte) Uid.UTF8;
+        System.arraycopy(idBytes, 0, encoded, 1, idBytes.length);
+        return encoded;
+    }
+}
@@ -93,12 +93,12 @@ class OpenSearchClient_ES_5_6_Test {
 
         var successResponse = bulkItemResponse(false, List.of(itemEntry(docId1), itemEntry(docId2)));
         var bulkDocs = List.of(createBulkDoc(docId1), createBulkDoc(docId2));
-        when(restClient.postAsync(any(), any(), any(), any())).thenReturn(Mono.just(successResponse));
+        when(restClient.postBufferAsync(any(), any(), any(), any())).thenReturn(Mono.just(successResponse));
         when(restClient.supportsGzipCompression()).thenReturn(false);
 
         var result = openSearchClient.sendBulkRequest("indexName", bulkDocs, mock(IRfsContexts.IRequestContext.class)).block();
 
-        Mockito.verify(restClient).postAsync(eq("indexName/doc/_bulk"), any(), any(), any());
+        Mockito.verify(restClient).postBufferAsync(eq("indexName/doc/_bulk"), any(), any(), any());
 
         verifyNoInteractions(failedRequestLogger);
     }
@@ -1,10 +1,12 @@
 package org.opensearch.migrations.bulkload.workcoordination;
 
 import java.io.IOException;
+import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
@@ -472,6 +474,55 @@ public class WorkCoordinatorTest {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("containerVersions")
+    public void testBatchedAcquisitionHandsOutEachItemOnceAndReleasesUnusedLeases(
+        SearchClusterContainer.ContainerVersion version
+    ) throws Exception {
+        setupOpenSearchContainer(version);
+        var testContext = WorkCoordinationTestContext.factory().withAllTracking();
+        final var NUM_DOCS = 10;
+        final var ITEMS_PER_ACQUISITION = 4;
+        final var expiration = Duration.ofSeconds(600);
+        try (var workCoordinator = factory.get(httpClientSupplier.get(), 3600, "docCreatorWorker")) {
+            for (var i = 0; i < NUM_DOCS; ++i) {
+                workCoordinator.createUnassignedWorkItem("R__0__" + i, testContext::createUnassignedWorkContext);
+            }
+        }
+
+        var seenWorkItems = new ArrayList<String>();
+        var consumedWorkItems = new ArrayList<String>();
+        // Take one item from a batch and leave the rest, as a worker that handles one item per process would
+        try (var workCoordinator = factory.get(httpClientSupplier.get(), 3600, "batchWorker1", Clock.systemUTC(),
+            w -> consumedWorkItems.add(w.getWorkItem().toString()), ITEMS_PER_ACQUISITION)) {
+            var workItem = (IWorkCoordinator.WorkItemAndDuration)
+                workCoordinator.acquireNextWorkItem(expiration, testContext::createAcquireNextItemContext);
+            seenWorkItems.add(workItem.getWorkItem().toString());
+            workCoordinator.completeWorkItem(workItem.getWorkItem().toString(), testContext::createCompleteWorkContext);
+        }
+        // Without the unused leases having been released, the other items from that batch would be held for the
+        // whole expiration
+        try (var workCoordinator = factory.get(httpClientSupplier.get(), 3600, "batchWorker2", Clock.systemUTC(),
+            w -> consumedWorkItems.add(w.getWorkItem().toString()), ITEMS_PER_ACQUISITION)) {
+            for (var i = 1; i < NUM_DOCS; ++i) {
+                var workItem = (IWorkCoordinator.WorkItemAndDuration)
+                    workCoordinator.acquireNextWorkItem(expiration, testContext::createAcquireNextItemContext);
+                seenWorkItems.add(workItem.getWorkItem().toString());
+                workCoordinator.completeWorkItem(workItem.getWorkItem().toString(),
+                    testContext::createCompleteWorkContext);
+            }
+            Assertions.assertInstanceOf(IWorkCoordinator.NoAvailableWorkToBeDone.class,
+                workCoordinator.acquireNextWorkItem(expiration, testContext::createAcquireNextItemContext));
+            Assertions.assertFalse(workCoordinator.workItemsNotYetComplete(testContext::createItemsPendingContext));
+        }
+
+        Assertions.assertEquals(NUM_DOCS, Set.copyOf(seenWorkItems).size());
+        Assertions.assertEquals(seenWorkItems, consumedWorkItems);
+        var metrics = testContext.inMemoryInstrumentationBundle.getFinishedMetrics();
+        Assertions.assertEquals(NUM_DOCS,
+            InMemoryInstrumentationBundle.getMetricValueOrZero(metrics, "nextWorkAssignedCount"));
+    }
+
     @SneakyThrows
     private String getWorkItemAndCompleteWithSuccessors(
             WorkCoordinationTestContext testContext,
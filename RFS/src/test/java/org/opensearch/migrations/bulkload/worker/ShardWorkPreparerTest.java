@@ -0,0 +1,49 @@
+package org.opensearch.migrations.bulkload.worker;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.opensearch.migrations.bulkload.workcoordination.IWorkCoordinator.WorkItemAndDuration.WorkItem;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ShardWorkPreparerTest {
+
+    private static List<String> toIds(List<WorkItem> workItems) {
+        return workItems.stream().map(WorkItem::toString).collect(Collectors.toList());
+    }
+
+    @Test
+    void splitIntoDocRanges_smallShardIsNotSplit() {
+        var workItem = new WorkItem("idx", 0, 0);
+        Assertions.assertEquals(List.of(workItem), ShardWorkPreparer.splitIntoDocRanges(workItem, 100, 100));
+    }
+
+    @Test
+    void splitIntoDocRanges_boundedItemIsNotSplit() {
+        var workItem = new WorkItem("idx", 0, 0, 100);
+        Assertions.assertEquals(List.of(workItem), ShardWorkPreparer.splitIntoDocRanges(workItem, 1000, 10));
+    }
+
+    @Test
+    void splitIntoDocRanges_coversTheShardWithDisjointRanges() {
+        var docRanges = ShardWorkPreparer.splitIntoDocRanges(new WorkItem("idx", 3, 0), 250, 100);
+        Assertions.assertEquals(List.of("idx__3__0__100", "idx__3__100__200", "idx__3__200__300"), toIds(docRanges));
+    }
+
+    @Test
+    void splitIntoDocRanges_fromACheckpointKeepsTheSameBoundaries() {
+        var docRanges = ShardWorkPreparer.splitIntoDocRanges(new WorkItem("idx", 3, 42), 250, 100);
+        Assertions.assertEquals(List.of("idx__3__42__100", "idx__3__100__200", "idx__3__200__300"), toIds(docRanges));
+    }
+
+    @Test
+    void docRangeWorkItemsRoundTripThroughTheirIds() {
+        var workItem = new WorkItem("idx", 3, 100, 200);
+        Assertions.assertEquals(workItem, WorkItem.valueFromWorkItemString(workItem.toString()));
+        var unboundedWorkItem = new WorkItem("idx", 3, 100);
+        Assertions.assertEquals("idx__3__100", unboundedWorkItem.toString());
+        Assertions.assertEquals(unboundedWorkItem, WorkItem.valueFromWorkItemString(unboundedWorkItem.toString()));
+    }
+}
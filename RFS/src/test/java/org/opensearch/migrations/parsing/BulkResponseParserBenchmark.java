@@ -0,0 +1,60 @@
+package org.opensearch.migrations.parsing;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.opensearch.migrations.bulkload.BenchmarkDocuments;
+import org.opensearch.migrations.data.workloads.Workloads;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures finding the documents that succeeded in bulk responses for batches of generated documents, from fully
+ * successful responses to ones where most of the items failed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class BulkResponseParserBenchmark {
+    @Param({"100", "1000"})
+    public int docsPerBulkRequest;
+
+    @Param({"0", "10", "90"})
+    public int failurePercent;
+
+    private String bulkResponse;
+
+    @Setup
+    public void setUp() {
+        var docs = BenchmarkDocuments.createRfsDocuments(Workloads.HTTP_LOGS, docsPerBulkRequest)
+            .stream()
+            .map(doc -> doc.document)
+            .toList();
+        bulkResponse = BenchmarkDocuments.createBulkResponse(docs, failurePercent, 22L);
+    }
+
+    @Benchmark
+    public List<String> findSuccessDocs() throws IOException {
+        return BulkResponseParser.findSuccessDocs(bulkResponse);
+    }
+
+    @Test
+    void findsEverySuccessfulDocument() throws IOException {
+        docsPerBulkRequest = 1000;
+        failurePercent = 0;
+        setUp();
+        assertEquals(docsPerBulkRequest, findSuccessDocs().size());
+    }
+}
@@ -2,9 +2,12 @@ package org.opensearch.migrations.trafficcapture.kafkaoffloader;
 
 import java.nio.ByteBuffer;
 import java.time.Instant;
-import java.util.Arrays;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.opensearch.migrations.tracing.commoncontexts.IConnectionContext;
 import org.opensearch.migrations.trafficcapture.CodedOutputStreamHolder;
@@ -13,9 +16,12 @@ import org.opensearch.migrations.trafficcapture.IConnectionCaptureFactory;
 import org.opensearch.migrations.trafficcapture.OrderedStreamLifecyleManager;
 import org.opensearch.migrations.trafficcapture.StreamChannelConnectionCaptureSerializer;
 import org.opensearch.migrations.trafficcapture.kafkaoffloader.tracing.IRootKafkaOffloaderContext;
+import org.opensearch.migrations.trafficcapture.protos.TrafficStreamCodec;
 
 import com.google.protobuf.CodedOutputStream;
-import lombok.AllArgsConstructor;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.Producer;
@@ -23,9 +29,9 @@ import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
 
 @Slf4j
-public class KafkaCaptureFactory implements IConnectionCaptureFactory<RecordMetadata> {
+public class KafkaCaptureFactory implements IConnectionCaptureFactory<RecordMetadata>, AutoCloseable {
 
-    private static final String DEFAULT_TOPIC_NAME_FOR_TRAFFIC = "logging-traffic-topic";
+    public static final String DEFAULT_TOPIC_NAME_FOR_TRAFFIC = "logging-traffic-topic";
     // This value encapsulates overhead we should reserve for a given Producer record to account for record key bytes
     // and
     // general Kafka message overhead
@@ -33,10 +39,15 @@ public class KafkaCaptureFactory implements IConnectionCaptureFactory<RecordMeta
 
     private final IRootKafkaOffloaderContext rootScope;
     private final String nodeId;
-    // Potential future optimization here to use a direct buffer (e.g. nio) instead of byte array
     private final Producer<String, byte[]> producer;
     private final String topicNameForTraffic;
     private final int bufferSize;
+    private final ByteBufAllocator streamBufferAllocator;
+    private final TrafficStreamCodec.Encoder recordEncoder;
+    private final AtomicBoolean expeditedFlushIsQueued = new AtomicBoolean();
+    // producer.flush() blocks until every buffered record has been acknowledged, so it gets a thread of its own.
+    // That thread goes away when there's nothing left to flush.
+    private final ThreadPoolExecutor expeditedFlushExecutor;
 
     public KafkaCaptureFactory(
         IRootKafkaOffloaderContext rootScope,
@@ -44,12 +55,56 @@ public class KafkaCaptureFactory implements IConnectionCaptureFactory<RecordMeta
         Producer<String, byte[]> producer,
         String topicNameForTraffic,
         int messageSize
+    ) {
+        this(rootScope, nodeId, producer, topicNameForTraffic, messageSize, PooledByteBufAllocator.DEFAULT);
+    }
+
+    /**
+     * @param streamBufferAllocator provides the buffers that each TrafficStream is serialized into.  Every stream
+     *                              needs a buffer as large as a Kafka message, so these should be pooled.  Each
+     *                              buffer is released as soon as its bytes have been copied into the record that
+     *                              will be sent to Kafka.
+     */
+    public KafkaCaptureFactory(
+        IRootKafkaOffloaderContext rootScope,
+        String nodeId,
+        Producer<String, byte[]> producer,
+        String topicNameForTraffic,
+        int messageSize,
+        @NonNull ByteBufAllocator streamBufferAllocator
+    ) {
+        this(rootScope, nodeId, producer, topicNameForTraffic, messageSize, streamBufferAllocator,
+            TrafficStreamCodec.NONE);
+    }
+
+    /**
+     * @param recordCodec how each serialized TrafficStream is encoded into the value of its record.  Records that
+     *                    are compressed are never bigger than they would have been uncompressed.  The
+     *                    native memory that compression holds is freed when this factory is closed.
+     */
+    public KafkaCaptureFactory(
+        IRootKafkaOffloaderContext rootScope,
+        String nodeId,
+        Producer<String, byte[]> producer,
+        String topicNameForTraffic,
+        int messageSize,
+        @NonNull ByteBufAllocator streamBufferAllocator,
+        @NonNull TrafficStreamCodec recordCodec
     ) {
         this.rootScope = rootScope;
         this.nodeId = nodeId;
         this.producer = producer;
         this.topicNameForTraffic = topicNameForTraffic;
         this.bufferSize = messageSize - KAFKA_MESSAGE_OVERHEAD_BYTES;
+        this.streamBufferAllocator = streamBufferAllocator;
+        this.recordEncoder = recordCodec.newEncoder();
+        this.expeditedFlushExecutor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            r -> {
+                var t = new Thread(r, "kafkaCaptureExpeditedFlush");
+                t.setDaemon(true);
+                return t;
+            });
+        this.expeditedFlushExecutor.allowCoreThreadTimeOut(true);
     }
 
     public KafkaCaptureFactory(
@@ -70,10 +125,48 @@ public class KafkaCaptureFactory implements IConnectionCaptureFactory<RecordMeta
         );
     }
 
-    @AllArgsConstructor
+    /**
+     * Frees the compressors used to encode records.  Records that are encoded after this, e.g. by connections that
+     * are still closing, are still encoded correctly but with compressors that are freed right after their use.
+     */
+    @Override
+    public void close() {
+        recordEncoder.close();
+    }
+
+    /**
+     * Flushes the producer so that records that have already been sent to it go out without waiting for linger.ms.
+     * Requests that come in while a flush is queued but hasn't started yet are covered by that flush.  Records
+     * that are still being handed to the producer by sendFullyAsync may miss the flush and will be sent normally.
+     */
+    @Override
+    public void expediteOutstandingFlushes() {
+        if (expeditedFlushIsQueued.compareAndSet(false, true)) {
+            expeditedFlushExecutor.execute(() -> {
+                expeditedFlushIsQueued.set(false);
+                try {
+                    producer.flush();
+                } catch (Exception e) {
+                    log.atWarn().setCause(e).setMessage("Error while flushing the producer").log();
+                }
+            });
+        }
+    }
+
+    /**
+     * Holds a CodedOutputStream that writes into a ByteBuf, usually from a pool, until the stream is closed
+     */
     static class CodedOutputStreamWrapper implements CodedOutputStreamHolder {
-        private final CodedOutputStream codedOutputStream;
+        private final ByteBuf byteBuf;
         private final ByteBuffer byteBuffer;
+        private final CodedOutputStream codedOutputStream;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        CodedOutputStreamWrapper(ByteBuf byteBuf) {
+            this.byteBuf = byteBuf;
+            this.byteBuffer = byteBuf.nioBuffer(0, byteBuf.capacity());
+            this.codedOutputStream = CodedOutputStream.newInstance(byteBuffer);
+        }
 
         @Override
         public int getOutputStreamBytesLimit() {
@@ -84,6 +177,26 @@ public class KafkaCaptureFactory implements IConnectionCaptureFactory<RecordMeta
         public @NonNull CodedOutputStream getOutputStream() {
             return codedOutputStream;
         }
+
+        /**
+         * Encodes what has been written into an array of exactly the encoded size, which is what the producer's
+         * ByteArraySerializer passes through, and releases the buffer.
+         */
+        byte[] encodeWrittenBytesAndRelease(TrafficStreamCodec.Encoder encoder) {
+            var written = byteBuffer.duplicate();
+            written.position(0).limit(codedOutputStream.getTotalBytesWritten());
+            try {
+                return encoder.encode(written);
+            } finally {
+                release();
+            }
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                byteBuf.release();
+            }
+        }
     }
 
     class StreamManager extends OrderedStreamLifecyleManager<RecordMetadata> {
@@ -102,8 +215,17 @@ public class KafkaCaptureFactory implements IConnectionCaptureFactory<RecordMeta
         public CodedOutputStreamWrapper createStream() {
             telemetryContext.addEvent("streamCreated");
 
-            ByteBuffer bb = ByteBuffer.allocate(bufferSize);
-            return new CodedOutputStreamWrapper(CodedOutputStream.newInstance(bb), bb);
+            return new CodedOutputStreamWrapper(streamBufferAllocator.buffer(bufferSize, bufferSize));
+        }
+
+        @Override
+        public CompletableFuture<RecordMetadata> closeStream(CodedOutputStreamHolder outputStreamHolder, int index) {
+            var closeFuture = super.closeStream(outputStreamHolder, index);
+            if (!(outputStreamHolder instanceof CodedOutputStreamWrapper)) {
+                return closeFuture;
+            }
+            // kickoffCloseStream releases the buffer, but it won't be called if an earlier close failed
+            return closeFuture.whenComplete((v, t) -> ((CodedOutputStreamWrapper) outputStreamHolder).release());
         }
 
         @Override
@@ -121,11 +243,10 @@ public class KafkaCaptureFactory implements IConnectionCaptureFactory<RecordMeta
             final var connectionId = telemetryContext.getConnectionId();
 
             String recordId = String.format("%s.%d", connectionId, index);
-            var byteBuffer = osh.byteBuffer;
             ProducerRecord<String, byte[]> kafkaRecord = new ProducerRecord<>(
                 topicNameForTraffic,
                 recordId,
-                Arrays.copyOfRange(byteBuffer.array(), 0, byteBuffer.position())
+                osh.encodeWrittenBytesAndRelease(recordEncoder)
             );
             log.debug("Sending Kafka producer record: {} for topic: {}", recordId, topicNameForTraffic);
 
@@ -7,16 +7,20 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 import org.opensearch.migrations.trafficcapture.kafkaoffloader.tracing.TestRootKafkaOffloaderContext;
 import org.opensearch.migrations.trafficcapture.tracing.ConnectionContext;
 
+import io.netty.buffer.PoolArenaMetric;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -252,6 +256,43 @@ public class KafkaCaptureFactoryTest {
         mockProducer.close();
     }
 
+    private static long activeAllocations(PooledByteBufAllocator allocator) {
+        var metric = allocator.metric();
+        return Stream.concat(metric.directArenas().stream(), metric.heapArenas().stream())
+            .mapToLong(PoolArenaMetric::numActiveAllocations)
+            .sum();
+    }
+
+    @Test
+    public void testStreamBuffersAreReturnedToThePoolEvenWhenSendsFail() throws IOException {
+        var allocator = new PooledByteBufAllocator(true);
+        KafkaCaptureFactory kafkaCaptureFactory = new KafkaCaptureFactory(
+            TestRootKafkaOffloaderContext.noTracking(),
+            TEST_NODE_ID_STRING,
+            mockProducer,
+            topic,
+            1024 * 1024,
+            allocator
+        );
+        var offloader = kafkaCaptureFactory.createOffloader(createCtx());
+        when(mockProducer.send(any(), any())).thenAnswer(invocation -> {
+            ((Callback) invocation.getArguments()[1]).onCompletion(null, new RuntimeException("Send failed"));
+            return null;
+        });
+
+        var bb = Unpooled.wrappedBuffer("FakeData".getBytes(StandardCharsets.UTF_8));
+        var futures = new ArrayList<CompletableFuture<RecordMetadata>>();
+        for (int i = 0; i < 3; ++i) {
+            offloader.addReadEvent(Instant.now(), bb);
+            futures.add(offloader.flushCommitAndResetStream(i == 2));
+        }
+        bb.release();
+        for (var f : futures) {
+            Assertions.assertThrows(ExecutionException.class, () -> f.get(1, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(0, activeAllocations(allocator));
+    }
+
     private RecordMetadata generateRecordMetadata(String topicName, int partition) {
         TopicPartition topicPartition = new TopicPartition(topicName, partition);
         return new RecordMetadata(topicPartition, 0, 0, 0, 0, 0);
@@ -6,4 +6,10 @@ import org.opensearch.migrations.tracing.commoncontexts.IConnectionContext;
 
 public interface IConnectionCaptureFactory<T> {
     IChannelConnectionCaptureSerializer<T> createOffloader(IConnectionContext ctx) throws IOException;
+
+    /**
+     * Asks that whatever has been flushed from the offloaders, but is still being held onto to be sent in a
+     * larger batch, be sent now.  This only speeds things up, so it doesn't need to wait for those sends to finish.
+     */
+    default void expediteOutstandingFlushes() {}
 }
@@ -0,0 +1,257 @@
+package org.opensearch.migrations.trafficcapture.protos;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+
+/**
+ * How each serialized TrafficStream is encoded into a record.  NONE leaves the record as the plain serialized
+ * TrafficStream, which is what every record was before there were codecs.  The other codecs compress the
+ * serialized TrafficStream and frame it as<br>
+ * <code>[0x00] [codec id] [varint: uncompressed length] [compressed bytes]</code><br>
+ * No serialized protobuf message can start with a zero byte since that would be a tag for field number 0, so
+ * decode() can tell framed records from plain ones and old records stay readable.<br><br>
+ *
+ * Compression is done with the JDK's deflate so that the proxy and replayer don't need native libraries.  Most
+ * of what's captured is HTTP headers and small JSON documents, which deflate compresses poorly on their own since
+ * each record has little history to find matches in.  DEFLATE_WITH_HTTP_DICTIONARY primes the compressor with a
+ * preset dictionary of strings that are common in OpenSearch and Elasticsearch traffic.  The dictionary can never
+ * change once records have been written with it, so a new dictionary would need a new codec id.<br><br>
+ *
+ * Deflaters and Inflaters hold native memory until they're ended, so records are encoded with an Encoder and
+ * decoded with a Decoder.  Each of those reuses its Deflaters or Inflaters across calls and ends them when it's
+ * closed, so the owner of an Encoder or Decoder should close it along with whatever it was made for.
+ */
+public enum TrafficStreamCodec {
+    NONE(0, null),
+    DEFLATE(1, null),
+    DEFLATE_WITH_HTTP_DICTIONARY(2, "/trafficStreamHttpDictionary-v1.txt");
+
+    private static final byte FRAME_MARKER = 0;
+    private static final int MAX_FRAME_HEADER_BYTES = 2 + CodedOutputStream.computeUInt32SizeNoTag(Integer.MAX_VALUE);
+    // TrafficStreams are limited to the size of a Kafka message.  Anything far bigger than that is corrupt.
+    private static final int MAX_UNCOMPRESSED_BYTES = 256 * 1024 * 1024;
+
+    private final byte id;
+    private final byte[] dictionary;
+
+    TrafficStreamCodec(int id, String dictionaryResource) {
+        this.id = (byte) id;
+        this.dictionary = dictionaryResource == null ? null : loadDictionary(dictionaryResource);
+    }
+
+    private static byte[] loadDictionary(String resourceName) {
+        try (InputStream is = TrafficStreamCodec.class.getResourceAsStream(resourceName)) {
+            if (is == null) {
+                throw new IllegalStateException("Couldn't find the dictionary resource " + resourceName);
+            }
+            return is.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static TrafficStreamCodec forId(byte id) throws InvalidProtocolBufferException {
+        for (var codec : values()) {
+            if (codec.id == id && codec != NONE) {
+                return codec;
+            }
+        }
+        throw new InvalidProtocolBufferException("Unknown TrafficStream codec id " + id);
+    }
+
+    public Encoder newEncoder() {
+        return new Encoder(this);
+    }
+
+    /**
+     * Reuses Deflaters, which hold native memory, from a pool that's drained and ended on close().  Encoding is
+     * thread-safe, with each concurrent caller using a Deflater of its own.  Records that are encoded after this
+     * has been closed are still encoded, with Deflaters that are ended right away.
+     */
+    public static class Encoder implements AutoCloseable {
+        private final TrafficStreamCodec codec;
+        private final NativeResourcePool<Deflater> deflaters =
+            new NativeResourcePool<>(() -> new Deflater(Deflater.DEFAULT_COMPRESSION, true), Deflater::end);
+
+        private Encoder(TrafficStreamCodec codec) {
+            this.codec = codec;
+        }
+
+        public TrafficStreamCodec getCodec() {
+            return codec;
+        }
+
+        /**
+         * @param serializedTrafficStream the bytes between its position and limit are encoded.  Its position is
+         *                                left at its limit.
+         * @return the record to send.  If compressing wouldn't make the record any smaller, it's left uncompressed.
+         */
+        public byte[] encode(ByteBuffer serializedTrafficStream) {
+            var uncompressedLength = serializedTrafficStream.remaining();
+            if (codec == NONE) {
+                var bytes = new byte[uncompressedLength];
+                serializedTrafficStream.get(bytes);
+                return bytes;
+            }
+            var output = new byte[MAX_FRAME_HEADER_BYTES + uncompressedLength];
+            var headerStream = CodedOutputStream.newInstance(output);
+            int headerLength;
+            try {
+                headerStream.write(FRAME_MARKER);
+                headerStream.write(codec.id);
+                headerStream.writeUInt32NoTag(uncompressedLength);
+                headerLength = headerStream.getTotalBytesWritten();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            var deflater = deflaters.acquire();
+            try {
+                deflater.reset();
+                if (codec.dictionary != null) {
+                    deflater.setDictionary(codec.dictionary);
+                }
+                deflater.setInput(serializedTrafficStream.duplicate());
+                deflater.finish();
+                var outputLength = headerLength;
+                while (!deflater.finished() && outputLength < uncompressedLength) {
+                    outputLength += deflater.deflate(output, outputLength, uncompressedLength - outputLength);
+                }
+                if (!deflater.finished()) {
+                    // compressing would make it bigger
+                    var bytes = new byte[uncompressedLength];
+                    serializedTrafficStream.get(bytes);
+                    return bytes;
+                }
+                serializedTrafficStream.position(serializedTrafficStream.limit());
+                return Arrays.copyOf(output, outputLength);
+            } finally {
+                deflaters.release(deflater);
+            }
+        }
+
+        @Override
+        public void close() {
+            deflaters.close();
+        }
+    }
+
+    /**
+     * Parses records that were made by an Encoder with any codec, or that were written before there were codecs.
+     * Like Encoder, this pools the Inflaters that it needs, is thread-safe, and ends the Inflaters on close().
+     */
+    public static class Decoder implements AutoCloseable {
+        private final NativeResourcePool<Inflater> inflaters =
+            new NativeResourcePool<>(() -> new Inflater(true), Inflater::end);
+
+        public TrafficStream decode(byte[] record) throws InvalidProtocolBufferException {
+            if (record.length == 0 || record[0] != FRAME_MARKER) {
+                return TrafficStream.parseFrom(record);
+            }
+            if (record.length < 2) {
+                throw new InvalidProtocolBufferException("Truncated TrafficStream frame");
+            }
+            var codec = forId(record[1]);
+            try {
+                var headerStream = CodedInputStream.newInstance(record, 2, record.length - 2);
+                var uncompressedLength = headerStream.readUInt32();
+                if (uncompressedLength < 0 || uncompressedLength > MAX_UNCOMPRESSED_BYTES) {
+                    throw new InvalidProtocolBufferException("Bad uncompressed length of " + uncompressedLength);
+                }
+                var offset = 2 + headerStream.getTotalBytesRead();
+                return TrafficStream.parseFrom(inflate(codec, record, offset, uncompressedLength));
+            } catch (InvalidProtocolBufferException e) {
+                throw e;
+            } catch (IOException | DataFormatException e) {
+                throw new InvalidProtocolBufferException(
+                    "Couldn't decompress a TrafficStream with " + codec + ": " + e);
+            }
+        }
+
+        private byte[] inflate(TrafficStreamCodec codec, byte[] record, int offset, int uncompressedLength)
+            throws DataFormatException, InvalidProtocolBufferException {
+            var inflater = inflaters.acquire();
+            try {
+                inflater.reset();
+                inflater.setInput(record, offset, record.length - offset);
+                if (codec.dictionary != null) {
+                    // raw inflaters don't ask for the dictionary, so it's set up front
+                    inflater.setDictionary(codec.dictionary);
+                }
+                var output = new byte[uncompressedLength];
+                var outputLength = 0;
+                while (outputLength < uncompressedLength) {
+                    var n = inflater.inflate(output, outputLength, uncompressedLength - outputLength);
+                    if (n == 0) {
+                        break;
+                    }
+                    outputLength += n;
+                }
+                if (outputLength != uncompressedLength) {
+                    throw new InvalidProtocolBufferException("Expected " + uncompressedLength
+                        + " uncompressed bytes but got " + outputLength);
+                }
+                return output;
+            } finally {
+                inflaters.release(inflater);
+            }
+        }
+
+        @Override
+        public void close() {
+            inflaters.close();
+        }
+    }
+
+    /**
+     * Idle Deflaters or Inflaters, which are ended rather than pooled once this has been closed
+     */
+    private static class NativeResourcePool<T> {
+        private final ConcurrentLinkedQueue<T> idle = new ConcurrentLinkedQueue<>();
+        private final Supplier<T> factory;
+        private final Consumer<T> ender;
+        private volatile boolean closed;
+
+        NativeResourcePool(Supplier<T> factory, Consumer<T> ender) {
+            this.factory = factory;
+            this.ender = ender;
+        }
+
+        T acquire() {
+            var resource = idle.poll();
+            return resource != null ? resource : factory.get();
+        }
+
+        void release(T resource) {
+            if (closed) {
+                ender.accept(resource);
+                return;
+            }
+            idle.offer(resource);
+            // close() may have drained the pool between the check above and the offer
+            if (closed && idle.remove(resource)) {
+                ender.accept(resource);
+            }
+        }
+
+        void close() {
+            closed = true;
+            for (var resource = idle.poll(); resource != null; resource = idle.poll()) {
+                ender.accept(resource);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.opensearch.migrations.trafficcapture.protos;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class TrafficStreamCodecTest {
+
+    private static final String REQUEST = "POST /logs-2024/_bulk HTTP/1.1\r\n"
+        + "Host: localhost:9200\r\n"
+        + "Content-Type: application/x-ndjson\r\n"
+        + "Content-Length: 180\r\n\r\n"
+        + "{\"index\":{\"_index\":\"logs-2024\",\"_id\":\"1\"}}\n"
+        + "{\"@timestamp\":\"2024-01-01T00:00:00Z\",\"message\":\"started\",\"level\":\"INFO\"}\n"
+        + "{\"index\":{\"_index\":\"logs-2024\",\"_id\":\"2\"}}\n"
+        + "{\"@timestamp\":\"2024-01-01T00:00:01Z\",\"message\":\"stopped\",\"level\":\"INFO\"}\n";
+
+    // records written with DEFLATE_WITH_HTTP_DICTIONARY can only be decoded with exactly the same dictionary
+    private static final String HTTP_DICTIONARY_V1_SHA256 =
+        "f9cc616285cf6ca57014b8976d9ad1e1d7cd105473c85a8ac3d3ed705f0a30d2";
+
+    private static TrafficStream makeTrafficStream(String data) {
+        return TrafficStream.newBuilder()
+            .setConnectionId("0242acfffe110003-00000001-00000002-abcdef0123456789-01234567")
+            .setNodeId("proxy-node")
+            .setNumber(1)
+            .addSubStream(TrafficObservation.newBuilder()
+                .setRead(ReadObservation.newBuilder().setData(ByteString.copyFrom(data, StandardCharsets.UTF_8))))
+            .build();
+    }
+
+    @Test
+    public void testTheHttpDictionaryHasNotChanged() throws Exception {
+        try (var is = TrafficStreamCodec.class.getResourceAsStream("/trafficStreamHttpDictionary-v1.txt")) {
+            Assertions.assertNotNull(is);
+            var digest = MessageDigest.getInstance("SHA-256").digest(is.readAllBytes());
+            Assertions.assertEquals(HTTP_DICTIONARY_V1_SHA256, HexFormat.of().formatHex(digest),
+                "The dictionary for DEFLATE_WITH_HTTP_DICTIONARY must never change.  Add a new codec instead.");
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(TrafficStreamCodec.class)
+    public void testRecordsRoundTrip(TrafficStreamCodec codec) throws Exception {
+        var trafficStream = makeTrafficStream(REQUEST);
+        var serialized = trafficStream.toByteArray();
+        try (var encoder = codec.newEncoder(); var decoder = new TrafficStreamCodec.Decoder()) {
+            // the second pass reuses the Deflater and Inflater from the first
+            for (int i = 0; i < 2; ++i) {
+                var buffer = ByteBuffer.wrap(serialized);
+                var record = encoder.encode(buffer);
+                Assertions.assertEquals(buffer.limit(), buffer.position());
+                Assertions.assertEquals(trafficStream, decoder.decode(record));
+                if (codec == TrafficStreamCodec.NONE) {
+                    Assertions.assertArrayEquals(serialized, record);
+                } else {
+                    Assertions.assertTrue(record.length < serialized.length);
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(TrafficStreamCodec.class)
+    public void testRecordsCanStillBeEncodedAndDecodedAfterClosing(TrafficStreamCodec codec) throws Exception {
+        var trafficStream = makeTrafficStream(REQUEST);
+        var encoder = codec.newEncoder();
+        var decoder = new TrafficStreamCodec.Decoder();
+        decoder.decode(encoder.encode(ByteBuffer.wrap(trafficStream.toByteArray())));
+        encoder.close();
+        decoder.close();
+        var record = encoder.encode(ByteBuffer.wrap(trafficStream.toByteArray()));
+        Assertions.assertEquals(trafficStream, decoder.decode(record));
+    }
+
+    @ParameterizedTest
+    @EnumSource(TrafficStreamCodec.class)
+    public void testRecordsThatWouldGrowAreLeftUncompressed(TrafficStreamCodec codec) throws Exception {
+        var trafficStream = TrafficStream.newBuilder().setConnectionId("c").setNumber(1).build();
+        var serialized = trafficStream.toByteArray();
+        try (var encoder = codec.newEncoder(); var decoder = new TrafficStreamCodec.Decoder()) {
+            var record = encoder.encode(ByteBuffer.wrap(serialized));
+            Assertions.assertArrayEquals(serialized, record);
+            Assertions.assertEquals(trafficStream, decoder.decode(record));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = TrafficStreamCodec.class, names = "NONE", mode = EnumSource.Mode.EXCLUDE)
+    public void testCorruptRecordsAreRejected(TrafficStreamCodec codec) {
+        try (var encoder = codec.newEncoder(); var decoder = new TrafficStreamCodec.Decoder()) {
+            var record = encoder.encode(ByteBuffer.wrap(makeTrafficStream(REQUEST).toByteArray()));
+            var truncated = new byte[record.length / 2];
+            System.arraycopy(record, 0, truncated, 0, truncated.length);
+            Assertions.assertThrows(InvalidProtocolBufferException.class, () -> decoder.decode(truncated));
+            var unknownCodec = record.clone();
+            unknownCodec[1] = 99;
+            Assertions.assertThrows(InvalidProtocolBufferException.class, () -> decoder.decode(unknownCodec));
+        }
+    }
+}
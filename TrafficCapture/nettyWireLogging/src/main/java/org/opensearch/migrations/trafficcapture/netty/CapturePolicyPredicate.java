@@ -0,0 +1,250 @@
+package org.opensearch.migrations.trafficcapture.netty;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import io.netty.handler.codec.http.HttpMessageDecoderResult;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpUtil;
+import lombok.Getter;
+
+/**
+ * Decides which requests to capture with an ordered list of rules, after the header suppressions of
+ * HeaderValueFilteringCapturePredicate have been applied.  The first rule that matches a request's method, path,
+ * and header determines what happens to it.  A DROP rule drops the request.  A CAPTURE rule captures it if its
+ * connection is in the rule's sample and the rule's budget of bytes for the current second hasn't been used up.
+ * Requests that don't match any rule are captured.<br><br>
+ *
+ * Sampling is by connection rather than by request so that the replayer sees every request of the connections
+ * that it gets.  Since HTTP/1.1 requests are answered in order on a connection, the replayer can't make sense of
+ * a connection that's missing some of its requests.  Budgets are charged the size of each request's headers, when
+ * they're known, plus its content-length.  Chunked bodies aren't counted since their size isn't known until after
+ * the decision has been made, so a budget doesn't limit how much of a chunked request, such as a streamed _bulk
+ * upload, is captured.  Rules for paths that receive chunked requests should be limited by sampling instead.<br><br>
+ *
+ * This is evaluated for every request on the proxy's event loops, so nothing here allocates once the rules have
+ * been built.
+ */
+public class CapturePolicyPredicate extends HeaderValueFilteringCapturePredicate {
+
+    public static class Rule {
+        private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+        private static final long SAMPLE_SCALE = 1L << 32;
+        // the budget's state packs the low bits of the current second above the bytes charged during it
+        private static final int BYTES_BITS = 40;
+        private static final long BYTES_MASK = (1L << BYTES_BITS) - 1;
+        private static final long SECOND_MASK = (1L << (Long.SIZE - BYTES_BITS)) - 1;
+
+        private final Set<HttpMethod> methods;
+        private final String pathPrefix;
+        private final String headerName;
+        private final String headerValue;
+        @Getter
+        private final CaptureDirective directive;
+        private final long sampleThreshold;
+        private final long maxBytesPerSecond;
+
+        private final AtomicLong budgetState = new AtomicLong();
+
+        /**
+         * @param methods the methods that this rule applies to, or null for all of them
+         * @param pathPrefix the prefix of the request uris that this rule applies to, or null for all of them
+         * @param headerName the name of a header that must be present for this rule to apply, or null
+         * @param headerValue the value, compared case-insensitively, that headerName must have
+         * @param sampleRate the fraction, from 0 to 1, of connections whose matching requests will be captured
+         * @param maxBytesPerSecond the most request bytes that this rule will capture each second, or 0 for no limit
+         */
+        public Rule(
+            Set<HttpMethod> methods,
+            String pathPrefix,
+            String headerName,
+            String headerValue,
+            CaptureDirective directive,
+            double sampleRate,
+            long maxBytesPerSecond
+        ) {
+            if (sampleRate < 0 || sampleRate > 1) {
+                throw new IllegalArgumentException("sampleRate must be between 0 and 1, but was " + sampleRate);
+            }
+            if (maxBytesPerSecond < 0) {
+                throw new IllegalArgumentException("maxBytesPerSecond must not be negative");
+            }
+            if ((headerName == null) != (headerValue == null)) {
+                throw new IllegalArgumentException("headerName and headerValue must be set together");
+            }
+            this.methods = methods;
+            this.pathPrefix = pathPrefix;
+            this.headerName = headerName;
+            this.headerValue = headerValue;
+            this.directive = Objects.requireNonNull(directive);
+            this.sampleThreshold = (long) (sampleRate * SAMPLE_SCALE);
+            this.maxBytesPerSecond = maxBytesPerSecond;
+        }
+
+        /**
+         * Parses a rule from comma-separated key=value pairs, any of which may be omitted.  For example,
+         * "method=GET|HEAD,pathPrefix=/logs-,header=x-tenant:acme,action=capture,sample=0.1,maxBytesPerSecond=1000000"
+         */
+        public static Rule parse(String spec) {
+            Set<HttpMethod> methods = null;
+            String pathPrefix = null;
+            String headerName = null;
+            String headerValue = null;
+            var directive = CaptureDirective.CAPTURE;
+            var sampleRate = 1.0;
+            var maxBytesPerSecond = 0L;
+            for (var pair : spec.split(",")) {
+                var kvp = pair.split("=", 2);
+                if (kvp.length != 2) {
+                    throw new IllegalArgumentException("Expected key=value but got '" + pair + "' in '" + spec + "'");
+                }
+                var value = kvp[1].trim();
+                switch (kvp[0].trim()) {
+                    case "method":
+                        methods = Arrays.stream(value.split("\\|"))
+                            .map(m -> HttpMethod.valueOf(m.trim().toUpperCase()))
+                            .collect(Collectors.toUnmodifiableSet());
+                        break;
+                    case "pathPrefix":
+                        pathPrefix = value;
+                        break;
+                    case "header":
+                        var nameAndValue = value.split(":", 2);
+                        if (nameAndValue.length != 2) {
+                            throw new IllegalArgumentException("Expected header=name:value but got '" + pair + "'");
+                        }
+                        headerName = nameAndValue[0].trim();
+                        headerValue = nameAndValue[1].trim();
+                        break;
+                    case "action":
+                        directive = CaptureDirective.valueOf(value.toUpperCase());
+                        break;
+                    case "sample":
+                        sampleRate = Double.parseDouble(value);
+                        break;
+                    case "maxBytesPerSecond":
+                        maxBytesPerSecond = Long.parseLong(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown key '" + kvp[0] + "' in '" + spec + "'");
+                }
+            }
+            return new Rule(methods, pathPrefix, headerName, headerValue, directive, sampleRate, maxBytesPerSecond);
+        }
+
+        boolean matches(HttpRequest request) {
+            if (methods != null && !methods.contains(request.method())) {
+                return false;
+            }
+            if (pathPrefix != null && !request.uri().startsWith(pathPrefix)) {
+                return false;
+            }
+            if (headerName != null) {
+                var value = request.headers().get(headerName);
+                return value != null && headerValue.equalsIgnoreCase(value);
+            }
+            return true;
+        }
+
+        boolean isSampled(int connectionHash) {
+            return sampleThreshold >= SAMPLE_SCALE || (Integer.toUnsignedLong(connectionHash) < sampleThreshold);
+        }
+
+        boolean tryChargeBudget(long bytes) {
+            return tryChargeBudget(bytes, System.nanoTime());
+        }
+
+        /**
+         * The budget is reset at the start of each second.  The first request of a second is always let through
+         * so that requests larger than the whole budget aren't starved.<br><br>
+         *
+         * The second and the bytes charged during it are kept in one AtomicLong so that a charge can never land
+         * on the previous second's count just before it's reset.  Only the low bits of the second are kept, so a
+         * rule that goes unused for exactly a multiple of about 194 days would keep the old second's count, and
+         * counts saturate at about a terabyte.
+         */
+        boolean tryChargeBudget(long bytes, long nowNanos) {
+            if (maxBytesPerSecond == 0) {
+                return true;
+            }
+            var second = (nowNanos / NANOS_PER_SECOND) & SECOND_MASK;
+            var charge = Math.min(bytes, BYTES_MASK);
+            while (true) {
+                var state = budgetState.get();
+                var bytesSoFar = (state >>> BYTES_BITS) == second ? (state & BYTES_MASK) : 0;
+                var total = Math.min(bytesSoFar + charge, BYTES_MASK);
+                if (budgetState.compareAndSet(state, (second << BYTES_BITS) | total)) {
+                    return total <= maxBytesPerSecond || bytesSoFar == 0;
+                }
+            }
+        }
+    }
+
+    private final Rule[] rules;
+
+    public CapturePolicyPredicate(Map<String, String> suppressCaptureHeaderPairs, List<Rule> rules) {
+        super(
+            suppressCaptureHeaderPairs,
+            rules.stream().map(r -> r.headerName).filter(Objects::nonNull).toArray(String[]::new)
+        );
+        this.rules = rules.toArray(Rule[]::new);
+    }
+
+    @Override
+    public CaptureDirective apply(HttpRequest request) {
+        return apply(request, 0);
+    }
+
+    @Override
+    public CaptureDirective apply(HttpRequest request, int connectionHash) {
+        if (super.apply(request) == CaptureDirective.DROP) {
+            return CaptureDirective.DROP;
+        }
+        for (int i = 0; i < rules.length; ++i) {
+            var rule = rules[i];
+            if (!rule.matches(request)) {
+                continue;
+            }
+            if (rule.directive == CaptureDirective.DROP || !rule.isSampled(mixHash(connectionHash, i))) {
+                return CaptureDirective.DROP;
+            }
+            return rule.tryChargeBudget(estimateRequestBytes(request))
+                ? CaptureDirective.CAPTURE
+                : CaptureDirective.DROP;
+        }
+        return CaptureDirective.CAPTURE;
+    }
+
+    /**
+     * A chunked request is only charged for its headers since it has no content-length
+     */
+    private static long estimateRequestBytes(HttpRequest request) {
+        var headerBytes = 0L;
+        if (request.decoderResult() instanceof HttpMessageDecoderResult) {
+            var decoderResult = (HttpMessageDecoderResult) request.decoderResult();
+            headerBytes = (long) decoderResult.initialLineLength() + decoderResult.headerSize();
+        }
+        return headerBytes + HttpUtil.getContentLength(request, 0L);
+    }
+
+    /**
+     * Connection ids are mostly alike, so their hashes are mixed (with murmur3's finalizer) before they're compared
+     * against a sample rate.  The rule's index is mixed in too so that rules sample different connections.
+     */
+    private static int mixHash(int connectionHash, int ruleIndex) {
+        var h = connectionHash + ruleIndex * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
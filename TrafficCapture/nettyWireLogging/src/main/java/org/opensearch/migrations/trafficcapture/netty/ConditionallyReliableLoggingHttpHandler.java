@@ -1,12 +1,14 @@
 package org.opensearch.migrations.trafficcapture.netty;
 
 import java.io.IOException;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 
 import org.opensearch.migrations.trafficcapture.IConnectionCaptureFactory;
 import org.opensearch.migrations.trafficcapture.netty.tracing.IRootWireLoggingContext;
 import org.opensearch.migrations.trafficcapture.netty.tracing.IWireCaptureContexts;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.util.ReferenceCountUtil;
@@ -17,6 +19,8 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class ConditionallyReliableLoggingHttpHandler<T> extends LoggingHttpHandler<T> {
     private final Predicate<HttpRequest> shouldBlockPredicate;
+    private final GroupCommitCoordinator groupCommitCoordinator;
+    private long currentRequestBytes;
 
     public ConditionallyReliableLoggingHttpHandler(
         @NonNull IRootWireLoggingContext rootContext,
@@ -25,9 +29,40 @@ public class ConditionallyReliableLoggingHttpHandler<T> extends LoggingHttpHandl
         @NonNull IConnectionCaptureFactory<T> trafficOffloaderFactory,
         @NonNull RequestCapturePredicate requestCapturePredicate,
         @NonNull Predicate<HttpRequest> headerPredicateForWhenToBlock
+    ) throws IOException {
+        this(
+            rootContext,
+            nodeId,
+            connectionId,
+            trafficOffloaderFactory,
+            requestCapturePredicate,
+            headerPredicateForWhenToBlock,
+            null
+        );
+    }
+
+    /**
+     * @param groupCommitCoordinator when non-null, blocked requests are released in groups once all of their
+     *                               flushes have completed rather than one at a time as each flush completes
+     */
+    public ConditionallyReliableLoggingHttpHandler(
+        @NonNull IRootWireLoggingContext rootContext,
+        @NonNull String nodeId,
+        String connectionId,
+        @NonNull IConnectionCaptureFactory<T> trafficOffloaderFactory,
+        @NonNull RequestCapturePredicate requestCapturePredicate,
+        @NonNull Predicate<HttpRequest> headerPredicateForWhenToBlock,
+        GroupCommitCoordinator groupCommitCoordinator
     ) throws IOException {
         super(rootContext, nodeId, connectionId, trafficOffloaderFactory, requestCapturePredicate);
         this.shouldBlockPredicate = headerPredicateForWhenToBlock;
+        this.groupCommitCoordinator = groupCommitCoordinator;
+    }
+
+    @Override
+    public void channelRead(@NonNull ChannelHandlerContext ctx, @NonNull Object msg) throws Exception {
+        currentRequestBytes += ((ByteBuf) msg).readableBytes();
+        super.channelRead(ctx, msg);
     }
 
     @Override
@@ -37,10 +72,12 @@ public class ConditionallyReliableLoggingHttpHandler<T> extends LoggingHttpHandl
         boolean shouldCapture,
         HttpRequest httpRequest
     ) throws Exception {
+        var requestBytes = currentRequestBytes;
+        currentRequestBytes = 0;
         if (shouldCapture && shouldBlockPredicate.test(httpRequest)) {
             ((IWireCaptureContexts.IRequestContext) messageContext).onBlockingRequest();
             messageContext = messageContext.createBlockingContext();
-            trafficOffloader.flushCommitAndResetStream(false).whenComplete((result, t) -> {
+            BiConsumer<T, Throwable> onFlushed = (result, t) -> {
                 log.atInfo().setMessage("Done flushing").log();
 
                 if (t != null) {
@@ -58,7 +95,13 @@ public class ConditionallyReliableLoggingHttpHandler<T> extends LoggingHttpHandl
                 } catch (Exception e) {
                     throw Lombok.sneakyThrow(e);
                 }
-            });
+            };
+            var flushFuture = trafficOffloader.flushCommitAndResetStream(false);
+            if (groupCommitCoordinator != null) {
+                groupCommitCoordinator.enlist(ctx.channel().eventLoop(), flushFuture, requestBytes, onFlushed);
+            } else {
+                flushFuture.whenComplete(onFlushed);
+            }
         } else {
             assert messageContext instanceof IWireCaptureContexts.IRequestContext;
             super.channelFinishedReadingAnHttpMessage(ctx, msg, shouldCapture, httpRequest);
@@ -0,0 +1,131 @@
+package org.opensearch.migrations.trafficcapture.netty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Group commit for the flushes that ConditionallyReliableLoggingHttpHandler holds mutating requests back for.
+ * Without this, each of those requests waits for its own flush and is released alone, on whatever thread
+ * completed that flush.  Here, the blocked requests of all the connections on an EventLoop are gathered into a
+ * group until the window has passed or the group holds maxBytes of requests.  The group is then committed: the
+ * offloader is asked to expedite everything that's outstanding, and once every flush of the group has completed,
+ * all of its requests are released together with one task on their EventLoop.<br><br>
+ *
+ * This doesn't weaken durability.  No request is released before the flush that it was blocked on has completed,
+ * and each request still sees its own flush's result.  The cost is that a request may wait up to the window, or
+ * for a slower flush of the same group, before it's released.
+ */
+@Slf4j
+public class GroupCommitCoordinator {
+
+    private static class Group {
+        final List<CompletableFuture<Runnable>> members = new ArrayList<>();
+        long bytes;
+        ScheduledFuture<?> windowTimer;
+    }
+
+    private final long windowNanos;
+    private final long maxBytes;
+    private final Runnable expediteFlushes;
+    /**
+     * The open group for each EventLoop.  Each group is only ever touched from the thread of its EventLoop.
+     */
+    private final ConcurrentHashMap<EventLoop, Group> openGroups = new ConcurrentHashMap<>();
+
+    /**
+     * @param window how long to keep a group open after its first request has been enlisted
+     * @param maxBytes the number of request bytes that will cause a group to be committed before its window ends
+     * @param expediteFlushes called as each group is committed to ask the offloader to send whatever it's holding
+     *                        onto without waiting any further (e.g. for the Kafka producer's linger.ms)
+     */
+    public GroupCommitCoordinator(Duration window, long maxBytes, Runnable expediteFlushes) {
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("The group commit window must be positive, but was " + window);
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive, but was " + maxBytes);
+        }
+        this.windowNanos = window.toNanos();
+        this.maxBytes = maxBytes;
+        this.expediteFlushes = expediteFlushes;
+    }
+
+    /**
+     * Adds a blocked request to the open group of its EventLoop.  This must be called from that EventLoop.
+     * @param flushFuture the flush that the request is waiting upon
+     * @param requestBytes the size of the request, which counts toward the group's maxBytes
+     * @param onCommitted called on the EventLoop with the result of flushFuture once the whole group has committed
+     */
+    public <T> void enlist(
+        EventLoop eventLoop,
+        CompletableFuture<T> flushFuture,
+        long requestBytes,
+        BiConsumer<T, Throwable> onCommitted
+    ) {
+        assert eventLoop.inEventLoop() : "Requests must be enlisted from the EventLoop that they will be released on";
+        var group = openGroups.computeIfAbsent(eventLoop, k -> new Group());
+        group.members.add(flushFuture.<Runnable>handle((v, t) -> () -> onCommitted.accept(v, t)));
+        group.bytes += requestBytes;
+        if (group.bytes >= maxBytes) {
+            commit(eventLoop, group);
+        } else if (group.windowTimer == null) {
+            group.windowTimer = eventLoop.schedule(() -> commit(eventLoop, group), windowNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void commit(EventLoop eventLoop, Group group) {
+        if (!openGroups.remove(eventLoop, group)) {
+            return;
+        }
+        if (group.windowTimer != null) {
+            group.windowTimer.cancel(false);
+        }
+        log.atDebug().setMessage("Committing a group of {} blocked requests ({} bytes)")
+            .addArgument(group.members::size)
+            .addArgument(group.bytes)
+            .log();
+        try {
+            expediteFlushes.run();
+        } catch (Exception e) {
+            log.atWarn().setCause(e).setMessage("Couldn't expedite the flushes for a group commit.  "
+                + "The group will be released once its flushes complete on their own.").log();
+        }
+        var members = group.members;
+        CompletableFuture.allOf(members.toArray(CompletableFuture[]::new))
+            .whenComplete((v, t) -> releaseMembers(eventLoop, members));
+    }
+
+    private static void releaseMembers(EventLoop eventLoop, List<CompletableFuture<Runnable>> members) {
+        Runnable releaseAll = () -> members.forEach(GroupCommitCoordinator::releaseMember);
+        try {
+            eventLoop.execute(releaseAll);
+        } catch (RejectedExecutionException e) {
+            log.atDebug().setCause(e).setMessage("The EventLoop is shutting down.  Releasing {} requests from the "
+                + "thread that completed their flushes.").addArgument(members::size).log();
+            releaseAll.run();
+        }
+    }
+
+    /**
+     * Releases one request.  A request whose callback throws mustn't keep the rest of its group from being
+     * released, or their connections would hang.
+     */
+    private static void releaseMember(CompletableFuture<Runnable> member) {
+        try {
+            member.join().run();
+        } catch (Exception e) {
+            log.atError().setCause(e).setMessage("Error while releasing a request from a group commit.  "
+                + "Continuing to release the rest of the group.").log();
+        }
+    }
+}
@@ -1,32 +1,49 @@
 package org.opensearch.migrations.trafficcapture.netty;
 
 import java.util.Map;
-import java.util.Optional;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import io.netty.handler.codec.http.HttpRequest;
 
 public class HeaderValueFilteringCapturePredicate extends RequestCapturePredicate {
-    private final Map<String, Pattern> headerToPredicateRegexMap;
+    // Parallel arrays so that every request can be checked without any iterators, streams, or Optionals
+    private final String[] headerNames;
+    private final Pattern[] headerValuePatterns;
 
     public HeaderValueFilteringCapturePredicate(Map<String, String> suppressCaptureHeaderPairs) {
+        this(suppressCaptureHeaderPairs, new String[0]);
+    }
+
+    /**
+     * @param additionalHeadersRequired the names of other headers that a subclass needs to see to make its decisions
+     */
+    protected HeaderValueFilteringCapturePredicate(
+        Map<String, String> suppressCaptureHeaderPairs,
+        String[] additionalHeadersRequired
+    ) {
         super(
-            new PassThruHttpHeaders.HttpHeadersToPreserve(suppressCaptureHeaderPairs.keySet().toArray(String[]::new))
+            new PassThruHttpHeaders.HttpHeadersToPreserve(
+                Stream.concat(suppressCaptureHeaderPairs.keySet().stream(), Stream.of(additionalHeadersRequired))
+                    .toArray(String[]::new)
+            )
         );
-        headerToPredicateRegexMap = suppressCaptureHeaderPairs.entrySet()
-            .stream()
-            .collect(Collectors.toMap(Map.Entry::getKey, kvp -> Pattern.compile(kvp.getValue())));
+        headerNames = suppressCaptureHeaderPairs.keySet().toArray(String[]::new);
+        headerValuePatterns = new Pattern[headerNames.length];
+        for (int i = 0; i < headerNames.length; ++i) {
+            headerValuePatterns[i] = Pattern.compile(suppressCaptureHeaderPairs.get(headerNames[i]));
+        }
     }
 
     @Override
     public CaptureDirective apply(HttpRequest request) {
-        return headerToPredicateRegexMap.entrySet()
-            .stream()
-            .anyMatch(
-                kvp -> Optional.ofNullable(request.headers().get(kvp.getKey()))
-                    .map(v -> kvp.getValue().matcher(v).matches())
-                    .orElse(false)
-            ) ? CaptureDirective.DROP : CaptureDirective.CAPTURE;
+        var headers = request.headers();
+        for (int i = 0; i < headerNames.length; ++i) {
+            var value = headers.get(headerNames[i]);
+            if (value != null && headerValuePatterns[i].matcher(value).matches()) {
+                return CaptureDirective.DROP;
+            }
+        }
+        return CaptureDirective.CAPTURE;
     }
 }
@@ -98,11 +98,17 @@ public class LoggingHttpHandler<T> extends ChannelDuplexHandler {
         @Getter
         private HttpRequest currentRequest;
         final RequestCapturePredicate requestCapturePredicate;
+        final int connectionHash;
         boolean haveParsedFullRequest;
         final CaptureState captureState;
 
-        SimpleDecodedHttpRequestHandler(RequestCapturePredicate requestCapturePredicate, CaptureState captureState) {
+        SimpleDecodedHttpRequestHandler(
+            RequestCapturePredicate requestCapturePredicate,
+            int connectionHash,
+            CaptureState captureState
+        ) {
             this.requestCapturePredicate = requestCapturePredicate;
+            this.connectionHash = connectionHash;
             this.currentRequest = null;
             this.haveParsedFullRequest = false;
             this.captureState = captureState;
@@ -113,7 +119,8 @@ public class LoggingHttpHandler<T> extends ChannelDuplexHandler {
             if (msg instanceof HttpRequest) {
                 currentRequest = (HttpRequest) msg;
                 captureState.setShouldCaptureForRequest(
-                    RequestCapturePredicate.CaptureDirective.CAPTURE == requestCapturePredicate.apply((HttpRequest) msg)
+                    RequestCapturePredicate.CaptureDirective.CAPTURE
+                        == requestCapturePredicate.apply((HttpRequest) msg, connectionHash)
                 );
             } else if (msg instanceof HttpContent) {
                 ((HttpContent) msg).release();
@@ -153,7 +160,11 @@ public class LoggingHttpHandler<T> extends ChannelDuplexHandler {
         var captureState = new CaptureState();
         httpDecoderChannel = new EmbeddedChannel(
             new SimpleHttpRequestDecoder(httpHeadersCapturePredicate.getHeadersRequiredForMatcher(), captureState),
-            new SimpleDecodedHttpRequestHandler(httpHeadersCapturePredicate, captureState)
+            new SimpleDecodedHttpRequestHandler(
+                httpHeadersCapturePredicate,
+                channelKey == null ? 0 : channelKey.hashCode(),
+                captureState
+            )
         );
     }
 
@@ -247,6 +258,11 @@ public class LoggingHttpHandler<T> extends ChannelDuplexHandler {
         }
 
         requestContext.onBytesRead(bb.readableBytes());
+        if (shouldCapture) {
+            requestContext.onBytesCaptured(bb.readableBytes());
+        } else {
+            requestContext.onBytesDropped(bb.readableBytes());
+        }
 
         if (requestParsingHandler.haveParsedFullRequest) {
             requestContext.onFullyParsedRequest();
@@ -27,4 +27,13 @@ public class RequestCapturePredicate implements Function<HttpRequest, RequestCap
     public CaptureDirective apply(HttpRequest request) {
         return CaptureDirective.CAPTURE;
     }
+
+    /**
+     * This is what the capture handlers call.  Predicates that sample connections override this to make the
+     * same decision for every request of a connection.
+     * @param connectionHash a hash of the connection's id, which is stable for the life of the connection
+     */
+    public CaptureDirective apply(HttpRequest request, int connectionHash) {
+        return apply(request);
+    }
 }
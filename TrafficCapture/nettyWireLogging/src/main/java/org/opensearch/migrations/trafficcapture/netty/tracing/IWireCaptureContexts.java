@@ -25,6 +25,8 @@ public interface IWireCaptureContexts {
         public static final String CAPTURE_SUPPRESSED = "captureSuppressed";
         public static final String FULL_REQUEST = "fullRequest";
         public static final String BYTES_READ = "bytesRead";
+        public static final String CAPTURED_REQUEST_BYTES = "capturedRequestBytes";
+        public static final String DROPPED_REQUEST_BYTES = "droppedRequestBytes";
         public static final String BYTES_WRITTEN = "bytesWritten";
     }
 
@@ -66,6 +68,17 @@ public interface IWireCaptureContexts {
         void onFullyParsedRequest();
 
         void onBytesRead(int size);
+
+        /**
+         * Called for the bytes of each read that were passed to the offloader
+         */
+        void onBytesCaptured(int size);
+
+        /**
+         * Called for the bytes of each read that weren't passed to the offloader because the
+         * RequestCapturePredicate dropped their request
+         */
+        void onBytesDropped(int size);
     }
 
     interface IBlockingContext extends IHttpMessageContext {
@@ -131,6 +131,8 @@ public interface WireCaptureContexts extends IWireCaptureContexts {
             public final LongCounter requestsNotOffloadedCounter;
             public final LongCounter fullyParsedRequestCounter;
             public final LongCounter bytesReadCounter;
+            public final LongCounter capturedBytesCounter;
+            public final LongCounter droppedBytesCounter;
 
             public MetricInstruments(Meter meter, String activityName) {
                 super(meter, activityName);
@@ -142,6 +144,12 @@ public interface WireCaptureContexts extends IWireCaptureContexts {
                     .build();
                 fullyParsedRequestCounter = meter.counterBuilder(MetricNames.FULL_REQUEST).setUnit(COUNT_UNITS).build();
                 bytesReadCounter = meter.counterBuilder(MetricNames.BYTES_READ).setUnit(BYTES_UNIT).build();
+                capturedBytesCounter = meter.counterBuilder(MetricNames.CAPTURED_REQUEST_BYTES)
+                    .setUnit(BYTES_UNIT)
+                    .build();
+                droppedBytesCounter = meter.counterBuilder(MetricNames.DROPPED_REQUEST_BYTES)
+                    .setUnit(BYTES_UNIT)
+                    .build();
             }
         }
 
@@ -173,6 +181,16 @@ public interface WireCaptureContexts extends IWireCaptureContexts {
         public void onBytesRead(int size) {
             meterIncrementEvent(getMetrics().bytesReadCounter, size);
         }
+
+        @Override
+        public void onBytesCaptured(int size) {
+            meterIncrementEvent(getMetrics().capturedBytesCounter, size);
+        }
+
+        @Override
+        public void onBytesDropped(int size) {
+            meterIncrementEvent(getMetrics().droppedBytesCounter, size);
+        }
     }
 
     class BlockingContext extends HttpMessageContext implements IWireCaptureContexts.IBlockingContext {
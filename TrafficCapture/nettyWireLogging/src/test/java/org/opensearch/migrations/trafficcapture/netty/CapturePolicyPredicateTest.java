@@ -0,0 +1,110 @@
+package org.opensearch.migrations.trafficcapture.netty;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.opensearch.migrations.trafficcapture.netty.RequestCapturePredicate.CaptureDirective.CAPTURE;
+import static org.opensearch.migrations.trafficcapture.netty.RequestCapturePredicate.CaptureDirective.DROP;
+
+public class CapturePolicyPredicateTest {
+
+    private static HttpRequest makeRequest(HttpMethod method, String uri, Map<String, String> headers) {
+        var request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, method, uri);
+        headers.forEach((k, v) -> request.headers().add(k, v));
+        return request;
+    }
+
+    @Test
+    public void testFirstMatchingRuleDecides() {
+        var predicate = new CapturePolicyPredicate(
+            Map.of("User-Agent", ".*healthcheck.*"),
+            List.of(
+                CapturePolicyPredicate.Rule.parse("method=POST|PUT|DELETE|PATCH"),
+                CapturePolicyPredicate.Rule.parse("header=x-tenant:noisy,action=drop"),
+                CapturePolicyPredicate.Rule.parse("method=GET,pathPrefix=/_search,sample=0")
+            )
+        );
+        Assertions.assertEquals(CAPTURE, predicate.apply(makeRequest(HttpMethod.PUT, "/idx/_doc/1", Map.of()), 1));
+        Assertions.assertEquals(DROP,
+            predicate.apply(makeRequest(HttpMethod.GET, "/idx", Map.of("X-Tenant", "NOISY")), 1));
+        Assertions.assertEquals(DROP,
+            predicate.apply(makeRequest(HttpMethod.POST, "/idx/_doc", Map.of("user-agent", "a healthcheck")), 1));
+        Assertions.assertEquals(DROP, predicate.apply(makeRequest(HttpMethod.GET, "/_search?q=x", Map.of()), 1));
+        Assertions.assertEquals(CAPTURE, predicate.apply(makeRequest(HttpMethod.GET, "/idx/_search", Map.of()), 1));
+    }
+
+    @Test
+    public void testSamplingIsDeterministicPerConnection() {
+        var predicate = new CapturePolicyPredicate(
+            Map.of(),
+            List.of(CapturePolicyPredicate.Rule.parse("method=GET,sample=0.25"))
+        );
+        var request = makeRequest(HttpMethod.GET, "/", Map.of());
+        var numSampled = IntStream.range(0, 10000).filter(i -> {
+            var directive = predicate.apply(request, ("connection" + i).hashCode());
+            for (int j = 0; j < 3; ++j) {
+                Assertions.assertEquals(directive, predicate.apply(request, ("connection" + i).hashCode()));
+            }
+            return directive == CAPTURE;
+        }).count();
+        Assertions.assertTrue(numSampled > 2000 && numSampled < 3000, "sampled " + numSampled + " connections");
+    }
+
+    @Test
+    public void testByteBudgetLimitsCapturesWithinASecond() {
+        var predicate = new CapturePolicyPredicate(
+            Map.of(),
+            List.of(CapturePolicyPredicate.Rule.parse("maxBytesPerSecond=1000"))
+        );
+        var request = makeRequest(HttpMethod.POST, "/", Map.of(HttpHeaderNames.CONTENT_LENGTH.toString(), "300"));
+        // This can only fail if the second rolls over in the middle, in which case more would be captured
+        var numCaptured = IntStream.range(0, 10).filter(i -> predicate.apply(request, i) == CAPTURE).count();
+        Assertions.assertTrue(numCaptured >= 3, "captured " + numCaptured + " requests");
+        Assertions.assertTrue(numCaptured < 10, "captured " + numCaptured + " requests");
+    }
+
+    @Test
+    public void testByteBudgetIsResetEachSecondEvenWhenChargedConcurrently() throws Exception {
+        var rule = CapturePolicyPredicate.Rule.parse("maxBytesPerSecond=1000");
+        var nanosPerSecond = TimeUnit.SECONDS.toNanos(1);
+        for (long second = 1; second <= 3; ++second) {
+            var now = second * nanosPerSecond;
+            var numCaptured = new AtomicInteger();
+            var threads = IntStream.range(0, 4).mapToObj(t -> new Thread(() -> {
+                for (int i = 0; i < 1000; ++i) {
+                    if (rule.tryChargeBudget(1, now)) {
+                        numCaptured.incrementAndGet();
+                    }
+                }
+            })).collect(Collectors.toList());
+            threads.forEach(Thread::start);
+            for (var thread : threads) {
+                thread.join();
+            }
+            Assertions.assertEquals(1000, numCaptured.get());
+        }
+        // the first request of a second is let through even when it's bigger than the whole budget
+        Assertions.assertTrue(rule.tryChargeBudget(5000, 4 * nanosPerSecond));
+        Assertions.assertFalse(rule.tryChargeBudget(1, 4 * nanosPerSecond));
+        Assertions.assertTrue(rule.tryChargeBudget(Long.MAX_VALUE, 5 * nanosPerSecond));
+    }
+
+    @Test
+    public void testBadRulesAreRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CapturePolicyPredicate.Rule.parse("sample=2"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CapturePolicyPredicate.Rule.parse("foo=bar"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CapturePolicyPredicate.Rule.parse("header=x"));
+    }
+}
@@ -0,0 +1,108 @@
+package org.opensearch.migrations.trafficcapture.netty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoop;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GroupCommitCoordinatorTest {
+
+    private static List<Object> enlistAll(
+        GroupCommitCoordinator coordinator,
+        EventLoop eventLoop,
+        List<CompletableFuture<Integer>> flushFutures,
+        long bytesEach,
+        CountDownLatch releasedLatch
+    ) throws Exception {
+        var results = new ArrayList<>();
+        eventLoop.submit(() -> flushFutures.forEach(f -> coordinator.enlist(eventLoop, f, bytesEach, (v, t) -> {
+            Assertions.assertTrue(eventLoop.inEventLoop());
+            results.add(t != null ? t : v);
+            releasedLatch.countDown();
+        }))).get();
+        return results;
+    }
+
+    @Test
+    public void testGroupIsOnlyReleasedOnceEveryFlushHasCompleted() throws Exception {
+        var group = new DefaultEventLoopGroup(1);
+        try {
+            var expedites = new AtomicInteger();
+            var coordinator = new GroupCommitCoordinator(Duration.ofMillis(10), 1024, expedites::incrementAndGet);
+            var eventLoop = group.next();
+            var flushFutures = List.of(
+                new CompletableFuture<Integer>(),
+                new CompletableFuture<Integer>(),
+                new CompletableFuture<Integer>()
+            );
+            var releasedLatch = new CountDownLatch(flushFutures.size());
+            var results = enlistAll(coordinator, eventLoop, flushFutures, 10, releasedLatch);
+
+            var failure = new RuntimeException("flush failed");
+            flushFutures.get(2).complete(2);
+            flushFutures.get(0).completeExceptionally(failure);
+            Assertions.assertFalse(releasedLatch.await(100, TimeUnit.MILLISECONDS));
+            Assertions.assertEquals(1, expedites.get());
+
+            flushFutures.get(1).complete(1);
+            Assertions.assertTrue(releasedLatch.await(10, TimeUnit.SECONDS));
+            eventLoop.submit(() -> Assertions.assertEquals(List.of(failure, 1, 2), results)).get();
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+    }
+
+    @Test
+    public void testGroupIsCommittedEarlyWhenItHoldsMaxBytes() throws Exception {
+        var group = new DefaultEventLoopGroup(1);
+        try {
+            var expedites = new AtomicInteger();
+            var coordinator = new GroupCommitCoordinator(Duration.ofHours(1), 100, expedites::incrementAndGet);
+            var eventLoop = group.next();
+            var flushFutures = List.of(CompletableFuture.completedFuture(0), CompletableFuture.completedFuture(1));
+            var releasedLatch = new CountDownLatch(flushFutures.size());
+            var results = enlistAll(coordinator, eventLoop, flushFutures, 50, releasedLatch);
+
+            Assertions.assertTrue(releasedLatch.await(10, TimeUnit.SECONDS));
+            Assertions.assertEquals(1, expedites.get());
+            eventLoop.submit(() -> Assertions.assertEquals(List.of(0, 1), results)).get();
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+    }
+
+    @Test
+    public void testAMemberThatThrowsDoesNotKeepTheRestOfTheGroupFromBeingReleased() throws Exception {
+        var group = new DefaultEventLoopGroup(1);
+        try {
+            var coordinator = new GroupCommitCoordinator(Duration.ofMillis(10), 1024, () -> {});
+            var eventLoop = group.next();
+            var released = new ArrayList<Integer>();
+            var releasedLatch = new CountDownLatch(2);
+            eventLoop.submit(() -> {
+                for (int i = 0; i < 3; ++i) {
+                    coordinator.enlist(eventLoop, CompletableFuture.completedFuture(i), 10, (v, t) -> {
+                        if (v == 1) {
+                            throw new IllegalStateException("the channel for this request was already closed");
+                        }
+                        released.add(v);
+                        releasedLatch.countDown();
+                    });
+                }
+            }).get();
+
+            Assertions.assertTrue(releasedLatch.await(10, TimeUnit.SECONDS));
+            eventLoop.submit(() -> Assertions.assertEquals(List.of(0, 2), released)).get();
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+    }
+}
@@ -26,6 +26,7 @@ import java.util.stream.Stream;
 
 import org.opensearch.common.settings.Settings;
 import org.opensearch.migrations.jcommander.NoSplitter;
+import org.opensearch.migrations.netty.NettyTransport;
 import org.opensearch.migrations.tracing.ActiveContextTracker;
 import org.opensearch.migrations.tracing.ActiveContextTrackerByActivityType;
 import org.opensearch.migrations.tracing.CompositeContextTracker;
@@ -36,8 +37,10 @@ import org.opensearch.migrations.trafficcapture.IConnectionCaptureFactory;
 import org.opensearch.migrations.trafficcapture.StreamChannelConnectionCaptureSerializer;
 import org.opensearch.migrations.trafficcapture.StreamLifecycleManager;
 import org.opensearch.migrations.trafficcapture.kafkaoffloader.KafkaCaptureFactory;
-import org.opensearch.migrations.trafficcapture.netty.HeaderValueFilteringCapturePredicate;
+import org.opensearch.migrations.trafficcapture.netty.CapturePolicyPredicate;
+import org.opensearch.migrations.trafficcapture.netty.GroupCommitCoordinator;
 import org.opensearch.migrations.trafficcapture.netty.RequestCapturePredicate;
+import org.opensearch.migrations.trafficcapture.protos.TrafficStreamCodec;
 import org.opensearch.migrations.trafficcapture.proxyserver.netty.BacksideConnectionPool;
 import org.opensearch.migrations.trafficcapture.proxyserver.netty.HeaderAdderHandler;
 import org.opensearch.migrations.trafficcapture.proxyserver.netty.HeaderRemoverHandler;
@@ -55,6 +58,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.google.protobuf.CodedOutputStream;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.ssl.SslContext;
@@ -107,6 +111,13 @@ public class CaptureProxy {
             arity = 0,
             description = "Enables SASL Kafka properties required for connecting to MSK with IAM auth.")
         public boolean mskAuthEnabled = false;
+        @Parameter(required = false,
+            names = { "--kafkaRecordCodec" },
+            arity = 1,
+            description = "How each TrafficStream is encoded into a Kafka record: NONE, DEFLATE, or "
+                + "DEFLATE_WITH_HTTP_DICTIONARY, which compresses small HTTP/JSON messages much better than DEFLATE.  "
+                + "Compressed records can only be read by replayers that understand these codecs.")
+        public TrafficStreamCodec kafkaRecordCodec = TrafficStreamCodec.NONE;
         @Parameter(required = false,
             names = { "--sslConfigFile" },
             arity = 1,
@@ -137,6 +148,13 @@ public class CaptureProxy {
             arity = 1,
             description = "How many threads netty should create in its event loop group")
         public int numThreads = 1;
+        @Parameter(required = false,
+            names = { "--nativeTransport" },
+            arity = 0,
+            description = "Accept and forward connections with Netty's native epoll transport rather than NIO, "
+                + "which makes fewer system calls when there are many connections.  If the native transport "
+                + "isn't available on this host, NIO is used instead.")
+        public boolean nativeTransport;
         @Parameter(required = false,
             names = { "--destinationConnectionPoolSize" },
             arity = 1,
@@ -172,6 +190,31 @@ public class CaptureProxy {
                 + "pattern.  When the incoming request has a header that matches the regex, it will be passed "
                 + "through to the service but will NOT be captured.  E.g. user-agent 'healthcheck'.")
         public List<String> suppressCaptureHeaderPairs = new ArrayList<>();
+        @Parameter(required = false,
+            names = "--captureRule",
+            splitter = NoSplitter.class,
+            arity = 1,
+            description = "A rule for which requests to capture, as comma-separated key=value pairs.  Rules are "
+                + "checked in order, after --suppressCaptureForHeaderMatch, and the first one that matches a "
+                + "request decides it.  Requests that match no rule are captured.  Keys, all optional, are "
+                + "method (e.g. GET|HEAD), pathPrefix, header (name:value), action (capture or drop), "
+                + "sample (the fraction of connections to capture, from 0 to 1), and maxBytesPerSecond.  "
+                + "E.g. 'method=GET|POST,pathPrefix=/_search,sample=0.05,maxBytesPerSecond=10000000'.")
+        public List<String> captureRules = new ArrayList<>();
+        @Parameter(required = false,
+            names = { "--blockingFlushWindowMicros" },
+            arity = 1,
+            description = "When positive, mutating requests that are held back until their capture has been flushed "
+                + "are gathered per thread for up to this many microseconds, the flushes are expedited together, "
+                + "and the requests are released together once all of their flushes have completed.  "
+                + "When 0 (the default), each request is released as soon as its own flush completes.")
+        public long blockingFlushWindowMicros = 0;
+        @Parameter(required = false,
+            names = { "--blockingFlushMaxBytes" },
+            arity = 1,
+            description = "The number of request bytes that will close a group of blocked requests before "
+                + "blockingFlushWindowMicros has passed.")
+        public long blockingFlushMaxBytes = 1024 * 1024;
     }
 
     static Parameters parseArgs(String[] args) {
@@ -187,6 +230,11 @@ public class CaptureProxy {
                     "Expected exactly one of '--traceDirectory', '--kafkaConnection', or " + "'--noCapture' to be set"
                 );
             }
+            try {
+                parseCaptureRules(p);
+            } catch (IllegalArgumentException e) {
+                throw new ParameterException("Invalid --captureRule: " + e.getMessage());
+            }
             return p;
         } catch (ParameterException e) {
             System.err.println(e.getMessage());
@@ -313,7 +361,10 @@ public class CaptureProxy {
                 rootContext,
                 nodeId,
                 new KafkaProducer<>(buildKafkaProperties(params)),
-                params.maximumTrafficStreamSize
+                KafkaCaptureFactory.DEFAULT_TOPIC_NAME_FOR_TRAFFIC,
+                params.maximumTrafficStreamSize,
+                PooledByteBufAllocator.DEFAULT,
+                params.kafkaRecordCodec
             );
         } else if (params.noCapture) {
             return getNullConnectionCaptureFactory();
@@ -359,6 +410,10 @@ public class CaptureProxy {
         }
     }
 
+    static List<CapturePolicyPredicate.Rule> parseCaptureRules(Parameters params) {
+        return params.captureRules.stream().map(CapturePolicyPredicate.Rule::parse).collect(Collectors.toList());
+    }
+
     protected static Map<String, String> convertPairListToMap(List<String> list) {
         if (list == null) {
             return Map.of();
@@ -391,6 +446,7 @@ public class CaptureProxy {
 
         sksOp.ifPresent(DefaultSecurityKeyStore::initHttpSSLConfig);
         var proxy = new NettyScanningHttpProxy(params.frontsidePort);
+        final IConnectionCaptureFactory<?> connectionCaptureFactory;
         try {
             var pooledConnectionTimeout = params.destinationConnectionPoolSize == 0
                 ? Duration.ZERO
@@ -408,13 +464,16 @@ public class CaptureProxy {
                     throw Lombok.sneakyThrow(e);
                 }
             }).orElse(null);
-            var headerCapturePredicate = new HeaderValueFilteringCapturePredicate(
-                convertPairListToMap(params.suppressCaptureHeaderPairs)
+            var headerCapturePredicate = new CapturePolicyPredicate(
+                convertPairListToMap(params.suppressCaptureHeaderPairs),
+                parseCaptureRules(params)
             );
+            connectionCaptureFactory = getConnectionCaptureFactory(params, ctx);
             var proxyChannelInitializer =
                 buildProxyChannelInitializer(ctx, backsideConnectionPool, sslEngineSupplier, headerCapturePredicate,
-                    params.headerOverrides, getConnectionCaptureFactory(params, ctx));
-            proxy.start(proxyChannelInitializer, params.numThreads);
+                    params.headerOverrides, connectionCaptureFactory,
+                    buildGroupCommitCoordinator(params, connectionCaptureFactory));
+            proxy.start(proxyChannelInitializer, params.numThreads, NettyTransport.choose(params.nativeTransport));
         } catch (Exception e) {
             log.atError().setCause(e).setMessage("Caught exception while setting up the server and rethrowing").log();
             throw e;
@@ -424,9 +483,14 @@ public class CaptureProxy {
                 System.err.println("Received shutdown signal.  Trying to shutdown cleanly");
                 proxy.stop();
                 System.err.println("Done stopping the proxy.");
+                if (connectionCaptureFactory instanceof AutoCloseable) {
+                    ((AutoCloseable) connectionCaptureFactory).close();
+                }
             } catch (InterruptedException e) {
                 System.err.println("Caught InterruptedException while shutting down, resetting interrupt status: " + e);
                 Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                System.err.println("Caught exception while closing the connection capture factory: " + e);
             }
         }));
         // This loop just gives the main() function something to do while the netty event loops
@@ -434,12 +498,25 @@ public class CaptureProxy {
         proxy.waitForClose();
     }
 
+    static GroupCommitCoordinator buildGroupCommitCoordinator(Parameters params,
+                                                              IConnectionCaptureFactory<?> connectionFactory) {
+        if (params.blockingFlushWindowMicros <= 0) {
+            return null;
+        }
+        return new GroupCommitCoordinator(
+            Duration.ofNanos(params.blockingFlushWindowMicros * 1000),
+            params.blockingFlushMaxBytes,
+            connectionFactory::expediteOutstandingFlushes
+        );
+    }
+
     static <T> ProxyChannelInitializer<T> buildProxyChannelInitializer(RootCaptureContext rootContext,
                                                                 BacksideConnectionPool backsideConnectionPool,
                                                                 Supplier<SSLEngine> sslEngineSupplier,
                                                                 @NonNull RequestCapturePredicate headerCapturePredicate,
                                                                 List<String> headerOverridesArgs,
-                                                                IConnectionCaptureFactory<T> connectionFactory)
+                                                                IConnectionCaptureFactory<T> connectionFactory,
+                                                                GroupCommitCoordinator groupCommitCoordinator)
     {
         var headers = new ArrayList<>(convertPairListToMap(headerOverridesArgs).entrySet());
         Collections.reverse(headers);
@@ -459,7 +536,8 @@ public class CaptureProxy {
             backsideConnectionPool,
             sslEngineSupplier,
             connectionFactory,
-            headerCapturePredicate
+            headerCapturePredicate,
+            groupCommitCoordinator
         ) {
             @Override
             protected void initChannel(@NonNull SocketChannel ch) throws IOException {
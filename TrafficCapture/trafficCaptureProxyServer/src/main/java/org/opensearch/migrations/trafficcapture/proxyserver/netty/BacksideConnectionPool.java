@@ -6,6 +6,8 @@ import java.net.URI;
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
+import org.opensearch.migrations.netty.NettyTransport;
+
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelFuture;
@@ -13,7 +15,6 @@ import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.DefaultChannelPromise;
 import io.netty.channel.EventLoop;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.util.concurrent.FastThreadLocal;
@@ -86,7 +87,7 @@ public class BacksideConnectionPool {
         // Start the connection attempt.
         Bootstrap b = new Bootstrap();
         b.group(eventLoop)
-            .channel(NioSocketChannel.class)
+            .channel(NettyTransport.forEventLoop(eventLoop).getSocketChannelClass())
             .handler(new ChannelDuplexHandler())
             .option(ChannelOption.AUTO_READ, false);
         var f = b.connect(backsideUri.getHost(), backsideUri.getPort());
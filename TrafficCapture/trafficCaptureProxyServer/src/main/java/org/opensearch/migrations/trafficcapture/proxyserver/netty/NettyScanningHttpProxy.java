@@ -1,13 +1,11 @@
 package org.opensearch.migrations.trafficcapture.proxyserver.netty;
 
-
+import org.opensearch.migrations.netty.NettyTransport;
 
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.util.concurrent.DefaultThreadFactory;
 import lombok.Getter;
 
@@ -25,12 +23,18 @@ public class NettyScanningHttpProxy {
     public void start(ProxyChannelInitializer<?> proxyChannelInitializer, int numThreads)
         throws InterruptedException
     {
-        bossGroup = new NioEventLoopGroup(1, new DefaultThreadFactory("captureProxyPoolBoss"));
-        workerGroup = new NioEventLoopGroup(numThreads, new DefaultThreadFactory("captureProxyPoolWorker"));
+        start(proxyChannelInitializer, numThreads, NettyTransport.NIO);
+    }
+
+    public void start(ProxyChannelInitializer<?> proxyChannelInitializer, int numThreads, NettyTransport transport)
+        throws InterruptedException
+    {
+        bossGroup = transport.newEventLoopGroup(1, new DefaultThreadFactory("captureProxyPoolBoss"));
+        workerGroup = transport.newEventLoopGroup(numThreads, new DefaultThreadFactory("captureProxyPoolWorker"));
         ServerBootstrap serverBootstrap = new ServerBootstrap();
         try {
             mainChannel = serverBootstrap.group(bossGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
+                .channel(transport.getServerSocketChannelClass())
                 .childHandler(proxyChannelInitializer)
                 .childOption(ChannelOption.AUTO_READ, false)
                 .bind(proxyPort)
@@ -7,6 +7,7 @@ import java.util.function.Supplier;
 
 import org.opensearch.migrations.trafficcapture.IConnectionCaptureFactory;
 import org.opensearch.migrations.trafficcapture.netty.ConditionallyReliableLoggingHttpHandler;
+import org.opensearch.migrations.trafficcapture.netty.GroupCommitCoordinator;
 import org.opensearch.migrations.trafficcapture.netty.RequestCapturePredicate;
 import org.opensearch.migrations.trafficcapture.netty.tracing.IRootWireLoggingContext;
 
@@ -25,6 +26,7 @@ public class ProxyChannelInitializer<T> extends ChannelInitializer<SocketChannel
     protected final IRootWireLoggingContext rootContext;
     protected final BacksideConnectionPool backsideConnectionPool;
     protected final RequestCapturePredicate requestCapturePredicate;
+    protected final GroupCommitCoordinator groupCommitCoordinator;
 
     public ProxyChannelInitializer(
         IRootWireLoggingContext rootContext,
@@ -32,12 +34,29 @@ public class ProxyChannelInitializer<T> extends ChannelInitializer<SocketChannel
         Supplier<SSLEngine> sslEngineSupplier,
         IConnectionCaptureFactory<T> connectionCaptureFactory,
         @NonNull RequestCapturePredicate requestCapturePredicate
+    ) {
+        this(rootContext, backsideConnectionPool, sslEngineSupplier, connectionCaptureFactory,
+            requestCapturePredicate, null);
+    }
+
+    /**
+     * @param groupCommitCoordinator when non-null, requests that are held back until their capture is flushed
+     *                               are released in groups.  See GroupCommitCoordinator.
+     */
+    public ProxyChannelInitializer(
+        IRootWireLoggingContext rootContext,
+        BacksideConnectionPool backsideConnectionPool,
+        Supplier<SSLEngine> sslEngineSupplier,
+        IConnectionCaptureFactory<T> connectionCaptureFactory,
+        @NonNull RequestCapturePredicate requestCapturePredicate,
+        GroupCommitCoordinator groupCommitCoordinator
     ) {
         this.rootContext = rootContext;
         this.backsideConnectionPool = backsideConnectionPool;
         this.sslEngineProvider = sslEngineSupplier;
         this.connectionCaptureFactory = connectionCaptureFactory;
         this.requestCapturePredicate = requestCapturePredicate;
+        this.groupCommitCoordinator = groupCommitCoordinator;
     }
 
     public boolean shouldGuaranteeMessageOffloading(HttpRequest httpRequest) {
@@ -64,7 +83,8 @@ public class ProxyChannelInitializer<T> extends ChannelInitializer<SocketChannel
                     connectionId,
                     connectionCaptureFactory,
                     requestCapturePredicate,
-                    this::shouldGuaranteeMessageOffloading
+                    this::shouldGuaranteeMessageOffloading,
+                    groupCommitCoordinator
                 )
             );
         ch.pipeline().addLast(new FrontsideHandler(backsideConnectionPool));
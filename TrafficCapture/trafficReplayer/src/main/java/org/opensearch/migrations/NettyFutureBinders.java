@@ -80,7 +80,6 @@ public class NettyFutureBinders {
         CompletableFuture<Void> cf
     ) {
         var delayMs = Math.max(0, delay.toMillis());
-        eventLoop.schedule(() -> {}, delayMs, TimeUnit.MILLISECONDS);
         var scheduledFuture = eventLoop.schedule(() -> {}, delayMs, TimeUnit.MILLISECONDS);
         if (eventLoop.isShuttingDown()) {
             // This is safe to do even though the event was scheduled because the scheduled future hasn't
@@ -8,6 +8,7 @@ import java.util.function.Consumer;
 import org.opensearch.migrations.replay.datatypes.ITrafficStreamKey;
 import org.opensearch.migrations.trafficcapture.protos.TrafficStream;
 
+import io.netty.buffer.ByteBufAllocator;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -86,6 +87,17 @@ public class Accumulation {
     public RequestResponsePacketPair getOrCreateTransactionPair(
         ITrafficStreamKey forTrafficStreamKey,
         Instant originTimestamp
+    ) {
+        return getOrCreateTransactionPair(forTrafficStreamKey, originTimestamp, null);
+    }
+
+    /**
+     * @param packetAllocator see RequestResponsePacketPair.  This is only used if a new pair is created.
+     */
+    public RequestResponsePacketPair getOrCreateTransactionPair(
+        ITrafficStreamKey forTrafficStreamKey,
+        Instant originTimestamp,
+        ByteBufAllocator packetAllocator
     ) {
         if (rrPairWithCallback != null) {
             return rrPairWithCallback.pair;
@@ -94,7 +106,8 @@ public class Accumulation {
             forTrafficStreamKey,
             originTimestamp,
             startingSourceRequestIndex,
-            getIndexOfCurrentRequest()
+            getIndexOfCurrentRequest(),
+            packetAllocator
         );
         this.rrPairWithCallback = new RequestResponsePacketPairWithCallback(rrPair, null);
         return rrPair;
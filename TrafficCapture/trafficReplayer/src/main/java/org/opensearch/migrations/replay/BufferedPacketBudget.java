@@ -0,0 +1,223 @@
+package org.opensearch.migrations.replay;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+import org.opensearch.migrations.replay.datatypes.PacketSpillFile;
+import org.opensearch.migrations.replay.tracing.IReplayContexts;
+
+import io.netty.buffer.ByteBufAllocator;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounds how many bytes of requests and responses that are still being accumulated are held in memory.  When
+ * a packet pushes the total over the budget, the messages of the accumulations that least recently received
+ * data are moved to a segmented spill file until the total is back within the budget.  A message's spilled
+ * packets are read back when the message has been fully accumulated and is about to be handed off, so nothing
+ * downstream of the accumulator ever sees a spilled message.
+ *
+ * Only the bytes of messages that haven't been handed off yet are counted.  Once a request has been passed
+ * along to be transformed and sent, holding onto it is up to whatever is replaying it.  Nothing is counted,
+ * or metered, when the budget is unlimited.
+ *
+ * Like CapturedTrafficToHttpTransactionAccumulator, this must only be used from one thread.
+ */
+@Slf4j
+public class BufferedPacketBudget implements AutoCloseable {
+    public static final long UNLIMITED_BYTES = Long.MAX_VALUE;
+
+    private static class TrackedMessage {
+        final HttpMessageAndTimestamp message;
+        final IReplayContexts.IChannelKeyContext channelContext;
+        long residentBytes;
+
+        TrackedMessage(HttpMessageAndTimestamp message, IReplayContexts.IChannelKeyContext channelContext) {
+            this.message = message;
+            this.channelContext = channelContext;
+        }
+    }
+
+    private final long maxResidentBytes;
+    private final Path spillDirectory;
+    /**
+     * Where messages being accumulated allocate direct buffers to hold their packets, or null to hold them on
+     * the heap.  See RawPackets.
+     */
+    @Getter
+    private final ByteBufAllocator offHeapAllocator;
+    // access ordered, so that the first entries are the accumulations that least recently received data
+    private final LinkedHashMap<Accumulation, TrackedMessage> trackedMessages = new LinkedHashMap<>(16, 0.75f, true);
+    private PacketSpillFile spillFile;
+    @Getter
+    private long residentBytes;
+    @Getter
+    private long spilledBytes;
+    @Getter
+    private long numberOfSpills;
+
+    public BufferedPacketBudget(long maxResidentBytes, @NonNull Path spillDirectory) {
+        this(maxResidentBytes, spillDirectory, null);
+    }
+
+    /**
+     * @param maxResidentBytes how many bytes of messages that are still being accumulated can be held in memory
+     * @param spillDirectory where to create the spill file, which is only created once something needs spilling
+     * @param offHeapAllocator when not null, packets are held in direct buffers from this allocator rather than
+     *                         on the heap
+     */
+    public BufferedPacketBudget(
+        long maxResidentBytes,
+        @NonNull Path spillDirectory,
+        ByteBufAllocator offHeapAllocator
+    ) {
+        if (maxResidentBytes < 0) {
+            throw new IllegalArgumentException("maxResidentBytes must not be negative");
+        }
+        this.maxResidentBytes = maxResidentBytes;
+        this.spillDirectory = spillDirectory;
+        this.offHeapAllocator = offHeapAllocator;
+    }
+
+    public static BufferedPacketBudget unlimited() {
+        return new BufferedPacketBudget(UNLIMITED_BYTES, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Called after packets have been added to a message that's still being accumulated.  This may spill
+     * messages of other accumulations, or this one if nothing else is left to spill.
+     */
+    void onPacketBytesAdded(Accumulation accumulation, HttpMessageAndTimestamp message, long numBytes) {
+        if (maxResidentBytes == UNLIMITED_BYTES) {
+            // nothing would ever be spilled, so don't pay to track (or meter) every packet
+            return;
+        }
+        var tracked = trackedMessages.get(accumulation);
+        if (tracked != null && tracked.message != message) {
+            // the accumulation moved on from the message that was being tracked without it being handed off
+            discard(accumulation);
+            tracked = null;
+        }
+        if (tracked == null) {
+            tracked = new TrackedMessage(message, getChannelContext(accumulation));
+            trackedMessages.put(accumulation, tracked);
+        }
+        tracked.residentBytes += numBytes;
+        residentBytes += numBytes;
+        tracked.channelContext.addBufferedPacketBytes(numBytes, 0);
+        if (residentBytes > maxResidentBytes) {
+            spillLeastRecentlyUsedMessages();
+        }
+    }
+
+    private void spillLeastRecentlyUsedMessages() {
+        for (var tracked : trackedMessages.values()) {
+            if (residentBytes <= maxResidentBytes) {
+                break;
+            }
+            if (tracked.residentBytes == 0) {
+                continue;
+            }
+            try {
+                var numBytes = tracked.message.spillPackets(getOrCreateSpillFile());
+                tracked.residentBytes -= numBytes;
+                residentBytes -= numBytes;
+                spilledBytes += numBytes;
+                ++numberOfSpills;
+                tracked.channelContext.addBufferedPacketBytes(-numBytes, numBytes);
+            } catch (IOException e) {
+                log.atWarn().setCause(e)
+                    .setMessage("Could not spill buffered packets to disk.  Keeping {} bytes in memory, "
+                        + "which is over the budget of {} bytes.")
+                    .addArgument(residentBytes)
+                    .addArgument(maxResidentBytes)
+                    .log();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Called when the message that's being accumulated is complete and about to be handed off.  Any packets
+     * that were spilled are read back into the message and it is no longer counted against the budget.
+     */
+    void rehydrateAndRelease(Accumulation accumulation) {
+        var tracked = trackedMessages.remove(accumulation);
+        if (tracked == null) {
+            return;
+        }
+        long numBytes = 0;
+        if (tracked.message.hasSpilledPackets()) {
+            try {
+                numBytes = tracked.message.rehydratePackets(spillFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read back the spilled packets for "
+                    + accumulation.trafficChannelKey, e);
+            }
+        }
+        spilledBytes -= numBytes;
+        residentBytes -= tracked.residentBytes;
+        tracked.channelContext.addBufferedPacketBytes(-tracked.residentBytes, -numBytes);
+    }
+
+    /**
+     * Called when the message that's being accumulated will never be handed off, releasing anything that
+     * it had counted against the budget or written to the spill file.
+     */
+    void discard(Accumulation accumulation) {
+        var tracked = trackedMessages.remove(accumulation);
+        if (tracked == null) {
+            return;
+        }
+        long numBytes = 0;
+        if (tracked.message.hasSpilledPackets()) {
+            try {
+                numBytes = tracked.message.discardSpilledPackets(spillFile);
+            } catch (IOException e) {
+                log.atWarn().setCause(e)
+                    .setMessage("Could not release spilled packets for {}")
+                    .addArgument(accumulation.trafficChannelKey)
+                    .log();
+            }
+        }
+        spilledBytes -= numBytes;
+        residentBytes -= tracked.residentBytes;
+        tracked.channelContext.addBufferedPacketBytes(-tracked.residentBytes, -numBytes);
+    }
+
+    private PacketSpillFile getOrCreateSpillFile() throws IOException {
+        if (spillFile == null) {
+            spillFile = new PacketSpillFile(spillDirectory);
+            log.atInfo().setMessage("Spilling buffered packets to {} to stay within a budget of {} bytes")
+                .addArgument(spillFile)
+                .addArgument(maxResidentBytes)
+                .log();
+        }
+        return spillFile;
+    }
+
+    private static IReplayContexts.IChannelKeyContext getChannelContext(Accumulation accumulation) {
+        return accumulation.trafficChannelKey.getTrafficStreamsContext().getLogicalEnclosingScope();
+    }
+
+    @Override
+    public void close() throws IOException {
+        new ArrayList<>(trackedMessages.keySet()).forEach(this::discard);
+        if (spillFile != null) {
+            spillFile.close();
+            spillFile = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BufferedPacketBudget{maxResidentBytes=" + maxResidentBytes
+            + ", residentBytes=" + residentBytes
+            + ", spilledBytes=" + spilledBytes
+            + ", offHeap=" + (offHeapAllocator != null) + "}";
+    }
+}
@@ -1,5 +1,6 @@
 package org.opensearch.migrations.replay;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
@@ -54,6 +55,7 @@ public class CapturedTrafficToHttpTransactionAccumulator {
     public static final Duration EXPIRATION_GRANULARITY = Duration.ofSeconds(1);
     private final ExpiringTrafficStreamMap liveStreams;
     private final SpanWrappingAccumulationCallbacks listener;
+    private final BufferedPacketBudget packetBudget;
 
     private final AtomicInteger requestCounter = new AtomicInteger();
     private final AtomicInteger reusedKeepAliveCounter = new AtomicInteger();
@@ -68,6 +70,7 @@ public class CapturedTrafficToHttpTransactionAccumulator {
             .add("closed: " + closedConnectionCounter.get())
             .add("expired: " + connectionsExpiredCounter.get())
             .add("hardClosedAtShutdown: " + requestsTerminatedUponAccumulatorCloseCounter.get())
+            .add("packetSpills: " + packetBudget.getNumberOfSpills())
             .toString();
     }
 
@@ -76,6 +79,21 @@ public class CapturedTrafficToHttpTransactionAccumulator {
         String hintStringToConfigureTimeout,
         AccumulationCallbacks accumulationCallbacks
     ) {
+        this(minTimeout, hintStringToConfigureTimeout, accumulationCallbacks, BufferedPacketBudget.unlimited());
+    }
+
+    /**
+     * @param packetBudget bounds the bytes of requests and responses being accumulated that are held in memory
+     *                     and says whether they're held on the heap or in direct buffers.
+     *                     It is closed when this accumulator is closed.
+     */
+    public CapturedTrafficToHttpTransactionAccumulator(
+        Duration minTimeout,
+        String hintStringToConfigureTimeout,
+        AccumulationCallbacks accumulationCallbacks,
+        @NonNull BufferedPacketBudget packetBudget
+    ) {
+        this.packetBudget = packetBudget;
         liveStreams = new ExpiringTrafficStreamMap(minTimeout, EXPIRATION_GRANULARITY, new BehavioralPolicy() {
             @Override
             public String appendageToDescribeHowToSetMinimumGuaranteedLifetime() {
@@ -207,6 +225,7 @@ public class CapturedTrafficToHttpTransactionAccumulator {
                     .addArgument(connectionId)
                     .log();
                 liveStreams.remove(partitionId, connectionId);
+                discardUnsentPackets(accum);
                 break;
             }
         }
@@ -308,7 +327,7 @@ public class CapturedTrafficToHttpTransactionAccumulator {
     ) {
         var originTimestamp = TrafficStreamUtils.instantFromProtoTimestamp(observation.getTs());
         if (observation.hasClose()) {
-            accum.getOrCreateTransactionPair(trafficStreamKey, originTimestamp).holdTrafficStream(trafficStreamKey);
+            getOrCreateTransactionPair(accum, trafficStreamKey, originTimestamp).holdTrafficStream(trafficStreamKey);
             var heldTrafficStreams = getTrafficStreamsHeldByAccum(accum);
             if (rotateAccumulationIfNecessary(trafficStreamKey.getConnectionId(), accum)) {
                 heldTrafficStreams = List.of();
@@ -322,9 +341,10 @@ public class CapturedTrafficToHttpTransactionAccumulator {
             );
             return Optional.of(CONNECTION_STATUS.CLOSED);
         } else if (observation.hasConnectionException()) {
-            accum.getOrCreateTransactionPair(trafficStreamKey, originTimestamp).holdTrafficStream(trafficStreamKey);
+            getOrCreateTransactionPair(accum, trafficStreamKey, originTimestamp).holdTrafficStream(trafficStreamKey);
             rotateAccumulationIfNecessary(trafficStreamKey.getConnectionId(), accum);
             exceptionConnectionCounter.incrementAndGet();
+            discardUnsentPackets(accum);
             accum.resetForNextRequest();
             log.atDebug()
                 .setMessage("Removing accumulated traffic pair due to recorded connection exception event for {}")
@@ -352,11 +372,13 @@ public class CapturedTrafficToHttpTransactionAccumulator {
             if (!accum.hasRrPair()) {
                 requestCounter.incrementAndGet();
             }
-            var rrPair = accum.getOrCreateTransactionPair(trafficStreamKey, originTimestamp);
+            var rrPair = getOrCreateTransactionPair(accum, trafficStreamKey, originTimestamp);
             log.atTrace().setMessage("Adding request data for accum[{}]={}")
                 .addArgument(connectionId)
                 .addArgument(accum).log();
-            rrPair.addRequestData(timestamp, observation.getRead().getData().toByteArray());
+            var data = observation.getRead().getData().toByteArray();
+            rrPair.addRequestData(timestamp, data);
+            packetBudget.onPacketBytesAdded(accum, rrPair.requestData, data.length);
             log.atTrace().setMessage("Added request data for accum[{}]={}")
                 .addArgument(connectionId)
                 .addArgument(accum)
@@ -369,9 +391,10 @@ public class CapturedTrafficToHttpTransactionAccumulator {
                 .addArgument(connectionId).
                 addArgument(accum)
                 .log();
-            var rrPair = accum.getOrCreateTransactionPair(trafficStreamKey, originTimestamp);
+            var rrPair = getOrCreateTransactionPair(accum, trafficStreamKey, originTimestamp);
             if (rrPair.requestData == null) {
-                rrPair.requestData = new HttpMessageAndTimestamp.Request(timestamp);
+                rrPair.requestData =
+                    new HttpMessageAndTimestamp.Request(timestamp, packetBudget.getOffHeapAllocator());
                 requestCounter.incrementAndGet();
             }
             rrPair.addRequestData(timestamp, observation.getRead().getData().toByteArray());
@@ -383,7 +406,8 @@ public class CapturedTrafficToHttpTransactionAccumulator {
         } else if (observation.hasSegmentEnd()) {
             var rrPair = accum.getRrPair();
             assert rrPair.requestData.hasInProgressSegment();
-            rrPair.requestData.finalizeRequestSegments(timestamp);
+            var numBytes = rrPair.requestData.finalizeRequestSegments(timestamp);
+            packetBudget.onPacketBytesAdded(accum, rrPair.requestData, numBytes);
         } else if (observation.hasRequestDropped()) {
             requestCounter.decrementAndGet();
             handleDroppedRequestForAccumulation(accum);
@@ -410,7 +434,9 @@ public class CapturedTrafficToHttpTransactionAccumulator {
                 .addArgument(connectionId)
                 .addArgument(accum)
                 .log();
-            rrPair.addResponseData(timestamp, observation.getWrite().getData().toByteArray());
+            var data = observation.getWrite().getData().toByteArray();
+            rrPair.addResponseData(timestamp, data);
+            packetBudget.onPacketBytesAdded(accum, rrPair.responseData, data.length);
             log.atTrace().setMessage("Added response data for accum[{}]={}")
                 .addArgument(connectionId)
                 .addArgument(accum)
@@ -422,7 +448,8 @@ public class CapturedTrafficToHttpTransactionAccumulator {
                 .log();
             var rrPair = accum.getRrPair();
             if (rrPair.responseData == null) {
-                rrPair.responseData = new HttpMessageAndTimestamp.Response(timestamp);
+                rrPair.responseData =
+                    new HttpMessageAndTimestamp.Response(timestamp, packetBudget.getOffHeapAllocator());
             }
             rrPair.responseData.addSegment(observation.getWriteSegment().getData().toByteArray());
             log.atTrace().setMessage("Added response segment for accum[{}]={}")
@@ -432,7 +459,8 @@ public class CapturedTrafficToHttpTransactionAccumulator {
         } else if (observation.hasSegmentEnd()) {
             var rrPair = accum.getRrPair();
             assert rrPair.responseData.hasInProgressSegment();
-            rrPair.responseData.finalizeRequestSegments(timestamp);
+            var numBytes = rrPair.responseData.finalizeRequestSegments(timestamp);
+            packetBudget.onPacketBytesAdded(accum, rrPair.responseData, numBytes);
         } else if (observation.hasRead() || observation.hasReadSegment()) {
             rotateAccumulationOnReadIfNecessary(connectionId, accum);
             return handleObservationForReadState(accum, observation, trafficStreamKey, timestamp);
@@ -442,11 +470,35 @@ public class CapturedTrafficToHttpTransactionAccumulator {
         return Optional.of(CONNECTION_STATUS.ALIVE);
     }
 
+    private RequestResponsePacketPair getOrCreateTransactionPair(
+        Accumulation accum,
+        @NonNull ITrafficStreamKey trafficStreamKey,
+        Instant originTimestamp
+    ) {
+        return accum.getOrCreateTransactionPair(
+            trafficStreamKey,
+            originTimestamp,
+            packetBudget.getOffHeapAllocator()
+        );
+    }
+
+    /**
+     * Called when the request or response that's being accumulated will never be handed off.  Messages that
+     * were handed off have their packets released once whoever they were handed to is done with them.
+     */
+    private void discardUnsentPackets(Accumulation accum) {
+        packetBudget.discard(accum);
+        if (accum.hasRrPair()) {
+            accum.getRrPair().releasePackets();
+        }
+    }
+
     private void handleDroppedRequestForAccumulation(Accumulation accum) {
         if (accum.hasRrPair()) {
             var rrPair = accum.getRrPair();
             rrPair.getTrafficStreamsHeld().forEach(listener::onTrafficStreamIgnored);
         }
+        discardUnsentPackets(accum);
         log.atTrace().setMessage("resetting to forget {}").addArgument(accum.trafficChannelKey).log();
         accum.resetToIgnoreAndForgetCurrentRequest();
         log.atTrace().setMessage("done resetting to forget and accum={}").addArgument(accum).log();
@@ -486,6 +538,7 @@ public class CapturedTrafficToHttpTransactionAccumulator {
         assert (httpMessage != null);
         assert (!httpMessage.hasInProgressSegment());
         var requestCtx = rrPair.getRequestContext();
+        packetBudget.rehydrateAndRelease(accumulation);
         rrPair.rotateRequestGatheringToResponse();
         var callbackTrackedData = listener.onRequestReceived(requestCtx, httpMessage);
         rrPairWithCallback.setFullDataContinuation(callbackTrackedData);
@@ -498,6 +551,7 @@ public class CapturedTrafficToHttpTransactionAccumulator {
         var rrPairWithCallback = accumulation.getRrPairWithCallback();
         var rrPair = rrPairWithCallback.pair;
         rrPair.completionStatus = status;
+        packetBudget.rehydrateAndRelease(accumulation);
         rrPairWithCallback.getFullDataContinuation().accept(rrPair);
         log.atTrace().setMessage("resetting for end of response").log();
         accumulation.resetForNextRequest();
@@ -512,6 +566,11 @@ public class CapturedTrafficToHttpTransactionAccumulator {
             );
         });
         liveStreams.clear();
+        try {
+            packetBudget.close();
+        } catch (IOException e) {
+            log.atWarn().setCause(e).setMessage("Could not close {}").addArgument(packetBudget).log();
+        }
     }
 
     private void fireAccumulationsCallbacksAndClose(
@@ -553,6 +612,7 @@ public class CapturedTrafficToHttpTransactionAccumulator {
                     throw new IllegalStateException("Unknown enum type: " + accumulation.state);
             }
         } finally {
+            discardUnsentPackets(accumulation);
             if (accumulation.hasSignaledRequests()) {
                 listener.onConnectionClose(
                     accumulation,
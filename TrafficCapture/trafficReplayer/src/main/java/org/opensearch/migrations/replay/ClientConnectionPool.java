@@ -1,10 +1,14 @@
 package org.opensearch.migrations.replay;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
+import java.util.stream.StreamSupport;
 
 import org.opensearch.migrations.NettyFutureBinders;
+import org.opensearch.migrations.netty.NettyTransport;
 import org.opensearch.migrations.replay.datatypes.ConnectionReplaySession;
 import org.opensearch.migrations.replay.tracing.IReplayContexts;
 import org.opensearch.migrations.utils.TextTrackedFuture;
@@ -16,7 +20,7 @@ import com.google.common.cache.LoadingCache;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.EventLoop;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import io.netty.util.concurrent.DefaultThreadFactory;
 import io.netty.util.concurrent.ScheduledFuture;
 import lombok.AllArgsConstructor;
@@ -30,7 +34,10 @@ public class ClientConnectionPool {
 
     private final BiFunction<EventLoop, IReplayContexts.ITargetRequestContext, TrackedFuture<String, ChannelFuture>>
         channelCreator;
-    private final NioEventLoopGroup eventLoopGroup;
+    private final EventLoopGroup eventLoopGroup;
+    private final EventLoop[] eventLoops;
+    /** When null, triggers are scheduled on the EventLoops themselves */
+    private final TimerWheelScheduler timerWheel;
     private final LoadingCache<Key, ConnectionReplaySession> connectionId2ChannelCache;
 
     @EqualsAndHashCode
@@ -48,9 +55,40 @@ public class ClientConnectionPool {
         BiFunction<EventLoop, IReplayContexts.ITargetRequestContext, TrackedFuture<String, ChannelFuture>> channelCreator,
         @NonNull String targetConnectionPoolName,
         int numThreads
+    ) {
+        this(channelCreator, targetConnectionPoolName, numThreads, NettyTransport.NIO);
+    }
+
+    public ClientConnectionPool(
+        BiFunction<EventLoop, IReplayContexts.ITargetRequestContext, TrackedFuture<String, ChannelFuture>> channelCreator,
+        @NonNull String targetConnectionPoolName,
+        int numThreads,
+        @NonNull NettyTransport transport
+    ) {
+        this(channelCreator, targetConnectionPoolName, numThreads, transport, null);
+    }
+
+    /**
+     * @param timerWheelTick when non-null, requests and closes are triggered by a TimerWheelScheduler, shared by
+     *                       all the EventLoops, that advances with this granularity.  When null, every trigger is
+     *                       scheduled with the EventLoop that it will run on.
+     */
+    public ClientConnectionPool(
+        BiFunction<EventLoop, IReplayContexts.ITargetRequestContext, TrackedFuture<String, ChannelFuture>> channelCreator,
+        @NonNull String targetConnectionPoolName,
+        int numThreads,
+        @NonNull NettyTransport transport,
+        Duration timerWheelTick
     ) {
         this.channelCreator = channelCreator;
-        this.eventLoopGroup = new NioEventLoopGroup(numThreads, new DefaultThreadFactory(targetConnectionPoolName));
+        this.eventLoopGroup =
+            transport.newEventLoopGroup(numThreads, new DefaultThreadFactory(targetConnectionPoolName));
+        this.eventLoops = StreamSupport.stream(eventLoopGroup.spliterator(), false)
+            .map(EventLoop.class::cast)
+            .toArray(EventLoop[]::new);
+        this.timerWheel = timerWheelTick == null
+            ? null
+            : new TimerWheelScheduler(timerWheelTick, targetConnectionPoolName + "-timerWheel");
 
         connectionId2ChannelCache = CacheBuilder.newBuilder().build(CacheLoader.from(key -> {
             throw new UnsupportedOperationException("Use Cache.get(key, callable) instead");
@@ -64,6 +102,35 @@ public class ClientConnectionPool {
         return eventLoopGroup.next().scheduleAtFixedRate(runnable, initialDelay, delay, timeUnit);
     }
 
+    public TrackedFuture<String, Void> scheduleOnEventLoop(EventLoop eventLoop, Instant timestamp) {
+        if (timerWheel == null) {
+            return NettyFutureBinders.bindNettyScheduleToCompletableFuture(eventLoop, getDelayFromNow(timestamp));
+        }
+        return new TextTrackedFuture<>(
+            timerWheel.schedule(eventLoop, timestamp, new CompletableFuture<>()),
+            () -> "waiting on the timer wheel to run at " + timestamp
+        );
+    }
+
+    /**
+     * Completes cf from the eventLoop's thread once the timestamp has passed, or exceptionally with a
+     * CancellationException if the eventLoop is shut down first.
+     */
+    public CompletableFuture<Void> scheduleOnEventLoop(
+        EventLoop eventLoop,
+        Instant timestamp,
+        CompletableFuture<Void> cf
+    ) {
+        if (timerWheel == null) {
+            return NettyFutureBinders.bindNettyScheduleToCompletableFuture(eventLoop, getDelayFromNow(timestamp), cf);
+        }
+        return timerWheel.schedule(eventLoop, timestamp, cf);
+    }
+
+    private static Duration getDelayFromNow(Instant timestamp) {
+        return Duration.ofMillis(Math.max(0, Duration.between(Instant.now(), timestamp).toMillis()));
+    }
+
     public ConnectionReplaySession buildConnectionReplaySession(IReplayContexts.IChannelKeyContext channelKeyCtx) {
         if (eventLoopGroup.isShuttingDown()) {
             throw new IllegalStateException("Event loop group is shutting down.  Not creating a new session.");
@@ -73,10 +140,21 @@ public class ClientConnectionPool {
         // event loop that was tied to the original channel to bind all future channels to
         // the same event loop. That means that we don't have to worry about concurrent
         // accesses/changes to the OTHER value that we're storing within the cache.
-        var eventLoop = eventLoopGroup.next();
+        var eventLoop = getEventLoopForConnection(channelKeyCtx.getConnectionId());
         return new ConnectionReplaySession(eventLoop, channelKeyCtx, channelCreator);
     }
 
+    /**
+     * Every session for a source connection is replayed from the same EventLoop, chosen by a hash of the
+     * connection id, so that the state for its channels, including their decoders and TLS engines, stays on
+     * one thread's caches rather than migrating between threads as sessions are reset.
+     */
+    EventLoop getEventLoopForConnection(String connectionId) {
+        var hash = connectionId.hashCode();
+        // mix the high bits in, as HashMap does, since connection ids often differ only in their last characters
+        return eventLoops[Math.floorMod(hash ^ (hash >>> 16), eventLoops.length)];
+    }
+
     @SneakyThrows
     public @NonNull ConnectionReplaySession getCachedSession(
         IReplayContexts.IChannelKeyContext channelKeyCtx,
@@ -113,6 +191,9 @@ public class ClientConnectionPool {
 
     public CompletableFuture<Void> shutdownNow() {
         log.atInfo().setMessage("Shutting down ClientConnectionPool").log();
+        if (timerWheel != null) {
+            timerWheel.close();
+        }
         var rval = NettyFutureBinders.bindNettyFutureToCompletableFuture(eventLoopGroup.shutdownGracefully());
         connectionId2ChannelCache.invalidateAll();
         return rval;
@@ -3,13 +3,16 @@ package org.opensearch.migrations.replay;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
+import org.opensearch.migrations.replay.datatypes.PacketSpillFile;
 import org.opensearch.migrations.replay.datatypes.RawPackets;
-import org.opensearch.migrations.replay.util.NettyUtils;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -18,7 +21,7 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-@EqualsAndHashCode(exclude = "currentSegmentBytes")
+@EqualsAndHashCode(exclude = { "currentSegmentBytes", "spilledPackets" })
 public class HttpMessageAndTimestamp {
 
     public static class Request extends HttpMessageAndTimestamp {
@@ -26,6 +29,10 @@ public class HttpMessageAndTimestamp {
             super(firstPacketTimestamp);
         }
 
+        public Request(Instant firstPacketTimestamp, ByteBufAllocator offHeapAllocator) {
+            super(firstPacketTimestamp, offHeapAllocator);
+        }
+
         @Override
         public String toString() {
             return super.format(Optional.of(HttpByteBufFormatter.HttpMessageType.REQUEST));
@@ -37,6 +44,10 @@ public class HttpMessageAndTimestamp {
             super(firstPacketTimestamp);
         }
 
+        public Response(Instant firstPacketTimestamp, ByteBufAllocator offHeapAllocator) {
+            super(firstPacketTimestamp, offHeapAllocator);
+        }
+
         @Override
         public String toString() {
             return super.format(Optional.of(HttpByteBufFormatter.HttpMessageType.REQUEST));
@@ -51,20 +62,37 @@ public class HttpMessageAndTimestamp {
 
     public final RawPackets packetBytes;
     ByteArrayOutputStream currentSegmentBytes;
+    // Packets that were moved out of packetBytes while this was being accumulated.  They all precede packetBytes.
+    private List<PacketSpillFile.SpilledPackets> spilledPackets;
 
     public HttpMessageAndTimestamp(Instant firstPacketTimestamp) {
+        this(firstPacketTimestamp, null);
+    }
+
+    /**
+     * @param offHeapAllocator when not null, packets are copied into direct buffers from this allocator and
+     *                         releasePackets() must be called once they're no longer needed.
+     *                         See RawPackets.
+     */
+    public HttpMessageAndTimestamp(Instant firstPacketTimestamp, ByteBufAllocator offHeapAllocator) {
         this.firstPacketTimestamp = firstPacketTimestamp;
-        this.packetBytes = new RawPackets();
+        this.packetBytes = new RawPackets(offHeapAllocator);
     }
 
+    /**
+     * @return a read-only view of the packets, which isn't retained and can't be used after releasePackets()
+     */
     public ByteBuf asByteBuf() {
         var compositeBuf = Unpooled.compositeBuffer();
-        packetBytes.stream()
-            .map(Unpooled::wrappedBuffer)
+        packetBytes.streamUnretained()
             .forEach(buffer -> compositeBuf.addComponent(true, buffer));
         return compositeBuf.asReadOnly();
     }
 
+    public void releasePackets() {
+        packetBytes.release();
+    }
+
     public boolean hasInProgressSegment() {
         return currentSegmentBytes != null;
     }
@@ -78,21 +106,22 @@ public class HttpMessageAndTimestamp {
     }
 
     public String format(Optional<HttpByteBufFormatter.HttpMessageType> messageTypeOp) {
-        try (var bufStream = NettyUtils.createRefCntNeutralCloseableByteBufStream(packetBytes)) {
-            var packetBytesAsStr = messageTypeOp.map(
-                mt -> HttpByteBufFormatter.httpPacketBytesToString(
-                    mt,
-                    packetBytes,
-                    HttpByteBufFormatter.LF_LINE_DELIMITER
-                )
-            ).orElseGet(() -> HttpByteBufFormatter.httpPacketBufsToString(bufStream, Utils.MAX_PAYLOAD_BYTES_TO_PRINT));
-            final StringBuilder sb = new StringBuilder("HttpMessageAndTimestamp{");
-            sb.append("firstPacketTimestamp=").append(firstPacketTimestamp);
-            sb.append(", lastPacketTimestamp=").append(lastPacketTimestamp);
-            sb.append(", message=[").append(packetBytesAsStr);
-            sb.append("]}");
-            return sb.toString();
-        }
+        var packetBytesAsStr = messageTypeOp.map(
+            mt -> HttpByteBufFormatter.httpPacketBufsToString(
+                mt,
+                packetBytes.streamUnretained(),
+                HttpByteBufFormatter.LF_LINE_DELIMITER
+            )
+        ).orElseGet(() -> HttpByteBufFormatter.httpPacketBufsToString(
+            packetBytes.streamUnretained(),
+            Utils.MAX_PAYLOAD_BYTES_TO_PRINT
+        ));
+        final StringBuilder sb = new StringBuilder("HttpMessageAndTimestamp{");
+        sb.append("firstPacketTimestamp=").append(firstPacketTimestamp);
+        sb.append(", lastPacketTimestamp=").append(lastPacketTimestamp);
+        sb.append(", message=[").append(packetBytesAsStr);
+        sb.append("]}");
+        return sb.toString();
     }
 
     public void addSegment(byte[] data) {
@@ -106,10 +135,73 @@ public class HttpMessageAndTimestamp {
         }
     }
 
-    public void finalizeRequestSegments(Instant timestamp) {
-        packetBytes.add(currentSegmentBytes.toByteArray());
+    /**
+     * @return the number of bytes that were added to packetBytes
+     */
+    public int finalizeRequestSegments(Instant timestamp) {
+        var segmentBytes = currentSegmentBytes.toByteArray();
+        packetBytes.add(segmentBytes);
         this.lastPacketTimestamp = timestamp;
         currentSegmentBytes = null;
+        return segmentBytes.length;
+    }
+
+    public boolean hasSpilledPackets() {
+        return spilledPackets != null;
+    }
+
+    /**
+     * Moves the packets accumulated so far to the spill file.  Packets that are added afterward are kept in
+     * memory until the next call.
+     * @return the number of bytes that were moved out of memory
+     */
+    public long spillPackets(PacketSpillFile spillFile) throws IOException {
+        if (packetBytes.isEmpty()) {
+            return 0;
+        }
+        var spilled = spillFile.append(packetBytes);
+        if (spilledPackets == null) {
+            spilledPackets = new ArrayList<>();
+        }
+        spilledPackets.add(spilled);
+        packetBytes.clear();
+        return spilled.getByteCount();
+    }
+
+    /**
+     * Reads every spilled packet back into packetBytes, in front of the packets that were added since.
+     * @return the number of bytes that were read back into memory
+     */
+    public long rehydratePackets(PacketSpillFile spillFile) throws IOException {
+        if (spilledPackets == null) {
+            return 0;
+        }
+        var rehydratedPackets = new ArrayList<byte[]>();
+        long numBytes = 0;
+        for (var spilled : spilledPackets) {
+            rehydratedPackets.addAll(spillFile.read(spilled));
+            numBytes += spilled.getByteCount();
+        }
+        packetBytes.addAll(0, rehydratedPackets);
+        spilledPackets = null;
+        return numBytes;
+    }
+
+    /**
+     * Releases the spilled packets of a message that will never be used
+     * @return the number of bytes that were released from the spill file
+     */
+    public long discardSpilledPackets(PacketSpillFile spillFile) throws IOException {
+        if (spilledPackets == null) {
+            return 0;
+        }
+        long numBytes = 0;
+        for (var spilled : spilledPackets) {
+            spillFile.release(spilled);
+            numBytes += spilled.getByteCount();
+        }
+        spilledPackets = null;
+        return numBytes;
     }
 
     @Override
@@ -99,8 +99,12 @@ public class ReplayEngine {
             lastCompletedSourceTimeEpochMs.get(),
             lastIdleUpdatedTimestampEpochMs.get()
         );
-        var maxSkipTimeEpochMs = lastUpdatedTimeEpochMs + (long) (getUpdatePeriodMs() * this.timeShifter
-            .maxRateMultiplier());
+        // Source time isn't tied to the clock for closed-loop replays, so when nothing is outstanding,
+        // let the source read another full window ahead
+        var maxSkipMs = timeShifter.isClosedLoop()
+            ? contentTimeController.getBufferTimeWindow().toMillis()
+            : (long) (getUpdatePeriodMs() * this.timeShifter.maxRateMultiplier());
+        var maxSkipTimeEpochMs = lastUpdatedTimeEpochMs + maxSkipMs;
         lastIdleUpdatedTimestampEpochMs.set(Math.min(currentSourceTimeEpochMs, maxSkipTimeEpochMs));
         contentTimeController.stopReadsPast(Instant.ofEpochMilli(lastIdleUpdatedTimestampEpochMs.get()));
     }
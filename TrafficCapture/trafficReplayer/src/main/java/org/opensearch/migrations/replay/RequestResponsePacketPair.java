@@ -14,6 +14,7 @@ import org.opensearch.migrations.tracing.IScopedInstrumentationAttributes;
 import org.opensearch.migrations.tracing.IWithTypedEnclosingScope;
 
 import com.google.common.base.Objects;
+import io.netty.buffer.ByteBufAllocator;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -38,14 +39,31 @@ public class RequestResponsePacketPair implements IRequestResponsePacketPair {
     // switch between RequestAccumulation/ResponseAccumulation objects when we're parsing,
     // or just leave this null, in which case, the context from the trafficStreamKey should be used
     private IScopedInstrumentationAttributes requestOrResponseAccumulationContext;
+    // null to keep packets on the heap
+    final ByteBufAllocator packetAllocator;
 
     public RequestResponsePacketPair(
         @NonNull ITrafficStreamKey startingAtTrafficStreamKey,
         Instant sourceTimestamp,
         int startingSourceRequestIndex,
         int indexOfCurrentRequest
+    ) {
+        this(startingAtTrafficStreamKey, sourceTimestamp, startingSourceRequestIndex, indexOfCurrentRequest, null);
+    }
+
+    /**
+     * @param packetAllocator when not null, the request and response packets are held in direct buffers from
+     *                        this allocator, which are given back by releasePackets()
+     */
+    public RequestResponsePacketPair(
+        @NonNull ITrafficStreamKey startingAtTrafficStreamKey,
+        Instant sourceTimestamp,
+        int startingSourceRequestIndex,
+        int indexOfCurrentRequest,
+        ByteBufAllocator packetAllocator
     ) {
         this.firstTrafficStreamKeyForRequest = startingAtTrafficStreamKey;
+        this.packetAllocator = packetAllocator;
         var requestKey = new UniqueReplayerRequestKey(
             startingAtTrafficStreamKey,
             startingSourceRequestIndex,
@@ -94,7 +112,7 @@ public class RequestResponsePacketPair implements IRequestResponsePacketPair {
             log.trace(this + " Adding request data: " + new String(data, StandardCharsets.UTF_8));
         }
         if (requestData == null) {
-            requestData = new HttpMessageAndTimestamp.Request(packetTimeStamp);
+            requestData = new HttpMessageAndTimestamp.Request(packetTimeStamp, packetAllocator);
         }
         requestData.add(data);
         requestData.setLastPacketTimestamp(packetTimeStamp);
@@ -105,7 +123,7 @@ public class RequestResponsePacketPair implements IRequestResponsePacketPair {
             log.trace(this + " Adding response data: " + new String(data, StandardCharsets.UTF_8));
         }
         if (responseData == null) {
-            responseData = new HttpMessageAndTimestamp.Response(packetTimeStamp);
+            responseData = new HttpMessageAndTimestamp.Response(packetTimeStamp, packetAllocator);
         }
         responseData.add(data);
         responseData.setLastPacketTimestamp(packetTimeStamp);
@@ -121,6 +139,19 @@ public class RequestResponsePacketPair implements IRequestResponsePacketPair {
         }
     }
 
+    /**
+     * Gives the packets of both messages back to their allocator if they were held off of the heap.  This is
+     * called once the pair has been fully handled (or will never be), after which the packets can't be read.
+     */
+    public void releasePackets() {
+        if (requestData != null) {
+            requestData.releasePackets();
+        }
+        if (responseData != null) {
+            responseData.releasePackets();
+        }
+    }
+
     private static final List<ITrafficStreamKey> emptyUnmodifiableList = List.of();
 
     public List<ITrafficStreamKey> getTrafficStreamsHeld() {
@@ -210,7 +210,7 @@ public class RequestSenderOrchestrator {
     }
 
     private TrackedFuture<String, Void> bindNettyScheduleToCompletableFuture(EventLoop eventLoop, Instant timestamp) {
-        return NettyFutureBinders.bindNettyScheduleToCompletableFuture(eventLoop, getDelayFromNowMs(timestamp));
+        return clientConnectionPool.scheduleOnEventLoop(eventLoop, timestamp);
     }
 
     private TextTrackedFuture<Void> bindNettyScheduleToCompletableFuture(
@@ -231,7 +231,7 @@ public class RequestSenderOrchestrator {
         Instant timestamp,
         CompletableFuture<Void> cf
     ) {
-        return NettyFutureBinders.bindNettyScheduleToCompletableFuture(eventLoop, getDelayFromNowMs(timestamp), cf);
+        return clientConnectionPool.scheduleOnEventLoop(eventLoop, timestamp, cf);
     }
 
     /**
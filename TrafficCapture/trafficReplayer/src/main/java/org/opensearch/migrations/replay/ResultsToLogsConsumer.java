@@ -15,6 +15,7 @@ import org.opensearch.migrations.replay.datatypes.UniqueSourceRequestKey;
 import org.opensearch.migrations.transform.IJsonTransformer;
 import org.opensearch.migrations.transform.TransformationLoader;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.netty.buffer.ByteBuf;
 import lombok.Lombok;
@@ -141,9 +142,7 @@ public class ResultsToLogsConsumer implements BiConsumer<SourceTargetCaptureTupl
             .addArgument(() -> toTransactionSummaryString(index, tuple, parsedMessages)).log();
         if (tupleLogger.isInfoEnabled()) {
             try {
-                var originalTuple = toJSONObject(tuple, parsedMessages);
-                Object transformedTuple = tupleTransformer.transformJson(originalTuple);
-                var tupleString = PLAIN_MAPPER.writeValueAsString(transformedTuple);
+                var tupleString = toTransformedJsonString(tuple, parsedMessages);
                 tupleLogger.atInfo().setMessage("{}").addArgument(tupleString).log();
             } catch (Exception e) {
                 log.atError().setCause(e).setMessage("Exception converting tuple to string").log();
@@ -153,6 +152,17 @@ public class ResultsToLogsConsumer implements BiConsumer<SourceTargetCaptureTupl
         }
     }
 
+    /**
+     * @return the tuple as the one line of JSON that accept() logs, after it has been run through the tuple
+     * transformer
+     */
+    public String toTransformedJsonString(SourceTargetCaptureTuple tuple, ParsedHttpMessagesAsDicts parsedMessages)
+        throws JsonProcessingException {
+        var originalTuple = toJSONObject(tuple, parsedMessages);
+        Object transformedTuple = tupleTransformer.transformJson(originalTuple);
+        return PLAIN_MAPPER.writeValueAsString(transformedTuple);
+    }
+
     public static String getTransactionSummaryStringPreamble() {
         return new StringJoiner(", ").add("#")
             .add("REQUEST_ID")
@@ -14,6 +14,7 @@ import org.opensearch.migrations.replay.datatypes.UniqueReplayerRequestKey;
 import org.opensearch.migrations.replay.tracing.IReplayContexts;
 
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
@@ -22,6 +23,7 @@ import static org.opensearch.migrations.replay.HttpByteBufFormatter.LF_LINE_DELI
 @Slf4j
 public class SourceTargetCaptureTuple implements AutoCloseable {
     @AllArgsConstructor
+    @Getter
     public static class Response {
         List<byte[]> targetResponseData;
         Throwable errorCause;
@@ -79,6 +81,8 @@ public class SourceTargetCaptureTuple implements AutoCloseable {
     @Override
     public void close() {
         Optional.ofNullable(targetRequestData).ifPresent(ByteBufList::release);
+        // tuple consumers are done with the source packets once they've returned, so give back any direct buffers
+        Optional.ofNullable(sourcePair).ifPresent(RequestResponsePacketPair::releasePackets);
     }
 
     @Override
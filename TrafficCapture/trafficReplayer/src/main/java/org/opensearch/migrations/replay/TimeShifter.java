@@ -5,6 +5,7 @@ import java.time.Instant;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 
+import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.event.Level;
 
@@ -12,8 +13,17 @@ import org.slf4j.event.Level;
 @Slf4j
 public class TimeShifter {
 
-    private final AtomicReference<Instant> sourceTimeStart = new AtomicReference<>();
-    private AtomicReference<Instant> systemTimeStart = new AtomicReference<>();
+    /**
+     * The source and system times are set together so that threads that are scheduling requests concurrently
+     * never see one without the other
+     */
+    @AllArgsConstructor
+    private static class StartTimes {
+        final Instant sourceTimeStart;
+        final Instant systemTimeStart;
+    }
+
+    private final AtomicReference<StartTimes> startTimesRef = new AtomicReference<>();
 
     private final double rateMultiplier;
     private final Duration realtimeOffset;
@@ -31,12 +41,22 @@ public class TimeShifter {
         this.realtimeOffset = realtimeOffset;
     }
 
+    /**
+     * Makes a TimeShifter for closed-loop replays, which ignore the timing of the source traffic.  Every request
+     * is due as soon as it has been read and its connection's earlier requests have finished, so the rate that
+     * requests are sent at is only limited by how many can be outstanding and how quickly the target responds.
+     */
+    public static TimeShifter closedLoop() {
+        return new TimeShifter(Double.POSITIVE_INFINITY);
+    }
+
+    public boolean isClosedLoop() {
+        return rateMultiplier == Double.POSITIVE_INFINITY;
+    }
+
     public void setFirstTimestamp(Instant sourceTime) {
-        var didSet = sourceTimeStart.compareAndSet(null, sourceTime);
-        if (didSet) {
-            var didSetSystemStart = systemTimeStart.compareAndSet(null, Instant.now());
-            assert didSetSystemStart : "expected to always start systemTimeStart immediately after sourceTimeStart ";
-        }
+        var didSet = startTimesRef.get() == null
+            && startTimesRef.compareAndSet(null, new StartTimes(sourceTime, Instant.now()));
         log.atLevel(didSet ? Level.INFO : Level.TRACE)
             .setMessage("Set baseline source timestamp for all future interactions to {}")
             .addArgument(sourceTime)
@@ -44,25 +64,33 @@ public class TimeShifter {
     }
 
     Instant transformSourceTimeToRealTime(Instant sourceTime) {
-        if (sourceTimeStart.get() == null) {
+        var startTimes = startTimesRef.get();
+        if (startTimes == null) {
             throw new IllegalStateException("setFirstTimestamp has not yet been called");
         }
+        if (isClosedLoop()) {
+            return Instant.now();
+        }
         // realtime = systemTimeStart + ((sourceTime-sourceTimeStart) / rateMultiplier) + targetOffset
-        return systemTimeStart.get()
+        return startTimes.systemTimeStart
             .plus(
                 Duration.ofMillis(
-                    (long) (Duration.between(sourceTimeStart.get(), sourceTime).toMillis() / rateMultiplier)
+                    (long) (Duration.between(startTimes.sourceTimeStart, sourceTime).toMillis() / rateMultiplier)
                 )
             )
             .plus(realtimeOffset);
     }
 
     Optional<Instant> transformRealTimeToSourceTime(Instant realTime) {
-        return Optional.ofNullable(sourceTimeStart.get()).map(start ->
+        if (isClosedLoop()) {
+            // no source time is in the future of a closed-loop replay
+            return Optional.ofNullable(startTimesRef.get()).map(start -> Instant.ofEpochMilli(Long.MAX_VALUE));
+        }
+        return Optional.ofNullable(startTimesRef.get()).map(start ->
         // sourceTime = sourceTimeStart + (realTime-systemTimeStart-targetOffset) * rateMultiplier
-        start.plus(
+        start.sourceTimeStart.plus(
             Duration.ofMillis(
-                (long) (Duration.between(systemTimeStart.get(), realTime.minus(realtimeOffset)).toMillis()
+                (long) (Duration.between(start.systemTimeStart, realTime.minus(realtimeOffset)).toMillis()
                     * rateMultiplier)
             )
         ));
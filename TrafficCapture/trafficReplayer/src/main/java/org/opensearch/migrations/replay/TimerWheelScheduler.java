@@ -0,0 +1,245 @@
+package org.opensearch.migrations.replay;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import io.netty.util.concurrent.EventExecutor;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A hierarchical timing wheel that's shared by all the EventLoops of a ClientConnectionPool.  Scheduling with
+ * the EventLoops directly puts every pending request and close into the priority queue of one of the loops,
+ * which costs O(log n) to add and remove and makes every loop check its queue on every iteration.  At high
+ * speedup factors there can be millions of those entries.  Here, adding a trigger is O(1) and a single ticker
+ * thread advances the wheels.  On each tick, everything that has come due is handed to its EventLoop with one
+ * execute() call per loop, so the triggers for a tick are completed on the threads that will run their work in
+ * one batch rather than being woken up for one at a time.<br><br>
+ *
+ * Each of the NUM_LEVELS wheels has WHEEL_SIZE buckets, with each bucket of a level spanning a whole rotation of
+ * the level below it.  Triggers are put into the lowest level that can hold them without wrapping and are moved
+ * down a level when the ticker reaches the start of their bucket, as the Linux kernel's timers did.  Triggers
+ * that are further out than the top level can hold are parked in its furthest bucket and re-examined each time
+ * that they're reached.<br><br>
+ *
+ * Triggers fire on a tick boundary at or after their deadline, so they can be up to one tick late, plus however
+ * long the EventLoop takes to get to the batch.  That lag is measured by the ScheduledContexts for requests,
+ * relative to the time that the TimeShifter asked for.
+ */
+@Slf4j
+public class TimerWheelScheduler implements AutoCloseable {
+    private static final int WHEEL_BITS = 8;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int NUM_LEVELS = 4;
+    private static final long MAX_TICKS_AHEAD = (1L << (WHEEL_BITS * NUM_LEVELS)) - 1;
+    private static final long MAX_IDLE_PARK_NANOS = Duration.ofMillis(100).toNanos();
+
+    @AllArgsConstructor
+    private static class Trigger {
+        final long deadlineTick;
+        final Executor executor;
+        final CompletableFuture<Void> future;
+    }
+
+    private final long tickNanos;
+    private final long startNanoTime;
+    private final ConcurrentLinkedQueue<Trigger> incomingTriggers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Thread tickerThread;
+    private volatile boolean isIdle;
+    private volatile boolean isStopped;
+
+    // Everything below is only touched by the ticker thread
+    @SuppressWarnings("unchecked")
+    private final List<Trigger>[][] wheels = new List[NUM_LEVELS][WHEEL_SIZE];
+    private long currentTick;
+
+    public TimerWheelScheduler(Duration tickDuration, String threadName) {
+        if (tickDuration.isNegative() || tickDuration.isZero()) {
+            throw new IllegalArgumentException("The tick duration must be positive, but was " + tickDuration);
+        }
+        this.tickNanos = tickDuration.toNanos();
+        this.startNanoTime = System.nanoTime();
+        this.tickerThread = new Thread(this::runTicker, threadName);
+        tickerThread.setDaemon(true);
+        tickerThread.start();
+    }
+
+    /**
+     * Completes the future on the executor's thread once the timestamp has passed.  If the executor is
+     * shutting down, or this scheduler is closed before then, the future is completed with a
+     * CancellationException instead.
+     */
+    public CompletableFuture<Void> schedule(EventExecutor executor, Instant timestamp, CompletableFuture<Void> cf) {
+        if (isStopped || executor.isShuttingDown()) {
+            cf.completeExceptionally(new CancellationException("the scheduler or event loop is shutting down"));
+            return cf;
+        }
+        var delayNanos = Math.max(0, Duration.between(Instant.now(), timestamp).toNanos());
+        var deadlineTick = Math.floorDiv(System.nanoTime() + delayNanos - startNanoTime + tickNanos - 1, tickNanos);
+        pendingCount.incrementAndGet();
+        incomingTriggers.add(new Trigger(deadlineTick, executor, cf));
+        if (isIdle) {
+            LockSupport.unpark(tickerThread);
+        }
+        return cf;
+    }
+
+    /**
+     * @return the number of triggers that have been scheduled but haven't been handed to their executors yet
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    @Override
+    public void close() {
+        isStopped = true;
+        LockSupport.unpark(tickerThread);
+    }
+
+    private long getTickForNow() {
+        return (System.nanoTime() - startNanoTime) / tickNanos;
+    }
+
+    private void runTicker() {
+        currentTick = getTickForNow();
+        var dueByExecutor = new IdentityHashMap<Executor, List<Trigger>>();
+        while (!isStopped) {
+            drainIncomingTriggers(dueByExecutor);
+            var nowTick = getTickForNow();
+            while (currentTick < nowTick) {
+                ++currentTick;
+                cascade();
+                var bucket = wheels[0][(int) (currentTick & WHEEL_MASK)];
+                if (bucket != null) {
+                    wheels[0][(int) (currentTick & WHEEL_MASK)] = null;
+                    bucket.forEach(t -> addTrigger(t, dueByExecutor));
+                }
+            }
+            dispatch(dueByExecutor);
+            parkUntilNextTick();
+        }
+        cancelAllPending();
+    }
+
+    private void drainIncomingTriggers(Map<Executor, List<Trigger>> dueByExecutor) {
+        Trigger t;
+        while ((t = incomingTriggers.poll()) != null) {
+            addTrigger(t, dueByExecutor);
+        }
+    }
+
+    /**
+     * When the tick crosses the start of a bucket in a higher level, move that bucket's triggers down into
+     * the levels below.  This has to happen before the level 0 bucket for the tick is run since some of those
+     * triggers may be due on this very tick.
+     */
+    private void cascade() {
+        for (int level = 1; level < NUM_LEVELS; ++level) {
+            if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) != 0) {
+                return;
+            }
+            var index = (int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+            var bucket = wheels[level][index];
+            if (bucket != null) {
+                wheels[level][index] = null;
+                bucket.forEach(t -> addTrigger(t, null));
+            }
+        }
+    }
+
+    /**
+     * Puts the trigger into the wheel that it belongs in or, if it's due, into the dueByExecutor map.  When
+     * dueByExecutor is null (while cascading), the trigger is due on the current tick and goes into that tick's
+     * level 0 bucket, which is run right after the cascade.
+     */
+    private void addTrigger(Trigger t, Map<Executor, List<Trigger>> dueByExecutor) {
+        var ticksAhead = t.deadlineTick - currentTick;
+        if (ticksAhead <= 0) {
+            if (dueByExecutor != null) {
+                dueByExecutor.computeIfAbsent(t.executor, k -> new ArrayList<>()).add(t);
+                return;
+            }
+            ticksAhead = 0;
+        }
+        var clampedTicksAhead = Math.min(ticksAhead, MAX_TICKS_AHEAD);
+        var bucketTick = currentTick + clampedTicksAhead;
+        int level = 0;
+        while (level < NUM_LEVELS - 1 && clampedTicksAhead >= (1L << (WHEEL_BITS * (level + 1)))) {
+            ++level;
+        }
+        var index = (int) ((bucketTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        var bucket = wheels[level][index];
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            wheels[level][index] = bucket;
+        }
+        bucket.add(t);
+    }
+
+    private void dispatch(Map<Executor, List<Trigger>> dueByExecutor) {
+        if (dueByExecutor.isEmpty()) {
+            return;
+        }
+        for (var entry : dueByExecutor.entrySet()) {
+            var batch = entry.getValue();
+            pendingCount.addAndGet(-batch.size());
+            try {
+                entry.getKey().execute(() -> batch.forEach(t -> t.future.complete(null)));
+            } catch (RejectedExecutionException e) {
+                log.atDebug().setCause(e).setMessage("Couldn't dispatch {} triggers since their executor is "
+                    + "shutting down").addArgument(batch::size).log();
+                var cancellation = new CancellationException("event loop is already shutting down");
+                batch.forEach(t -> t.future.completeExceptionally(cancellation));
+            }
+        }
+        dueByExecutor.clear();
+    }
+
+    private void parkUntilNextTick() {
+        var nanosUntilNextTick = startNanoTime + (currentTick + 1) * tickNanos - System.nanoTime();
+        if (nanosUntilNextTick <= 0) {
+            return;
+        }
+        if (pendingCount.get() == 0) {
+            // Nothing is scheduled, so sleep until something is.  The flag is set before the count is checked
+            // again so that a trigger that's added in between either sees the flag or gets seen here.
+            isIdle = true;
+            if (pendingCount.get() == 0 && !isStopped) {
+                LockSupport.parkNanos(this, MAX_IDLE_PARK_NANOS);
+            }
+            isIdle = false;
+        } else {
+            LockSupport.parkNanos(this, nanosUntilNextTick);
+        }
+    }
+
+    private void cancelAllPending() {
+        var cancellation = new CancellationException("the timer wheel scheduler was closed");
+        Trigger t;
+        while ((t = incomingTriggers.poll()) != null) {
+            t.future.completeExceptionally(cancellation);
+        }
+        for (var wheel : wheels) {
+            for (var bucket : wheel) {
+                if (bucket != null) {
+                    bucket.forEach(trigger -> trigger.future.completeExceptionally(cancellation));
+                }
+            }
+        }
+        pendingCount.set(0);
+    }
+}
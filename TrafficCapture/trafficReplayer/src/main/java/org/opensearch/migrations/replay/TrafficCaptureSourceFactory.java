@@ -4,6 +4,8 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.opensearch.migrations.replay.kafka.KafkaBehavioralPolicy;
 import org.opensearch.migrations.replay.kafka.KafkaTrafficCaptureSource;
@@ -27,6 +29,47 @@ public class TrafficCaptureSourceFactory {
         return new BlockingTrafficSource(createUnbufferedTrafficCaptureSource(ctx, appParams), bufferTimeWindow);
     }
 
+    /**
+     * Creates --kafka-traffic-consumer-count sources.  When there's more than one, they're each a consumer within
+     * the same group, so that Kafka divides the partitions of the topic between them.
+     */
+    public static List<BlockingTrafficSource> createTrafficCaptureSources(
+        RootReplayerContext ctx,
+        TrafficReplayer.Parameters appParams,
+        Duration bufferTimeWindow
+    ) throws IOException {
+        if (appParams.kafkaTrafficConsumerCount == 1) {
+            return List.of(createTrafficCaptureSource(ctx, appParams, bufferTimeWindow));
+        }
+        if (appParams.kafkaTrafficConsumerCount < 1) {
+            throw new IllegalArgumentException("The Kafka consumer count must be at least 1");
+        }
+        if (!TrafficReplayer.validateRequiredKafkaParams(
+            appParams.kafkaTrafficBrokers,
+            appParams.kafkaTrafficTopic,
+            appParams.kafkaTrafficGroupId
+        ) || appParams.inputFilename != null) {
+            throw new IllegalArgumentException("Multiple traffic consumers can only be used with a Kafka traffic "
+                + "source");
+        }
+        var trafficSources = new ArrayList<BlockingTrafficSource>();
+        try {
+            for (int i = 0; i < appParams.kafkaTrafficConsumerCount; ++i) {
+                trafficSources.add(createTrafficCaptureSource(ctx, appParams, bufferTimeWindow));
+            }
+        } catch (IOException | RuntimeException e) {
+            for (var trafficSource : trafficSources) {
+                try {
+                    trafficSource.close();
+                } catch (Exception closeException) {
+                    e.addSuppressed(closeException);
+                }
+            }
+            throw e;
+        }
+        return trafficSources;
+    }
+
     public static ISimpleTrafficCaptureSource createUnbufferedTrafficCaptureSource(
         RootReplayerContext ctx,
         TrafficReplayer.Parameters appParams
@@ -2,6 +2,7 @@ package org.opensearch.migrations.replay;
 
 import java.lang.ref.WeakReference;
 import java.net.URI;
+import java.nio.file.Path;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
@@ -11,8 +12,12 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import org.opensearch.migrations.jcommander.NoSplitter;
+import org.opensearch.migrations.netty.NettyTransport;
 import org.opensearch.migrations.replay.tracing.RootReplayerContext;
+import org.opensearch.migrations.replay.traffic.source.AdaptiveConcurrencyLimit;
+import org.opensearch.migrations.replay.traffic.source.BlockingTrafficSource;
 import org.opensearch.migrations.replay.traffic.source.TrafficStreamLimiter;
+import org.opensearch.migrations.replay.tuples.BinaryTupleFileWriter;
 import org.opensearch.migrations.replay.util.ActiveContextMonitor;
 import org.opensearch.migrations.replay.util.OrderedWorkerTracker;
 import org.opensearch.migrations.tracing.ActiveContextTracker;
@@ -33,7 +38,9 @@ import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
 import com.beust.jcommander.ParametersDelegate;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.LoggerFactory;
@@ -170,12 +177,72 @@ public class TrafficReplayer {
                 + "This means that between each interaction will be replayed at this rate faster "
                 + "than the original observations, provided that the replayer and target are able to keep up.")
         double speedupFactor = 1.0;
+        @Parameter(
+            required = false,
+            names = { "--closed-loop", "--closedLoop" },
+            arity = 0,
+            description = "Ignore the timing of the source traffic and send every request as soon as the requests "
+                + "before it on its connection have finished and fewer than --max-concurrent-requests are "
+                + "outstanding.  Use this to find the throughput that the target can sustain for the captured "
+                + "workload.  --speedup-factor doesn't apply.")
+        boolean closedLoop;
+        @Parameter(
+            required = false,
+            names = { "--closed-loop-target-latency-ms", "--closedLoopTargetLatencyMs" },
+            arity = 1,
+            description = "With --closed-loop, continually adjust how many requests can be outstanding, up to "
+                + "--max-concurrent-requests, so that the target takes about this long to respond to each request, "
+                + "from when it's sent.  When 0, "
+                + "--max-concurrent-requests are always allowed.")
+        int closedLoopTargetLatencyMs = 0;
         @Parameter(
             required = false,
             names = { LOOKAHEAD_TIME_WINDOW_PARAMETER_NAME,  "--lookaheadTimeWindow" },
             arity = 1,
             description = "Number of seconds of data that will be buffered.")
         int lookaheadTimeSeconds = 300;
+        @Parameter(
+            required = false,
+            names = { "--max-buffered-packet-bytes", "--maxBufferedPacketBytes" },
+            arity = 1,
+            description = "Most bytes of source requests and responses that are still being reassembled to hold in "
+                + "memory.  Beyond that, the connections that least recently received data have what they've "
+                + "accumulated so far moved to files in --packet-spill-dir until their request or response "
+                + "is complete.  With more than one --kafka-traffic-consumer-count, each consumer gets an equal "
+                + "share of this.  Unlimited by default.")
+        long maxBufferedPacketBytes = BufferedPacketBudget.UNLIMITED_BYTES;
+        @Parameter(
+            required = false,
+            names = { "--packet-spill-dir", "--packetSpillDir" },
+            arity = 1,
+            description = "Directory for the files that buffered packets are spilled to when "
+                + "--max-buffered-packet-bytes is exceeded.  Defaults to the JVM's temporary directory.")
+        String packetSpillDirectory = System.getProperty("java.io.tmpdir");
+        @Parameter(
+            required = false,
+            names = { "--off-heap-packet-storage", "--offHeapPacketStorage" },
+            arity = 0,
+            description = "Hold the packets of source requests and responses in pooled direct buffers rather than on "
+                + "the heap, from when they're read until their results have been output.  This keeps the "
+                + "garbage collector from copying around large captures that are waiting on the target cluster.")
+        boolean offHeapPacketStorage;
+        @Parameter(
+            required = false,
+            names = { "--tuple-output-dir", "--tupleOutputDir" },
+            arity = 1,
+            description = "Write each source/target tuple, with its packets as they were, to compressed binary files "
+                + "in this directory from a dedicated thread, rather than logging it as JSON.  This keeps up with "
+                + "higher request rates.  BinaryTupleFilesToJson converts the files into the JSON that would have "
+                + "been logged, applying any tuple transformers then.  Tuples aren't parsed while replaying, so "
+                + "the transaction summaries and status code metrics for tuples aren't produced in this mode.")
+        String tupleOutputDirectory;
+        @Parameter(
+            required = false,
+            names = { "--tuple-output-max-file-bytes", "--tupleOutputMaxFileBytes" },
+            arity = 1,
+            description = "Once a file in --tuple-output-dir has grown to this size, tuples are written to a new "
+                + "file.")
+        long tupleOutputMaxFileBytes = BinaryTupleFileWriter.DEFAULT_MAX_FILE_BYTES;
         @Parameter(
             required = false,
             names = { "--max-concurrent-requests", "--maxConcurrentRequests" },
@@ -188,6 +255,23 @@ public class TrafficReplayer {
             arity = 1,
             description = "Number of threads to use to send requests from.")
         int numClientThreads = 0;
+        @Parameter(
+            required = false,
+            names = { "--native-transport", "--nativeTransport" },
+            arity = 0,
+            description = "Send requests with Netty's native epoll transport rather than NIO, which makes fewer "
+                + "system calls when there are many connections.  If the native transport isn't available on "
+                + "this host, NIO is used instead.")
+        boolean nativeTransport;
+        @Parameter(
+            required = false,
+            names = { "--timer-wheel-tick-ms", "--timerWheelTickMs" },
+            arity = 1,
+            description = "Granularity of the timer wheel that triggers requests and connection closes at their "
+                + "time-shifted times.  One wheel is shared by all the client threads and hands each of them the "
+                + "work that has come due, in batches, once per tick.  By default (0), every request is scheduled "
+                + "with its client thread instead.")
+        int timerWheelTickMs = 0;
 
         // https://github.com/opensearch-project/opensearch-java/blob/main/java-client/src/main/java/org/opensearch/client/transport/httpclient5/ApacheHttpClient5TransportBuilder.java#L49-L54
         @Parameter(
@@ -228,6 +312,15 @@ public class TrafficReplayer {
             arity = 1,
             description = "File path for Kafka properties file to use for additional or overriden Kafka properties")
         String kafkaTrafficPropertyFile;
+        @Parameter(
+            required = false,
+            names = { "--kafka-traffic-consumer-count", "--kafkaTrafficConsumerCount" },
+            arity = 1,
+            description = "Number of Kafka consumers to read the topic with.  Kafka divides the partitions of the "
+                + "topic between them, and each one parses and reassembles the traffic from its partitions on "
+                + "threads of its own, so that one replayer can keep up with more partitions.  The requests from "
+                + "all of them are still replayed upon the same timeline.")
+        int kafkaTrafficConsumerCount = 1;
 
         @Parameter(
             required = false,
@@ -349,6 +442,16 @@ public class TrafficReplayer {
             System.exit(3);
             return;
         }
+        if (params.closedLoopTargetLatencyMs < 0
+            || (params.closedLoopTargetLatencyMs > 0 && !params.closedLoop)
+            || (params.closedLoop && params.speedupFactor != 1.0)) {
+            String msg = "--closed-loop-target-latency-ms must be >= 0 and requires --closed-loop, "
+                + "which can't be combined with --speedup-factor";
+            System.err.println(msg);
+            log.error(msg);
+            System.exit(4);
+            return;
+        }
         if (params.lookaheadTimeSeconds <= params.observedPacketConnectionTimeout) {
             String msg = LOOKAHEAD_TIME_WINDOW_PARAMETER_NAME
                 + "("
@@ -379,15 +482,20 @@ public class TrafficReplayer {
 
         ActiveContextMonitor activeContextMonitor = null;
         try (
-            var blockingTrafficSource = TrafficCaptureSourceFactory.createTrafficCaptureSource(
+            var trafficSources = new TrafficSourceGroup(TrafficCaptureSourceFactory.createTrafficCaptureSources(
                 topContext,
                 params,
                 Duration.ofSeconds(params.lookaheadTimeSeconds)
-            );
+            ));
             var authTransformer = buildAuthTransformerFactory(params);
-            var trafficStreamLimiter = new TrafficStreamLimiter(params.maxConcurrentRequests)
+            var trafficStreamLimiter = params.closedLoopTargetLatencyMs > 0
+                ? new TrafficStreamLimiter(new AdaptiveConcurrencyLimit(
+                    1,
+                    params.maxConcurrentRequests,
+                    Duration.ofMillis(params.closedLoopTargetLatencyMs)))
+                : new TrafficStreamLimiter(params.maxConcurrentRequests)
         ) {
-            var timeShifter = new TimeShifter(params.speedupFactor);
+            var timeShifter = params.closedLoop ? TimeShifter.closedLoop() : new TimeShifter(params.speedupFactor);
             var serverTimeout = Duration.ofSeconds(params.targetServerResponseTimeoutSeconds);
 
             String requestTransformerConfig = TransformerConfigUtils.getTransformerConfig(params.requestTransformationParams);
@@ -414,7 +522,10 @@ public class TrafficReplayer {
                 TrafficReplayerTopLevel.makeNettyPacketConsumerConnectionPool(
                     uri,
                     params.allowInsecureConnections,
-                    params.numClientThreads
+                    params.numClientThreads,
+                    null,
+                    NettyTransport.choose(params.nativeTransport),
+                    params.timerWheelTickMs > 0 ? Duration.ofMillis(params.timerWheelTickMs) : null
                 ),
                 trafficStreamLimiter,
                 orderedRequestTracker
@@ -436,16 +547,41 @@ public class TrafficReplayer {
                 finalActiveContextMonitor.run();
             }, ACTIVE_WORK_MONITOR_CADENCE_MS, ACTIVE_WORK_MONITOR_CADENCE_MS, TimeUnit.MILLISECONDS);
 
-            setupShutdownHookForReplayer(tr);
-            var tupleWriter = new TupleParserChainConsumer(new ResultsToLogsConsumer(null, null,
-                new TransformationLoader().getTransformerFactoryLoader(tupleTransformerConfig)));
-            tr.setupRunAndWaitForReplayWithShutdownChecks(
-                Duration.ofSeconds(params.observedPacketConnectionTimeout),
-                serverTimeout,
-                blockingTrafficSource,
-                timeShifter,
-                tupleWriter
-            );
+            // each traffic source reassembles its traffic with a budget of its own, so they split the limit
+            var maxBufferedPacketBytesPerSource = params.maxBufferedPacketBytes == BufferedPacketBudget.UNLIMITED_BYTES
+                ? BufferedPacketBudget.UNLIMITED_BYTES
+                : params.maxBufferedPacketBytes / trafficSources.sources.size();
+            tr.setPacketBudgetSupplier(() -> new BufferedPacketBudget(
+                maxBufferedPacketBytesPerSource,
+                Path.of(params.packetSpillDirectory),
+                params.offHeapPacketStorage ? PooledByteBufAllocator.DEFAULT : null
+            ));
+            if (params.tupleOutputDirectory != null) {
+                try (var tupleWriter = new BinaryTupleFileWriter(
+                    Path.of(params.tupleOutputDirectory),
+                    params.tupleOutputMaxFileBytes
+                )) {
+                    setupShutdownHookForReplayer(tr, tupleWriter);
+                    tr.setupRunAndWaitForReplayWithShutdownChecks(
+                        Duration.ofSeconds(params.observedPacketConnectionTimeout),
+                        serverTimeout,
+                        trafficSources.sources,
+                        timeShifter,
+                        tupleWriter
+                    );
+                }
+            } else {
+                var tupleWriter = new TupleParserChainConsumer(new ResultsToLogsConsumer(null, null,
+                    new TransformationLoader().getTransformerFactoryLoader(tupleTransformerConfig)));
+                setupShutdownHookForReplayer(tr, null);
+                tr.setupRunAndWaitForReplayWithShutdownChecks(
+                    Duration.ofSeconds(params.observedPacketConnectionTimeout),
+                    serverTimeout,
+                    trafficSources.sources,
+                    timeShifter,
+                    tupleWriter
+                );
+            }
             log.info("Done processing TrafficStreams");
         } finally {
             scheduledExecutorService.shutdown();
@@ -460,8 +596,29 @@ public class TrafficReplayer {
         }
     }
 
-    private static void setupShutdownHookForReplayer(TrafficReplayerTopLevel tr) {
+    /**
+     * Closes every one of the traffic sources that the replayer reads from
+     */
+    @AllArgsConstructor
+    private static class TrafficSourceGroup implements AutoCloseable {
+        final List<BlockingTrafficSource> sources;
+
+        @Override
+        public void close() throws Exception {
+            for (var source : sources) {
+                source.close();
+            }
+        }
+    }
+
+    /**
+     * @param tupleWriter when not null, this is closed after the replayer has been shut down.  It may still have
+     *                    tuples queued for traffic streams whose offsets have already been committed, so closing it
+     *                    waits for those to be written before the JVM exits.
+     */
+    private static void setupShutdownHookForReplayer(TrafficReplayerTopLevel tr, BinaryTupleFileWriter tupleWriter) {
         var weakTrafficReplayer = new WeakReference<>(tr);
+        var weakTupleWriter = new WeakReference<>(tupleWriter);
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             // both Log4J and the java builtin loggers add shutdown hooks.
             // The API for addShutdownHook says that those hooks registered will run in an undetermined order.
@@ -474,6 +631,7 @@ public class TrafficReplayer {
                     System.err.println(beforeMsg);
                 });
             Optional.ofNullable(weakTrafficReplayer.get()).ifPresent(o -> o.shutdown(null));
+            Optional.ofNullable(weakTupleWriter.get()).ifPresent(TrafficReplayer::closeTupleWriterOnShutdown);
             Optional.of("Done shutting down TrafficReplayer (due to Runtime shutdown).  "
                     + "Logs may be missing for events that have happened after the Shutdown event was received.")
                 .ifPresent(afterMsg -> {
@@ -483,6 +641,18 @@ public class TrafficReplayer {
         }));
     }
 
+    private static void closeTupleWriterOnShutdown(BinaryTupleFileWriter tupleWriter) {
+        try {
+            tupleWriter.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.atWarn().setMessage("Interrupted while writing the remaining tuples").log();
+        } catch (RuntimeException e) {
+            log.atError().setCause(e).setMessage("Could not write the remaining tuples").log();
+            System.err.println("Could not write the remaining tuples: " + e);
+        }
+    }
+
     /**
      * Java doesn't have a notion of constexpr like C++ does, so this cannot be used within the
      * parameters' annotation descriptions, but it's still useful to break the documentation
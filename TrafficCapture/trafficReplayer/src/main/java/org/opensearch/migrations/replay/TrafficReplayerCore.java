@@ -5,12 +5,13 @@ import java.net.URI;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -30,6 +31,7 @@ import org.opensearch.migrations.transform.IJsonTransformer;
 import org.opensearch.migrations.utils.TextTrackedFuture;
 import org.opensearch.migrations.utils.TrackedFuture;
 
+import io.netty.handler.codec.http.HttpResponseStatus;
 import lombok.AllArgsConstructor;
 import lombok.Lombok;
 import lombok.NonNull;
@@ -58,7 +60,10 @@ public abstract class TrafficReplayerCore extends RequestTransformerAndSender<Tr
 
 
     protected final AtomicBoolean stopReadingRef;
-    protected final AtomicReference<CompletableFuture<List<ITrafficStreamWithKey>>> nextChunkFutureRef;
+    /**
+     * The reads that are outstanding from each traffic source, so that they can be cancelled upon shutdown
+     */
+    protected final Set<CompletableFuture<List<ITrafficStreamWithKey>>> nextChunkFutures;
 
     protected TrafficReplayerCore(
         IRootReplayerContext context,
@@ -86,7 +91,7 @@ public abstract class TrafficReplayerCore extends RequestTransformerAndSender<Tr
         inputRequestTransformerFactory = new PacketToTransformingHttpHandlerFactory(jsonTransformerSupplier, authTransformer);
         successfulRequestCount = new AtomicInteger();
         exceptionRequestCount = new AtomicInteger();
-        nextChunkFutureRef = new AtomicReference<>();
+        nextChunkFutures = ConcurrentHashMap.newKeySet();
         stopReadingRef = new AtomicBoolean();
     }
 
@@ -156,7 +161,7 @@ public abstract class TrafficReplayerCore extends RequestTransformerAndSender<Tr
                     () -> "Waiting to get response from target"
                 )
                 .whenComplete(
-                    (v, t) -> liveTrafficStreamLimiter.doneProcessing(wi),
+                    (v, t) -> releaseWorkItem(liveTrafficStreamLimiter, wi, v, t),
                     () -> "releasing work item for the traffic limiter"
                 );
             httpSentRequestFuture.future.whenComplete(
@@ -167,6 +172,7 @@ public abstract class TrafficReplayerCore extends RequestTransformerAndSender<Tr
             return httpSentRequestFuture;
         }
 
+
         Void handleCompletedTransaction(
             @NonNull IReplayContexts.IReplayerHttpTransactionContext context,
             RequestResponsePacketPair rrPair,
@@ -333,6 +339,37 @@ public abstract class TrafficReplayerCore extends RequestTransformerAndSender<Tr
         }
     }
 
+    /**
+     * Releases a request's work item and tells the limiter how the target handled the request.  Requests that
+     * failed, timed out, or were throttled with a 429 or 503 count as the target being overloaded, so that a
+     * failing target lowers an adaptive limit rather than raising it with quick error responses.  Only requests
+     * that were skipped, and so never sent, are left out.
+     */
+    static void releaseWorkItem(
+        TrafficStreamLimiter limiter,
+        TrafficStreamLimiter.WorkItem workItem,
+        TransformedTargetRequestAndResponseList summary,
+        Throwable t
+    ) {
+        var responses = summary == null ? List.<AggregatedRawResponse>of() : summary.responses();
+        if (t == null && responses.isEmpty() && summary != null && summary.getTransformationStatus().isSkipped()) {
+            limiter.doneProcessing(workItem);
+            return;
+        }
+        var lastResponse = responses.isEmpty() ? null : responses.get(responses.size() - 1);
+        if (t != null || lastResponse == null || lastResponse.getError() != null
+            || lastResponse.getRawResponse() == null || isThrottled(lastResponse.getRawResponse().status())) {
+            limiter.doneProcessingAfterTargetFailure(workItem);
+        } else {
+            limiter.doneProcessing(workItem, lastResponse.getDuration());
+        }
+    }
+
+    private static boolean isThrottled(HttpResponseStatus status) {
+        return status.equals(HttpResponseStatus.TOO_MANY_REQUESTS)
+            || status.equals(HttpResponseStatus.SERVICE_UNAVAILABLE);
+    }
+
     @SneakyThrows
     public void pullCaptureFromSourceToAccumulator(
         ITrafficCaptureSource trafficChunkStream,
@@ -343,12 +380,12 @@ public abstract class TrafficReplayerCore extends RequestTransformerAndSender<Tr
             if (stopReadingRef.get()) {
                 break;
             }
-            this.nextChunkFutureRef.set(
-                trafficChunkStream.readNextTrafficStreamChunk(topLevelContext::createReadChunkContext)
-            );
+            var nextChunkFuture =
+                trafficChunkStream.readNextTrafficStreamChunk(topLevelContext::createReadChunkContext);
+            nextChunkFutures.add(nextChunkFuture);
             List<ITrafficStreamWithKey> trafficStreams = null;
             try {
-                trafficStreams = this.nextChunkFutureRef.get().get();
+                trafficStreams = nextChunkFuture.get();
             } catch (ExecutionException ex) {
                 if (ex.getCause() instanceof EOFException) {
                     log.atWarn().setCause(ex.getCause())
@@ -358,6 +395,8 @@ public abstract class TrafficReplayerCore extends RequestTransformerAndSender<Tr
                     log.atWarn().setCause(ex).setMessage("Done reading traffic streams due to exception.").log();
                     throw ex.getCause();
                 }
+            } finally {
+                nextChunkFutures.remove(nextChunkFuture);
             }
             if (log.isInfoEnabled()) {
                 Optional.of(
@@ -2,27 +2,33 @@ package org.opensearch.migrations.replay;
 
 import java.net.URI;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.opensearch.migrations.netty.NettyTransport;
 import org.opensearch.migrations.replay.datahandlers.NettyPacketToHttpConsumer;
 import org.opensearch.migrations.replay.datatypes.UniqueReplayerRequestKey;
 import org.opensearch.migrations.replay.http.retries.OpenSearchDefaultRetry;
 import org.opensearch.migrations.replay.http.retries.RetryCollectingVisitorFactory;
 import org.opensearch.migrations.replay.tracing.IRootReplayerContext;
 import org.opensearch.migrations.replay.traffic.source.BlockingTrafficSource;
+import org.opensearch.migrations.replay.traffic.source.CompositeBufferedFlowController;
 import org.opensearch.migrations.replay.traffic.source.TrafficStreamLimiter;
 import org.opensearch.migrations.transform.IAuthTransformerFactory;
 import org.opensearch.migrations.transform.IJsonTransformer;
@@ -32,7 +38,9 @@ import org.opensearch.migrations.utils.TrackedFuture;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import lombok.NonNull;
+import lombok.Setter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.event.Level;
@@ -81,6 +89,8 @@ public class TrafficReplayerTopLevel extends TrafficReplayerCore implements Auto
     protected final ClientConnectionPool clientConnectionPool;
     private final AtomicReference<Error> shutdownReasonRef;
     private final AtomicReference<CompletableFuture<Void>> shutdownFutureRef;
+    @Setter
+    private Supplier<BufferedPacketBudget> packetBudgetSupplier = BufferedPacketBudget::unlimited;
 
     public TrafficReplayerTopLevel(
         IRootReplayerContext context,
@@ -117,6 +127,40 @@ public class TrafficReplayerTopLevel extends TrafficReplayerCore implements Auto
         boolean allowInsecureConnections,
         int numSendingThreads,
         String connectionPoolName
+    ) {
+        return makeNettyPacketConsumerConnectionPool(
+            serverUri,
+            allowInsecureConnections,
+            numSendingThreads,
+            connectionPoolName,
+            NettyTransport.NIO
+        );
+    }
+
+    public static ClientConnectionPool makeNettyPacketConsumerConnectionPool(
+        URI serverUri,
+        boolean allowInsecureConnections,
+        int numSendingThreads,
+        String connectionPoolName,
+        NettyTransport transport
+    ) {
+        return makeNettyPacketConsumerConnectionPool(
+            serverUri,
+            allowInsecureConnections,
+            numSendingThreads,
+            connectionPoolName,
+            transport,
+            null
+        );
+    }
+
+    public static ClientConnectionPool makeNettyPacketConsumerConnectionPool(
+        URI serverUri,
+        boolean allowInsecureConnections,
+        int numSendingThreads,
+        String connectionPoolName,
+        NettyTransport transport,
+        Duration timerWheelTick
     ) {
         return new ClientConnectionPool(
             NettyPacketToHttpConsumer.createClientConnectionFactory(
@@ -124,7 +168,9 @@ public class TrafficReplayerTopLevel extends TrafficReplayerCore implements Auto
             connectionPoolName != null
                 ? connectionPoolName
                 : getTargetConnectionPoolName(targetConnectionPoolUniqueCounter.getAndIncrement()),
-            numSendingThreads
+            numSendingThreads,
+            transport,
+            timerWheelTick
         );
     }
 
@@ -151,33 +197,118 @@ public class TrafficReplayerTopLevel extends TrafficReplayerCore implements Auto
         BlockingTrafficSource trafficSource,
         TimeShifter timeShifter,
         Consumer<SourceTargetCaptureTuple> resultTupleConsumer
+    ) throws InterruptedException, ExecutionException {
+        setupRunAndWaitForReplayToFinish(
+            observedPacketConnectionTimeout,
+            targetServerResponseTimeout,
+            List.of(trafficSource),
+            timeShifter,
+            resultTupleConsumer
+        );
+    }
+
+    /**
+     * Replays the traffic from every one of the trafficSources.  Each source is read by its own thread into its
+     * own accumulator, and commits go back to the source that the traffic came from, but every request is
+     * scheduled by one ReplayEngine, so the sources are all replayed upon the same timeline.  This only works
+     * when all the traffic for a connection comes from the same source, as it does for consumers of different
+     * partitions of a Kafka topic.
+     */
+    public void setupRunAndWaitForReplayToFinish(
+        Duration observedPacketConnectionTimeout,
+        Duration targetServerResponseTimeout,
+        List<BlockingTrafficSource> trafficSources,
+        TimeShifter timeShifter,
+        Consumer<SourceTargetCaptureTuple> resultTupleConsumer
     ) throws InterruptedException, ExecutionException {
         var senderOrchestrator = new RequestSenderOrchestrator(
             clientConnectionPool,
             (replaySession, ctx) -> new NettyPacketToHttpConsumer(replaySession, ctx, targetServerResponseTimeout)
         );
-        var replayEngine = new ReplayEngine(senderOrchestrator, trafficSource, timeShifter);
-        CapturedTrafficToHttpTransactionAccumulator trafficToHttpTransactionAccumulator =
-            new CapturedTrafficToHttpTransactionAccumulator(
+        var replayEngine = new ReplayEngine(
+            senderOrchestrator,
+            trafficSources.size() == 1 ? trafficSources.get(0) : new CompositeBufferedFlowController(trafficSources),
+            timeShifter
+        );
+        var trafficToHttpTransactionAccumulators = trafficSources.stream()
+            .map(trafficSource -> new CapturedTrafficToHttpTransactionAccumulator(
                 observedPacketConnectionTimeout,
                 "(see command line option " + TrafficReplayer.PACKET_TIMEOUT_SECONDS_PARAMETER_NAME + ")",
-                new TrafficReplayerAccumulationCallbacks(replayEngine, resultTupleConsumer, trafficSource)
-            );
+                new TrafficReplayerAccumulationCallbacks(replayEngine, resultTupleConsumer, trafficSource),
+                packetBudgetSupplier.get()
+            ))
+            .collect(Collectors.toList());
         try {
-            pullCaptureFromSourceToAccumulator(trafficSource, trafficToHttpTransactionAccumulator);
+            if (trafficSources.size() == 1) {
+                pullCaptureFromSourceToAccumulator(trafficSources.get(0), trafficToHttpTransactionAccumulators.get(0));
+            } else {
+                pullCaptureFromSourcesToAccumulators(trafficSources, trafficToHttpTransactionAccumulators);
+            }
         } catch (InterruptedException ex) {
             throw ex;
         } catch (Exception e) {
             log.atWarn().setCause(e).setMessage("Terminating runReplay due to exception").log();
             throw e;
         } finally {
-            trafficToHttpTransactionAccumulator.close();
-            wrapUpWorkAndEmitSummary(replayEngine, trafficToHttpTransactionAccumulator);
+            trafficToHttpTransactionAccumulators.forEach(CapturedTrafficToHttpTransactionAccumulator::close);
+            wrapUpWorkAndEmitSummary(replayEngine, trafficToHttpTransactionAccumulators);
             assert shutdownFutureRef.get() != null || requestWorkTracker.isEmpty()
                 : "expected to wait for all the in flight requests to fully flush and self destruct themselves";
         }
     }
 
+    /**
+     * Reads each source into its accumulator from a thread of its own until every source has been exhausted.
+     * If reading any source fails, the others stop reading too and that first failure is thrown.
+     */
+    @SneakyThrows
+    private void pullCaptureFromSourcesToAccumulators(
+        List<BlockingTrafficSource> trafficSources,
+        List<CapturedTrafficToHttpTransactionAccumulator> trafficToHttpTransactionAccumulators
+    ) throws InterruptedException {
+        var firstFailureRef = new AtomicReference<Exception>();
+        var readerExecutor = Executors.newFixedThreadPool(
+            trafficSources.size(),
+            new DefaultThreadFactory("trafficSourceReader")
+        );
+        try {
+            var readerFutures = new ArrayList<Future<?>>();
+            for (int i = 0; i < trafficSources.size(); ++i) {
+                var trafficSource = trafficSources.get(i);
+                var accumulator = trafficToHttpTransactionAccumulators.get(i);
+                readerFutures.add(readerExecutor.submit(() -> {
+                    try {
+                        pullCaptureFromSourceToAccumulator(trafficSource, accumulator);
+                    } catch (Exception e) {
+                        if (firstFailureRef.compareAndSet(null, e)) {
+                            log.atWarn().setCause(e).setMessage("Stopping the reads from all {} traffic sources "
+                                    + "because reading from {} failed")
+                                .addArgument(trafficSources::size)
+                                .addArgument(trafficSource)
+                                .log();
+                            stopReadingRef.set(true);
+                            nextChunkFutures.forEach(f -> f.cancel(true));
+                        }
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+            for (var readerFuture : readerFutures) {
+                try {
+                    readerFuture.get();
+                } catch (ExecutionException e) {
+                    // the first failure, which caused any others, is thrown below
+                }
+            }
+        } finally {
+            readerExecutor.shutdownNow();
+        }
+        if (firstFailureRef.get() != null) {
+            throw firstFailureRef.get();
+        }
+    }
+
     /**
      * Called after the TrafficReplayer has finished accumulating and reconstructing every transaction from
      * the incoming stream.  This implementation will NOT wait for the ReplayEngine independently to complete,
@@ -185,12 +316,12 @@ public class TrafficReplayerTopLevel extends TrafficReplayerCore implements Auto
      * non-field components of a TrafficReplayer, they have access to each of them here.
      *
      * @param replayEngine The ReplayEngine that may still be working to send the accumulated requests.
-     * @param trafficToHttpTransactionAccumulator The accumulator that had reconstructed the incoming records and
-     *                                            has now finished
+     * @param trafficToHttpTransactionAccumulators The accumulators, one per traffic source, that had reconstructed
+     *                                             the incoming records and have now finished
      */
     protected void wrapUpWorkAndEmitSummary(
         ReplayEngine replayEngine,
-        CapturedTrafficToHttpTransactionAccumulator trafficToHttpTransactionAccumulator
+        List<CapturedTrafficToHttpTransactionAccumulator> trafficToHttpTransactionAccumulators
     ) throws ExecutionException, InterruptedException {
         final var primaryLogLevel = Level.INFO;
         final var secondaryLogLevel = Level.WARN;
@@ -224,26 +355,54 @@ public class TrafficReplayerTopLevel extends TrafficReplayerCore implements Auto
             "# of connections created: {}; # of requests on reused keep-alive connections: {}; "
                 + "# of expired connections: {}; # of connections closed: {}; "
                 + "# of connections terminated upon accumulator termination: {}",
-            trafficToHttpTransactionAccumulator.numberOfConnectionsCreated(),
-            trafficToHttpTransactionAccumulator.numberOfRequestsOnReusedConnections(),
-            trafficToHttpTransactionAccumulator.numberOfConnectionsExpired(),
-            trafficToHttpTransactionAccumulator.numberOfConnectionsClosed(),
-            trafficToHttpTransactionAccumulator.numberOfRequestsTerminatedUponAccumulatorClose()
+            sumOverAccumulators(trafficToHttpTransactionAccumulators,
+                CapturedTrafficToHttpTransactionAccumulator::numberOfConnectionsCreated),
+            sumOverAccumulators(trafficToHttpTransactionAccumulators,
+                CapturedTrafficToHttpTransactionAccumulator::numberOfRequestsOnReusedConnections),
+            sumOverAccumulators(trafficToHttpTransactionAccumulators,
+                CapturedTrafficToHttpTransactionAccumulator::numberOfConnectionsExpired),
+            sumOverAccumulators(trafficToHttpTransactionAccumulators,
+                CapturedTrafficToHttpTransactionAccumulator::numberOfConnectionsClosed),
+            sumOverAccumulators(trafficToHttpTransactionAccumulators,
+                CapturedTrafficToHttpTransactionAccumulator::numberOfRequestsTerminatedUponAccumulatorClose)
         );
     }
 
+    private static int sumOverAccumulators(
+        List<CapturedTrafficToHttpTransactionAccumulator> accumulators,
+        ToIntFunction<CapturedTrafficToHttpTransactionAccumulator> statistic
+    ) {
+        return accumulators.stream().mapToInt(statistic).sum();
+    }
+
     public void setupRunAndWaitForReplayWithShutdownChecks(
         Duration observedPacketConnectionTimeout,
         Duration targetServerResponseTimeout,
         BlockingTrafficSource trafficSource,
         TimeShifter timeShifter,
         Consumer<SourceTargetCaptureTuple> resultTupleConsumer
+    ) throws TrafficReplayer.TerminationException, ExecutionException, InterruptedException {
+        setupRunAndWaitForReplayWithShutdownChecks(
+            observedPacketConnectionTimeout,
+            targetServerResponseTimeout,
+            List.of(trafficSource),
+            timeShifter,
+            resultTupleConsumer
+        );
+    }
+
+    public void setupRunAndWaitForReplayWithShutdownChecks(
+        Duration observedPacketConnectionTimeout,
+        Duration targetServerResponseTimeout,
+        List<BlockingTrafficSource> trafficSources,
+        TimeShifter timeShifter,
+        Consumer<SourceTargetCaptureTuple> resultTupleConsumer
     ) throws TrafficReplayer.TerminationException, ExecutionException, InterruptedException {
         try {
             setupRunAndWaitForReplayToFinish(
                 observedPacketConnectionTimeout,
                 targetServerResponseTimeout,
-                trafficSource,
+                trafficSources,
                 timeShifter,
                 resultTupleConsumer
             );
@@ -398,7 +557,7 @@ public class TrafficReplayerTopLevel extends TrafficReplayerCore implements Auto
                 shutdownFutureRef.get().complete(null);
             }
         });
-        Optional.ofNullable(this.nextChunkFutureRef.get()).ifPresent(f -> f.cancel(true));
+        nextChunkFutures.forEach(f -> f.cancel(true));
         var shutdownWasSignalledFuture = error == null
             ? TextTrackedFuture.<Void>completedFuture(null, () -> "TrafficReplayer shutdown")
             : TextTrackedFuture.<Void>failedFuture(error, () -> "TrafficReplayer shutdown");
@@ -12,6 +12,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 
 import org.opensearch.migrations.NettyFutureBinders;
+import org.opensearch.migrations.netty.NettyTransport;
 import org.opensearch.migrations.replay.AggregatedRawResponse;
 import org.opensearch.migrations.replay.datahandlers.http.helpers.ReadMeteringHandler;
 import org.opensearch.migrations.replay.datahandlers.http.helpers.WriteMeteringHandler;
@@ -34,7 +35,6 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoop;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.http.HttpResponseDecoder;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
@@ -204,7 +204,8 @@ public class NettyPacketToHttpConsumer implements IPacketFinalizingConsumer<Aggr
                 ch.pipeline()
                     .addFirst(CONNECTION_CLOSE_HANDLER_NAME, new ConnectionClosedListenerHandler(channelKeyCtx));
             }
-        }).channel(NioSocketChannel.class).option(ChannelOption.AUTO_READ, false);
+        }).channel(NettyTransport.forEventLoop(eventLoop).getSocketChannelClass())
+            .option(ChannelOption.AUTO_READ, false);
 
         var outboundChannelFuture = b.connect(host, port);
 
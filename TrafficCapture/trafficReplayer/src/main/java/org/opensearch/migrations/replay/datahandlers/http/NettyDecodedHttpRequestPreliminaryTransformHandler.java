@@ -10,6 +10,7 @@ import org.opensearch.migrations.replay.datahandlers.PayloadAccessFaultingMap;
 import org.opensearch.migrations.replay.tracing.IReplayContexts;
 import org.opensearch.migrations.transform.IAuthTransformer;
 import org.opensearch.migrations.transform.IJsonTransformer;
+import org.opensearch.migrations.transform.IJsonTransformer.MessageParts;
 import org.opensearch.migrations.transform.JsonKeysForHttpMessage;
 
 import io.netty.channel.ChannelHandlerContext;
@@ -67,6 +68,14 @@ public class NettyDecodedHttpRequestPreliminaryTransformHandler<R> extends Chann
             IAuthTransformer authTransformer = requestPipelineOrchestrator.authTransfomerFactory.getAuthTransformer(
                 httpJsonMessage
             );
+            var accessedMessageParts = transformer.getAccessedMessageParts();
+            if (accessedMessageParts.mayAccessPayload() && accessedMessageParts != MessageParts.UNDECLARED) {
+                // Running the transforms against headers alone would only fault on the payload and be thrown away
+                log.atDebug().setMessage("The transforms declare that they use the payload, "
+                    + "all content handlers are being loaded.").log();
+                addJsonParsingHandlersAndForward(ctx, httpJsonMessage, authTransformer);
+                return;
+            }
             HttpJsonRequestWithFaultingPayload transformedMessage = null;
             final var payloadMap = (PayloadAccessFaultingMap) httpJsonMessage.payload();
             try {
@@ -76,14 +85,16 @@ public class NettyDecodedHttpRequestPreliminaryTransformHandler<R> extends Chann
                 var payload = (PayloadAccessFaultingMap) httpJsonMessage.payload();
                 if (payload.missingPayloadWasAccessed()) {
                     payload.resetMissingPayloadWasAccessed();
-                    log.atDebug().setMessage("The transforms for this message require payload manipulation, "
-                        + "all content handlers are being loaded.").log();
-                    // make a fresh message and its headers
-                    requestPipelineOrchestrator.addJsonParsingHandlers(
-                            ctx,
-                            transformer,
-                            getAuthTransformerAsStreamingTransformer(authTransformer));
-                    ctx.fireChannelRead(handleAuthHeaders(httpJsonMessage, authTransformer));
+                    if (accessedMessageParts == MessageParts.HEADERS) {
+                        log.atWarn().setMessage("{}The transforms declare that they only use headers, but they "
+                            + "accessed the payload.  All content handlers are being loaded.")
+                            .addArgument(diagnosticLabel)
+                            .log();
+                    } else {
+                        log.atDebug().setMessage("The transforms for this message require payload manipulation, "
+                            + "all content handlers are being loaded.").log();
+                    }
+                    addJsonParsingHandlersAndForward(ctx, httpJsonMessage, authTransformer);
                 } else {
                     throw new TransformationException(e);
                 }
@@ -110,6 +121,18 @@ public class NettyDecodedHttpRequestPreliminaryTransformHandler<R> extends Chann
         }
     }
 
+    private void addJsonParsingHandlersAndForward(
+        ChannelHandlerContext ctx,
+        HttpJsonRequestWithFaultingPayload httpJsonMessage,
+        IAuthTransformer authTransformer
+    ) {
+        requestPipelineOrchestrator.addJsonParsingHandlers(
+            ctx,
+            transformer,
+            getAuthTransformerAsStreamingTransformer(authTransformer));
+        ctx.fireChannelRead(handleAuthHeaders(httpJsonMessage, authTransformer));
+    }
+
     @SuppressWarnings("unchecked")
     public static HttpJsonRequestWithFaultingPayload transform(
         IJsonTransformer transformer,
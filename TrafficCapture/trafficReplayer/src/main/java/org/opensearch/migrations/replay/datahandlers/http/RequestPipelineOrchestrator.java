@@ -111,6 +111,9 @@ public class RequestPipelineOrchestrator<R> {
         //
         // - The Convert Handler transforms HttpJsonRequest by applying JSON and Authorization transformations.
         //   It may modify headers and payload, potentially removing and replacing handlers based on transformation requirements.
+        //   Transformers that declare they only use headers (see IJsonTransformer.getAccessedMessageParts) leave the
+        //   original, possibly compressed, content to pass through with only the rewritten headers in front of it.
+        //   Ones that declare they use the payload go straight to the content parsing handlers.
         //
         // Note2: These handlers may remove themselves and all previous handlers, replacing the pipeline exclusively with the
         // "baseline" handlers. In such cases, the pipeline will process only ByteBufs, which explains the branching in the types
@@ -0,0 +1,193 @@
+package org.opensearch.migrations.replay.datatypes;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Local files that hold packets that were moved out of memory.  Packets are appended to the current segment
+ * file until it reaches the segment size, after which a new segment is started.  Space isn't reclaimed for
+ * individual reads.  Instead, each segment keeps count of the bytes that haven't been read back or discarded yet
+ * and is deleted once that count drops to 0.  So a message that's held for a long time, e.g. on a connection
+ * that rarely sends anything, only keeps its own segment on disk rather than everything spilled after it.  The
+ * current segment is truncated rather than deleted when it's emptied.  Every segment is deleted when this is
+ * closed.
+ *
+ * This class is not thread-safe.
+ */
+public class PacketSpillFile implements AutoCloseable {
+    public static final long DEFAULT_SEGMENT_BYTES = 16L * 1024 * 1024;
+
+    private static class Segment {
+        final Path path;
+        final FileChannel channel;
+        long liveBytes;
+
+        Segment(Path directory) throws IOException {
+            this.path = Files.createTempFile(directory, "replayerPacketSpill", ".bin");
+            this.channel = FileChannel.open(
+                path,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE
+            );
+        }
+    }
+
+    /**
+     * Where a contiguous run of packets was written
+     */
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class SpilledPackets {
+        private final Segment segment;
+        @Getter
+        private final long offset;
+        @Getter
+        private final int[] packetLengths;
+
+        public long getByteCount() {
+            long total = 0;
+            for (var length : packetLengths) {
+                total += length;
+            }
+            return total;
+        }
+    }
+
+    private final Path directory;
+    private final long segmentBytes;
+    private Segment currentSegment;
+    @Getter
+    private long liveBytes;
+    // segments other than the current one that still hold packets that haven't been read or discarded
+    private final List<Segment> olderSegments = new ArrayList<>();
+
+    public PacketSpillFile(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * @param segmentBytes how large a segment file may grow, through appends, before a new one is started
+     */
+    public PacketSpillFile(Path directory, long segmentBytes) throws IOException {
+        if (segmentBytes <= 0) {
+            throw new IllegalArgumentException("segmentBytes must be positive");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.currentSegment = new Segment(directory);
+    }
+
+    public SpilledPackets append(RawPackets packets) throws IOException {
+        var segment = currentSegment;
+        var offset = segment.channel.size();
+        if (offset >= segmentBytes) {
+            segment = startNewSegment();
+            offset = 0;
+        }
+        // direct packets are written straight from their buffers, without copying them onto the heap first
+        var buffers = packets.streamUnretained().map(ByteBuf::nioBuffer).toArray(ByteBuffer[]::new);
+        var packetLengths = new int[buffers.length];
+        long remaining = 0;
+        for (int i = 0; i < buffers.length; ++i) {
+            packetLengths[i] = buffers[i].remaining();
+            remaining += packetLengths[i];
+        }
+        segment.channel.position(offset);
+        while (remaining > 0) {
+            remaining -= segment.channel.write(buffers);
+        }
+        var spilledPackets = new SpilledPackets(segment, offset, packetLengths);
+        segment.liveBytes += spilledPackets.getByteCount();
+        liveBytes += spilledPackets.getByteCount();
+        return spilledPackets;
+    }
+
+    private Segment startNewSegment() throws IOException {
+        var newSegment = new Segment(directory);
+        if (currentSegment.liveBytes == 0) {
+            currentSegment.channel.close();
+        } else {
+            olderSegments.add(currentSegment);
+        }
+        currentSegment = newSegment;
+        return newSegment;
+    }
+
+    /**
+     * Reads the packets back and releases their space within the file
+     */
+    public List<byte[]> read(SpilledPackets spilledPackets) throws IOException {
+        var channel = spilledPackets.segment.channel;
+        var packets = new ArrayList<byte[]>(spilledPackets.packetLengths.length);
+        var position = spilledPackets.offset;
+        for (var length : spilledPackets.packetLengths) {
+            var buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                var bytesRead = channel.read(buffer, position + buffer.position());
+                if (bytesRead < 0) {
+                    throw new EOFException("Spilled packets at offset " + spilledPackets.offset + " in "
+                        + spilledPackets.segment.path + " end past the end of the file");
+                }
+            }
+            packets.add(buffer.array());
+            position += length;
+        }
+        release(spilledPackets);
+        return packets;
+    }
+
+    /**
+     * Releases the space of packets that will never be read
+     */
+    public void release(SpilledPackets spilledPackets) throws IOException {
+        var segment = spilledPackets.segment;
+        var numBytes = spilledPackets.getByteCount();
+        segment.liveBytes -= numBytes;
+        liveBytes -= numBytes;
+        assert segment.liveBytes >= 0 : "released more bytes than were written";
+        if (segment.liveBytes > 0) {
+            return;
+        }
+        if (segment == currentSegment) {
+            segment.channel.truncate(0);
+        } else {
+            // closing deletes the segment's file
+            segment.channel.close();
+            olderSegments.remove(segment);
+        }
+    }
+
+    /**
+     * @return how many segment files are on disk, including the current one
+     */
+    public int getNumberOfSegments() {
+        return olderSegments.size() + 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (var segment : olderSegments) {
+            segment.channel.close();
+        }
+        olderSegments.clear();
+        currentSegment.channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "PacketSpillFile{directory=" + directory + ", liveBytes=" + liveBytes
+            + ", numberOfSegments=" + getNumberOfSegments() + "}";
+    }
+}
@@ -1,9 +1,107 @@
 package org.opensearch.migrations.replay.datatypes;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.stream.Stream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
+/**
+ * The packets of a captured request or response, in the order that they were captured.
+ *
+ * By default, each packet stays in the byte array that it was handed in with.  When an allocator is given,
+ * packets are instead copied into direct buffers from it (e.g. PooledByteBufAllocator.DEFAULT) so that the
+ * bytes of in-flight messages, which can be held for as long as it takes the target to respond, don't live on
+ * the heap.  Those buffers are only given back to the allocator when release() is called, which the owner of
+ * this object must do once nothing needs the packets anymore.  Reading a packet as a byte array copies it out
+ * of its direct buffer, so callers that can work with ByteBufs should use streamUnretained() instead.
+ *
+ * This class is not thread-safe.
+ */
+public class RawPackets extends AbstractList<byte[]> {
+    // null when packets are kept on the heap, as the arrays that were added
+    private final ByteBufAllocator offHeapAllocator;
+    private final ArrayList<ByteBuf> packets = new ArrayList<>();
+
+    public RawPackets() {
+        this(null);
+    }
+
+    public RawPackets(ByteBufAllocator offHeapAllocator) {
+        this.offHeapAllocator = offHeapAllocator;
+    }
+
+    public boolean isOffHeap() {
+        return offHeapAllocator != null;
+    }
+
+    @Override
+    public byte[] get(int index) {
+        var packet = packets.get(index);
+        return offHeapAllocator == null ? packet.array() : ByteBufUtil.getBytes(packet);
+    }
+
+    @Override
+    public int size() {
+        return packets.size();
+    }
+
+    @Override
+    public void add(int index, byte[] packet) {
+        ByteBuf packetBuf;
+        if (offHeapAllocator == null) {
+            packetBuf = Unpooled.wrappedBuffer(packet);
+        } else {
+            packetBuf = offHeapAllocator.directBuffer(packet.length, packet.length).writeBytes(packet);
+        }
+        packets.add(index, packetBuf);
+        ++modCount;
+    }
+
+    @Override
+    public byte[] remove(int index) {
+        var bytes = get(index);
+        packets.remove(index).release();
+        ++modCount;
+        return bytes;
+    }
+
+    @Override
+    public void clear() {
+        packets.forEach(ByteBuf::release);
+        packets.clear();
+        ++modCount;
+    }
+
+    /**
+     * @return a stream of duplicates of each packet.  These duplicates aren't retained, so they must not be
+     * released and they can't be used after this has been released.
+     */
+    public Stream<ByteBuf> streamUnretained() {
+        return packets.stream().map(ByteBuf::duplicate);
+    }
+
+    public long getByteCount() {
+        long total = 0;
+        for (var packet : packets) {
+            total += packet.readableBytes();
+        }
+        return total;
+    }
+
+    /**
+     * Gives any direct buffers back to their allocator and empties this.  Packets that are on the heap are left
+     * as they are, for the garbage collector, so that whatever still refers to them can keep reading them.
+     */
+    public void release() {
+        if (offHeapAllocator != null) {
+            clear();
+        }
+    }
 
-public class RawPackets extends ArrayList<byte[]> {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -16,7 +114,7 @@ public class RawPackets extends ArrayList<byte[]> {
         }
 
         for (int i = 0; i < size(); i++) {
-            if (!Arrays.equals(get(i), that.get(i))) {
+            if (!packets.get(i).equals(that.packets.get(i))) {
                 return false;
             }
         }
@@ -26,8 +124,9 @@ public class RawPackets extends ArrayList<byte[]> {
     @Override
     public int hashCode() {
         int result = 29;
-        for (byte[] array : this) {
-            result = 31 * result + Arrays.hashCode(array);
+        for (int i = 0; i < size(); i++) {
+            // hashed in place so that packets in direct buffers aren't copied out
+            result = 31 * result + ByteBufUtil.hashCode(packets.get(i));
         }
         return result;
     }
@@ -29,6 +29,7 @@ import org.opensearch.migrations.replay.tracing.RootReplayerContext;
 import org.opensearch.migrations.replay.traffic.source.ISimpleTrafficCaptureSource;
 import org.opensearch.migrations.replay.traffic.source.ITrafficStreamWithKey;
 import org.opensearch.migrations.trafficcapture.protos.TrafficStream;
+import org.opensearch.migrations.trafficcapture.protos.TrafficStreamCodec;
 
 import com.google.protobuf.InvalidProtocolBufferException;
 import io.netty.util.concurrent.DefaultThreadFactory;
@@ -78,6 +79,7 @@ public class KafkaTrafficCaptureSource implements ISimpleTrafficCaptureSource {
     private final KafkaBehavioralPolicy behavioralPolicy;
     private final ChannelContextManager channelContextManager;
     private final AtomicBoolean isClosed;
+    private final TrafficStreamCodec.Decoder trafficStreamDecoder = new TrafficStreamCodec.Decoder();
 
     public KafkaTrafficCaptureSource(
         @NonNull RootReplayerContext globalContext,
@@ -234,7 +236,7 @@ public class KafkaTrafficCaptureSource implements ISimpleTrafficCaptureSource {
         try {
             return trackingKafkaConsumer.getNextBatchOfRecords(context, (offsetData, kafkaRecord) -> {
                 try {
-                    TrafficStream ts = TrafficStream.parseFrom(kafkaRecord.value());
+                    TrafficStream ts = trafficStreamDecoder.decode(kafkaRecord.value());
                     var trafficStreamsSoFar = trafficStreamsRead.incrementAndGet();
                     log.atTrace().setMessage("Parsed traffic stream #{}: {} {}")
                         .addArgument(trafficStreamsSoFar)
@@ -289,8 +291,12 @@ public class KafkaTrafficCaptureSource implements ISimpleTrafficCaptureSource {
     @Override
     public void close() throws IOException, InterruptedException, ExecutionException {
         if (isClosed.compareAndSet(false, true)) {
-            kafkaExecutor.submit(trackingKafkaConsumer::close).get();
-            kafkaExecutor.shutdownNow();
+            try {
+                kafkaExecutor.submit(trackingKafkaConsumer::close).get();
+            } finally {
+                kafkaExecutor.shutdownNow();
+                trafficStreamDecoder.close();
+            }
         }
     }
 }
@@ -1,23 +1,41 @@
 package org.opensearch.migrations.replay.kafka;
 
 import java.util.Optional;
-import java.util.PriorityQueue;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * This uses a PriorityQueue to find the MINIMUM offset that has yet to be 'committed'.
- * This class assumes that add() will be called with ascending offsets and that
- * removeAndReturnNewHead may be called in any order.  removeAndReturnNewHead returns
- * the new commit offset for the partition that this object is associated with.
+ * Finds the MINIMUM offset of a partition that has yet to be 'committed'.
+ * This class assumes that add() will be called with ascending offsets, from one thread, and that
+ * removeAndReturnNewHead may be called in any order, from any number of threads.  removeAndReturnNewHead
+ * returns the new commit offset for the partition that this object is associated with.
  * It's also assumed that callers MUST call removeAndReturnNewHead for every offset
  * that was previously added for commit points to be advanced.
+ *
+ * Offsets are tracked as bits within fixed-size chunks of a bitset, keyed by the offset divided by the chunk
+ * size.  A bit is set once its offset is done, which is either when it has been removed or when add() skipped
+ * over it (Kafka offsets can have gaps, e.g. for transaction markers).  Removing an offset only sets its bit,
+ * and the low watermark, the first offset that isn't done, is moved forward with compare-and-set by whichever
+ * caller observes that the offset at the watermark is done.  Neither operation takes a lock, and chunks are
+ * dropped once the watermark has moved past them, so memory is proportional to the span of offsets in flight.
  */
 @Slf4j
 class OffsetLifecycleTracker {
-    private final PriorityQueue<Long> pQueue = new PriorityQueue<>();
-    private long cursorHighWatermark;
+    static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int WORDS_PER_CHUNK = CHUNK_SIZE / Long.SIZE;
+    private static final long NOTHING_ADDED = -1;
+
+    private final ConcurrentHashMap<Long, AtomicLongArray> doneOffsetChunks = new ConcurrentHashMap<>();
+    private final AtomicLong lowWatermark = new AtomicLong(NOTHING_ADDED);
+    // one past the highest offset that was added.  Only add() writes this.
+    private volatile long nextOffsetToAdd = NOTHING_ADDED;
+    private final AtomicInteger size = new AtomicInteger();
     final int consumerConnectionGeneration;
 
     OffsetLifecycleTracker(int generation) {
@@ -25,61 +43,163 @@ class OffsetLifecycleTracker {
     }
 
     boolean isEmpty() {
-        return pQueue.isEmpty();
+        return size.get() == 0;
     }
 
     int size() {
-        return pQueue.size();
+        return size.get();
     }
 
     void add(long offset) {
-        synchronized (pQueue) {
-            cursorHighWatermark = offset;
-            pQueue.add(offset);
+        var previousNextOffset = nextOffsetToAdd;
+        var markedGap = false;
+        if (previousNextOffset == NOTHING_ADDED) {
+            lowWatermark.set(offset);
+        } else if (offset < previousNextOffset) {
+            throw new IllegalStateException("Offsets must be added in ascending order, but " + offset
+                + " was added after " + (previousNextOffset - 1));
+        } else if (offset > previousNextOffset) {
+            if (lowWatermark.compareAndSet(previousNextOffset, offset)) {
+                // everything that was added is done, so the watermark can jump the gap without marking it
+                dropChunksBelow(previousNextOffset, offset);
+            } else {
+                markRangeDone(previousNextOffset, offset);
+                markedGap = true;
+            }
+        }
+        getOrCreateChunk(offset);
+        size.incrementAndGet();
+        nextOffsetToAdd = offset + 1;
+        if (markedGap) {
+            // the last offset before the gap may have been removed while the gap was being marked
+            advanceLowWatermark();
         }
     }
 
     Optional<Long> removeAndReturnNewHead(long offsetToRemove) {
-        synchronized (pQueue) {
-            var topCursor = pQueue.peek();
-            if (topCursor == null) {
-                throw new IllegalStateException(
-                    "pQueue looks to have been empty by the time we tried to remove " + offsetToRemove
-                );
+        if (offsetToRemove < lowWatermark.get() || offsetToRemove >= nextOffsetToAdd) {
+            throw new IllegalStateException("Expected all live records to have an entry and for them to be "
+                + "removed only once, but " + offsetToRemove + " is outside of " + this);
+        }
+        if (!markDone(offsetToRemove)) {
+            throw new IllegalStateException(
+                "Expected all live records to have an entry and for them to be removed only once");
+        }
+        size.decrementAndGet();
+        var newHead = advanceLowWatermark();
+        if (newHead != NOTHING_ADDED) {
+            log.atDebug().setMessage("Commit called for {}, and new topCursor={}")
+                .addArgument(offsetToRemove)
+                .addArgument(newHead)
+                .log();
+            return Optional.of(newHead);
+        } else {
+            log.atDebug().setMessage("Commit called for {}, but topCursor={}")
+                .addArgument(offsetToRemove)
+                .addArgument(lowWatermark::get)
+                .log();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the first offset that hasn't been removed yet, or one past the highest offset that was added when
+     * every offset has been removed
+     */
+    long getLowWatermark() {
+        return lowWatermark.get();
+    }
+
+    /**
+     * @return true if this call set the bit for the offset, false if it was already set
+     */
+    private boolean markDone(long offset) {
+        var indexInChunk = (int) (offset & (CHUNK_SIZE - 1));
+        var mask = 1L << (indexInChunk & (Long.SIZE - 1));
+        var previousWord = getOrCreateChunk(offset).getAndAccumulate(indexInChunk / Long.SIZE, mask, (w, m) -> w | m);
+        return (previousWord & mask) == 0;
+    }
+
+    private void markRangeDone(long from, long to) {
+        var offset = from;
+        while (offset < to) {
+            var indexInChunk = (int) (offset & (CHUNK_SIZE - 1));
+            var bitInWord = indexInChunk & (Long.SIZE - 1);
+            var numBits = (int) Math.min(Long.SIZE - bitInWord, to - offset);
+            var mask = (numBits == Long.SIZE ? -1L : (1L << numBits) - 1) << bitInWord;
+            getOrCreateChunk(offset).getAndAccumulate(indexInChunk / Long.SIZE, mask, (w, m) -> w | m);
+            offset += numBits;
+        }
+    }
+
+    private AtomicLongArray getOrCreateChunk(long offset) {
+        return doneOffsetChunks.computeIfAbsent(offset >>> CHUNK_BITS, k -> new AtomicLongArray(WORDS_PER_CHUNK));
+    }
+
+    /**
+     * Drops the chunks that only hold offsets below the new watermark
+     */
+    private void dropChunksBelow(long oldWatermark, long newWatermark) {
+        for (var chunkIndex = oldWatermark >>> CHUNK_BITS; chunkIndex < newWatermark >>> CHUNK_BITS; ++chunkIndex) {
+            doneOffsetChunks.remove(chunkIndex);
+        }
+    }
+
+    /**
+     * Moves the watermark past every offset that's done.  Whoever sets the bit of the offset at the watermark
+     * calls this afterward, so the watermark can't be left behind an offset that's done.<br><br>
+     *
+     * add() moves the watermark across a gap before it writes nextOffsetToAdd, so nextOffsetToAdd is read first
+     * here, and a limit that isn't past the watermark is treated as no progress.  Otherwise, the watermark could
+     * be moved back to an offset that was never added, whose bit would never be set.
+     *
+     * @return the new watermark if this call moved it, otherwise NOTHING_ADDED
+     */
+    private long advanceLowWatermark() {
+        var advancedTo = NOTHING_ADDED;
+        while (true) {
+            var limit = nextOffsetToAdd;
+            var watermark = lowWatermark.get();
+            var next = findFirstNotDone(watermark, limit);
+            if (next <= watermark) {
+                if (lowWatermark.get() == watermark) {
+                    return advancedTo;
+                }
+                // another caller moved the watermark (and may have dropped the chunk that was being read)
+                continue;
             }
-            var didRemove = pQueue.remove(offsetToRemove);
-            if (!didRemove) {
-                throw new IllegalStateException(
-                    "Expected all live records to have an entry and for them to be removed only once");
+            if (lowWatermark.compareAndSet(watermark, next)) {
+                dropChunksBelow(watermark, next);
+                advancedTo = next;
             }
+        }
+    }
 
-            if (offsetToRemove == topCursor) {
-                topCursor = Optional.ofNullable(pQueue.peek()).orElse(cursorHighWatermark + 1); // most recent cursor
-                                                                                                // was previously popped
-                log.atDebug().setMessage("Commit called for {}, and new topCursor={}")
-                    .addArgument(offsetToRemove)
-                    .addArgument(topCursor)
-                    .log();
-                return Optional.of(topCursor);
-            } else {
-                log.atDebug().setMessage("Commit called for {}, but topCursor={}")
-                    .addArgument(offsetToRemove)
-                    .addArgument(topCursor)
-                    .log();
-                return Optional.empty();
+    private long findFirstNotDone(long from, long limit) {
+        var offset = from;
+        while (offset < limit) {
+            var chunk = doneOffsetChunks.get(offset >>> CHUNK_BITS);
+            if (chunk == null) {
+                return offset;
+            }
+            var indexInChunk = (int) (offset & (CHUNK_SIZE - 1));
+            var bitInWord = indexInChunk & (Long.SIZE - 1);
+            var notDone = ~chunk.get(indexInChunk / Long.SIZE) >>> bitInWord;
+            if (notDone != 0) {
+                return Math.min(limit, offset + Long.numberOfTrailingZeros(notDone));
             }
+            offset += Long.SIZE - bitInWord;
         }
+        return limit;
     }
 
     @Override
     public String toString() {
-        synchronized (pQueue) {
-            return new StringJoiner(", ", OffsetLifecycleTracker.class.getSimpleName() + "[", "]").add(
-                "pQueue=" + pQueue
-            )
-                .add("cursorHighWatermark=" + cursorHighWatermark)
-                .add("consumerConnectionGeneration=" + consumerConnectionGeneration)
-                .toString();
-        }
+        return new StringJoiner(", ", OffsetLifecycleTracker.class.getSimpleName() + "[", "]")
+            .add("lowWatermark=" + lowWatermark.get())
+            .add("size=" + size.get())
+            .add("cursorHighWatermark=" + (nextOffsetToAdd - 1))
+            .add("consumerConnectionGeneration=" + consumerConnectionGeneration)
+            .toString();
     }
 }
@@ -10,6 +10,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -43,6 +44,10 @@ import org.slf4j.event.Level;
  * and their current (asynchronously 'committed' by the calling contexts) offsets.  It
  * manages those offsets and the 'active' set of records that have been rendered by this
  * consumer, when to pause a poll loop(), and how to deal with consumer rebalances.
+ *
+ * Everything other than commitKafkaKey() is called from the thread that polls the consumer.  commitKafkaKey()
+ * is called from whichever threads finish with records, so it only touches state for the record's own
+ * partition, none of which is guarded by a lock that's shared across partitions.
  */
 @Slf4j
 public class TrackingKafkaConsumer implements ConsumerRebalanceListener {
@@ -100,9 +105,12 @@ public class TrackingKafkaConsumer implements ConsumerRebalanceListener {
      * the generations of each OffsetLifecycleTracker value may be different.
      */
     final Map<Integer, OffsetLifecycleTracker> partitionToOffsetLifecycleTrackerMap;
-    private final Object commitDataLock = new Object();
     // loosening visibility so that a unit test can read this
     final Map<TopicPartition, OffsetAndMetadata> nextSetOfCommitsMap;
+    /**
+     * The keys that are waiting on their partition's commit, in offset order.  Each queue is guarded by its own
+     * monitor, so committers for different partitions don't contend with each other.
+     */
     final Map<TopicPartition, PriorityQueue<OrderedKeyHolder>> nextSetOfKeysContextsBeingCommitted;
     final java.util.function.Consumer<ITrafficStreamKey> onCommitKeyCallback;
     private final Duration keepAliveInterval;
@@ -123,9 +131,9 @@ public class TrackingKafkaConsumer implements ConsumerRebalanceListener {
         this.kafkaConsumer = kafkaConsumer;
         this.topic = topic;
         this.clock = c;
-        this.partitionToOffsetLifecycleTrackerMap = new HashMap<>();
-        this.nextSetOfCommitsMap = new HashMap<>();
-        this.nextSetOfKeysContextsBeingCommitted = new HashMap<>();
+        this.partitionToOffsetLifecycleTrackerMap = new ConcurrentHashMap<>();
+        this.nextSetOfCommitsMap = new ConcurrentHashMap<>();
+        this.nextSetOfKeysContextsBeingCommitted = new ConcurrentHashMap<>();
         this.lastTouchTimeRef = new AtomicReference<>(Instant.EPOCH);
         consumerConnectionGeneration = new AtomicInteger();
         kafkaRecordsLeftToCommitEventually = new AtomicInteger();
@@ -142,23 +150,22 @@ public class TrackingKafkaConsumer implements ConsumerRebalanceListener {
         }
 
         new KafkaConsumerContexts.AsyncListeningContext(globalContext).onPartitionsRevoked(partitions);
-        synchronized (commitDataLock) {
-            safeCommit(globalContext::createCommitContext);
-            partitions.forEach(p -> {
-                var tp = new TopicPartition(topic, p.partition());
-                nextSetOfCommitsMap.remove(tp);
-                nextSetOfKeysContextsBeingCommitted.remove(tp);
-                partitionToOffsetLifecycleTrackerMap.remove(p.partition());
-            });
-            kafkaRecordsLeftToCommitEventually.set(
-                partitionToOffsetLifecycleTrackerMap.values().stream().mapToInt(OffsetLifecycleTracker::size).sum()
-            );
-            kafkaRecordsReadyToCommit.set(!nextSetOfCommitsMap.values().isEmpty());
-            log.atWarn().setMessage("{} partitions revoked for {}")
-                .addArgument(this)
-                .addArgument(() -> partitions.stream().map(String::valueOf).collect(Collectors.joining(",")))
-                .log();
-        }
+        safeCommit(globalContext::createCommitContext);
+        partitions.forEach(p -> {
+            var tp = new TopicPartition(topic, p.partition());
+            // remove the tracker first so that commitKafkaKey() ignores any further records from the partition
+            partitionToOffsetLifecycleTrackerMap.remove(p.partition());
+            nextSetOfCommitsMap.remove(tp);
+            nextSetOfKeysContextsBeingCommitted.remove(tp);
+        });
+        kafkaRecordsLeftToCommitEventually.set(
+            partitionToOffsetLifecycleTrackerMap.values().stream().mapToInt(OffsetLifecycleTracker::size).sum()
+        );
+        kafkaRecordsReadyToCommit.set(!nextSetOfCommitsMap.values().isEmpty());
+        log.atWarn().setMessage("{} partitions revoked for {}")
+            .addArgument(this)
+            .addArgument(() -> partitions.stream().map(String::valueOf).collect(Collectors.joining(",")))
+            .log();
     }
 
     @Override
@@ -169,20 +176,18 @@ public class TrackingKafkaConsumer implements ConsumerRebalanceListener {
         }
 
         new KafkaConsumerContexts.AsyncListeningContext(globalContext).onPartitionsAssigned(newPartitions);
-        synchronized (commitDataLock) {
-            consumerConnectionGeneration.incrementAndGet();
-            newPartitions.forEach(
-                p -> partitionToOffsetLifecycleTrackerMap.computeIfAbsent(
-                    p.partition(),
-                    x -> new OffsetLifecycleTracker(consumerConnectionGeneration.get())
-                )
-            );
-            log.atInfo()
-                .setMessage("{} partitions added for {}")
-                .addArgument(this)
-                .addArgument(() -> newPartitions.stream().map(String::valueOf).collect(Collectors.joining(",")))
-                .log();
-        }
+        consumerConnectionGeneration.incrementAndGet();
+        newPartitions.forEach(
+            p -> partitionToOffsetLifecycleTrackerMap.computeIfAbsent(
+                p.partition(),
+                x -> new OffsetLifecycleTracker(consumerConnectionGeneration.get())
+            )
+        );
+        log.atInfo()
+            .setMessage("{} partitions added for {}")
+            .addArgument(this)
+            .addArgument(() -> newPartitions.stream().map(String::valueOf).collect(Collectors.joining(",")))
+            .log();
     }
 
     public void close() {
@@ -353,10 +358,7 @@ public class TrackingKafkaConsumer implements ConsumerRebalanceListener {
     }
 
     ITrafficCaptureSource.CommitResult commitKafkaKey(ITrafficStreamKey streamKey, KafkaCommitOffsetData kafkaTsk) {
-        OffsetLifecycleTracker tracker;
-        synchronized (commitDataLock) {
-            tracker = partitionToOffsetLifecycleTrackerMap.get(kafkaTsk.getPartition());
-        }
+        var tracker = partitionToOffsetLifecycleTrackerMap.get(kafkaTsk.getPartition());
         if (tracker == null || tracker.consumerConnectionGeneration != kafkaTsk.getGeneration()) {
             log.atWarn()
                 .setMessage(
@@ -377,59 +379,81 @@ public class TrackingKafkaConsumer implements ConsumerRebalanceListener {
 
         var k = new TopicPartition(topic, p);
 
-        newHeadValue = tracker.removeAndReturnNewHead(kafkaTsk.getOffset());
+        // Queue the key before its offset can be committed, so that the commit is sure to call back for it.  The
+        // key is taken back out if it turns out that it shouldn't have been queued, rather than holding a lock
+        // across the removal, which would serialize every completion for the partition.
+        var keyHolder = addKeyContextForEventualCommit(streamKey, kafkaTsk, k);
+        if (partitionToOffsetLifecycleTrackerMap.get(p) != tracker) {
+            removeKeyContext(keyHolder, k);
+            log.atWarn().setMessage("Partition {} was revoked before the commit for {} could be queued.  "
+                    + "Dropping this commit request.")
+                .addArgument(p)
+                .addArgument(kafkaTsk)
+                .log();
+            return ITrafficCaptureSource.CommitResult.IGNORED;
+        }
+        try {
+            newHeadValue = tracker.removeAndReturnNewHead(kafkaTsk.getOffset());
+        } catch (RuntimeException e) {
+            // e.g. the offset was already removed, in which case an earlier call queued its key
+            removeKeyContext(keyHolder, k);
+            throw e;
+        }
         return newHeadValue.map(o -> {
-            var v = new OffsetAndMetadata(o);
-            log.atDebug().setMessage("Adding new commit {}->{} to map").addArgument(k).addArgument(v).log();
-            synchronized (commitDataLock) {
-                addKeyContextForEventualCommit(streamKey, kafkaTsk, k);
-                nextSetOfCommitsMap.put(k, v);
-            }
+            // Other threads may have moved the head further by now.  Reading it again within compute(), which
+            // is atomic with safeCommit()'s removal of the partition's entry, rather than using o, means that a
+            // slower thread can never put back an offset lower than one that was already committed.
+            var v = nextSetOfCommitsMap.compute(k, (key, oldV) -> {
+                if (partitionToOffsetLifecycleTrackerMap.get(p) != tracker) {
+                    // the partition was revoked after this record's tracker was looked up
+                    return oldV;
+                }
+                var newHead = tracker.getLowWatermark();
+                return oldV != null && oldV.offset() >= newHead ? oldV : new OffsetAndMetadata(newHead);
+            });
+            log.atDebug().setMessage("Added new commit {}->{} to map").addArgument(k).addArgument(v).log();
             return ITrafficCaptureSource.CommitResult.AFTER_NEXT_READ;
-        }).orElseGet(() -> {
-            synchronized (commitDataLock) {
-                addKeyContextForEventualCommit(streamKey, kafkaTsk, k);
-            }
-            return ITrafficCaptureSource.CommitResult.BLOCKED_BY_OTHER_COMMITS;
-        });
+        }).orElse(ITrafficCaptureSource.CommitResult.BLOCKED_BY_OTHER_COMMITS);
     }
 
-    private void addKeyContextForEventualCommit(
+    private OrderedKeyHolder addKeyContextForEventualCommit(
         ITrafficStreamKey streamKey,
         KafkaCommitOffsetData kafkaTsk,
         TopicPartition k
     ) {
-        nextSetOfKeysContextsBeingCommitted.computeIfAbsent(k, k2 -> new PriorityQueue<>())
-            .add(new OrderedKeyHolder(kafkaTsk.getOffset(), streamKey));
+        var keyHolder = new OrderedKeyHolder(kafkaTsk.getOffset(), streamKey);
+        var orderedKeyHolders = nextSetOfKeysContextsBeingCommitted.computeIfAbsent(k, k2 -> new PriorityQueue<>());
+        synchronized (orderedKeyHolders) {
+            orderedKeyHolders.add(keyHolder);
+        }
+        return keyHolder;
     }
 
-    private void safeCommit(Supplier<IKafkaConsumerContexts.ICommitScopeContext> commitContextSupplier) {
-        HashMap<TopicPartition, OffsetAndMetadata> nextCommitsMapCopy;
-        IKafkaConsumerContexts.ICommitScopeContext context = null;
-        synchronized (commitDataLock) {
-            if (nextSetOfCommitsMap.isEmpty()) {
-                return;
+    private void removeKeyContext(OrderedKeyHolder keyHolder, TopicPartition k) {
+        var orderedKeyHolders = nextSetOfKeysContextsBeingCommitted.get(k);
+        if (orderedKeyHolders != null) {
+            synchronized (orderedKeyHolders) {
+                orderedKeyHolders.remove(keyHolder);
             }
-            context = commitContextSupplier.get();
-            nextCommitsMapCopy = new HashMap<>(nextSetOfCommitsMap);
         }
+    }
+
+    private void safeCommit(Supplier<IKafkaConsumerContexts.ICommitScopeContext> commitContextSupplier) {
+        var nextCommitsMapCopy = new HashMap<>(nextSetOfCommitsMap);
+        if (nextCommitsMapCopy.isEmpty()) {
+            return;
+        }
+        var context = commitContextSupplier.get();
         try {
             safeCommitStatic(context, kafkaConsumer, nextCommitsMapCopy);
-            synchronized (commitDataLock) {
-                nextCommitsMapCopy.entrySet()
-                    .stream()
-                    .forEach(
-                        kvp -> callbackUpTo(
-                            onCommitKeyCallback,
-                            nextSetOfKeysContextsBeingCommitted.get(kvp.getKey()),
-                            kvp.getValue().offset()
-                        )
-                    );
-                nextCommitsMapCopy.forEach((k, v) -> nextSetOfCommitsMap.remove(k));
-            }
+            nextCommitsMapCopy.forEach((k, v) -> {
+                callbackUpTo(onCommitKeyCallback, nextSetOfKeysContextsBeingCommitted.get(k), v.offset());
+                // leave any newer commit that was added while this one was in flight for the next call
+                nextSetOfCommitsMap.remove(k, v);
+            });
             // This function will only ever be called in a threadsafe way, mutually exclusive from any
             // other call other than commitKafkaKey(). Since commitKafkaKey() doesn't alter
-            // partitionToOffsetLifecycleTrackerMap, these lines can be outside of the commitDataLock mutex
+            // partitionToOffsetLifecycleTrackerMap, these lines don't need to coordinate with it
             log.trace("partitionToOffsetLifecycleTrackerMap=" + partitionToOffsetLifecycleTrackerMap);
             kafkaRecordsLeftToCommitEventually.set(
                 partitionToOffsetLifecycleTrackerMap.values().stream().mapToInt(OffsetLifecycleTracker::size).sum()
@@ -452,9 +476,7 @@ public class TrackingKafkaConsumer implements ConsumerRebalanceListener {
                     .collect(Collectors.joining(",")))
                 .log();
         } finally {
-            if (context != null) {
-                context.close();
-            }
+            context.close();
         }
     }
 
@@ -475,10 +497,15 @@ public class TrackingKafkaConsumer implements ConsumerRebalanceListener {
         PriorityQueue<OrderedKeyHolder> orderedKeyHolders,
         long upToOffset
     ) {
-        for (var nextKeyHolder = orderedKeyHolders.peek(); nextKeyHolder != null
-            && nextKeyHolder.offset <= upToOffset; nextKeyHolder = orderedKeyHolders.peek()) {
-            onCommitKeyCallback.accept(nextKeyHolder.tsk);
-            orderedKeyHolders.poll();
+        if (orderedKeyHolders == null) {
+            return;
+        }
+        synchronized (orderedKeyHolders) {
+            for (var nextKeyHolder = orderedKeyHolders.peek(); nextKeyHolder != null
+                && nextKeyHolder.offset <= upToOffset; nextKeyHolder = orderedKeyHolders.peek()) {
+                onCommitKeyCallback.accept(nextKeyHolder.tsk);
+                orderedKeyHolders.poll();
+            }
         }
     }
 
@@ -492,20 +519,18 @@ public class TrackingKafkaConsumer implements ConsumerRebalanceListener {
 
     @Override
     public String toString() {
-        synchronized (commitDataLock) {
-            int partitionCount = partitionToOffsetLifecycleTrackerMap.size();
-            int commitsPending = nextSetOfCommitsMap.size();
-            int recordsLeftToCommit = kafkaRecordsLeftToCommitEventually.get();
-            boolean recordsReadyToCommit = kafkaRecordsReadyToCommit.get();
-            return String.format(
-                "TrackingKafkaConsumer{topic='%s', partitionCount=%d, commitsPending=%d, "
-                    + "recordsLeftToCommit=%d, recordsReadyToCommit=%b}",
-                topic,
-                partitionCount,
-                commitsPending,
-                recordsLeftToCommit,
-                recordsReadyToCommit
-            );
-        }
+        int partitionCount = partitionToOffsetLifecycleTrackerMap.size();
+        int commitsPending = nextSetOfCommitsMap.size();
+        int recordsLeftToCommit = kafkaRecordsLeftToCommitEventually.get();
+        boolean recordsReadyToCommit = kafkaRecordsReadyToCommit.get();
+        return String.format(
+            "TrackingKafkaConsumer{topic='%s', partitionCount=%d, commitsPending=%d, "
+                + "recordsLeftToCommit=%d, recordsReadyToCommit=%b}",
+            topic,
+            partitionCount,
+            commitsPending,
+            recordsLeftToCommit,
+            recordsReadyToCommit
+        );
     }
 }
@@ -64,6 +64,8 @@ public interface IReplayContexts {
         public static final String ACTIVE_CHANNELS_YET_TO_BE_FULLY_DISCARDED = "activeReplayerChannels";
         public static final String NONRETRYABLE_CONNECTION_FAILURES = "nonRetryableConnectionFailures";
         public static final String ACTIVE_TARGET_CONNECTIONS = "activeTargetConnections";
+        public static final String RESIDENT_BUFFERED_PACKET_BYTES = "residentBufferedPacketBytes";
+        public static final String SPILLED_BUFFERED_PACKET_BYTES = "spilledBufferedPacketBytes";
         public static final String CONNECTIONS_OPENED = "connectionsOpened";
         public static final String CONNECTIONS_CLOSED = "connectionsClosedCount";
         public static final String BYTES_WRITTEN_TO_TARGET = "bytesWrittenToTarget";
@@ -99,6 +101,12 @@ public interface IReplayContexts {
         ISocketContext createSocketContext();
 
         void addFailedChannelCreation();
+
+        /**
+         * Tracks the bytes of requests and responses that are still being accumulated for this channel,
+         * separately for those held on the heap and those that were spilled to disk.
+         */
+        void addBufferedPacketBytes(long residentBytesDelta, long spilledBytesDelta);
     }
 
     interface ISocketContext extends IAccumulationScope, IWithTypedEnclosingScope<IChannelKeyContext> {
@@ -98,12 +98,20 @@ public interface ReplayContexts extends IReplayContexts {
         public static class MetricInstruments extends CommonScopedMetricInstruments {
             final LongUpDownCounter activeChannelCounter;
             final LongCounter unretryableConnectionFailures;
+            final LongUpDownCounter residentBufferedPacketBytes;
+            final LongUpDownCounter spilledBufferedPacketBytes;
 
             private MetricInstruments(Meter meter, String activityName) {
                 super(meter, activityName);
                 activeChannelCounter = meter.upDownCounterBuilder(MetricNames.ACTIVE_CHANNELS_YET_TO_BE_FULLY_DISCARDED)
                     .build();
                 unretryableConnectionFailures = meter.counterBuilder(MetricNames.NONRETRYABLE_CONNECTION_FAILURES).build();
+                residentBufferedPacketBytes = meter.upDownCounterBuilder(MetricNames.RESIDENT_BUFFERED_PACKET_BYTES)
+                    .setUnit(BYTES_UNIT_STR)
+                    .build();
+                spilledBufferedPacketBytes = meter.upDownCounterBuilder(MetricNames.SPILLED_BUFFERED_PACKET_BYTES)
+                    .setUnit(BYTES_UNIT_STR)
+                    .build();
             }
         }
 
@@ -130,6 +138,16 @@ public interface ReplayContexts extends IReplayContexts {
         public void addFailedChannelCreation() {
             meterIncrementEvent(getMetrics().unretryableConnectionFailures);
         }
+
+        @Override
+        public void addBufferedPacketBytes(long residentBytesDelta, long spilledBytesDelta) {
+            if (residentBytesDelta != 0) {
+                meterDeltaEvent(getMetrics().residentBufferedPacketBytes, residentBytesDelta);
+            }
+            if (spilledBytesDelta != 0) {
+                meterDeltaEvent(getMetrics().spilledBufferedPacketBytes, spilledBytesDelta);
+            }
+        }
     }
 
     class KafkaRecordContext extends BaseNestedSpanContext<RootReplayerContext, IChannelKeyContext>
@@ -335,7 +353,10 @@ public interface ReplayContexts extends IReplayContexts {
 
         @Override
         public IReplayContexts.IScheduledContext createScheduledContext(Instant timestamp) {
-            return new ReplayContexts.ScheduledContext(this, Duration.between(Instant.now(), timestamp).toNanos());
+            return new ReplayContexts.ScheduledContext(
+                this,
+                System.nanoTime() + Duration.between(Instant.now(), timestamp).toNanos()
+            );
         }
 
         @Override
@@ -0,0 +1,97 @@
+package org.opensearch.migrations.replay.traffic.source;
+
+import java.time.Duration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Adjusts how many requests a TrafficStreamLimiter lets through at once so that the target's response latency
+ * stays around a target.  For closed-loop replays, that finds the concurrency, and therefore the throughput, that
+ * the target can sustain for the captured workload rather than relying upon a guessed speedup factor.<br><br>
+ *
+ * This is an additive-increase/multiplicative-decrease controller, like TCP's congestion control.  Latencies are
+ * averaged over rounds of as many requests as the current limit.  After a round whose average is within the
+ * target latency, the limit grows.  It doubles until the target latency is first exceeded and grows by one
+ * after that.  After a round that's over the target latency, it's cut by BACKOFF_RATIO.  A request that failed,
+ * timed out, or was throttled by the target is a sign of overload, like a lost packet is for TCP, so a round
+ * with any such request counts as over the target latency no matter how fast the rest of it was.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimit {
+    public static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+
+    private int limit;
+    private boolean inSlowStart = true;
+    private int samplesInRound;
+    private long latencyNanosInRound;
+    private boolean failuresInRound;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int maxLimit, Duration targetLatency) {
+        if (maxLimit < 1 || initialLimit < 1 || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(
+                "Expected 1 <= initialLimit (" + initialLimit + ") <= maxLimit (" + maxLimit + ")"
+            );
+        }
+        this.minLimit = 1;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.limit = initialLimit;
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Records how long one request took and returns how much the limit changed because of it, which is
+     * non-zero only at the end of a round.
+     */
+    public synchronized int onRequestFinished(long latencyNanos) {
+        latencyNanosInRound += latencyNanos;
+        return endRoundIfComplete();
+    }
+
+    /**
+     * Records a request that the target didn't answer successfully in time and returns how much the limit
+     * changed because of it, like onRequestFinished.
+     */
+    public synchronized int onRequestFailed() {
+        failuresInRound = true;
+        latencyNanosInRound += targetLatencyNanos;
+        return endRoundIfComplete();
+    }
+
+    private int endRoundIfComplete() {
+        if (++samplesInRound < limit) {
+            return 0;
+        }
+        var averageLatencyNanos = latencyNanosInRound / samplesInRound;
+        var roundHadFailures = failuresInRound;
+        samplesInRound = 0;
+        latencyNanosInRound = 0;
+        failuresInRound = false;
+
+        var oldLimit = limit;
+        if (!roundHadFailures && averageLatencyNanos <= targetLatencyNanos) {
+            limit = Math.min(maxLimit, inSlowStart ? limit * 2 : limit + 1);
+        } else {
+            inSlowStart = false;
+            limit = Math.max(minLimit, (int) (limit * BACKOFF_RATIO));
+        }
+        if (limit != oldLimit) {
+            log.atDebug().setMessage("Average latency of {}ms (target={}ms, failures={}) moved the concurrency limit "
+                    + "from {} to {}")
+                .addArgument(() -> Duration.ofNanos(averageLatencyNanos).toMillis())
+                .addArgument(() -> Duration.ofNanos(targetLatencyNanos).toMillis())
+                .addArgument(roundHadFailures)
+                .addArgument(oldLimit)
+                .addArgument(limit)
+                .log();
+        }
+        return limit - oldLimit;
+    }
+}
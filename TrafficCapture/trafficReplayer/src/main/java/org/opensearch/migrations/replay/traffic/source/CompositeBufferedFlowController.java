@@ -0,0 +1,36 @@
+package org.opensearch.migrations.replay.traffic.source;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Moves the read barrier of every one of a group of BufferedFlowControllers together.  This lets a single
+ * ReplayEngine, which schedules requests from one timeline, hold back several traffic sources that are each
+ * being read by their own thread.
+ */
+public class CompositeBufferedFlowController implements BufferedFlowController {
+    private final List<? extends BufferedFlowController> controllers;
+    private final Duration bufferTimeWindow;
+
+    public CompositeBufferedFlowController(List<? extends BufferedFlowController> controllers) {
+        if (controllers.isEmpty()) {
+            throw new IllegalArgumentException("At least one BufferedFlowController is required");
+        }
+        this.controllers = List.copyOf(controllers);
+        this.bufferTimeWindow = controllers.stream()
+            .map(BufferedFlowController::getBufferTimeWindow)
+            .min(Duration::compareTo)
+            .orElseThrow();
+    }
+
+    @Override
+    public void stopReadsPast(Instant pointInTime) {
+        controllers.forEach(c -> c.stopReadsPast(pointInTime));
+    }
+
+    @Override
+    public Duration getBufferTimeWindow() {
+        return bufferTimeWindow;
+    }
+}
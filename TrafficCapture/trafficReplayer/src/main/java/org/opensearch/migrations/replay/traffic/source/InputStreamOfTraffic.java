@@ -20,6 +20,7 @@ import org.opensearch.migrations.replay.tracing.ITrafficSourceContexts;
 import org.opensearch.migrations.replay.tracing.ReplayContexts;
 import org.opensearch.migrations.replay.tracing.RootReplayerContext;
 import org.opensearch.migrations.trafficcapture.protos.TrafficStream;
+import org.opensearch.migrations.trafficcapture.protos.TrafficStreamCodec;
 
 import lombok.Lombok;
 import lombok.extern.slf4j.Slf4j;
@@ -29,6 +30,7 @@ public class InputStreamOfTraffic implements ISimpleTrafficCaptureSource, AutoCl
     private final BufferedReader bufferedReader;
     private final AtomicInteger trafficStreamsRead = new AtomicInteger();
     private final ChannelContextManager channelContextManager;
+    private final TrafficStreamCodec.Decoder trafficStreamDecoder = new TrafficStreamCodec.Decoder();
 
     public InputStreamOfTraffic(RootReplayerContext context, InputStream inputStream) {
         this.channelContextManager = new ChannelContextManager(context);
@@ -73,7 +75,7 @@ public class InputStreamOfTraffic implements ISimpleTrafficCaptureSource, AutoCl
                 if (line == null) {
                     throw new EOFException();
                 }
-                ts = TrafficStream.parseFrom(Base64.getDecoder().decode(line));
+                ts = trafficStreamDecoder.decode(Base64.getDecoder().decode(line));
             } catch (Exception e) {
                 throw Lombok.sneakyThrow(e);
             }
@@ -102,6 +104,10 @@ public class InputStreamOfTraffic implements ISimpleTrafficCaptureSource, AutoCl
 
     @Override
     public void close() throws IOException {
-        bufferedReader.close();
+        try {
+            bufferedReader.close();
+        } finally {
+            trafficStreamDecoder.close();
+        }
     }
 }
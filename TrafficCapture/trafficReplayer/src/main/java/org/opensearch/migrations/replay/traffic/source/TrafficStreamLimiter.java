@@ -1,5 +1,6 @@
 package org.opensearch.migrations.replay.traffic.source;
 
+import java.time.Duration;
 import java.util.concurrent.LinkedTransferQueue;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -7,28 +8,57 @@ import java.util.function.Consumer;
 
 import org.opensearch.migrations.tracing.commoncontexts.IHttpTransactionContext;
 
-import lombok.AllArgsConstructor;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class TrafficStreamLimiter implements AutoCloseable {
 
-    @AllArgsConstructor
+    @RequiredArgsConstructor
     public static class WorkItem {
         private final @NonNull Consumer<WorkItem> task;
         private final IHttpTransactionContext context;
         private final int cost;
     }
 
+    /**
+     * A Semaphore whose number of permits can be lowered as well as raised
+     */
+    private static class ResizableSemaphore extends Semaphore {
+        ResizableSemaphore(int permits) {
+            super(permits);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+
     public final Semaphore liveTrafficStreamCostGate;
     private final LinkedTransferQueue<WorkItem> workQueue;
     private final Thread consumerThread;
     private final AtomicBoolean stopped;
+    /** When null, the limit stays at what it was constructed with */
+    private final AdaptiveConcurrencyLimit adaptiveLimit;
 
     public TrafficStreamLimiter(int maxConcurrentCost) {
-        this.liveTrafficStreamCostGate = new Semaphore(maxConcurrentCost);
+        this(maxConcurrentCost, null);
+    }
+
+    /**
+     * Lets the adaptiveLimit raise and lower the cost of the work that can be outstanding at once according to
+     * the target response times that are passed to doneProcessing.
+     */
+    public TrafficStreamLimiter(@NonNull AdaptiveConcurrencyLimit adaptiveLimit) {
+        this(adaptiveLimit.getLimit(), adaptiveLimit);
+    }
+
+    private TrafficStreamLimiter(int maxConcurrentCost, AdaptiveConcurrencyLimit adaptiveLimit) {
+        this.adaptiveLimit = adaptiveLimit;
+        this.liveTrafficStreamCostGate = new ResizableSemaphore(maxConcurrentCost);
         this.workQueue = new LinkedTransferQueue<>();
         this.stopped = new AtomicBoolean();
         this.consumerThread = new Thread(this::consumeFromQueue, "requestFeederThread");
@@ -77,8 +107,40 @@ public class TrafficStreamLimiter implements AutoCloseable {
         return workItem;
     }
 
+    /**
+     * Releases a work item without telling the adaptive limit anything about the target, e.g. because its
+     * request was never sent.
+     */
     public void doneProcessing(@NonNull WorkItem workItem) {
+        release(workItem, 0);
+    }
+
+    /**
+     * @param targetResponseDuration how long the target took to successfully respond to the work item's request,
+     *                               measured from when it was sent.  Time spent queued or transforming the request
+     *                               is left out, so that the adaptive limit only reacts to the target and not to
+     *                               the replayer's own backlog.
+     */
+    public void doneProcessing(@NonNull WorkItem workItem, @NonNull Duration targetResponseDuration) {
+        release(workItem,
+            adaptiveLimit == null ? 0 : adaptiveLimit.onRequestFinished(targetResponseDuration.toNanos()));
+    }
+
+    /**
+     * Releases a work item whose request failed, timed out, or was throttled by the target.  The adaptive limit
+     * treats that as the target being over its target latency.
+     */
+    public void doneProcessingAfterTargetFailure(@NonNull WorkItem workItem) {
+        release(workItem, adaptiveLimit == null ? 0 : adaptiveLimit.onRequestFailed());
+    }
+
+    private void release(WorkItem workItem, int limitChange) {
         liveTrafficStreamCostGate.release(workItem.cost);
+        if (limitChange > 0) {
+            liveTrafficStreamCostGate.release(limitChange);
+        } else if (limitChange < 0) {
+            ((ResizableSemaphore) liveTrafficStreamCostGate).reducePermits(-limitChange);
+        }
         log.atDebug().setMessage("released {} liveTrafficStreamCostGate.availablePermits={} for {}")
             .addArgument(workItem.cost)
             .addArgument(liveTrafficStreamCostGate::availablePermits)
@@ -0,0 +1,111 @@
+package org.opensearch.migrations.replay.tuples;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads back the records of one file that BinaryTupleFileWriter wrote.  A file whose writer didn't get to finish
+ * (e.g. because the replayer was killed) can end with a partial block.  Rather than failing, reading stops at
+ * that block, with a warning, so that everything before it can still be converted.
+ *
+ * This class is not thread-safe.
+ */
+@Slf4j
+public class BinaryTupleFileReader implements AutoCloseable {
+    private final Path path;
+    private final DataInputStream in;
+    private final Inflater inflater = new Inflater();
+    private ByteBuffer currentBlock = ByteBuffer.allocate(0);
+
+    public BinaryTupleFileReader(Path path) throws IOException {
+        this.path = path;
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+        try {
+            var magic = new byte[BinaryTupleFileWriter.FILE_MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, BinaryTupleFileWriter.FILE_MAGIC)) {
+                throw new IOException(path + " is not a tuple file");
+            }
+            var version = in.readInt();
+            if (version != BinaryTupleFileWriter.FORMAT_VERSION) {
+                throw new IOException("Unsupported tuple file version " + version + " in " + path);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the next record, or null once there are no more complete records in the file
+     */
+    public byte[] readNextRecord() throws IOException {
+        if (!currentBlock.hasRemaining() && !readNextBlock()) {
+            return null;
+        }
+        var record = new byte[currentBlock.getInt()];
+        currentBlock.get(record);
+        return record;
+    }
+
+    private boolean readNextBlock() throws IOException {
+        do {
+            int uncompressedLength;
+            byte[] compressed;
+            try {
+                uncompressedLength = in.readInt();
+            } catch (EOFException e) {
+                return false;
+            }
+            try {
+                compressed = new byte[in.readInt()];
+                in.readFully(compressed);
+            } catch (EOFException e) {
+                log.atWarn().setMessage("{} ends with a partial block, which was likely still being written.  "
+                    + "Ignoring it.").addArgument(path).log();
+                return false;
+            }
+            currentBlock = ByteBuffer.wrap(inflate(compressed, uncompressedLength));
+        } while (!currentBlock.hasRemaining());
+        return true;
+    }
+
+    private byte[] inflate(byte[] compressed, int uncompressedLength) throws IOException {
+        var uncompressed = new byte[uncompressedLength];
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            var numInflated = 0;
+            while (numInflated < uncompressedLength && !inflater.finished()) {
+                var n = inflater.inflate(uncompressed, numInflated, uncompressedLength - numInflated);
+                if (n == 0 && inflater.needsInput()) {
+                    break;
+                }
+                numInflated += n;
+            }
+            if (numInflated != uncompressedLength) {
+                throw new IOException("Block in " + path + " inflated to " + numInflated + " bytes rather than "
+                    + uncompressedLength);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt block in " + path, e);
+        }
+        return uncompressed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        in.close();
+    }
+}
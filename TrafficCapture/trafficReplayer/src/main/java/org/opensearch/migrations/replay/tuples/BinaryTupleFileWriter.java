@@ -0,0 +1,302 @@
+package org.opensearch.migrations.replay.tuples;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+
+import org.opensearch.migrations.replay.SourceTargetCaptureTuple;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A tuple sink for high request rates.  Rather than parsing each tuple into JSON on the thread that completed
+ * it, this copies the tuple's packets into a binary record (see TupleRecordCodec) and hands the record to a
+ * dedicated writer thread.  That thread drains whatever records have queued up, compresses them together in
+ * blocks of up to a maximum number of records and bytes, and appends the blocks to the current file in the output
+ * directory, starting a new file once the current one has grown past the configured size.  BinaryTupleFilesToJson
+ * converts the files into the JSON that ResultsToLogsConsumer would have logged.
+ *
+ * When the writer can't keep up, accept() blocks once the queue is full, pushing back on the replayer rather
+ * than buffering without bound.  A failure on the writer thread is rethrown from the next call to accept() or
+ * close().
+ *
+ * Each file starts with the 4 byte FILE_MAGIC and an int FORMAT_VERSION, followed by blocks.  Each block is an
+ * int count of uncompressed bytes, an int count of compressed bytes, and then the deflated bytes.  Uncompressed,
+ * a block is a sequence of records, each of which is prefixed with its int length.
+ */
+@Slf4j
+public class BinaryTupleFileWriter implements Consumer<SourceTargetCaptureTuple>, AutoCloseable {
+    public static final byte[] FILE_MAGIC = { 'T', 'U', 'P', 'L' };
+    public static final int FORMAT_VERSION = 1;
+    public static final String FILE_PREFIX = "tuples-";
+    public static final String FILE_SUFFIX = ".bin";
+    public static final long DEFAULT_MAX_FILE_BYTES = 256L * 1024 * 1024;
+    public static final int DEFAULT_QUEUE_CAPACITY = 16 * 1024;
+    public static final int DEFAULT_MAX_RECORDS_PER_BLOCK = 1024;
+    public static final int DEFAULT_MAX_BYTES_PER_BLOCK = 16 * 1024 * 1024;
+    // a block's length is written as an int, and one record is always written to a block by itself
+    private static final int MAX_RECORD_BYTES = Integer.MAX_VALUE - 64;
+    private static final long QUEUE_POLL_INTERVAL_MS = 100;
+
+    private static final DateTimeFormatter FILE_TIMESTAMP_FORMATTER =
+        DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss").withZone(ZoneOffset.UTC);
+    // only compared by identity, to tell the writer thread that nothing else is coming
+    private static final byte[] END_OF_RECORDS = new byte[0];
+
+    private final Path outputDirectory;
+    private final long maxFileBytes;
+    private final int maxRecordsPerBlock;
+    private final int maxBytesPerBlock;
+    private final BlockingQueue<byte[]> recordQueue;
+    private final Thread writerThread;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private FileChannel currentFile;
+    private long currentFileBytes;
+    private int fileCounter;
+    private volatile Throwable writerFailure;
+    private volatile boolean closed;
+    @Getter
+    private final AtomicLong recordsWritten = new AtomicLong();
+
+    public BinaryTupleFileWriter(@NonNull Path outputDirectory, long maxFileBytes) throws IOException {
+        this(outputDirectory, maxFileBytes, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_RECORDS_PER_BLOCK);
+    }
+
+    public BinaryTupleFileWriter(
+        @NonNull Path outputDirectory,
+        long maxFileBytes,
+        int queueCapacity,
+        int maxRecordsPerBlock
+    ) throws IOException {
+        this(outputDirectory, maxFileBytes, queueCapacity, maxRecordsPerBlock, DEFAULT_MAX_BYTES_PER_BLOCK);
+    }
+
+    /**
+     * @param maxFileBytes once a file has grown past this, the next block is written to a new file
+     * @param queueCapacity how many records can be waiting for the writer thread before accept() blocks
+     * @param maxRecordsPerBlock the most records to compress together
+     * @param maxBytesPerBlock the most uncompressed bytes to compress together, unless a single record is larger,
+     *                         in which case that record is written as a block by itself
+     */
+    public BinaryTupleFileWriter(
+        @NonNull Path outputDirectory,
+        long maxFileBytes,
+        int queueCapacity,
+        int maxRecordsPerBlock,
+        int maxBytesPerBlock
+    ) throws IOException {
+        if (maxFileBytes <= 0) {
+            throw new IllegalArgumentException("maxFileBytes must be positive");
+        }
+        if (maxBytesPerBlock <= 0) {
+            throw new IllegalArgumentException("maxBytesPerBlock must be positive");
+        }
+        Files.createDirectories(outputDirectory);
+        this.outputDirectory = outputDirectory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxRecordsPerBlock = maxRecordsPerBlock;
+        this.maxBytesPerBlock = maxBytesPerBlock;
+        this.recordQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writerThread = new Thread(this::runWriterLoop, "binaryTupleWriter");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void accept(SourceTargetCaptureTuple tuple) {
+        throwIfWriterFailed();
+        if (closed) {
+            throw new IllegalStateException("Tuple writer for " + outputDirectory + " has already been closed");
+        }
+        try {
+            var record = TupleRecordCodec.encode(tuple);
+            if (record.length > MAX_RECORD_BYTES) {
+                throw new IllegalArgumentException("Tuple for " + tuple.getRequestKey() + " is " + record.length
+                    + " bytes once encoded, which is more than can be written");
+            }
+            while (!recordQueue.offer(record, QUEUE_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                throwIfWriterFailed();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode tuple for " + tuple.getRequestKey(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to queue a tuple", e);
+        }
+    }
+
+    private void runWriterLoop() {
+        var batch = new ArrayList<byte[]>(maxRecordsPerBlock);
+        try {
+            while (true) {
+                batch.add(recordQueue.take());
+                recordQueue.drainTo(batch, maxRecordsPerBlock - 1);
+                var reachedEnd = false;
+                for (int i = 0; i < batch.size(); ++i) {
+                    if (batch.get(i) == END_OF_RECORDS) {
+                        reachedEnd = true;
+                        if (i + 1 < batch.size()) {
+                            log.atWarn()
+                                .setMessage("Dropping {} tuples that were queued after closing the writer for {}")
+                                .addArgument(batch.size() - i - 1)
+                                .addArgument(outputDirectory)
+                                .log();
+                        }
+                        batch.subList(i, batch.size()).clear();
+                        break;
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    writeBlocks(batch);
+                    recordsWritten.addAndGet(batch.size());
+                    batch.clear();
+                }
+                if (reachedEnd) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writerFailure = e;
+        } catch (Throwable t) {
+            log.atError().setCause(t).setMessage("Failed to write tuples to {}").addArgument(outputDirectory).log();
+            writerFailure = t;
+            // unblock any callers that are waiting to put more records on the queue
+            recordQueue.clear();
+        } finally {
+            deflater.end();
+            closeCurrentFile();
+        }
+    }
+
+    /**
+     * Splits the records into blocks of no more than maxBytesPerBlock, keeping their order
+     */
+    private void writeBlocks(List<byte[]> records) throws IOException {
+        int blockStart = 0;
+        long blockBytes = 0;
+        for (int i = 0; i < records.size(); ++i) {
+            long recordBytes = (long) Integer.BYTES + records.get(i).length;
+            if (i > blockStart && blockBytes + recordBytes > maxBytesPerBlock) {
+                writeBlock(records.subList(blockStart, i), (int) blockBytes);
+                blockStart = i;
+                blockBytes = 0;
+            }
+            blockBytes += recordBytes;
+        }
+        writeBlock(records.subList(blockStart, records.size()), Math.toIntExact(blockBytes));
+    }
+
+    private void writeBlock(List<byte[]> records, int uncompressedLength) throws IOException {
+        var uncompressed = ByteBuffer.allocate(uncompressedLength);
+        for (var record : records) {
+            uncompressed.putInt(record.length).put(record);
+        }
+        uncompressed.flip();
+
+        deflater.reset();
+        deflater.setInput(uncompressed);
+        deflater.finish();
+        var compressed = ByteBuffer.allocate(
+            (int) Math.min((long) uncompressedLength + uncompressedLength / 100 + 64, MAX_RECORD_BYTES));
+        while (!deflater.finished()) {
+            if (!compressed.hasRemaining()) {
+                var larger = ByteBuffer.allocate(Math.toIntExact(Math.min(compressed.capacity() * 2L,
+                    Integer.MAX_VALUE - 8L)));
+                compressed.flip();
+                larger.put(compressed);
+                compressed = larger;
+            }
+            deflater.deflate(compressed);
+        }
+        compressed.flip();
+
+        var header = ByteBuffer.allocate(2 * Integer.BYTES);
+        header.putInt(uncompressedLength).putInt(compressed.remaining()).flip();
+        var file = getFileForNextBlock();
+        currentFileBytes += writeFully(file, header, compressed);
+    }
+
+    private FileChannel getFileForNextBlock() throws IOException {
+        if (currentFile != null && currentFileBytes >= maxFileBytes) {
+            closeCurrentFile();
+        }
+        if (currentFile == null) {
+            var path = outputDirectory.resolve(FILE_PREFIX + FILE_TIMESTAMP_FORMATTER.format(Instant.now())
+                + "-" + String.format("%05d", fileCounter++) + FILE_SUFFIX);
+            currentFile = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            log.atInfo().setMessage("Writing tuples to {}").addArgument(path).log();
+            var fileHeader = ByteBuffer.allocate(FILE_MAGIC.length + Integer.BYTES);
+            fileHeader.put(FILE_MAGIC).putInt(FORMAT_VERSION).flip();
+            currentFileBytes = writeFully(currentFile, fileHeader);
+        }
+        return currentFile;
+    }
+
+    private static long writeFully(FileChannel channel, ByteBuffer... buffers) throws IOException {
+        long remaining = 0;
+        for (var buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        var total = remaining;
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+        return total;
+    }
+
+    private void closeCurrentFile() {
+        if (currentFile == null) {
+            return;
+        }
+        try {
+            currentFile.close();
+        } catch (IOException e) {
+            log.atWarn().setCause(e).setMessage("Could not close tuple file in {}").addArgument(outputDirectory).log();
+        }
+        currentFile = null;
+    }
+
+    private void throwIfWriterFailed() {
+        var failure = writerFailure;
+        if (failure != null) {
+            throw new IllegalStateException("Tuple writer for " + outputDirectory + " failed", failure);
+        }
+    }
+
+    /**
+     * Waits for every queued tuple to be written before closing the current file.  This may be called from more
+     * than one thread, such as a shutdown hook and the thread that ran the replayer.  Every caller waits until the
+     * queue has been drained, so nobody can go on to commit the tuples' traffic streams before they're on disk.
+     */
+    @Override
+    public synchronized void close() throws InterruptedException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        while (writerThread.isAlive()
+            && !recordQueue.offer(END_OF_RECORDS, QUEUE_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+            // the writer thread is still draining the queue, or it has just failed and is about to exit
+        }
+        writerThread.join();
+        throwIfWriterFailed();
+    }
+}
@@ -0,0 +1,140 @@
+package org.opensearch.migrations.replay.tuples;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.opensearch.migrations.replay.ParsedHttpMessagesAsDicts;
+import org.opensearch.migrations.replay.ResultsToLogsConsumer;
+import org.opensearch.migrations.replay.TrafficReplayer;
+import org.opensearch.migrations.replay.tracing.RootReplayerContext;
+import org.opensearch.migrations.tracing.IContextTracker;
+import org.opensearch.migrations.tracing.RootOtelContext;
+import org.opensearch.migrations.transform.TransformationLoader;
+import org.opensearch.migrations.transform.TransformerConfigUtils;
+import org.opensearch.migrations.utils.ProcessHelpers;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+import com.beust.jcommander.ParametersDelegate;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.helpers.NOPLogger;
+
+/**
+ * Converts the files that the replayer wrote with --tuple-output-dir into the same lines of JSON that the
+ * replayer logs to the OutputTupleJsonLogger by default, one tuple per line.  The tuple transformers are run
+ * here, rather than while replaying, so they can be changed without replaying the traffic again.
+ */
+@Slf4j
+public class BinaryTupleFilesToJson {
+    public static class Parameters {
+        @Parameter(
+            required = true,
+            description = "Tuple files, or directories of them, to convert.  Files within a directory are "
+                + "converted in the order that they were written.")
+        List<String> inputs = new ArrayList<>();
+
+        @Parameter(
+            required = false,
+            names = { "-o", "--output" },
+            arity = 1,
+            description = "File to write the JSON to.  Defaults to stdout.")
+        String outputFilename;
+
+        @ParametersDelegate
+        TrafficReplayer.TupleTransformationParams tupleTransformationParams =
+            new TrafficReplayer.TupleTransformationParams();
+    }
+
+    private static Parameters parseArgs(String[] args) {
+        var p = new Parameters();
+        var jCommander = new JCommander(p);
+        try {
+            jCommander.parse(args);
+            return p;
+        } catch (ParameterException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Got args: " + String.join("; ", args));
+            jCommander.usage();
+            System.exit(2);
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        var params = parseArgs(args);
+        var tupleTransformerConfig = TransformerConfigUtils.getTransformerConfig(params.tupleTransformationParams);
+        var resultsConsumer = new ResultsToLogsConsumer(NOPLogger.NOP_LOGGER, NOPLogger.NOP_LOGGER,
+            new TransformationLoader().getTransformerFactoryLoader(tupleTransformerConfig));
+        var rootContext = new RootReplayerContext(
+            RootOtelContext.initializeOpenTelemetryWithCollectorOrAsNoop(null,
+                "tupleConverter",
+                ProcessHelpers.getNodeInstanceName()),
+            IContextTracker.DO_NOTHING_TRACKER
+        );
+        var files = listTupleFiles(params.inputs);
+        try (var writer = params.outputFilename == null
+            ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+            : Files.newBufferedWriter(Path.of(params.outputFilename), StandardCharsets.UTF_8)
+        ) {
+            var numTuples = 0L;
+            for (var file : files) {
+                numTuples += convert(file, new TupleRecordCodec(rootContext), resultsConsumer, writer);
+            }
+            log.atInfo().setMessage("Converted {} tuples from {} files").addArgument(numTuples)
+                .addArgument(files.size()).log();
+        }
+    }
+
+    static List<Path> listTupleFiles(List<String> inputs) throws IOException {
+        var files = new ArrayList<Path>();
+        for (var input : inputs) {
+            var path = Path.of(input);
+            if (!Files.isDirectory(path)) {
+                files.add(path);
+                continue;
+            }
+            try (var dirStream = Files.list(path)) {
+                // the writer names files so that they sort in the order that they were written
+                files.addAll(dirStream.filter(p -> {
+                    var name = p.getFileName().toString();
+                    return name.startsWith(BinaryTupleFileWriter.FILE_PREFIX)
+                        && name.endsWith(BinaryTupleFileWriter.FILE_SUFFIX);
+                }).sorted().collect(Collectors.toList()));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Writes each tuple in the file as a line of JSON
+     * @return the number of tuples that were converted
+     */
+    public static long convert(
+        Path file,
+        TupleRecordCodec codec,
+        ResultsToLogsConsumer resultsConsumer,
+        Writer writer
+    ) throws IOException {
+        long numTuples = 0;
+        try (var reader = new BinaryTupleFileReader(file)) {
+            byte[] record;
+            while ((record = reader.readNextRecord()) != null) {
+                try (var tuple = codec.decode(record); var tupleContext = tuple.context) {
+                    writer.write(resultsConsumer.toTransformedJsonString(tuple, new ParsedHttpMessagesAsDicts(tuple)));
+                    writer.write('\n');
+                }
+                ++numTuples;
+            }
+        }
+        return numTuples;
+    }
+}
@@ -0,0 +1,324 @@
+package org.opensearch.migrations.replay.tuples;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.opensearch.migrations.replay.AggregatedRawResponse;
+import org.opensearch.migrations.replay.HttpMessageAndTimestamp;
+import org.opensearch.migrations.replay.RequestResponsePacketPair;
+import org.opensearch.migrations.replay.SourceTargetCaptureTuple;
+import org.opensearch.migrations.replay.TransformedTargetRequestAndResponseList;
+import org.opensearch.migrations.replay.datatypes.ByteBufList;
+import org.opensearch.migrations.replay.datatypes.HttpRequestTransformationStatus;
+import org.opensearch.migrations.replay.datatypes.PojoTrafficStreamKeyAndContext;
+import org.opensearch.migrations.replay.datatypes.UniqueReplayerRequestKey;
+import org.opensearch.migrations.replay.tracing.RootReplayerContext;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.NonNull;
+
+/**
+ * Converts a SourceTargetCaptureTuple to and from the binary record that BinaryTupleFileWriter stores.  A record
+ * holds the source and target packets verbatim, along with just enough of the request key, timings, and
+ * errors to rebuild a tuple that ResultsToLogsConsumer turns into the same JSON that it would have output
+ * for the original tuple.  Nothing is parsed while encoding, which is what keeps encoding cheap.
+ *
+ * All multibyte values are big-endian, as written by DataOutputStream.
+ */
+public class TupleRecordCodec {
+    private static final byte NO_TRANSFORMATION_STATUS = 0;
+    private static final byte TRANSFORMATION_COMPLETED = 1;
+    private static final byte TRANSFORMATION_SKIPPED = 2;
+    private static final byte TRANSFORMATION_ERROR = 3;
+
+    /**
+     * An exception that was recorded as a string and that prints as that same string, so that the rebuilt
+     * tuple shows the same error as the original one did.
+     */
+    public static class RecordedException extends Exception {
+        private final String recordedValue;
+
+        public RecordedException(String recordedValue) {
+            super(recordedValue, null, false, false);
+            this.recordedValue = String.valueOf(recordedValue);
+        }
+
+        @Override
+        public String toString() {
+            return recordedValue;
+        }
+    }
+
+    private final RootReplayerContext rootContext;
+
+    /**
+     * @param rootContext the context that the rebuilt tuples' contexts are created under
+     */
+    public TupleRecordCodec(@NonNull RootReplayerContext rootContext) {
+        this.rootContext = rootContext;
+    }
+
+    /**
+     * Copies everything that's needed out of the tuple, so the tuple can be closed as soon as this returns.
+     */
+    public static byte[] encode(SourceTargetCaptureTuple tuple) throws IOException {
+        var bytesOut = new ByteArrayOutputStream();
+        var out = new DataOutputStream(bytesOut);
+        var requestKey = tuple.getRequestKey();
+        writeString(out, requestKey.trafficStreamKey.getNodeId());
+        writeString(out, requestKey.trafficStreamKey.getConnectionId());
+        out.writeInt(requestKey.trafficStreamKey.getTrafficStreamIndex());
+        out.writeInt(requestKey.sourceRequestIndexSessionIdentifier);
+        out.writeInt(requestKey.getReplayerRequestIndex());
+
+        var sourcePair = tuple.sourcePair;
+        out.writeBoolean(sourcePair != null);
+        if (sourcePair != null) {
+            writeMessage(out, sourcePair.getRequestData());
+            writeMessage(out, sourcePair.getResponseData());
+        }
+
+        var hasTargetResults = tuple.targetRequestData != null
+            || tuple.transformationStatus != null
+            || !tuple.responseList.isEmpty();
+        out.writeBoolean(hasTargetResults);
+        if (hasTargetResults) {
+            writeTransformationStatus(out, tuple.transformationStatus);
+            out.writeBoolean(tuple.targetRequestData != null);
+            if (tuple.targetRequestData != null) {
+                writeByteBufPackets(out, tuple.targetRequestData.streamUnretained().collect(Collectors.toList()));
+            }
+            out.writeInt(tuple.responseList.size());
+            for (var response : tuple.responseList) {
+                writeByteArrayPackets(out, response.getTargetResponseData());
+                var duration = response.getTargetResponseDuration();
+                out.writeBoolean(duration != null);
+                if (duration != null) {
+                    out.writeLong(duration.toNanos());
+                }
+                writeNullableString(out, response.getErrorCause() == null ? null : response.getErrorCause().toString());
+            }
+        }
+        writeNullableString(out, tuple.topLevelErrorCause == null ? null : tuple.topLevelErrorCause.toString());
+        out.flush();
+        return bytesOut.toByteArray();
+    }
+
+    /**
+     * Rebuilds a tuple from a record.  The caller owns the returned tuple and should close it, along with its
+     * context, once it's done with it.
+     */
+    public SourceTargetCaptureTuple decode(byte[] record) throws IOException {
+        var in = new DataInputStream(new ByteArrayInputStream(record));
+        var nodeId = readString(in);
+        var connectionId = readString(in);
+        var trafficStreamIndex = in.readInt();
+        var sourceRequestIndexSessionIdentifier = in.readInt();
+        var replayerRequestIndex = in.readInt();
+        var trafficStreamKey = PojoTrafficStreamKeyAndContext.build(
+            nodeId,
+            connectionId,
+            trafficStreamIndex,
+            tsk -> rootContext.createTrafficStreamContextForStreamSource(rootContext.createChannelContext(tsk), tsk)
+        );
+
+        RequestResponsePacketPair sourcePair = null;
+        var hasSourcePair = in.readBoolean();
+        if (hasSourcePair) {
+            sourcePair = new RequestResponsePacketPair(
+                trafficStreamKey,
+                Instant.EPOCH,
+                sourceRequestIndexSessionIdentifier,
+                replayerRequestIndex
+            );
+            readMessage(in, sourcePair::addRequestData, sourcePair::getRequestData);
+            readMessage(in, sourcePair::addResponseData, sourcePair::getResponseData);
+        }
+        var httpTransactionContext = sourcePair != null
+            ? sourcePair.getHttpTransactionContext()
+            : trafficStreamKey.getTrafficStreamsContext().createHttpTransactionContext(
+                new UniqueReplayerRequestKey(
+                    trafficStreamKey,
+                    sourceRequestIndexSessionIdentifier,
+                    replayerRequestIndex
+                ),
+                Instant.EPOCH
+            );
+
+        TransformedTargetRequestAndResponseList targetResults = null;
+        if (in.readBoolean()) {
+            var transformationStatus = readTransformationStatus(in);
+            ByteBufList targetRequestPackets = null;
+            if (in.readBoolean()) {
+                targetRequestPackets = new ByteBufList();
+                for (var packet : readPackets(in)) {
+                    var packetBuf = Unpooled.wrappedBuffer(packet);
+                    targetRequestPackets.add(packetBuf);
+                    packetBuf.release();
+                }
+            }
+            targetResults = new TransformedTargetRequestAndResponseList(targetRequestPackets, transformationStatus);
+            var numResponses = in.readInt();
+            for (int i = 0; i < numResponses; ++i) {
+                var packets = readPackets(in);
+                var duration = in.readBoolean() ? Duration.ofNanos(in.readLong()) : null;
+                var error = readNullableString(in);
+                targetResults.addResponse(new AggregatedRawResponse(
+                    null,
+                    packets.stream().mapToInt(p -> p.length).sum(),
+                    duration,
+                    packets.stream()
+                        .map(p -> new AbstractMap.SimpleEntry<>(Instant.EPOCH, p))
+                        .collect(Collectors.toList()),
+                    error == null ? null : new RecordedException(error)
+                ));
+            }
+        }
+        var topLevelError = readNullableString(in);
+        return new SourceTargetCaptureTuple(
+            httpTransactionContext.createTupleContext(),
+            sourcePair,
+            targetResults,
+            topLevelError == null ? null : new RecordedException(topLevelError)
+        );
+    }
+
+    private static void writeMessage(DataOutputStream out, HttpMessageAndTimestamp message) throws IOException {
+        out.writeBoolean(message != null);
+        if (message != null) {
+            writeInstant(out, message.getFirstPacketTimestamp());
+            writeInstant(out, message.getLastPacketTimestamp());
+            writeByteBufPackets(out, message.packetBytes.streamUnretained().collect(Collectors.toList()));
+        }
+    }
+
+    private static void readMessage(
+        DataInputStream in,
+        BiConsumer<Instant, byte[]> packetAdder,
+        Supplier<HttpMessageAndTimestamp> messageGetter
+    ) throws IOException {
+        if (!in.readBoolean()) {
+            return;
+        }
+        var firstPacketTimestamp = readInstant(in);
+        var lastPacketTimestamp = readInstant(in);
+        var packets = readPackets(in);
+        if (packets.isEmpty()) {
+            // messages only exist once they've been given a packet
+            packets.add(new byte[0]);
+        }
+        for (var packet : packets) {
+            packetAdder.accept(firstPacketTimestamp, packet);
+        }
+        messageGetter.get().setLastPacketTimestamp(lastPacketTimestamp);
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant instant) throws IOException {
+        var value = instant == null ? Instant.EPOCH : instant;
+        out.writeLong(value.getEpochSecond());
+        out.writeInt(value.getNano());
+    }
+
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        var seconds = in.readLong();
+        return Instant.ofEpochSecond(seconds, in.readInt());
+    }
+
+    private static void writeByteArrayPackets(DataOutputStream out, List<byte[]> packets) throws IOException {
+        if (packets == null) {
+            out.writeInt(0);
+            return;
+        }
+        out.writeInt(packets.size());
+        for (var packet : packets) {
+            out.writeInt(packet.length);
+            out.write(packet);
+        }
+    }
+
+    private static void writeByteBufPackets(DataOutputStream out, List<ByteBuf> packets) throws IOException {
+        out.writeInt(packets.size());
+        for (var packet : packets) {
+            out.writeInt(packet.readableBytes());
+            packet.getBytes(packet.readerIndex(), out, packet.readableBytes());
+        }
+    }
+
+    private static List<byte[]> readPackets(DataInputStream in) throws IOException {
+        var numPackets = in.readInt();
+        var packets = new ArrayList<byte[]>(numPackets);
+        for (int i = 0; i < numPackets; ++i) {
+            var packet = new byte[in.readInt()];
+            in.readFully(packet);
+            packets.add(packet);
+        }
+        return packets;
+    }
+
+    private static void writeTransformationStatus(DataOutputStream out, HttpRequestTransformationStatus status)
+        throws IOException {
+        if (status == null) {
+            out.writeByte(NO_TRANSFORMATION_STATUS);
+        } else if (status.isCompleted()) {
+            out.writeByte(TRANSFORMATION_COMPLETED);
+        } else if (status.isSkipped()) {
+            out.writeByte(TRANSFORMATION_SKIPPED);
+        } else {
+            out.writeByte(TRANSFORMATION_ERROR);
+            writeNullableString(out, status.getException() == null ? null : status.getException().toString());
+        }
+    }
+
+    private static HttpRequestTransformationStatus readTransformationStatus(DataInputStream in) throws IOException {
+        var statusType = in.readByte();
+        switch (statusType) {
+            case NO_TRANSFORMATION_STATUS:
+                return null;
+            case TRANSFORMATION_COMPLETED:
+                return HttpRequestTransformationStatus.completed();
+            case TRANSFORMATION_SKIPPED:
+                return HttpRequestTransformationStatus.skipped();
+            case TRANSFORMATION_ERROR:
+                var error = readNullableString(in);
+                return HttpRequestTransformationStatus.makeError(new RecordedException(error));
+            default:
+                throw new IOException("Unknown transformation status type: " + statusType);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        var bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            writeString(out, value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? readString(in) : null;
+    }
+}
@@ -0,0 +1,65 @@
+package org.opensearch.migrations.replay;
+
+import java.time.Duration;
+
+import org.opensearch.migrations.replay.traffic.source.AdaptiveConcurrencyLimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = Duration.ofMillis(5).toNanos();
+    private static final long SLOW = Duration.ofMillis(50).toNanos();
+
+    private static int finishRound(AdaptiveConcurrencyLimit limit, long latencyNanos) {
+        int change = 0;
+        for (int i = limit.getLimit(); i > 0; --i) {
+            change += limit.onRequestFinished(latencyNanos);
+        }
+        return change;
+    }
+
+    @Test
+    public void testLimitDoublesThenBacksOffThenGrowsLinearly() {
+        var limit = new AdaptiveConcurrencyLimit(1, 100, Duration.ofMillis(10));
+        Assertions.assertEquals(1, finishRound(limit, FAST));
+        Assertions.assertEquals(2, finishRound(limit, FAST));
+        Assertions.assertEquals(4, limit.getLimit());
+        Assertions.assertEquals(0, limit.onRequestFinished(FAST));
+
+        limit = new AdaptiveConcurrencyLimit(64, 100, Duration.ofMillis(10));
+        Assertions.assertEquals(-7, finishRound(limit, SLOW));
+        Assertions.assertEquals(57, limit.getLimit());
+        Assertions.assertEquals(1, finishRound(limit, FAST));
+        Assertions.assertEquals(58, limit.getLimit());
+    }
+
+    @Test
+    public void testLimitStaysWithinBounds() {
+        var limit = new AdaptiveConcurrencyLimit(1, 6, Duration.ofMillis(10));
+        for (int i = 0; i < 10; ++i) {
+            finishRound(limit, FAST);
+        }
+        Assertions.assertEquals(6, limit.getLimit());
+        for (int i = 0; i < 100; ++i) {
+            finishRound(limit, SLOW);
+        }
+        Assertions.assertEquals(1, limit.getLimit());
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> new AdaptiveConcurrencyLimit(8, 4, Duration.ofMillis(10)));
+    }
+
+    @Test
+    public void testAnyFailureInARoundBacksOffEvenWhenTheRestWereFast() {
+        var limit = new AdaptiveConcurrencyLimit(10, 100, Duration.ofMillis(10));
+        for (int i = 0; i < 9; ++i) {
+            Assertions.assertEquals(0, limit.onRequestFinished(FAST));
+        }
+        Assertions.assertEquals(-1, limit.onRequestFailed());
+        Assertions.assertEquals(9, limit.getLimit());
+        // the failure doesn't carry over into the next round
+        Assertions.assertEquals(1, finishRound(limit, FAST));
+        Assertions.assertEquals(10, limit.getLimit());
+    }
+}
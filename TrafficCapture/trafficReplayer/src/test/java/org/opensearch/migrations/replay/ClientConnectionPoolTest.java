@@ -0,0 +1,41 @@
+package org.opensearch.migrations.replay;
+
+import java.util.HashSet;
+import java.util.stream.IntStream;
+
+import org.opensearch.migrations.netty.NettyTransport;
+
+import io.netty.channel.epoll.Epoll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ClientConnectionPoolTest {
+
+    private static void checkConnectionsAreSpreadOverStableEventLoops(NettyTransport transport) throws Exception {
+        var pool = new ClientConnectionPool((eventLoop, ctx) -> null, "testPool", 4, transport);
+        try {
+            var eventLoopsUsed = new HashSet<>();
+            IntStream.range(0, 64).mapToObj(i -> "connection" + i).forEach(connectionId -> {
+                var eventLoop = pool.getEventLoopForConnection(connectionId);
+                Assertions.assertSame(eventLoop, pool.getEventLoopForConnection(connectionId));
+                Assertions.assertEquals(transport, NettyTransport.forEventLoop(eventLoop));
+                eventLoopsUsed.add(eventLoop);
+            });
+            Assertions.assertEquals(4, eventLoopsUsed.size());
+        } finally {
+            pool.shutdownNow().get();
+        }
+    }
+
+    @Test
+    public void testEverySessionOfAConnectionIsOnTheSameEventLoop() throws Exception {
+        checkConnectionsAreSpreadOverStableEventLoops(NettyTransport.NIO);
+    }
+
+    @Test
+    public void testNativeTransportIsUsedWhenAvailable() throws Exception {
+        var transport = NettyTransport.choose(true);
+        Assertions.assertEquals(Epoll.isAvailable() ? NettyTransport.EPOLL : NettyTransport.NIO, transport);
+        checkConnectionsAreSpreadOverStableEventLoops(transport);
+    }
+}
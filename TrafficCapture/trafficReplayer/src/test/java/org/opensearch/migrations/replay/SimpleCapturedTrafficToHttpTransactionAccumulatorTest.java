@@ -1,5 +1,6 @@
 package org.opensearch.migrations.replay;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -24,9 +25,11 @@ import org.opensearch.migrations.tracing.InstrumentationTest;
 import org.opensearch.migrations.tracing.TestContext;
 import org.opensearch.migrations.trafficcapture.protos.TrafficStream;
 
+import io.netty.buffer.UnpooledByteBufAllocator;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -120,6 +123,112 @@ public class SimpleCapturedTrafficToHttpTransactionAccumulatorTest extends Instr
         Assertions.assertEquals(requestsReceived.get(), reconstructedTransactions.size());
     }
 
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("loadSimpleCombinations")
+    void spilledPacketsAreReconstructedIdentically(
+        String testName,
+        int bufferSize,
+        int skipCount,
+        List<ObservationDirective> directives,
+        List<Integer> expectedSizes,
+        @TempDir Path spillDirectory
+    ) throws Exception {
+        final var trafficStreamsArray = TrafficStreamGenerator.makeTrafficStream(
+            bufferSize,
+            0,
+            new AtomicInteger(),
+            directives,
+            rootContext
+        );
+        List<RequestResponsePacketPair> inMemoryTransactions = new ArrayList<>();
+        accumulateTrafficStreamsWithNewAccumulator(
+            rootContext,
+            Arrays.stream(trafficStreamsArray).skip(skipCount),
+            inMemoryTransactions,
+            new AtomicInteger(0)
+        );
+        List<RequestResponsePacketPair> spilledTransactions = new ArrayList<>();
+        // a budget this small spills every packet as soon as the next one arrives
+        var packetBudget = new BufferedPacketBudget(1, spillDirectory);
+        accumulateTrafficStreamsWithNewAccumulator(
+            rootContext,
+            Arrays.stream(trafficStreamsArray).skip(skipCount),
+            spilledTransactions,
+            new AtomicInteger(0),
+            packetBudget
+        );
+        Assertions.assertTrue(packetBudget.getNumberOfSpills() > 0);
+        Assertions.assertEquals(0, packetBudget.getResidentBytes());
+        Assertions.assertEquals(0, packetBudget.getSpilledBytes());
+        Assertions.assertEquals(inMemoryTransactions.size(), spilledTransactions.size());
+        for (int i = 0; i < inMemoryTransactions.size(); ++i) {
+            Assertions.assertEquals(inMemoryTransactions.get(i).requestData, spilledTransactions.get(i).requestData);
+            Assertions.assertEquals(inMemoryTransactions.get(i).responseData, spilledTransactions.get(i).responseData);
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("loadSimpleCombinations")
+    void offHeapPacketsAreReconstructedIdenticallyAndReleased(
+        String testName,
+        int bufferSize,
+        int skipCount,
+        List<ObservationDirective> directives,
+        List<Integer> expectedSizes,
+        @TempDir Path spillDirectory
+    ) throws Exception {
+        final var trafficStreamsArray = TrafficStreamGenerator.makeTrafficStream(
+            bufferSize,
+            0,
+            new AtomicInteger(),
+            directives,
+            rootContext
+        );
+        List<RequestResponsePacketPair> onHeapTransactions = new ArrayList<>();
+        accumulateTrafficStreamsWithNewAccumulator(
+            rootContext,
+            Arrays.stream(trafficStreamsArray).skip(skipCount),
+            onHeapTransactions,
+            new AtomicInteger(0)
+        );
+        // unpooled, so that its metrics count exactly what hasn't been released yet
+        var allocator = new UnpooledByteBufAllocator(true);
+        for (var maxResidentBytes : List.of(BufferedPacketBudget.UNLIMITED_BYTES, 1L)) {
+            List<RequestResponsePacketPair> offHeapTransactions = new ArrayList<>();
+            accumulateTrafficStreamsWithNewAccumulator(
+                rootContext,
+                Arrays.stream(trafficStreamsArray).skip(skipCount),
+                offHeapTransactions,
+                new AtomicInteger(0),
+                new BufferedPacketBudget(maxResidentBytes, spillDirectory, allocator)
+            );
+            Assertions.assertEquals(onHeapTransactions.size(), offHeapTransactions.size());
+            for (int i = 0; i < onHeapTransactions.size(); ++i) {
+                var offHeapTransaction = offHeapTransactions.get(i);
+                Assertions.assertTrue(offHeapTransaction.requestData.packetBytes.isOffHeap());
+                Assertions.assertEquals(onHeapTransactions.get(i).requestData, offHeapTransaction.requestData);
+                Assertions.assertEquals(onHeapTransactions.get(i).responseData, offHeapTransaction.responseData);
+                offHeapTransaction.releasePackets();
+            }
+            Assertions.assertEquals(0, allocator.metric().usedDirectMemory());
+        }
+    }
+
+    static SortedSet<Integer> accumulateTrafficStreamsWithNewAccumulator(
+        TestContext context,
+        Stream<TrafficStream> trafficStreams,
+        List<RequestResponsePacketPair> aggregations,
+        AtomicInteger requestsReceived
+    ) {
+        return accumulateTrafficStreamsWithNewAccumulator(
+            context,
+            trafficStreams,
+            aggregations,
+            requestsReceived,
+            BufferedPacketBudget.unlimited()
+        );
+    }
+
     /**
      * Returns the traffic stream indices whose contents have been fully received.
      * @param trafficStreams
@@ -131,7 +240,8 @@ public class SimpleCapturedTrafficToHttpTransactionAccumulatorTest extends Instr
         TestContext context,
         Stream<TrafficStream> trafficStreams,
         List<RequestResponsePacketPair> aggregations,
-        AtomicInteger requestsReceived
+        AtomicInteger requestsReceived,
+        BufferedPacketBudget packetBudget
     ) {
         var tsIndicesReceived = new TreeSet<Integer>();
         CapturedTrafficToHttpTransactionAccumulator trafficAccumulator =
@@ -145,6 +255,7 @@ public class SimpleCapturedTrafficToHttpTransactionAccumulatorTest extends Instr
                     return fullPair -> {
                         var sourceIdx = ctx.getReplayerRequestKey().getSourceRequestIndex();
                         if (fullPair.completionStatus == RequestResponsePacketPair.ReconstructionStatus.CLOSED_PREMATURELY) {
+                            fullPair.releasePackets();
                             return;
                         }
                         fullPair.getTrafficStreamsHeld()
@@ -154,6 +265,7 @@ public class SimpleCapturedTrafficToHttpTransactionAccumulatorTest extends Instr
                             var oldVal = aggregations.set(sourceIdx, fullPair);
                             if (oldVal != null) {
                                 Assertions.assertEquals(oldVal, fullPair);
+                                oldVal.releasePackets();
                             }
                         } else {
                             aggregations.add(fullPair);
@@ -182,7 +294,7 @@ public class SimpleCapturedTrafficToHttpTransactionAccumulatorTest extends Instr
                 public void onTrafficStreamIgnored(@NonNull IReplayContexts.ITrafficStreamsLifecycleContext ctx) {
                     tsIndicesReceived.add(ctx.getTrafficStreamKey().getTrafficStreamIndex());
                 }
-            });
+            }, packetBudget);
         var tsList = trafficStreams.collect(Collectors.toList());
         trafficStreams = tsList.stream();
 
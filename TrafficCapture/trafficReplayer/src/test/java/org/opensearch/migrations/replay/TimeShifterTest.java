@@ -37,4 +37,21 @@ class TimeShifterTest {
             shifter.transformRealTimeToSourceTime(shifter.transformSourceTimeToRealTime(sourceTime2)).get()
         );
     }
+
+    @Test
+    public void testClosedLoopShifterMakesEverythingDueNow() {
+        TimeShifter shifter = TimeShifter.closedLoop();
+        Assertions.assertTrue(shifter.isClosedLoop());
+        Assertions.assertEquals(Optional.empty(), shifter.transformRealTimeToSourceTime(Instant.now()));
+
+        var sourceTime = Instant.now().minus(Duration.ofDays(1));
+        shifter.setFirstTimestamp(sourceTime);
+        var before = Instant.now();
+        var realTime = shifter.transformSourceTimeToRealTime(sourceTime.plus(Duration.ofHours(1)));
+        Assertions.assertFalse(realTime.isBefore(before));
+        Assertions.assertFalse(realTime.isAfter(Instant.now()));
+        Assertions.assertTrue(
+            shifter.transformRealTimeToSourceTime(Instant.now()).get().isAfter(sourceTime.plus(Duration.ofDays(365)))
+        );
+    }
 }
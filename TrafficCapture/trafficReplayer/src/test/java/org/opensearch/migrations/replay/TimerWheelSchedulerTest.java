@@ -0,0 +1,58 @@
+package org.opensearch.migrations.replay;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.DefaultEventLoopGroup;
+import io.netty.channel.EventLoop;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TimerWheelSchedulerTest {
+
+    @Test
+    public void testTriggersRunOnTheirEventLoopsNoEarlierThanTheirDeadlines() throws Exception {
+        var group = new DefaultEventLoopGroup(2);
+        try (var scheduler = new TimerWheelScheduler(Duration.ofMillis(1), "testTimerWheel")) {
+            var eventLoops = new EventLoop[] { group.next(), group.next() };
+            var start = Instant.now();
+            var futures = new ArrayList<CompletableFuture<Void>>();
+            // cover immediate triggers, the first level, and ones that have to cascade down from the second level
+            for (var delayMs : new int[] { -5, 0, 3, 40, 255, 256, 300, 700 }) {
+                for (var eventLoop : eventLoops) {
+                    var deadline = start.plusMillis(delayMs);
+                    futures.add(scheduler.schedule(eventLoop, deadline, new CompletableFuture<>())
+                        .thenRun(() -> {
+                            Assertions.assertTrue(eventLoop.inEventLoop());
+                            Assertions.assertFalse(Instant.now().isBefore(deadline));
+                        }));
+                }
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+            Assertions.assertEquals(0, scheduler.getPendingCount());
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+    }
+
+    @Test
+    public void testClosingCancelsTriggersThatHaveNotRun() throws Exception {
+        var group = new DefaultEventLoopGroup(1);
+        try {
+            var scheduler = new TimerWheelScheduler(Duration.ofMillis(1), "testTimerWheel");
+            var pending = scheduler.schedule(group.next(), Instant.now().plusSeconds(3600), new CompletableFuture<>());
+            scheduler.close();
+            var e = Assertions.assertThrows(ExecutionException.class, () -> pending.get(10, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(CancellationException.class, e.getCause());
+            var afterClose = scheduler.schedule(group.next(), Instant.now(), new CompletableFuture<>());
+            Assertions.assertTrue(afterClose.isCompletedExceptionally());
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.opensearch.migrations.replay;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.opensearch.migrations.replay.datatypes.HttpRequestTransformationStatus;
+import org.opensearch.migrations.replay.traffic.source.AdaptiveConcurrencyLimit;
+import org.opensearch.migrations.replay.traffic.source.TrafficStreamLimiter;
+
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TrafficReplayerCoreLimiterTest {
+    private static final Duration TARGET_LATENCY = Duration.ofMillis(100);
+    private static final Duration FAST = Duration.ofMillis(1);
+
+    private static TransformedTargetRequestAndResponseList summaryWithResponse(
+        HttpResponseStatus status,
+        Throwable error
+    ) {
+        var response = new AggregatedRawResponse(
+            status == null ? null : new DefaultHttpResponse(HttpVersion.HTTP_1_1, status),
+            0,
+            FAST,
+            List.of(),
+            error
+        );
+        return new TransformedTargetRequestAndResponseList(null, HttpRequestTransformationStatus.completed(), response);
+    }
+
+    /**
+     * Runs a round of as many requests as the limit, each of which is released with the given outcome
+     */
+    private static void runRound(
+        TrafficStreamLimiter limiter,
+        AdaptiveConcurrencyLimit adaptiveLimit,
+        TransformedTargetRequestAndResponseList summary,
+        Throwable t
+    ) throws Exception {
+        for (int i = adaptiveLimit.getLimit(); i > 0; --i) {
+            var started = new CompletableFuture<TrafficStreamLimiter.WorkItem>();
+            limiter.queueWork(1, null, started::complete);
+            TrafficReplayerCore.releaseWorkItem(limiter, started.get(10, TimeUnit.SECONDS), summary, t);
+        }
+    }
+
+    @Test
+    public void testAnErroringTargetShrinksTheLimit() throws Exception {
+        var adaptiveLimit = new AdaptiveConcurrencyLimit(16, 64, TARGET_LATENCY);
+        try (var limiter = new TrafficStreamLimiter(adaptiveLimit)) {
+            runRound(limiter, adaptiveLimit, summaryWithResponse(HttpResponseStatus.OK, null), null);
+            Assertions.assertEquals(32, adaptiveLimit.getLimit());
+
+            var failures = List.of(
+                summaryWithResponse(HttpResponseStatus.SERVICE_UNAVAILABLE, null),
+                summaryWithResponse(HttpResponseStatus.TOO_MANY_REQUESTS, null),
+                summaryWithResponse(null, new RuntimeException("connection refused")),
+                new TransformedTargetRequestAndResponseList(null, HttpRequestTransformationStatus.completed())
+            );
+            var lastLimit = adaptiveLimit.getLimit();
+            for (var failure : failures) {
+                runRound(limiter, adaptiveLimit, failure, null);
+                Assertions.assertTrue(adaptiveLimit.getLimit() < lastLimit, failure::toString);
+                lastLimit = adaptiveLimit.getLimit();
+            }
+            runRound(limiter, adaptiveLimit, null, new RuntimeException("timed out"));
+            Assertions.assertTrue(adaptiveLimit.getLimit() < lastLimit);
+            Assertions.assertEquals(adaptiveLimit.getLimit(), limiter.liveTrafficStreamCostGate.availablePermits());
+        }
+    }
+
+    @Test
+    public void testRequestsThatWereNeverSentDoNotChangeTheLimit() throws Exception {
+        var adaptiveLimit = new AdaptiveConcurrencyLimit(4, 64, TARGET_LATENCY);
+        try (var limiter = new TrafficStreamLimiter(adaptiveLimit)) {
+            var skipped = new TransformedTargetRequestAndResponseList(null, HttpRequestTransformationStatus.skipped());
+            runRound(limiter, adaptiveLimit, skipped, null);
+            Assertions.assertEquals(4, adaptiveLimit.getLimit());
+            Assertions.assertEquals(4, limiter.liveTrafficStreamCostGate.availablePermits());
+        }
+    }
+}
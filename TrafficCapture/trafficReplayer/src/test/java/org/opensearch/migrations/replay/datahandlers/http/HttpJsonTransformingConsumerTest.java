@@ -8,6 +8,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -362,6 +363,42 @@ class HttpJsonTransformingConsumerTest extends InstrumentationTest {
         Assertions.assertNull(returnedResponse.transformationStatus.getException());
     }
 
+    @Test
+    public void testTransformerThatDeclaresPayloadUseIsRunOnce() throws Exception {
+        final var dummyAggregatedResponse = new AggregatedRawResponse(null, 19, Duration.ZERO, List.of(), null);
+        var testPacketCapture = new TestCapturePacketToHttpHandler(Duration.ofMillis(100), dummyAggregatedResponse);
+        var numTransformCalls = new AtomicInteger();
+        var sizeCalculatingTransformer = new IJsonTransformer() {
+            @Override
+            public Object transformJson(Object incomingJson) {
+                numTransformCalls.incrementAndGet();
+                var payload = (Map) ((Map) incomingJson).get("payload");
+                var list = (List) payload.get(JsonKeysForHttpMessage.INLINED_NDJSON_BODIES_DOCUMENT_KEY);
+                ((Map) ((Map) incomingJson).get("headers"))
+                    .put("listSize", "" + list.size());
+                return incomingJson;
+            }
+
+            @Override
+            public MessageParts getAccessedMessageParts() {
+                return MessageParts.HEADERS_AND_PAYLOAD;
+            }
+        };
+        var transformingHandler = new HttpJsonTransformingConsumer<AggregatedRawResponse>(
+            new JsonCompositeTransformer(sizeCalculatingTransformer),
+            null,
+            testPacketCapture,
+            rootContext.getTestConnectionRequestContext(0)
+        );
+
+        transformingHandler.consumeBytes(NDJSON_TEST_REQUEST.getBytes(StandardCharsets.UTF_8));
+        var returnedResponse = transformingHandler.finalizeRequest().get();
+        var expectedString = NDJSON_TEST_REQUEST.replace("\r\n\r\n","\r\nlistSize: 3\r\n\r\n");
+        Assertions.assertEquals(expectedString, testPacketCapture.getCapturedAsString());
+        Assertions.assertEquals(HttpRequestTransformationStatus.completed(), returnedResponse.transformationStatus);
+        Assertions.assertEquals(1, numTransformCalls.get());
+    }
+
     @Test
     public void testMalformedPayload_andThrowingTransformation_IsPassedThrough() throws Exception {
         final String HOST_NAME = "foo.example";
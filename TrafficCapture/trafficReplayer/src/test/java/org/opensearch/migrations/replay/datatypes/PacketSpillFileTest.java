@@ -0,0 +1,65 @@
+package org.opensearch.migrations.replay.datatypes;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.opensearch.migrations.testutils.WrapWithNettyLeakDetection;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@WrapWithNettyLeakDetection(disableLeakChecks = true)
+class PacketSpillFileTest {
+    private static RawPackets packets(String... contents) {
+        var packets = new RawPackets();
+        for (var content : contents) {
+            packets.add(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return packets;
+    }
+
+    private static long filesIn(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    public void testSegmentsAreDeletedOnceEverythingInThemIsReleased(@TempDir Path spillDirectory) throws Exception {
+        try (var spillFile = new PacketSpillFile(spillDirectory, 8)) {
+            // held for the whole test, like a message on a connection that rarely sends anything
+            var longLived = spillFile.append(packets("pinned!!"));
+            for (int i = 0; i < 10; ++i) {
+                var shortLived = spillFile.append(packets("abcd", "efgh"));
+                Assertions.assertEquals(List.of("abcd", "efgh"), spillFile.read(shortLived).stream()
+                    .map(b -> new String(b, StandardCharsets.UTF_8))
+                    .toList());
+            }
+            // only the long-lived packets' segment and the current one are left on disk
+            Assertions.assertEquals(2, spillFile.getNumberOfSegments());
+            Assertions.assertEquals(2, filesIn(spillDirectory));
+            Assertions.assertEquals(8, spillFile.getLiveBytes());
+
+            spillFile.release(longLived);
+            Assertions.assertEquals(1, spillFile.getNumberOfSegments());
+            Assertions.assertEquals(1, filesIn(spillDirectory));
+            Assertions.assertEquals(0, spillFile.getLiveBytes());
+        }
+        Assertions.assertEquals(0, filesIn(spillDirectory));
+    }
+
+    @Test
+    public void testClosingDeletesSegmentsThatStillHoldPackets(@TempDir Path spillDirectory) throws Exception {
+        try (var spillFile = new PacketSpillFile(spillDirectory, 4)) {
+            spillFile.append(packets("first"));
+            spillFile.append(packets("second"));
+            spillFile.append(packets("third"));
+            Assertions.assertEquals(3, filesIn(spillDirectory));
+        }
+        Assertions.assertEquals(0, filesIn(spillDirectory));
+    }
+}
@@ -9,6 +9,7 @@ import java.time.Duration;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
@@ -29,6 +30,7 @@ import org.opensearch.migrations.replay.tracing.IRootReplayerContext;
 import org.opensearch.migrations.replay.tracing.ITrafficSourceContexts;
 import org.opensearch.migrations.replay.traffic.generator.ExhaustiveTrafficStreamGenerator;
 import org.opensearch.migrations.replay.traffic.source.ArrayCursorTrafficSourceContext;
+import org.opensearch.migrations.replay.traffic.source.BlockingTrafficSource;
 import org.opensearch.migrations.replay.traffic.source.ISimpleTrafficCaptureSource;
 import org.opensearch.migrations.replay.traffic.source.ITrafficStreamWithKey;
 import org.opensearch.migrations.replay.traffic.source.TrafficStreamCursorKey;
@@ -107,7 +109,7 @@ public class FullTrafficReplayerTest extends InstrumentationTest {
         @SneakyThrows
         protected void wrapUpWorkAndEmitSummary(
             ReplayEngine replayEngine,
-            CapturedTrafficToHttpTransactionAccumulator accumulator
+            List<CapturedTrafficToHttpTransactionAccumulator> accumulators
         ) {
             var startTime = System.nanoTime();
             for (Duration waitTime = Duration.ofMillis(10); replayEngine.isWorkOutstanding(); waitTime = waitTime
@@ -124,7 +126,7 @@ public class FullTrafficReplayerTest extends InstrumentationTest {
                 }
                 Thread.sleep(waitTime.toMillis());
             }
-            super.wrapUpWorkAndEmitSummary(replayEngine, accumulator);
+            super.wrapUpWorkAndEmitSummary(replayEngine, accumulators);
         }
     }
 
@@ -396,4 +398,70 @@ public class FullTrafficReplayerTest extends InstrumentationTest {
             log.info("done");
         }
     }
+
+    @Test
+    @Tag("longTest")
+    @ResourceLock("TrafficReplayerRunner")
+    public void testTrafficSourcesThatAreReadInParallelAreAllReplayedAndCommitted() throws Throwable {
+        final int numTrafficSources = 3;
+        var random = new Random(1);
+        try (
+            var httpServer = SimpleNettyHttpServer.makeServer(
+                false,
+                Duration.ofMillis(2),
+                response -> TestHttpServerContext.makeResponse(random, response)
+            )
+        ) {
+            var nonTrackingContext = TestContext.noOtelTracking();
+            var streamAndSizes = ExhaustiveTrafficStreamGenerator.generateStreamAndSumOfItsTransactions(
+                nonTrackingContext,
+                16,
+                true
+            );
+            // like the partitions of a Kafka topic, each source has every stream for the connections that it has
+            var trafficStreamsBySource = streamAndSizes.stream.collect(Collectors.groupingBy(
+                ts -> Math.floorMod(ts.getConnectionId().hashCode(), numTrafficSources)
+            ));
+            var trafficSourceContexts = trafficStreamsBySource.values()
+                .stream()
+                .map(ArrayCursorTrafficSourceContext::new)
+                .collect(Collectors.toList());
+            var trafficSources = trafficSourceContexts.stream()
+                .map(c -> new BlockingTrafficSource(c.apply(nonTrackingContext), Duration.ofMinutes(2)))
+                .collect(Collectors.toList());
+            var tuplesReceived = ConcurrentHashMap.<String>newKeySet();
+            try (
+                var tr = new TrafficReplayerWithWaitOnClose(
+                    Duration.ofSeconds(600),
+                    nonTrackingContext,
+                    httpServer.localhostEndpoint(),
+                    new StaticAuthTransformerFactory("TEST"),
+                    true,
+                    2,
+                    16,
+                    new TransformationLoader().getTransformerFactoryLoaderWithNewHostName("localhost"),
+                    null
+                )
+            ) {
+                tr.setupRunAndWaitForReplayToFinish(
+                    Duration.ofSeconds(70),
+                    Duration.ofSeconds(30),
+                    trafficSources,
+                    new TimeShifter(10 * 1000),
+                    t -> Assertions.assertTrue(tuplesReceived.add(t.getRequestKey().toString()))
+                );
+            } finally {
+                for (var trafficSource : trafficSources) {
+                    trafficSource.close();
+                }
+            }
+            Assertions.assertEquals(streamAndSizes.numHttpTransactions, tuplesReceived.size());
+            for (var trafficSourceContext : trafficSourceContexts) {
+                Assertions.assertEquals(
+                    trafficSourceContext.trafficStreamsList.size(),
+                    trafficSourceContext.nextReadCursor.get()
+                );
+            }
+        }
+    }
 }
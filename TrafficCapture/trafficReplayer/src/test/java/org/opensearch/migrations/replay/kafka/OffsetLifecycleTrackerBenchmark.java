@@ -0,0 +1,168 @@
+package org.opensearch.migrations.replay.kafka;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares OffsetLifecycleTracker with the synchronized PriorityQueue that it replaced.  Each operation adds
+ * NUM_OFFSETS offsets from one thread, as the poll loop does while catching up, so that they're all in flight at
+ * once.  Then removerThreads threads, like the threads that finish with records, remove them in an order that's
+ * shuffled within windows of shuffleWindow offsets.  So the score is in units of NUM_OFFSETS records committed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput})
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class OffsetLifecycleTrackerBenchmark {
+    private static final int NUM_OFFSETS = 16 * 1024;
+
+    interface Tracker {
+        void add(long offset);
+
+        Optional<Long> removeAndReturnNewHead(long offset);
+    }
+
+    /**
+     * OffsetLifecycleTracker as it was before it tracked offsets with chunks of a bitset
+     */
+    static class PriorityQueueTracker implements Tracker {
+        private final PriorityQueue<Long> pQueue = new PriorityQueue<>();
+        private long cursorHighWatermark;
+
+        @Override
+        public void add(long offset) {
+            synchronized (pQueue) {
+                cursorHighWatermark = offset;
+                pQueue.add(offset);
+            }
+        }
+
+        @Override
+        public Optional<Long> removeAndReturnNewHead(long offsetToRemove) {
+            synchronized (pQueue) {
+                var topCursor = pQueue.peek();
+                if (topCursor == null || !pQueue.remove(offsetToRemove)) {
+                    throw new IllegalStateException("Expected " + offsetToRemove + " to be live");
+                }
+                if (offsetToRemove == topCursor) {
+                    return Optional.of(Optional.ofNullable(pQueue.peek()).orElse(cursorHighWatermark + 1));
+                }
+                return Optional.empty();
+            }
+        }
+    }
+
+    @Param({"priorityQueue", "bitset"})
+    public String implementation;
+
+    @Param({"64", "4096"})
+    public int shuffleWindow;
+
+    @Param({"1", "4"})
+    public int removerThreads;
+
+    private List<List<Long>> removalOrderByThread;
+    private ExecutorService removerPool;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(1);
+        removalOrderByThread = new ArrayList<>();
+        for (int t = 0; t < removerThreads; ++t) {
+            removalOrderByThread.add(new ArrayList<>());
+        }
+        for (long windowStart = 0; windowStart < NUM_OFFSETS; windowStart += shuffleWindow) {
+            var window = new ArrayList<Long>();
+            for (long o = windowStart; o < Math.min(NUM_OFFSETS, windowStart + shuffleWindow); ++o) {
+                window.add(o);
+            }
+            Collections.shuffle(window, random);
+            for (int i = 0; i < window.size(); ++i) {
+                removalOrderByThread.get(i % removerThreads).add(window.get(i));
+            }
+        }
+        removerPool = Executors.newFixedThreadPool(removerThreads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        removerPool.shutdownNow();
+    }
+
+    private Tracker makeTracker() {
+        if (implementation.equals("priorityQueue")) {
+            return new PriorityQueueTracker();
+        }
+        var tracker = new OffsetLifecycleTracker(1);
+        return new Tracker() {
+            @Override
+            public void add(long offset) {
+                tracker.add(offset);
+            }
+
+            @Override
+            public Optional<Long> removeAndReturnNewHead(long offset) {
+                return tracker.removeAndReturnNewHead(offset);
+            }
+        };
+    }
+
+    @Benchmark
+    public long addAndRemoveAll() throws Exception {
+        var tracker = makeTracker();
+        for (long o = 0; o < NUM_OFFSETS; ++o) {
+            tracker.add(o);
+        }
+        var highestHead = new AtomicLong();
+        var futures = new ArrayList<Future<?>>();
+        for (var removalOrder : removalOrderByThread) {
+            futures.add(removerPool.submit(() -> {
+                for (var offset : removalOrder) {
+                    tracker.removeAndReturnNewHead(offset).ifPresent(h -> highestHead.accumulateAndGet(h, Math::max));
+                }
+            }));
+        }
+        for (var f : futures) {
+            f.get();
+        }
+        return highestHead.get();
+    }
+
+    @Test
+    void everyImplementationEndsOnePastTheLastOffset() throws Exception {
+        shuffleWindow = 64;
+        removerThreads = 4;
+        for (var impl : List.of("priorityQueue", "bitset")) {
+            implementation = impl;
+            setUp();
+            try {
+                assertEquals(NUM_OFFSETS, addAndRemoveAll());
+            } finally {
+                tearDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.opensearch.migrations.replay.kafka;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class OffsetLifecycleTrackerTest {
+
+    @Test
+    public void testHeadOnlyAdvancesWhenTheLowestOffsetIsRemoved() {
+        var tracker = new OffsetLifecycleTracker(1);
+        LongStream.range(10, 15).forEach(tracker::add);
+        Assertions.assertEquals(5, tracker.size());
+
+        Assertions.assertEquals(Optional.empty(), tracker.removeAndReturnNewHead(12));
+        Assertions.assertEquals(Optional.empty(), tracker.removeAndReturnNewHead(11));
+        Assertions.assertEquals(Optional.of(13L), tracker.removeAndReturnNewHead(10));
+        Assertions.assertEquals(Optional.empty(), tracker.removeAndReturnNewHead(14));
+        Assertions.assertEquals(Optional.of(15L), tracker.removeAndReturnNewHead(13));
+        Assertions.assertTrue(tracker.isEmpty());
+    }
+
+    @Test
+    public void testGapsBetweenAddedOffsetsDoNotHoldBackTheHead() {
+        var tracker = new OffsetLifecycleTracker(1);
+        tracker.add(5);
+        tracker.add(9);
+        tracker.add(10_000);
+        Assertions.assertEquals(Optional.of(9L), tracker.removeAndReturnNewHead(5));
+        Assertions.assertEquals(Optional.empty(), tracker.removeAndReturnNewHead(10_000));
+        Assertions.assertEquals(Optional.of(10_001L), tracker.removeAndReturnNewHead(9));
+
+        // a gap after everything has been removed is skipped over without needing a removal
+        tracker.add(20_000);
+        Assertions.assertEquals(Optional.of(20_001L), tracker.removeAndReturnNewHead(20_000));
+    }
+
+    @Test
+    public void testRemovingAnOffsetTwiceOrOneThatWasNeverAddedThrows() {
+        var tracker = new OffsetLifecycleTracker(1);
+        tracker.add(1);
+        tracker.add(3);
+        tracker.removeAndReturnNewHead(3);
+        Assertions.assertThrows(IllegalStateException.class, () -> tracker.removeAndReturnNewHead(3));
+        Assertions.assertThrows(IllegalStateException.class, () -> tracker.removeAndReturnNewHead(2));
+        Assertions.assertThrows(IllegalStateException.class, () -> tracker.removeAndReturnNewHead(4));
+        Assertions.assertThrows(IllegalStateException.class, () -> tracker.add(2));
+    }
+
+    @Test
+    public void testConcurrentRemovalsInAnyOrderLeaveTheHeadPastEveryOffset() throws Exception {
+        final int numThreads = 8;
+        final int numOffsets = 1 << 16;
+        var tracker = new OffsetLifecycleTracker(1);
+        var offsets = LongStream.range(0, numOffsets)
+            .filter(i -> i % 7 != 3) // leave gaps
+            .boxed()
+            .collect(Collectors.toCollection(ArrayList::new));
+        offsets.forEach(tracker::add);
+        Collections.shuffle(offsets, new Random(2));
+
+        var reportedHeads = new ConcurrentLinkedQueue<Long>();
+        var startLatch = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < numThreads; ++t) {
+                List<Long> slice = offsets.subList(t * offsets.size() / numThreads,
+                    (t + 1) * offsets.size() / numThreads);
+                futures.add(executor.submit(() -> {
+                    startLatch.await();
+                    slice.forEach(o -> tracker.removeAndReturnNewHead(o).ifPresent(reportedHeads::add));
+                    return null;
+                }));
+            }
+            startLatch.countDown();
+            for (var f : futures) {
+                f.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        var lastOffset = offsets.stream().mapToLong(Long::longValue).max().orElseThrow();
+        Assertions.assertTrue(tracker.isEmpty());
+        Assertions.assertEquals(lastOffset + 1, tracker.getLowWatermark());
+        Assertions.assertEquals(lastOffset + 1, reportedHeads.stream().mapToLong(Long::longValue).max().orElseThrow());
+    }
+
+    @Test
+    public void testRemovalsThatRaceWithAddingOffsetsAfterGapsLeaveTheHeadPastEveryOffset() throws Exception {
+        final int numRemovingThreads = 2;
+        final int numOffsets = 1 << 16;
+        final long noMoreOffsets = -1;
+        var tracker = new OffsetLifecycleTracker(1);
+        var addedOffsets = new LinkedBlockingQueue<Long>();
+        var executor = Executors.newFixedThreadPool(numRemovingThreads + 1);
+        long lastOffset;
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < numRemovingThreads; ++t) {
+                futures.add(executor.submit(() -> {
+                    for (var o = addedOffsets.take(); o != noMoreOffsets; o = addedOffsets.take()) {
+                        tracker.removeAndReturnNewHead(o);
+                    }
+                    return null;
+                }));
+            }
+            var adder = executor.submit(() -> {
+                long offset = 0;
+                long lastAdded = -1;
+                for (int i = 0; i < numOffsets; ++i) {
+                    // Every offset after the first follows a gap.  Waiting until the previous offset has been
+                    // removed means that the gap is added while its remover is still moving the head forward.
+                    while (!tracker.isEmpty()) {
+                        Thread.onSpinWait();
+                    }
+                    tracker.add(offset);
+                    addedOffsets.add(offset);
+                    lastAdded = offset;
+                    offset += (i % 1000 == 0) ? (1L << OffsetLifecycleTracker.CHUNK_BITS) : 2;
+                }
+                for (int t = 0; t < numRemovingThreads; ++t) {
+                    addedOffsets.add(noMoreOffsets);
+                }
+                return lastAdded;
+            });
+            lastOffset = adder.get(60, TimeUnit.SECONDS);
+            for (var f : futures) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertTrue(tracker.isEmpty());
+        Assertions.assertEquals(lastOffset + 1, tracker.getLowWatermark());
+    }
+}
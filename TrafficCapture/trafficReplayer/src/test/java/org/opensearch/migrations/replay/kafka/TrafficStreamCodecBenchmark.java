@@ -0,0 +1,203 @@
+package org.opensearch.migrations.replay.kafka;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.opensearch.migrations.trafficcapture.protos.ReadObservation;
+import org.opensearch.migrations.trafficcapture.protos.TrafficObservation;
+import org.opensearch.migrations.trafficcapture.protos.TrafficStream;
+import org.opensearch.migrations.trafficcapture.protos.TrafficStreamCodec;
+import org.opensearch.migrations.trafficcapture.protos.WriteObservation;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Timestamp;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures what each TrafficStreamCodec costs and saves on a megabyte of TrafficStreams that look like indexing
+ * and search traffic, each holding one request and its response.  Since every operation encodes or decodes that
+ * whole megabyte, the scores are the milliseconds of CPU per MB of uncompressed records.  The compression ratio
+ * of each codec is printed when its trial is set up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class TrafficStreamCodecBenchmark {
+    private static final int CORPUS_BYTES = 1024 * 1024;
+    private static final String[] LEVELS = { "INFO", "WARN", "ERROR", "DEBUG" };
+    private static final String[] SERVICES = { "checkout", "payments", "search", "inventory", "auth" };
+
+    @Param({"NONE", "DEFLATE", "DEFLATE_WITH_HTTP_DICTIONARY"})
+    public TrafficStreamCodec codec;
+
+    private TrafficStreamCodec.Encoder encoder;
+    private TrafficStreamCodec.Decoder decoder;
+    private List<byte[]> serializedTrafficStreams;
+    private List<byte[]> records;
+    private double compressionRatio;
+
+    private static String makeBulkRequest(Random random) {
+        var body = new StringBuilder();
+        var numDocs = 1 + random.nextInt(20);
+        for (int i = 0; i < numDocs; ++i) {
+            body.append("{\"index\":{\"_index\":\"logs-2024.06.")
+                .append(10 + random.nextInt(20))
+                .append("\",\"_id\":\"")
+                .append(Long.toHexString(random.nextLong()))
+                .append("\"}}\n{\"@timestamp\":\"2024-06-12T10:")
+                .append(10 + random.nextInt(50))
+                .append(":")
+                .append(10 + random.nextInt(50))
+                .append(".")
+                .append(100 + random.nextInt(900))
+                .append("Z\",\"level\":\"")
+                .append(LEVELS[random.nextInt(LEVELS.length)])
+                .append("\",\"service\":{\"name\":\"")
+                .append(SERVICES[random.nextInt(SERVICES.length)])
+                .append("\"},\"host\":{\"ip\":\"10.0.")
+                .append(random.nextInt(256))
+                .append(".")
+                .append(random.nextInt(256))
+                .append("\"},\"message\":\"request ")
+                .append(random.nextInt(1_000_000))
+                .append(" finished in ")
+                .append(random.nextInt(5000))
+                .append("ms\"}\n");
+        }
+        return "POST /_bulk HTTP/1.1\r\nHost: search-cluster:9200\r\nContent-Type: application/x-ndjson\r\n"
+            + "User-Agent: opensearch-py/2.4.2\r\nContent-Length: " + body.length() + "\r\n\r\n" + body;
+    }
+
+    private static String makeSearchRequest(Random random) {
+        var body = "{\"query\":{\"bool\":{\"filter\":[{\"term\":{\"service.name\":\""
+            + SERVICES[random.nextInt(SERVICES.length)]
+            + "\"}},{\"range\":{\"@timestamp\":{\"gte\":\"now-"
+            + (1 + random.nextInt(60))
+            + "m\"}}}]}},\"size\":"
+            + (10 * (1 + random.nextInt(10)))
+            + ",\"sort\":[{\"@timestamp\":{\"order\":\"desc\"}}]}";
+        return "POST /logs-*/_search HTTP/1.1\r\nHost: search-cluster:9200\r\nContent-Type: application/json\r\n"
+            + "Content-Length: " + body.length() + "\r\n\r\n" + body;
+    }
+
+    private static String makeResponse(Random random) {
+        var body = "{\"took\":" + random.nextInt(100) + ",\"errors\":false,\"items\":[]}";
+        return "HTTP/1.1 200 OK\r\ncontent-type: application/json; charset=UTF-8\r\ncontent-length: "
+            + body.length() + "\r\n\r\n" + body;
+    }
+
+    private static TrafficObservation.Builder makeObservation(long nanos) {
+        return TrafficObservation.newBuilder()
+            .setTs(Timestamp.newBuilder()
+                .setSeconds(1718186400L + nanos / 1_000_000_000)
+                .setNanos((int) (nanos % 1_000_000_000)));
+    }
+
+    static List<byte[]> makeCorpus() {
+        var random = new Random(1);
+        var corpus = new ArrayList<byte[]>();
+        var totalBytes = 0;
+        for (int i = 0; totalBytes < CORPUS_BYTES; ++i) {
+            var request = random.nextInt(4) == 0 ? makeSearchRequest(random) : makeBulkRequest(random);
+            var nanos = random.nextLong() & Long.MAX_VALUE;
+            var trafficStream = TrafficStream.newBuilder()
+                .setConnectionId(String.format("0242acfffe110003-%08x-00000002-%016x", i / 10, random.nextLong()))
+                .setNodeId("capture-proxy-1")
+                .setNumber(i % 10)
+                .addSubStream(makeObservation(nanos)
+                    .setRead(ReadObservation.newBuilder()
+                        .setData(ByteString.copyFrom(request, StandardCharsets.UTF_8))))
+                .addSubStream(makeObservation(nanos + 1_000_000)
+                    .setWrite(WriteObservation.newBuilder()
+                        .setData(ByteString.copyFrom(makeResponse(random), StandardCharsets.UTF_8))))
+                .build()
+                .toByteArray();
+            corpus.add(trafficStream);
+            totalBytes += trafficStream.length;
+        }
+        return corpus;
+    }
+
+    @Setup
+    public void setUp() {
+        encoder = codec.newEncoder();
+        decoder = new TrafficStreamCodec.Decoder();
+        serializedTrafficStreams = makeCorpus();
+        records = encodeAll();
+        var uncompressedBytes = serializedTrafficStreams.stream().mapToLong(r -> r.length).sum();
+        var encodedBytes = records.stream().mapToLong(r -> r.length).sum();
+        compressionRatio = (double) encodedBytes / uncompressedBytes;
+        System.out.printf("%n%s: %d records, %d bytes -> %d bytes (%.1f%% of the original size)%n",
+            codec, records.size(), uncompressedBytes, encodedBytes, 100 * compressionRatio);
+    }
+
+    @TearDown
+    public void tearDown() {
+        encoder.close();
+        decoder.close();
+    }
+
+    private List<byte[]> encodeAll() {
+        var encoded = new ArrayList<byte[]>(serializedTrafficStreams.size());
+        for (var serialized : serializedTrafficStreams) {
+            encoded.add(encoder.encode(ByteBuffer.wrap(serialized)));
+        }
+        return encoded;
+    }
+
+    @Benchmark
+    public List<byte[]> encodeOneMegabyte() {
+        return encodeAll();
+    }
+
+    @Benchmark
+    public void decodeOneMegabyte(Blackhole blackhole) throws Exception {
+        for (var record : records) {
+            blackhole.consume(decoder.decode(record));
+        }
+    }
+
+    @Test
+    void everyCodecRoundTripsTheCorpusAndTheDictionaryHelps() throws Exception {
+        var ratios = new ArrayList<Double>();
+        for (var c : TrafficStreamCodec.values()) {
+            codec = c;
+            setUp();
+            try {
+                for (int i = 0; i < records.size(); ++i) {
+                    assertEquals(
+                        TrafficStream.parseFrom(serializedTrafficStreams.get(i)),
+                        decoder.decode(records.get(i))
+                    );
+                }
+            } finally {
+                tearDown();
+            }
+            ratios.add(compressionRatio);
+        }
+        assertEquals(1.0, ratios.get(0));
+        assertTrue(ratios.get(1) < 1.0);
+        assertTrue(ratios.get(2) < ratios.get(1));
+    }
+}
@@ -0,0 +1,180 @@
+package org.opensearch.migrations.replay.tuples;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.opensearch.migrations.replay.AggregatedRawResponse;
+import org.opensearch.migrations.replay.ParsedHttpMessagesAsDicts;
+import org.opensearch.migrations.replay.RequestResponsePacketPair;
+import org.opensearch.migrations.replay.ResultsToLogsConsumer;
+import org.opensearch.migrations.replay.SourceTargetCaptureTuple;
+import org.opensearch.migrations.replay.TransformedTargetRequestAndResponseList;
+import org.opensearch.migrations.replay.datatypes.ByteBufList;
+import org.opensearch.migrations.replay.datatypes.HttpRequestTransformationStatus;
+import org.opensearch.migrations.replay.datatypes.PojoTrafficStreamKeyAndContext;
+import org.opensearch.migrations.testutils.WrapWithNettyLeakDetection;
+import org.opensearch.migrations.tracing.InstrumentationTest;
+import org.opensearch.migrations.tracing.TestContext;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.slf4j.helpers.NOPLogger;
+
+@WrapWithNettyLeakDetection(repetitions = 2)
+class BinaryTupleFileWriterTest extends InstrumentationTest {
+    private static final int NUM_TUPLES = 5;
+    private static final String RESPONSE_STRING = "HTTP/1.1 200 OK\r\n"
+        + "Content-type: text/plain\r\n"
+        + "Content-length: 30\r\n"
+        + "\r\n"
+        + "I should be decrypted tester!\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Override
+    protected TestContext makeInstrumentationContext() {
+        return TestContext.withTracking(false, true);
+    }
+
+    private static byte[] loadResourceAsBytes(String path) throws IOException {
+        try (InputStream inputStream = BinaryTupleFileWriterTest.class.getResourceAsStream(path)) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    private SourceTargetCaptureTuple makeTuple(int i) throws IOException {
+        if (i % 2 == 1) {
+            // a tuple without source packets or target responses, that only has an error
+            return new SourceTargetCaptureTuple(
+                rootContext.getTestTupleContext("c" + i, i),
+                null,
+                new TransformedTargetRequestAndResponseList(null, HttpRequestTransformationStatus.skipped()),
+                new Exception("error for tuple " + i)
+            );
+        }
+        var trafficStreamKey = PojoTrafficStreamKeyAndContext.build(
+            TestContext.TEST_NODE_ID,
+            "c" + i,
+            0,
+            rootContext::createTrafficStreamContextForTest
+        );
+        var sourcePair = new RequestResponsePacketPair(trafficStreamKey, Instant.EPOCH, 0, i);
+        var rawRequestData = loadResourceAsBytes("/requests/raw/get_withAuthHeader.txt");
+        sourcePair.addRequestData(Instant.EPOCH, rawRequestData);
+        sourcePair.addResponseData(
+            Instant.EPOCH.plusMillis(12),
+            RESPONSE_STRING.getBytes(StandardCharsets.UTF_8)
+        );
+
+        var targetRequest = new ByteBufList();
+        var targetRequestBuf = Unpooled.wrappedBuffer(rawRequestData);
+        targetRequest.add(targetRequestBuf);
+        targetRequestBuf.release();
+        var targetResponse = new ArrayList<AbstractMap.SimpleEntry<Instant, byte[]>>();
+        targetResponse.add(new AbstractMap.SimpleEntry<>(
+            Instant.now(),
+            RESPONSE_STRING.getBytes(StandardCharsets.UTF_8)
+        ));
+        var targetResults = new TransformedTargetRequestAndResponseList(
+            targetRequest,
+            HttpRequestTransformationStatus.completed(),
+            new AggregatedRawResponse(null, 13, Duration.ofMillis(267), targetResponse, null)
+        );
+        return new SourceTargetCaptureTuple(
+            sourcePair.getHttpTransactionContext().createTupleContext(),
+            sourcePair,
+            targetResults,
+            null
+        );
+    }
+
+    private List<String> writeTuplesAndGetExpectedJson(BinaryTupleFileWriter writer, ResultsToLogsConsumer consumer)
+        throws Exception {
+        var expectedLines = new ArrayList<String>();
+        for (int i = 0; i < NUM_TUPLES; ++i) {
+            try (var tuple = makeTuple(i); var tupleContext = tuple.context) {
+                expectedLines.add(consumer.toTransformedJsonString(tuple, new ParsedHttpMessagesAsDicts(tuple)));
+                writer.accept(tuple);
+            }
+        }
+        writer.close();
+        Assertions.assertEquals(NUM_TUPLES, writer.getRecordsWritten().get());
+        return expectedLines;
+    }
+
+    private List<String> convertToJson(List<Path> files, ResultsToLogsConsumer consumer) throws IOException {
+        var output = new StringWriter();
+        for (var file : files) {
+            BinaryTupleFilesToJson.convert(file, new TupleRecordCodec(rootContext), consumer, output);
+        }
+        return output.toString().lines().collect(Collectors.toList());
+    }
+
+    @Test
+    @ResourceLock("TestContext")
+    public void testConvertedTuplesMatchWhatWouldHaveBeenLogged() throws Exception {
+        var consumer = new ResultsToLogsConsumer(NOPLogger.NOP_LOGGER, NOPLogger.NOP_LOGGER, null);
+        // a limit this small puts every block in its own file
+        var writer = new BinaryTupleFileWriter(tempDir, 1, 16, 2);
+        var expectedLines = writeTuplesAndGetExpectedJson(writer, consumer);
+
+        var files = BinaryTupleFilesToJson.listTupleFiles(List.of(tempDir.toString()));
+        Assertions.assertTrue(files.size() > 1, "expected the output to have been rotated across files");
+        Assertions.assertEquals(expectedLines, convertToJson(files, consumer));
+    }
+
+    @Test
+    @ResourceLock("TestContext")
+    public void testTruncatedFileStillYieldsItsCompleteBlocks() throws Exception {
+        var consumer = new ResultsToLogsConsumer(NOPLogger.NOP_LOGGER, NOPLogger.NOP_LOGGER, null);
+        var writer = new BinaryTupleFileWriter(tempDir, BinaryTupleFileWriter.DEFAULT_MAX_FILE_BYTES, 16, 1);
+        var expectedLines = writeTuplesAndGetExpectedJson(writer, consumer);
+
+        var files = BinaryTupleFilesToJson.listTupleFiles(List.of(tempDir.toString()));
+        Assertions.assertEquals(1, files.size());
+        try (var channel = FileChannel.open(files.get(0), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        Assertions.assertEquals(expectedLines.subList(0, NUM_TUPLES - 1), convertToJson(files, consumer));
+    }
+
+    @Test
+    @ResourceLock("TestContext")
+    public void testBlocksAreLimitedByBytesAsWellAsRecords() throws Exception {
+        var consumer = new ResultsToLogsConsumer(NOPLogger.NOP_LOGGER, NOPLogger.NOP_LOGGER, null);
+        // a byte limit this small puts every record in a block of its own, however many records are queued
+        var writer = new BinaryTupleFileWriter(tempDir, BinaryTupleFileWriter.DEFAULT_MAX_FILE_BYTES, 16, 1024, 1);
+        var expectedLines = writeTuplesAndGetExpectedJson(writer, consumer);
+
+        var files = BinaryTupleFilesToJson.listTupleFiles(List.of(tempDir.toString()));
+        Assertions.assertEquals(1, files.size());
+        Assertions.assertEquals(expectedLines, convertToJson(files, consumer));
+        // cutting into the last block only loses the last record
+        try (var channel = FileChannel.open(files.get(0), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        Assertions.assertEquals(expectedLines.subList(0, NUM_TUPLES - 1), convertToJson(files, consumer));
+    }
+
+    @Test
+    public void testAcceptAfterCloseThrows() throws Exception {
+        var writer = new BinaryTupleFileWriter(tempDir, BinaryTupleFileWriter.DEFAULT_MAX_FILE_BYTES);
+        writer.close();
+        Assertions.assertThrows(IllegalStateException.class, () -> writer.accept(null));
+    }
+}
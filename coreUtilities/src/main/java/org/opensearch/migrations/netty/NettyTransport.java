@@ -0,0 +1,63 @@
+package org.opensearch.migrations.netty;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.function.BiFunction;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The Netty transports that the capture proxy and the replayer can accept and make connections with.  Channels
+ * have to be of the transport that their EventLoop was made for, so the channel class for a new connection is
+ * looked up from the EventLoop that it's bound to.  The native epoll transport makes fewer system calls than NIO,
+ * which matters most when there are many connections, but it's only available on Linux when Netty's native
+ * library could be loaded.
+ */
+@Slf4j
+@AllArgsConstructor
+public enum NettyTransport {
+    NIO(NioEventLoopGroup::new, NioServerSocketChannel.class, NioSocketChannel.class),
+    EPOLL(EpollEventLoopGroup::new, EpollServerSocketChannel.class, EpollSocketChannel.class);
+
+    private final BiFunction<Integer, ThreadFactory, EventLoopGroup> eventLoopGroupFactory;
+    @Getter
+    private final Class<? extends ServerSocketChannel> serverSocketChannelClass;
+    @Getter
+    private final Class<? extends SocketChannel> socketChannelClass;
+
+    /**
+     * @param preferNative when true, use the native transport if it's available on this host, otherwise use NIO
+     */
+    public static NettyTransport choose(boolean preferNative) {
+        if (!preferNative) {
+            return NIO;
+        }
+        if (Epoll.isAvailable()) {
+            log.atInfo().setMessage("Using the native epoll transport").log();
+            return EPOLL;
+        }
+        log.atWarn().setCause(Epoll.unavailabilityCause())
+            .setMessage("The native epoll transport isn't available.  Falling back to NIO.").log();
+        return NIO;
+    }
+
+    public static NettyTransport forEventLoop(EventLoop eventLoop) {
+        return eventLoop.parent() instanceof EpollEventLoopGroup ? EPOLL : NIO;
+    }
+
+    public EventLoopGroup newEventLoopGroup(int numThreads, ThreadFactory threadFactory) {
+        return eventLoopGroupFactory.apply(numThreads, threadFactory);
+    }
+}
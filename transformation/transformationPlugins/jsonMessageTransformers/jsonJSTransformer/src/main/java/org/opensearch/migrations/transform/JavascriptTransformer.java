@@ -3,7 +3,6 @@ package org.opensearch.migrations.transform;
 import java.io.ByteArrayOutputStream;
 import java.io.FilterOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.concurrent.CompletableFuture;
@@ -12,12 +11,9 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Engine;
-import org.graalvm.polyglot.HostAccess;
-import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
 import org.graalvm.polyglot.proxy.ProxyExecutable;
 import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.slf4j.event.Level;
 
 /**
@@ -34,51 +30,62 @@ import org.slf4j.event.Level;
  */
 @Slf4j
 public class JavascriptTransformer implements IJsonTransformer {
-    private static final String JS_TRANSFORM_LOGGER_NAME = "JavascriptTransformer";
     private Value mainJavascriptTransformFunction;
 
+    private final SharedJavascriptEngine.ScriptContext scriptContext;
     private final Context polyglotContext;
-    private final OutputStream infoStream;
-    private final OutputStream errorStream;
+    private final boolean parseJsonInScript;
+    private boolean closed;
 
     public JavascriptTransformer(String script,
                                  Object context) {
-        var sourceCode = Source.create("js", script);
-        var engine = Engine.newBuilder("js")
-            .option("engine.WarnInterpreterOnly", "false")
-            .build();
-        var builder = Context.newBuilder()
-            .engine(engine)
-            .allowHostAccess(HostAccess.newBuilder()
-                .allowAccessAnnotatedBy(HostAccess.Export.class)
-                .allowArrayAccess(true)
-                .allowMapAccess(true)
-                .allowListAccess(true)
-                .allowIterableAccess(true)
-                .allowBufferAccess(true) // Support replayer binary data buffer
-                .build());
-        var jsLogger = LoggerFactory.getLogger(JS_TRANSFORM_LOGGER_NAME);
-        this.infoStream = new LoggingOutputStream(jsLogger, Level.INFO);
-        this.errorStream = new LoggingOutputStream(jsLogger, Level.ERROR);
-        this.polyglotContext = builder
-                .out(infoStream)
-                .err(errorStream)
-                .build();
-        var sourceCodeValue = this.polyglotContext.eval(sourceCode);
-        if (context != null) {
-            var convertedContextObject = convertObject(context, this.polyglotContext);
-            this.mainJavascriptTransformFunction = sourceCodeValue.execute(convertedContextObject);
-        } else {
-            this.mainJavascriptTransformFunction = sourceCodeValue;
+        this(script, context, false);
+    }
+
+    /**
+     * The script is run in a Context of its own on a GraalVM Engine that's shared across the process, so a script
+     * that's used by many transformers is only parsed and compiled once.  See SharedJavascriptEngine.
+     *
+     * @param parseJsonInScript when true, callers that have JSON text are asked to pass it to
+     *                          transformSerializedJson() so that it's parsed and serialized inside the script's
+     *                          Context.  See that method for how this can change numbers.
+     */
+    public JavascriptTransformer(String script,
+                                 Object context,
+                                 boolean parseJsonInScript) {
+        this.parseJsonInScript = parseJsonInScript;
+        this.scriptContext = SharedJavascriptEngine.INSTANCE.newContext(script);
+        this.polyglotContext = scriptContext.getContext();
+        var sourceCodeValue = scriptContext.getEvaluatedScript();
+        try {
+            if (context != null) {
+                var convertedContextObject = convertObject(context, this.polyglotContext);
+                this.mainJavascriptTransformFunction = sourceCodeValue.execute(convertedContextObject);
+            } else {
+                this.mainJavascriptTransformFunction = sourceCodeValue;
+            }
+        } catch (RuntimeException e) {
+            scriptContext.close();
+            throw e;
         }
     }
 
+    /**
+     * Closes this transformer's Context.  Values that this transformer returned must not be used after it has
+     * been closed.
+     */
     @Override
     public void close() throws Exception {
+        if (closed) {
+            return;
+        }
+        closed = true;
         this.mainJavascriptTransformFunction = null;
-        this.polyglotContext.close();
-        this.infoStream.close();
-        this.errorStream.close();
+        scriptContext.close();
+    }
+
+    Engine getEngine() {
+        return polyglotContext.getEngine();
     }
 
     @SneakyThrows
@@ -92,6 +99,25 @@ public class JavascriptTransformer implements IJsonTransformer {
         return transformJsonFuture(incomingJson).get();
     }
 
+    @Override
+    public boolean prefersSerializedJson() {
+        return parseJsonInScript;
+    }
+
+    /**
+     * Parses the JSON text with JSON.parse inside the script's Context, passes it to the transform function, and
+     * serializes the result with JSON.stringify, so that the script never reaches back into Java objects.  JSON
+     * objects are passed to the script as Maps whose entries can also be used as properties, like the Java Maps
+     * that transformJson() passes in.  Since all numbers are parsed as doubles, integers beyond 2^53 lose
+     * precision and numbers like 1.0 are written back as 1.
+     */
+    @Override
+    @SneakyThrows
+    public String transformSerializedJson(String serializedJson) {
+        var result = scriptContext.getSerializedJsonBridge().execute(mainJavascriptTransformFunction, serializedJson);
+        return this.<String>fromPromise(result).get();
+    }
+
     public static class LoggingOutputStream extends FilterOutputStream {
         private final Logger logger;
         private final Level level;
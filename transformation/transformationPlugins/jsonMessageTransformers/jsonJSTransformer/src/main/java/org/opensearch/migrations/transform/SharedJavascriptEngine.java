@@ -0,0 +1,135 @@
+package org.opensearch.migrations.transform;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.io.Resources;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+/**
+ * Lets every JavascriptTransformer in the process share one GraalVM Engine.  Contexts that are made from the
+ * same Engine share its code cache, so a script is only parsed once and the code that the JIT compiles for it
+ * is used by every Context that runs it, rather than each transformer warming up its own copy.<br><br>
+ *
+ * Each transformer still gets a new Context, in which the script's cached Source is evaluated again, so that
+ * globals and other top-level state that one transformer's script sets up are never seen by another.
+ */
+@Slf4j
+class SharedJavascriptEngine {
+    private static final String JS_TRANSFORM_LOGGER_NAME = "JavascriptTransformer";
+    private static final String SERIALIZED_JSON_BRIDGE_RESOURCE_NAME = "js/serializedJsonBridge.js";
+    private static final int MAX_CACHED_SOURCES = 64;
+
+    private static final class EngineHolder {
+        private static final Engine ENGINE = Engine.newBuilder("js")
+            .option("engine.WarnInterpreterOnly", "false")
+            .build();
+    }
+
+    private static final class SerializedJsonBridgeHolder {
+        private static final Source SOURCE = loadSerializedJsonBridge();
+
+        private static Source loadSerializedJsonBridge() {
+            try {
+                var script = Resources.toString(Resources.getResource(SERIALIZED_JSON_BRIDGE_RESOURCE_NAME),
+                    StandardCharsets.UTF_8);
+                return Source.newBuilder("js", script, SERIALIZED_JSON_BRIDGE_RESOURCE_NAME).buildLiteral();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    static final SharedJavascriptEngine INSTANCE = new SharedJavascriptEngine();
+
+    /**
+     * A new Context on the shared Engine and the value that its script evaluated to
+     */
+    static class ScriptContext implements AutoCloseable {
+        @Getter
+        private final Context context;
+        @Getter
+        private final Value evaluatedScript;
+        private final OutputStream infoStream;
+        private final OutputStream errorStream;
+        private Value serializedJsonBridge;
+
+        private ScriptContext(Source source) {
+            var jsLogger = LoggerFactory.getLogger(JS_TRANSFORM_LOGGER_NAME);
+            this.infoStream = new JavascriptTransformer.LoggingOutputStream(jsLogger, Level.INFO);
+            this.errorStream = new JavascriptTransformer.LoggingOutputStream(jsLogger, Level.ERROR);
+            this.context = Context.newBuilder()
+                .engine(EngineHolder.ENGINE)
+                .allowHostAccess(HostAccess.newBuilder()
+                    .allowAccessAnnotatedBy(HostAccess.Export.class)
+                    .allowArrayAccess(true)
+                    .allowMapAccess(true)
+                    .allowListAccess(true)
+                    .allowIterableAccess(true)
+                    .allowBufferAccess(true) // Support replayer binary data buffer
+                    .build())
+                .out(infoStream)
+                .err(errorStream)
+                .build();
+            try {
+                this.evaluatedScript = context.eval(source);
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        /**
+         * @return a function of a transform function and JSON text that parses the text, transforms it, and
+         * returns the result as JSON text, all within this Context.  It's only evaluated the first time it's used.
+         */
+        Value getSerializedJsonBridge() {
+            if (serializedJsonBridge == null) {
+                serializedJsonBridge = context.eval(SerializedJsonBridgeHolder.SOURCE);
+            }
+            return serializedJsonBridge;
+        }
+
+        /**
+         * Closes the Context.  It must not be in use by any thread.
+         */
+        @Override
+        public void close() {
+            try {
+                context.close();
+                infoStream.close();
+                errorStream.close();
+            } catch (Exception e) {
+                log.atWarn().setCause(e).setMessage("Error while closing a javascript context").log();
+            }
+        }
+    }
+
+    // Keyed by the script's text.  Only the most recently used scripts are kept, so that a process that makes
+    // transformers from many different scripts doesn't hold onto every one of them.  A script whose Source has
+    // been evicted is simply parsed again the next time that a Context is made for it.
+    private final LoadingCache<String, Source> sources = CacheBuilder.newBuilder()
+        .maximumSize(MAX_CACHED_SOURCES)
+        .build(CacheLoader.from(script -> Source.create("js", script)));
+
+    /**
+     * @return a new Context in which the script has already been evaluated.  The script's Source is reused while
+     * it's cached, so every Context that evaluates it uses the code that the Engine has already cached for it.
+     */
+    ScriptContext newContext(String script) {
+        return new ScriptContext(sources.getUnchecked(script));
+    }
+}
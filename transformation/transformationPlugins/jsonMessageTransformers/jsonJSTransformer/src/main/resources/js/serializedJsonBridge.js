@@ -0,0 +1,55 @@
+// Runs a transform function over a value that's handed in as JSON text, parsing it and serializing the result
+// without leaving the JavaScript context, so that reading and changing the documents never calls back into Java.
+//
+// Scripts are written against the Java Maps that transformJson() passes in.  Those behave like JavaScript Maps whose
+// entries can also be read, written and deleted as properties (e.g. doc.index as well as doc.get('index')), so the
+// objects parsed here are Maps behind a Proxy that does the same.  Keys that name a Map member, like 'size' or
+// 'keys', have to be read with get().
+(() => {
+    const mapEntriesAsProperties = {
+        get(map, key) {
+            if (typeof key === 'symbol' || key in map) {
+                const value = map[key];
+                // Map methods only work on the Map itself, not on its Proxy
+                return typeof value === 'function' ? value.bind(map) : value;
+            }
+            return map.get(key);
+        },
+        set(map, key, value) {
+            map.set(key, value);
+            return true;
+        },
+        has(map, key) {
+            return map.has(key);
+        },
+        deleteProperty(map, key) {
+            map.delete(key);
+            return true;
+        },
+        ownKeys(map) {
+            return [...map.keys()];
+        },
+        getOwnPropertyDescriptor(map, key) {
+            return map.has(key)
+                ? { value: map.get(key), writable: true, enumerable: true, configurable: true }
+                : undefined;
+        }
+    };
+
+    // JSON.parse revives the innermost values first, so nested objects are already Maps when their parent is
+    const objectsToMaps = (key, value) =>
+        (value !== null && typeof value === 'object' && !Array.isArray(value))
+            ? new Proxy(new Map(Object.entries(value)), mapEntriesAsProperties)
+            : value;
+
+    const mapsToObjects = (key, value) => (value instanceof Map) ? Object.fromEntries(value) : value;
+
+    const serialize = (result) => JSON.stringify(result, mapsToObjects);
+
+    return (transform, serializedJson) => {
+        const result = transform(JSON.parse(serializedJson, objectsToMaps));
+        return (result !== null && typeof result === 'object' && typeof result.then === 'function')
+            ? result.then(serialize)
+            : serialize(result);
+    };
+})()
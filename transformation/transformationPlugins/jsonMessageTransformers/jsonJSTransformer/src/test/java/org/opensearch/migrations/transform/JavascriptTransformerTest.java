@@ -1,11 +1,14 @@
 package org.opensearch.migrations.transform;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import lombok.extern.slf4j.Slf4j;
+import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.HostAccess;
 import org.graalvm.polyglot.PolyglotException;
 import org.junit.jupiter.api.Assertions;
@@ -251,4 +254,90 @@ public class JavascriptTransformerTest {
             Assertions.assertEquals(RuntimeException.class, exception.getCause().getClass());
         }
     }
+
+    @Test
+    public void testGlobalsDoNotLeakBetweenTransformers() throws Exception {
+        var script = "globalThis.transformersMade = (globalThis.transformersMade || 0) + 1;\n" +
+            "let calls = 0;\n" +
+            "((bindings) => (doc) => bindings.get('name') + ':' + transformersMade + ':' + (++calls))";
+
+        var first = new JavascriptTransformer(script, Map.of("name", "first"));
+        Assertions.assertEquals("first:1:1", first.transformJson(Map.of()));
+        Assertions.assertEquals("first:1:2", first.transformJson(Map.of()));
+        try (var second = new JavascriptTransformer(script, Map.of("name", "second"))) {
+            Assertions.assertEquals("second:1:1", second.transformJson(Map.of()));
+        }
+        first.close();
+        first.close();
+
+        try (var third = new JavascriptTransformer(script, Map.of("name", "third"))) {
+            Assertions.assertEquals("third:1:1", third.transformJson(Map.of()));
+        }
+    }
+
+    @Test
+    public void testScriptsThatFailToInitializeDoNotAffectLaterTransformers() throws Exception {
+        var script = "globalThis.initialized = (globalThis.initialized || 0) + 1;\n" +
+            "((bindings) => { if (bindings.get('fail')) { throw new Error('bad bindings'); }" +
+            " return (doc) => initialized; })";
+        Assertions.assertThrows(RuntimeException.class,
+            () -> new JavascriptTransformer(script, Map.of("fail", true)));
+        try (var transformer = new JavascriptTransformer(script, Map.of("fail", false))) {
+            Assertions.assertEquals(1, ((Number) transformer.transformJson(Map.of())).intValue());
+        }
+    }
+
+    @Test
+    public void testTransformersOnManyThreadsShareTheEngine() throws Exception {
+        var script = "((bindings) => (doc) => doc.get('n') * bindings.get('factor'))";
+        var threads = new ArrayList<Thread>();
+        var failures = new ConcurrentLinkedQueue<Throwable>();
+        var engines = new ConcurrentLinkedQueue<Engine>();
+        for (int t = 0; t < 4; ++t) {
+            var factor = t;
+            var thread = new Thread(() -> {
+                try (var transformer = new JavascriptTransformer(script, Map.of("factor", factor))) {
+                    engines.add(transformer.getEngine());
+                    for (int i = 0; i < 100; ++i) {
+                        var result = (Number) transformer.transformJson(Map.of("n", i));
+                        Assertions.assertEquals(i * factor, result.intValue());
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(List.of(), List.copyOf(failures));
+        Assertions.assertEquals(4, engines.size());
+        var sharedEngine = engines.peek();
+        engines.forEach(engine -> Assertions.assertSame(sharedEngine, engine));
+    }
+
+    @Test
+    public void testSerializedJsonIsTransformedAsMaps() throws Exception {
+        var script = "((bindings) => (docs) => docs.map(doc => {" +
+            "  if (!(doc instanceof Map) || !doc.has('index')) { throw new Error('expected a map'); }" +
+            "  doc.index.set('_index', bindings.get('target'));" +
+            "  doc.index.delete('_type');" +
+            "  doc.source.count = doc.get('source').get('count') + doc.source.size;" +
+            "  return doc;" +
+            "}))";
+        var serializedJson = "[{\"index\":{\"_id\":\"1\",\"_type\":\"t\",\"_index\":\"a\"}," +
+            "\"source\":{\"count\":1,\"tags\":[\"x\",{\"y\":null}]}}]";
+
+        try (var testTransformer = new JavascriptTransformer(script, Map.of("target", "b"), true)) {
+            Assertions.assertTrue(testTransformer.prefersSerializedJson());
+            Assertions.assertEquals("[{\"index\":{\"_id\":\"1\",\"_index\":\"b\"}," +
+                    "\"source\":{\"count\":3,\"tags\":[\"x\",{\"y\":null}]}}]",
+                testTransformer.transformSerializedJson(serializedJson));
+        }
+        try (var testTransformer = new JavascriptTransformer(script, Map.of("target", "b"))) {
+            Assertions.assertFalse(testTransformer.prefersSerializedJson());
+        }
+    }
 }
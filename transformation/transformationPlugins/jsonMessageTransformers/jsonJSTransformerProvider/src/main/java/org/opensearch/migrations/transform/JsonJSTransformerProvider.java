@@ -11,6 +11,7 @@ public class JsonJSTransformerProvider implements IJsonTransformerProvider {
 
     public static final String INITIALIZATION_SCRIPT_KEY = "initializationScript";
     public static final String BINDINGS_OBJECT = "bindingsObject";
+    public static final String PARSE_JSON_IN_SCRIPT_KEY = "parseJsonInScript";
 
     /**
      * Validates and retrieves a configuration map, ensuring it contains required keys.
@@ -39,6 +40,17 @@ public class JsonJSTransformerProvider implements IJsonTransformerProvider {
         return config;
     }
 
+    /**
+     * @return whether the optional PARSE_JSON_IN_SCRIPT_KEY was set to true
+     */
+    protected boolean isParseJsonInScript(Map<String, Object> config) {
+        var value = config.get(PARSE_JSON_IN_SCRIPT_KEY);
+        if (value == null || value instanceof Boolean) {
+            return Boolean.TRUE.equals(value);
+        }
+        throw new IllegalArgumentException(PARSE_JSON_IN_SCRIPT_KEY + " must be a boolean." + getConfigUsageStr());
+    }
+
     /**
      * Generates a usage string for configuration.
      *
@@ -51,7 +63,9 @@ public class JsonJSTransformerProvider implements IJsonTransformerProvider {
             " a main function which takes in the " + BINDINGS_OBJECT + " and returns a transform function which takes in a json object and returns the transformed object." +
             BINDINGS_OBJECT + " is a value which can be deserialized with Jackson ObjectMapper into a Map, List, Array," +
             " or primitive type/wrapper and when passed as an argument into " +
-            "the function returned by the " + INITIALIZATION_SCRIPT_KEY + " will give the transform function.";
+            "the function returned by the " + INITIALIZATION_SCRIPT_KEY + " will give the transform function.  " +
+            "The optional " + PARSE_JSON_IN_SCRIPT_KEY + " (boolean) asks callers that have documents as JSON text " +
+            "to let the script parse and serialize them, which is faster but turns every number into a double.";
     }
 
     @SneakyThrows
@@ -74,6 +88,6 @@ public class JsonJSTransformerProvider implements IJsonTransformerProvider {
             throw new IllegalArgumentException(INITIALIZATION_SCRIPT_KEY + " must be provided." + getConfigUsageStr());
         }
 
-        return new JavascriptTransformer(script, bindingsObject);
+        return new JavascriptTransformer(script, bindingsObject, isParseJsonInScript(config));
     }
 }
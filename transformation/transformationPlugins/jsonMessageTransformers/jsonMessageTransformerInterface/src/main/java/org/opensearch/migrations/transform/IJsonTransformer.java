@@ -5,8 +5,65 @@ package org.opensearch.migrations.transform;
  * JSON object.  Any changes to datastructures, nesting, order, etc should be intentional.
  */
 public interface IJsonTransformer extends AutoCloseable {
+    /**
+     * The parts of an HTTP message, as a map with the keys from JsonKeysForHttpMessage, that a
+     * transformer may read or change.
+     */
+    enum MessageParts {
+        /** The method, URI, protocol, and headers, but never the payload */
+        HEADERS,
+        /** The payload, but nothing else */
+        PAYLOAD,
+        HEADERS_AND_PAYLOAD,
+        /** Not declared, so any part of the message may be read or changed */
+        UNDECLARED;
+
+        public boolean mayAccessPayload() {
+            return this != HEADERS;
+        }
+
+        public MessageParts union(MessageParts other) {
+            if (this == other) {
+                return this;
+            } else if (this == UNDECLARED || other == UNDECLARED) {
+                return UNDECLARED;
+            } else {
+                return HEADERS_AND_PAYLOAD;
+            }
+        }
+    }
+
     Object transformJson(Object incomingJson);
 
+    /**
+     * Declares which parts of an HTTP message this transformer uses, so that callers can skip parsing the
+     * payload for transformers that only work with headers, or skip probing for transformers that need it.
+     * Transformers that read the payload of only some messages should leave this undeclared so that callers
+     * can still find out, message by message, whether the payload is needed.
+     */
+    default MessageParts getAccessedMessageParts() {
+        return MessageParts.UNDECLARED;
+    }
+
+    /**
+     * Whether callers that already have the JSON text of what they're transforming should pass that text to
+     * transformSerializedJson() rather than building Java objects for transformJson().  Transformers that parse
+     * JSON more cheaply than they can work with Java objects, such as scripts running in a guest language, may
+     * opt into this.
+     */
+    default boolean prefersSerializedJson() {
+        return false;
+    }
+
+    /**
+     * Transforms a JSON value that's passed in and returned as JSON text.  By default, the text is parsed into Java
+     * objects, passed to transformJson(), and the result is serialized again, so this works for every transformer.
+     * Transformers that return true from prefersSerializedJson() override it with something cheaper.
+     */
+    default String transformSerializedJson(String serializedJson) {
+        return SerializedJsonMapper.transform(this, serializedJson);
+    }
+
     @Override
     default void close() throws Exception {}
 }
@@ -17,4 +17,26 @@ public class JsonCompositeTransformer implements IJsonTransformer {
         return lastOutput.get();
     }
 
+    @Override
+    public boolean prefersSerializedJson() {
+        return !jsonTransformerList.isEmpty()
+            && jsonTransformerList.stream().allMatch(IJsonTransformer::prefersSerializedJson);
+    }
+
+    @Override
+    public String transformSerializedJson(String serializedJson) {
+        var lastOutput = serializedJson;
+        for (var t : jsonTransformerList) {
+            lastOutput = t.transformSerializedJson(lastOutput);
+        }
+        return lastOutput;
+    }
+
+    @Override
+    public MessageParts getAccessedMessageParts() {
+        return jsonTransformerList.stream()
+            .map(IJsonTransformer::getAccessedMessageParts)
+            .reduce(MessageParts::union)
+            .orElse(MessageParts.HEADERS);
+    }
 }
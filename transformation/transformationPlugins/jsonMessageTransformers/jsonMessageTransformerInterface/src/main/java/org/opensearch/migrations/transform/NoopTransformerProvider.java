@@ -6,6 +6,11 @@ public class NoopTransformerProvider implements IJsonTransformerProvider {
         public Object transformJson(Object incomingJson) {
             return incomingJson;
         }
+
+        @Override
+        public MessageParts getAccessedMessageParts() {
+            return MessageParts.HEADERS;
+        }
     }
 
     @Override
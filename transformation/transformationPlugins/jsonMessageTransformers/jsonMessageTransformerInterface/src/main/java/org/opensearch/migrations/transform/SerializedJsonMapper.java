@@ -0,0 +1,24 @@
+package org.opensearch.migrations.transform;
+
+import java.io.UncheckedIOException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Parses and serializes JSON text for the default implementation of IJsonTransformer.transformSerializedJson()
+ */
+class SerializedJsonMapper {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private SerializedJsonMapper() {}
+
+    static String transform(IJsonTransformer transformer, String serializedJson) {
+        try {
+            var incomingJson = OBJECT_MAPPER.readValue(serializedJson, Object.class);
+            return OBJECT_MAPPER.writeValueAsString(transformer.transformJson(incomingJson));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
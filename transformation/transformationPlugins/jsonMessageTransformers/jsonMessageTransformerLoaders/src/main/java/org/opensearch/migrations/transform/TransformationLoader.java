@@ -140,6 +140,11 @@ public class TransformationLoader {
             }
             return incomingJson;
         }
+
+        @Override
+        public MessageParts getAccessedMessageParts() {
+            return MessageParts.HEADERS;
+        }
     }
 
     @AllArgsConstructor
@@ -157,5 +162,10 @@ public class TransformationLoader {
             }
             return incomingJson;
         }
+
+        @Override
+        public MessageParts getAccessedMessageParts() {
+            return MessageParts.HEADERS;
+        }
     }
 }
@@ -22,8 +22,22 @@ public class TypeMappingsSanitizationTransformer extends JavascriptTransformer {
         SourceProperties sourceProperties,
         Map<String, Object> featureFlags)
         throws IOException {
+        this(indexMappings, regexMappings, sourceProperties, featureFlags, false);
+    }
+
+    /**
+     * @param parseJsonInScript see {@link JavascriptTransformer#transformSerializedJson(String)}
+     */
+    public TypeMappingsSanitizationTransformer(
+        Map<String, Map<String, String>> indexMappings,
+        List<Map<String, String>> regexMappings,
+        SourceProperties sourceProperties,
+        Map<String, Object> featureFlags,
+        boolean parseJsonInScript)
+        throws IOException {
         super(getScripts(),
-            makeContext(sourceProperties, featureFlags, indexMappings, regexMappings));
+            makeContext(sourceProperties, featureFlags, indexMappings, regexMappings),
+            parseJsonInScript);
     }
 
     private static Object
@@ -34,7 +34,8 @@ public class TypeMappingSanitizationTransformerProvider extends JsonJSTransforme
                 (List<Map<String, String>>) config.get(REGEX_MAPPINGS),
                 Optional.ofNullable(config.get(SOURCE_PROPERTIES_KEY)).map(m ->
                     MAPPER.convertValue(m, SourceProperties.class)).orElse(null),
-                (Map<String, Object>) config.get(FEATURE_FLAGS));
+                (Map<String, Object>) config.get(FEATURE_FLAGS),
+                isParseJsonInScript(config));
         } catch (ClassCastException e) {
             log.error("Configuration error: {}", e.getMessage(), e);
             throw new IllegalArgumentException(getConfigUsageStr(), e);
@@ -46,12 +47,15 @@ public class TypeMappingSanitizationTransformerProvider extends JsonJSTransforme
         return this.getClass().getName() + " " +
             "expects the incoming configuration to be a Map<String, Object>, " +
             "with values (some optional) '" +
-            String.join("', '", STATIC_MAPPINGS,REGEX_MAPPINGS,FEATURE_FLAGS,SOURCE_PROPERTIES_KEY) + "'.  " +
+            String.join("', '", STATIC_MAPPINGS,REGEX_MAPPINGS,FEATURE_FLAGS,SOURCE_PROPERTIES_KEY,
+                PARSE_JSON_IN_SCRIPT_KEY) + "'.  " +
             "The value of " + STATIC_MAPPINGS + " should be a two-level map where the top-level key is the name " +
             "of a source index and that key's dictionary maps each sub-type to a specific target index.  " +
             REGEX_MAPPINGS + " (List<[Map<String, String>]) matches index names and sub-types to a target pattern.  " +
             FEATURE_FLAGS + " is a map of feature flags that may alter the behavior of the transformation." +
             SOURCE_PROPERTIES_KEY + " (required) is a nested map of the source cluster version e.g. " +
-            "{\"version\":{\"major\":7,\"minor\":10}}.";
+            "{\"version\":{\"major\":7,\"minor\":10}}.  " +
+            PARSE_JSON_IN_SCRIPT_KEY + " (boolean) lets the script parse and serialize batches of documents itself, " +
+            "which is faster but turns every number into a double, so integers beyond 2^53 lose precision.";
     }
 }